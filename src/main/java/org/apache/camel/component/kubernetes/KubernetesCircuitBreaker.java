@@ -0,0 +1,319 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.component.kubernetes;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import com.ning.http.client.AsyncHandler;
+import com.ning.http.client.HttpResponseBodyPart;
+import com.ning.http.client.HttpResponseHeaders;
+import com.ning.http.client.HttpResponseStatus;
+import com.ning.http.client.filter.FilterContext;
+import com.ning.http.client.filter.FilterException;
+import com.ning.http.client.filter.RequestFilter;
+import com.ning.http.client.ws.WebSocketUpgradeHandler;
+
+/**
+ * Stops the requests to a master for a while when it fails or answers too
+ * slowly, rather than letting every request wait for its timeout.
+ * <p/>
+ * The outcome of the last <tt>windowSize</tt> requests is kept. A request
+ * fails when it gets no answer or an answer saying the master cannot serve
+ * it (HTTP 429 and 5xx), and it is slow when its answer takes longer than
+ * <tt>slowCallDuration</tt> to start. The time to read the body is left
+ * out, as a large list or a body read as a stream says nothing of how
+ * loaded the master is. Once the window is full and either the share of
+ * failed or of slow requests reaches its threshold the breaker opens: the
+ * requests fail at once for <tt>coolDown</tt> millis. Then it is half open
+ * and lets a single request through as a probe, closing again if it goes
+ * well and opening for another cool-down if not.
+ * <p/>
+ * Like the {@link KubernetesRateLimiter} the breaker is a request filter of
+ * the HTTP clients of a master, through its {@link KubernetesMasterFilter}.
+ * Watches are not part of the window, as they last as long as they are
+ * open, but they are refused while the breaker is not closed.
+ */
+public class KubernetesCircuitBreaker implements RequestFilter {
+
+    /**
+     * The states of the breaker
+     */
+    public enum State {
+        CLOSED, OPEN, HALF_OPEN
+    }
+
+    private enum Admission {
+        REJECTED, ALLOWED, PROBE
+    }
+
+    private static final int FAILED = 1;
+    private static final int SLOW = 2;
+
+    private final String masterUrl;
+    private final int errorRate;
+    private final long slowCallDuration;
+    private final int slowCallRate;
+    private final long coolDown;
+
+    private final int[] window;
+    private int next;
+    private int recorded;
+    private int failures;
+    private int slowCalls;
+
+    private State state = State.CLOSED;
+    private long openedAt;
+    private boolean probing;
+    private long opened;
+    private long rejected;
+
+    /**
+     * @param errorRate the percentage of failed requests opening the breaker
+     * @param slowCallDuration the time in millis from which a request is
+     *            slow, or 0 to not count slow requests
+     * @param slowCallRate the percentage of slow requests opening the breaker
+     */
+    public KubernetesCircuitBreaker(String masterUrl, int windowSize, int errorRate, long slowCallDuration,
+            int slowCallRate, long coolDown) {
+        if (windowSize < 1) {
+            throw new IllegalArgumentException("The circuit breaker window size must be at least 1");
+        }
+        if (errorRate < 1 || errorRate > 100 || slowCallRate < 1 || slowCallRate > 100) {
+            throw new IllegalArgumentException("The circuit breaker rates must be percentages between 1 and 100");
+        }
+        this.masterUrl = masterUrl;
+        this.window = new int[windowSize];
+        this.errorRate = errorRate;
+        this.slowCallDuration = slowCallDuration;
+        this.slowCallRate = slowCallRate;
+        this.coolDown = coolDown;
+    }
+
+    @Override
+    public <T> FilterContext<T> filter(FilterContext<T> context) throws FilterException {
+        boolean watch = context.getAsyncHandler() instanceof WebSocketUpgradeHandler;
+        Admission admission = admit(watch);
+        if (admission == Admission.REJECTED) {
+            throw new FilterException("Circuit breaker for " + masterUrl + " is open, not sending "
+                    + context.getRequest().getMethod() + " " + context.getRequest().getUrl());
+        }
+        if (watch) {
+            return context;
+        }
+        return new FilterContext.FilterContextBuilder<T>(context)
+                .asyncHandler(new Observer<T>(context.getAsyncHandler(), admission == Admission.PROBE)).build();
+    }
+
+    /**
+     * Gives up a request let through by {@link #filter(FilterContext)} which
+     * is not sent after all, as a filter after the breaker refused it. The
+     * client then only tells the handler it was given, not the one of the
+     * breaker, so a probe would never complete and keep the breaker half
+     * open for good
+     */
+    public void abandon(FilterContext<?> context) {
+        if (context.getAsyncHandler() instanceof Observer) {
+            ((Observer<?>) context.getAsyncHandler()).abandon();
+        }
+    }
+
+    /**
+     * Whether a request may be sent now, counting it as the probe when the
+     * breaker is half open
+     */
+    boolean acquire(boolean watch) {
+        return admit(watch) != Admission.REJECTED;
+    }
+
+    private synchronized Admission admit(boolean watch) {
+        if (state == State.OPEN && System.currentTimeMillis() - openedAt >= coolDown) {
+            state = State.HALF_OPEN;
+            probing = false;
+        }
+        if (state == State.CLOSED) {
+            return Admission.ALLOWED;
+        }
+        if (state == State.HALF_OPEN && !watch && !probing) {
+            probing = true;
+            return Admission.PROBE;
+        }
+        rejected++;
+        return Admission.REJECTED;
+    }
+
+    /**
+     * Lets another request be the probe, the one let through not being sent
+     */
+    private synchronized void releaseProbe() {
+        if (state == State.HALF_OPEN) {
+            probing = false;
+        }
+    }
+
+    /**
+     * Records the outcome of a request let through
+     */
+    synchronized void record(boolean failed, long duration) {
+        boolean slow = slowCallDuration > 0 && duration >= slowCallDuration;
+        if (state == State.HALF_OPEN) {
+            if (probing) {
+                probing = false;
+                if (failed || slow) {
+                    open();
+                } else {
+                    close();
+                }
+            }
+            return;
+        }
+        if (state == State.OPEN) {
+            // sent before the breaker opened
+            return;
+        }
+        int outcome = (failed ? FAILED : 0) | (slow ? SLOW : 0);
+        if (recorded == window.length) {
+            int oldest = window[next];
+            failures -= oldest & FAILED;
+            slowCalls -= (oldest & SLOW) >> 1;
+        } else {
+            recorded++;
+        }
+        window[next] = outcome;
+        next = (next + 1) % window.length;
+        failures += outcome & FAILED;
+        slowCalls += (outcome & SLOW) >> 1;
+        if (recorded == window.length
+                && (failures * 100 >= errorRate * recorded || slowCalls * 100 >= slowCallRate * recorded)) {
+            open();
+        }
+    }
+
+    /**
+     * Closes the breaker, forgetting the outcomes recorded so far
+     */
+    public synchronized void close() {
+        state = State.CLOSED;
+        probing = false;
+        next = 0;
+        recorded = 0;
+        failures = 0;
+        slowCalls = 0;
+    }
+
+    private void open() {
+        state = State.OPEN;
+        openedAt = System.currentTimeMillis();
+        opened++;
+    }
+
+    public synchronized State getState() {
+        if (state == State.OPEN && System.currentTimeMillis() - openedAt >= coolDown) {
+            return State.HALF_OPEN;
+        }
+        return state;
+    }
+
+    /**
+     * The percentage of failed requests in the window
+     */
+    public synchronized double getFailureRate() {
+        return recorded > 0 ? failures * 100.0 / recorded : 0;
+    }
+
+    /**
+     * The percentage of slow requests in the window
+     */
+    public synchronized double getSlowCallRate() {
+        return recorded > 0 ? slowCalls * 100.0 / recorded : 0;
+    }
+
+    /**
+     * The number of times the breaker opened
+     */
+    public synchronized long getOpenedCount() {
+        return opened;
+    }
+
+    /**
+     * The number of requests refused while the breaker was not closed
+     */
+    public synchronized long getRejectedCount() {
+        return rejected;
+    }
+
+    /**
+     * Passes the callbacks of a request on, recording its outcome once it
+     * completes and its duration up to the headers of the answer
+     */
+    private final class Observer<T> implements AsyncHandler<T> {
+
+        private final AsyncHandler<T> delegate;
+        private final boolean probe;
+        private final long start = System.nanoTime();
+        private final AtomicBoolean done = new AtomicBoolean();
+        private volatile int statusCode;
+        private volatile long answeredAt;
+
+        private Observer(AsyncHandler<T> delegate, boolean probe) {
+            this.delegate = delegate;
+            this.probe = probe;
+        }
+
+        @Override
+        public STATE onStatusReceived(HttpResponseStatus status) throws Exception {
+            statusCode = status.getStatusCode();
+            return delegate.onStatusReceived(status);
+        }
+
+        @Override
+        public STATE onHeadersReceived(HttpResponseHeaders headers) throws Exception {
+            answeredAt = System.nanoTime();
+            return delegate.onHeadersReceived(headers);
+        }
+
+        @Override
+        public STATE onBodyPartReceived(HttpResponseBodyPart bodyPart) throws Exception {
+            return delegate.onBodyPartReceived(bodyPart);
+        }
+
+        @Override
+        public T onCompleted() throws Exception {
+            complete(statusCode == 429 || statusCode >= 500);
+            return delegate.onCompleted();
+        }
+
+        @Override
+        public void onThrowable(Throwable t) {
+            complete(true);
+            delegate.onThrowable(t);
+        }
+
+        private void abandon() {
+            if (done.compareAndSet(false, true) && probe) {
+                releaseProbe();
+            }
+        }
+
+        private void complete(boolean failed) {
+            if (done.compareAndSet(false, true)) {
+                long end = answeredAt != 0 ? answeredAt : System.nanoTime();
+                record(failed, TimeUnit.NANOSECONDS.toMillis(end - start));
+            }
+        }
+    }
+}
@@ -0,0 +1,142 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.component.kubernetes;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+import io.fabric8.kubernetes.client.DefaultKubernetesClient;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Shares one client, and so one connection pool, between the endpoints
+ * with the same connection settings. A client is created on first use and
+ * closed when the last endpoint using it stops.
+ * <p/>
+ * The clients of a master share a {@link KubernetesMasterFilter}, which
+ * holds the rate limit and circuit breaker of the master, so these settings
+ * are not part of the connection settings and every endpoint of the master
+ * goes through them.
+ */
+public class KubernetesClientRegistry {
+
+    private static final Logger LOG = LoggerFactory.getLogger(KubernetesClientRegistry.class);
+
+    private final Map<List<Object>, Entry> clients = new HashMap<List<Object>, Entry>();
+
+    private final Map<String, MasterEntry> masters = new HashMap<String, MasterEntry>();
+
+    /**
+     * The client for the connection settings of the endpoint, created if
+     * there is none yet. Every call must be matched by a call to
+     * {@link #release(DefaultKubernetesClient)}
+     *
+     * @throws IllegalArgumentException if the endpoint gives other rate limit
+     *             or circuit breaker settings than another endpoint of the
+     *             same master
+     */
+    public synchronized DefaultKubernetesClient acquire(KubernetesEndpoint endpoint) {
+        KubernetesConfiguration configuration = endpoint.getKubernetesConfiguration();
+        MasterEntry master = masters.get(configuration.getMasterUrl());
+        if (master == null) {
+            master = new MasterEntry(new KubernetesMasterFilter(configuration.getMasterUrl()));
+        }
+        master.filter.attach(configuration);
+        masters.put(configuration.getMasterUrl(), master);
+        List<Object> key = keyOf(configuration);
+        Entry entry = clients.get(key);
+        if (entry == null) {
+            entry = new Entry(endpoint.createKubernetesClient(master.filter), master);
+            clients.put(key, entry);
+        }
+        entry.references++;
+        master.references++;
+        return entry.client;
+    }
+
+    /**
+     * Gives up one use of the client, closing it if it was the last one
+     */
+    public synchronized void release(DefaultKubernetesClient client) {
+        for (Iterator<Entry> it = clients.values().iterator(); it.hasNext();) {
+            Entry entry = it.next();
+            if (entry.client == client) {
+                if (--entry.master.references == 0) {
+                    masters.remove(entry.master.filter.getMasterUrl());
+                }
+                if (--entry.references == 0) {
+                    it.remove();
+                    LOG.debug("Closing Kubernetes client for {}", client.getMasterUrl());
+                    client.close();
+                }
+                return;
+            }
+        }
+    }
+
+    /**
+     * Closes all the clients regardless of their users
+     */
+    public synchronized void clear() {
+        List<Entry> open = new ArrayList<Entry>(clients.values());
+        clients.clear();
+        masters.clear();
+        for (Entry entry : open) {
+            entry.client.close();
+        }
+    }
+
+    public synchronized int size() {
+        return clients.size();
+    }
+
+    private static List<Object> keyOf(KubernetesConfiguration configuration) {
+        return Arrays.<Object>asList(configuration.getMasterUrl(), configuration.getApiVersion(),
+                configuration.getUsername(), configuration.getPassword(), configuration.getOauthToken(),
+                configuration.getCaCertData(), configuration.getCaCertFile(), configuration.getClientCertData(),
+                configuration.getClientCertFile(), configuration.getClientKeyAlgo(), configuration.getClientKeyData(),
+                configuration.getClientKeyFile(), configuration.getClientKeyPassphrase(), configuration.getTrustCerts());
+    }
+
+    private static final class Entry {
+
+        private final DefaultKubernetesClient client;
+        private final MasterEntry master;
+        private int references;
+
+        private Entry(DefaultKubernetesClient client, MasterEntry master) {
+            this.client = client;
+            this.master = master;
+        }
+    }
+
+    private static final class MasterEntry {
+
+        private final KubernetesMasterFilter filter;
+        private int references;
+
+        private MasterEntry(KubernetesMasterFilter filter) {
+            this.filter = filter;
+        }
+    }
+}
@@ -19,6 +19,7 @@ package org.apache.camel.component.kubernetes;
 import java.util.Map;
 
 import org.apache.camel.Endpoint;
+import org.apache.camel.component.kubernetes.cache.KubernetesInformerRegistry;
 import org.apache.camel.impl.DefaultComponent;
 import org.apache.camel.util.ObjectHelper;
 
@@ -27,6 +28,10 @@ import org.apache.camel.util.ObjectHelper;
  */
 public class KubernetesComponent extends DefaultComponent {
 
+    private final KubernetesClientRegistry clientRegistry = new KubernetesClientRegistry();
+
+    private final KubernetesInformerRegistry informerRegistry = new KubernetesInformerRegistry();
+
     protected Endpoint createEndpoint(String uri, String remaining,
             Map<String, Object> parameters) throws Exception {
         KubernetesConfiguration config = new KubernetesConfiguration();
@@ -38,4 +43,25 @@ public class KubernetesComponent extends DefaultComponent {
         KubernetesEndpoint endpoint = new KubernetesEndpoint(uri, this, config);
         return endpoint;
     }
+
+    /**
+     * The clients shared by the endpoints with the same connection settings
+     */
+    public KubernetesClientRegistry getClientRegistry() {
+        return clientRegistry;
+    }
+
+    /**
+     * The informers backing the endpoints which use the cache
+     */
+    public KubernetesInformerRegistry getInformerRegistry() {
+        return informerRegistry;
+    }
+
+    @Override
+    protected void doStop() throws Exception {
+        informerRegistry.clear();
+        clientRegistry.clear();
+        super.doStop();
+    }
 }
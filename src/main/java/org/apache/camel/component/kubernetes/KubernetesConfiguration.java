@@ -18,6 +18,9 @@ package org.apache.camel.component.kubernetes;
 
 import io.fabric8.kubernetes.client.DefaultKubernetesClient;
 
+import org.apache.camel.component.kubernetes.consumer.common.CheckpointStore;
+import org.apache.camel.component.kubernetes.consumer.common.ConsumerMode;
+import org.apache.camel.component.kubernetes.consumer.common.OverflowPolicy;
 import org.apache.camel.spi.Metadata;
 import org.apache.camel.spi.UriParam;
 import org.apache.camel.spi.UriParams;
@@ -83,10 +86,127 @@ public class KubernetesConfiguration {
 
     @UriParam
     private Boolean trustCerts;
+
+    @UriParam
+    private double rateLimitQps;
+
+    @UriParam(defaultValue = "10")
+    private int rateLimitBurst = 10;
+
+    @UriParam
+    private boolean circuitBreaker;
+
+    @UriParam(defaultValue = "20")
+    private int circuitBreakerWindowSize = 20;
+
+    @UriParam(defaultValue = "50")
+    private int circuitBreakerErrorRate = 50;
+
+    @UriParam(defaultValue = "10000")
+    private long circuitBreakerSlowCallDuration = 10000;
+
+    @UriParam(defaultValue = "50")
+    private int circuitBreakerSlowCallRate = 50;
+
+    @UriParam(defaultValue = "30000")
+    private long circuitBreakerCoolDown = 30000;
     
     @UriParam(label = "consumer")
     private String namespaceName;
 
+    @UriParam(label = "consumer")
+    private String namespaceNames;
+
+    @UriParam(label = "consumer")
+    private String namespacePattern;
+
+    @UriParam(label = "consumer", defaultValue = "4")
+    private int watchPoolSize = 4;
+
+    @UriParam(label = "consumer")
+    private String labelSelector;
+
+    @UriParam(label = "consumer")
+    private String labelKey;
+
+    @UriParam(label = "consumer")
+    private String labelValue;
+
+    @UriParam(label = "consumer")
+    private String fieldSelector;
+
+    @UriParam(label = "consumer", defaultValue = "10000")
+    private int eventBufferCapacity = 10000;
+
+    @UriParam(label = "consumer")
+    private long eventBufferMaxBytes;
+
+    @UriParam(label = "consumer", defaultValue = "BLOCK")
+    private OverflowPolicy eventBufferOverflowPolicy = OverflowPolicy.BLOCK;
+
+    @UriParam(label = "consumer")
+    private boolean coalesceEvents;
+
+    @UriParam(label = "consumer", defaultValue = "1000")
+    private long watchReconnectInitialDelay = 1000;
+
+    @UriParam(label = "consumer", defaultValue = "60000")
+    private long watchReconnectMaxDelay = 60000;
+
+    @UriParam(label = "consumer")
+    private CheckpointStore checkpointStore;
+
+    @UriParam(label = "consumer")
+    private String checkpointFile;
+
+    @UriParam(label = "consumer")
+    private String checkpointKey;
+
+    @UriParam(label = "consumer", defaultValue = "POLL")
+    private ConsumerMode consumerMode = ConsumerMode.POLL;
+
+    @UriParam(label = "consumer", defaultValue = "1")
+    private int consumerPoolSize = 1;
+
+    @UriParam(label = "consumer")
+    private String buildPhases;
+
+    @UriParam
+    private boolean useCache;
+
+    @UriParam(label = "producer")
+    private int listPageSize;
+
+    @UriParam(label = "producer", defaultValue = "10")
+    private int producerPoolSize = 10;
+
+    @UriParam(label = "producer", defaultValue = "4")
+    private int batchConcurrency = 4;
+
+    @UriParam(label = "producer", defaultValue = "4")
+    private int listConcurrency = 4;
+
+    @UriParam(label = "producer")
+    private int readCacheSize;
+
+    @UriParam(label = "producer", defaultValue = "30000")
+    private long readCacheTtl = 30000;
+
+    @UriParam(label = "producer")
+    private boolean readCacheRevalidate;
+
+    @UriParam(label = "producer")
+    private boolean coalesceReads;
+
+    @UriParam(label = "producer")
+    private int maxRetries;
+
+    @UriParam(label = "producer", defaultValue = "100")
+    private long retryInitialDelay = 100;
+
+    @UriParam(label = "producer", defaultValue = "10000")
+    private long retryMaxDelay = 10000;
+
     /**
      * Kubernetes Master url
      */
@@ -274,6 +394,109 @@ public class KubernetesConfiguration {
         this.trustCerts = trustCerts;
     }
 
+    /**
+     * When set, the requests of the client are limited to this many a
+     * second on average, watches and writes going ahead of gets and lists
+     * when requests have to wait. The limit covers the requests of every
+     * endpoint of the master, including those not setting it, and endpoints
+     * giving another limit for the same master fail to start
+     */
+    public double getRateLimitQps() {
+        return rateLimitQps;
+    }
+
+    public void setRateLimitQps(double rateLimitQps) {
+        this.rateLimitQps = rateLimitQps;
+    }
+
+    /**
+     * The number of requests the rate limit lets through at once after the
+     * client was idle
+     */
+    public int getRateLimitBurst() {
+        return rateLimitBurst;
+    }
+
+    public void setRateLimitBurst(int rateLimitBurst) {
+        this.rateLimitBurst = rateLimitBurst;
+    }
+
+    /**
+     * Whether the requests of the client go through a circuit breaker,
+     * which fails them at once for a while when too many of the last
+     * requests failed or were slow. The breaker covers the requests of every
+     * endpoint of the master, including those not turning it on, and
+     * endpoints giving other breaker settings for the same master fail to
+     * start
+     */
+    public boolean isCircuitBreaker() {
+        return circuitBreaker;
+    }
+
+    public void setCircuitBreaker(boolean circuitBreaker) {
+        this.circuitBreaker = circuitBreaker;
+    }
+
+    /**
+     * The number of last requests the circuit breaker looks at
+     */
+    public int getCircuitBreakerWindowSize() {
+        return circuitBreakerWindowSize;
+    }
+
+    public void setCircuitBreakerWindowSize(int circuitBreakerWindowSize) {
+        this.circuitBreakerWindowSize = circuitBreakerWindowSize;
+    }
+
+    /**
+     * The percentage of the last requests which must fail, with no answer,
+     * HTTP 429 or a server error, to open the circuit breaker
+     */
+    public int getCircuitBreakerErrorRate() {
+        return circuitBreakerErrorRate;
+    }
+
+    public void setCircuitBreakerErrorRate(int circuitBreakerErrorRate) {
+        this.circuitBreakerErrorRate = circuitBreakerErrorRate;
+    }
+
+    /**
+     * The time in millis the answer to a request may take to start before
+     * the circuit breaker counts it as slow, 0 to not look at the time of
+     * the requests
+     */
+    public long getCircuitBreakerSlowCallDuration() {
+        return circuitBreakerSlowCallDuration;
+    }
+
+    public void setCircuitBreakerSlowCallDuration(long circuitBreakerSlowCallDuration) {
+        this.circuitBreakerSlowCallDuration = circuitBreakerSlowCallDuration;
+    }
+
+    /**
+     * The percentage of the last requests which must be slow to open the
+     * circuit breaker
+     */
+    public int getCircuitBreakerSlowCallRate() {
+        return circuitBreakerSlowCallRate;
+    }
+
+    public void setCircuitBreakerSlowCallRate(int circuitBreakerSlowCallRate) {
+        this.circuitBreakerSlowCallRate = circuitBreakerSlowCallRate;
+    }
+
+    /**
+     * The time in millis an open circuit breaker fails the requests before
+     * letting one through to probe the master
+     */
+    public long getCircuitBreakerCoolDown() {
+        return circuitBreakerCoolDown;
+    }
+
+    public void setCircuitBreakerCoolDown(long circuitBreakerCoolDown) {
+        this.circuitBreakerCoolDown = circuitBreakerCoolDown;
+    }
+
     /**
      * The namespace name
      */
@@ -285,6 +508,398 @@ public class KubernetesConfiguration {
 		this.namespaceName = namespaceName;
 	}
 
+    /**
+     * A comma separated list of namespaces for the consumer to watch, each
+     * with a watch of its own
+     */
+    public String getNamespaceNames() {
+        return namespaceNames;
+    }
+
+    public void setNamespaceNames(String namespaceNames) {
+        this.namespaceNames = namespaceNames;
+    }
+
+    /**
+     * A regular expression the namespaces for the consumer to watch must
+     * match. The namespaces are watched too, so a watch is opened for every
+     * matching namespace as it is created, and closed when it is deleted
+     */
+    public String getNamespacePattern() {
+        return namespacePattern;
+    }
+
+    public void setNamespacePattern(String namespacePattern) {
+        this.namespacePattern = namespacePattern;
+    }
+
+    /**
+     * The number of threads opening and re-establishing the watches of a
+     * consumer watching several namespaces
+     */
+    public int getWatchPoolSize() {
+        return watchPoolSize;
+    }
+
+    public void setWatchPoolSize(int watchPoolSize) {
+        this.watchPoolSize = watchPoolSize;
+    }
+
+    /**
+     * A label selector, such as <tt>app=web,tier!=db,env in (prod,qa)</tt>,
+     * sent with the watch so the server only passes on the events of the
+     * matching resources
+     */
+    public String getLabelSelector() {
+        return labelSelector;
+    }
+
+    public void setLabelSelector(String labelSelector) {
+        this.labelSelector = labelSelector;
+    }
+
+    /**
+     * The key of a single label the watched resources must have, together
+     * with <tt>labelValue</tt>
+     */
+    public String getLabelKey() {
+        return labelKey;
+    }
+
+    public void setLabelKey(String labelKey) {
+        this.labelKey = labelKey;
+    }
+
+    /**
+     * The value of the label given by <tt>labelKey</tt>
+     */
+    public String getLabelValue() {
+        return labelValue;
+    }
+
+    public void setLabelValue(String labelValue) {
+        this.labelValue = labelValue;
+    }
+
+    /**
+     * A field selector, such as <tt>status.phase=Running</tt>, sent with the
+     * watch. Only equality terms are supported by the client
+     */
+    public String getFieldSelector() {
+        return fieldSelector;
+    }
+
+    public void setFieldSelector(String fieldSelector) {
+        this.fieldSelector = fieldSelector;
+    }
+
+    /**
+     * The maximum number of watch events the consumer buffers before the
+     * overflow policy applies
+     */
+    public int getEventBufferCapacity() {
+        return eventBufferCapacity;
+    }
+
+    public void setEventBufferCapacity(int eventBufferCapacity) {
+        this.eventBufferCapacity = eventBufferCapacity;
+    }
+
+    /**
+     * The maximum estimated size in bytes of the watch events the consumer
+     * buffers before the overflow policy applies, 0 means no byte budget
+     */
+    public long getEventBufferMaxBytes() {
+        return eventBufferMaxBytes;
+    }
+
+    public void setEventBufferMaxBytes(long eventBufferMaxBytes) {
+        this.eventBufferMaxBytes = eventBufferMaxBytes;
+    }
+
+    /**
+     * What the consumer does with a new watch event when its buffer is full:
+     * block the watch, drop the oldest event, coalesce it with the pending
+     * event for the same object or fail
+     */
+    public OverflowPolicy getEventBufferOverflowPolicy() {
+        return eventBufferOverflowPolicy;
+    }
+
+    public void setEventBufferOverflowPolicy(OverflowPolicy eventBufferOverflowPolicy) {
+        this.eventBufferOverflowPolicy = eventBufferOverflowPolicy;
+    }
+
+    /**
+     * Whether to keep only the newest pending watch event per object, so a
+     * burst of changes to an object is delivered as one exchange. DELETED
+     * events are always delivered
+     */
+    public boolean isCoalesceEvents() {
+        return coalesceEvents;
+    }
+
+    public void setCoalesceEvents(boolean coalesceEvents) {
+        this.coalesceEvents = coalesceEvents;
+    }
+
+    /**
+     * The delay in millis before the first attempt to re-establish a dropped
+     * watch, doubled on every further attempt
+     */
+    public long getWatchReconnectInitialDelay() {
+        return watchReconnectInitialDelay;
+    }
+
+    public void setWatchReconnectInitialDelay(long watchReconnectInitialDelay) {
+        this.watchReconnectInitialDelay = watchReconnectInitialDelay;
+    }
+
+    /**
+     * The maximum delay in millis between attempts to re-establish a dropped
+     * watch
+     */
+    public long getWatchReconnectMaxDelay() {
+        return watchReconnectMaxDelay;
+    }
+
+    public void setWatchReconnectMaxDelay(long watchReconnectMaxDelay) {
+        this.watchReconnectMaxDelay = watchReconnectMaxDelay;
+    }
+
+    /**
+     * The store remembering the resourceVersion of the last delivered event,
+     * so that a restarted consumer resumes its watch from there. Once the
+     * route fails on an event the checkpoint stops moving until the consumer
+     * is restarted, which then delivers that event again. In push mode this
+     * needs a consumerPoolSize of 1, and it cannot be used with useCache
+     */
+    public CheckpointStore getCheckpointStore() {
+        return checkpointStore;
+    }
+
+    public void setCheckpointStore(CheckpointStore checkpointStore) {
+        this.checkpointStore = checkpointStore;
+    }
+
+    /**
+     * A file to keep the consumer checkpoints in, when no checkpointStore is
+     * configured
+     */
+    public String getCheckpointFile() {
+        return checkpointFile;
+    }
+
+    public void setCheckpointFile(String checkpointFile) {
+        this.checkpointFile = checkpointFile;
+    }
+
+    /**
+     * The key the consumer checkpoint is saved under, by default built from
+     * the master url, category and namespace
+     */
+    public String getCheckpointKey() {
+        return checkpointKey;
+    }
+
+    public void setCheckpointKey(String checkpointKey) {
+        this.checkpointKey = checkpointKey;
+    }
+
+    /**
+     * Whether watch events are delivered on each scheduled poll or pushed to
+     * the route as soon as they arrive
+     */
+    public ConsumerMode getConsumerMode() {
+        return consumerMode;
+    }
+
+    public void setConsumerMode(ConsumerMode consumerMode) {
+        this.consumerMode = consumerMode;
+    }
+
+    /**
+     * The number of threads delivering events in push mode. More than one
+     * thread gives up the strict event ordering
+     */
+    public int getConsumerPoolSize() {
+        return consumerPoolSize;
+    }
+
+    public void setConsumerPoolSize(int consumerPoolSize) {
+        this.consumerPoolSize = consumerPoolSize;
+    }
+
+    /**
+     * A comma separated list of build phases, such as
+     * <tt>Complete,Failed</tt>. The builds consumer then only passes on the
+     * events of builds which moved into one of these phases
+     */
+    public String getBuildPhases() {
+        return buildPhases;
+    }
+
+    public void setBuildPhases(String buildPhases) {
+        this.buildPhases = buildPhases;
+    }
+
+    /**
+     * Serve list and get operations, and consumer events, from an in-memory
+     * cache of the resources shared by all the endpoints using the same
+     * client, category and namespace. The cache is kept up to date by a
+     * single watch, so what it returns may lag slightly behind the server
+     */
+    public boolean isUseCache() {
+        return useCache;
+    }
+
+    public void setUseCache(boolean useCache) {
+        this.useCache = useCache;
+    }
+
+    /**
+     * When set, list operations return an Iterator which requests the
+     * resources in pages of this size and parses them as they are read, so
+     * a splitter in streaming mode can go through large lists in bounded
+     * memory. Lists served from the cache are not affected
+     */
+    public int getListPageSize() {
+        return listPageSize;
+    }
+
+    public void setListPageSize(int listPageSize) {
+        this.listPageSize = listPageSize;
+    }
+
+    /**
+     * The number of threads running the requests of a producer, so the
+     * route thread is not held while a request is in flight. Not used when
+     * the endpoint is synchronous
+     */
+    public int getProducerPoolSize() {
+        return producerPoolSize;
+    }
+
+    public void setProducerPoolSize(int producerPoolSize) {
+        this.producerPoolSize = producerPoolSize;
+    }
+
+    /**
+     * The maximum number of requests a producer runs at the same time for
+     * the items of batch create and delete operations
+     */
+    public int getBatchConcurrency() {
+        return batchConcurrency;
+    }
+
+    public void setBatchConcurrency(int batchConcurrency) {
+        this.batchConcurrency = batchConcurrency;
+    }
+
+    /**
+     * The maximum number of namespaces a producer lists in at the same time
+     * when list operations are given several namespaces
+     */
+    public int getListConcurrency() {
+        return listConcurrency;
+    }
+
+    public void setListConcurrency(int listConcurrency) {
+        this.listConcurrency = listConcurrency;
+    }
+
+    /**
+     * When set, get operations are answered from a cache of at most this
+     * many resources, evicting the least recently used one when full. Any
+     * other operation of the producer clears the cache
+     */
+    public int getReadCacheSize() {
+        return readCacheSize;
+    }
+
+    public void setReadCacheSize(int readCacheSize) {
+        this.readCacheSize = readCacheSize;
+    }
+
+    /**
+     * The time in millis a resource is answered from the read cache before
+     * it is fetched again
+     */
+    public long getReadCacheTtl() {
+        return readCacheTtl;
+    }
+
+    public void setReadCacheTtl(long readCacheTtl) {
+        this.readCacheTtl = readCacheTtl;
+    }
+
+    /**
+     * Whether an expired resource of the read cache is still answered while
+     * it is fetched again in the background, and kept on if its
+     * resourceVersion did not change
+     */
+    public boolean isReadCacheRevalidate() {
+        return readCacheRevalidate;
+    }
+
+    public void setReadCacheRevalidate(boolean readCacheRevalidate) {
+        this.readCacheRevalidate = readCacheRevalidate;
+    }
+
+    /**
+     * Whether get and list operations identical to one already in flight
+     * wait for it and share its result rather than sending the same request
+     * again. The exchanges then share the very same resource instances, and
+     * only a list answer gets a list of its own, so the bodies must not be
+     * modified. Paged lists are never shared
+     */
+    public boolean isCoalesceReads() {
+        return coalesceReads;
+    }
+
+    public void setCoalesceReads(boolean coalesceReads) {
+        this.coalesceReads = coalesceReads;
+    }
+
+    /**
+     * The number of times a request failing with a transient error is
+     * retried: throttled (HTTP 429) or unable to connect, and for requests
+     * other than creates also server errors and dropped connections
+     */
+    public int getMaxRetries() {
+        return maxRetries;
+    }
+
+    public void setMaxRetries(int maxRetries) {
+        this.maxRetries = maxRetries;
+    }
+
+    /**
+     * The delay in millis before the first retry of a request, doubled on
+     * every further retry and jittered. A longer delay asked by the server
+     * is honoured
+     */
+    public long getRetryInitialDelay() {
+        return retryInitialDelay;
+    }
+
+    public void setRetryInitialDelay(long retryInitialDelay) {
+        this.retryInitialDelay = retryInitialDelay;
+    }
+
+    /**
+     * The maximum delay in millis between two retries of a request. When
+     * the server asks to wait longer before retrying, the request fails
+     * without a retry
+     */
+    public long getRetryMaxDelay() {
+        return retryMaxDelay;
+    }
+
+    public void setRetryMaxDelay(long retryMaxDelay) {
+        this.retryMaxDelay = retryMaxDelay;
+    }
+
 	@Override
 	public String toString() {
 		return "KubernetesConfiguration [masterUrl=" + masterUrl
@@ -297,7 +912,40 @@ public class KubernetesConfiguration {
 				+ clientKeyAlgo + ", clientKeyData=" + clientKeyData
 				+ ", clientKeyFile=" + clientKeyFile + ", clientKeyPassphrase="
 				+ clientKeyPassphrase + ", oauthToken=" + oauthToken
-				+ ", trustCerts=" + trustCerts + ", namespaceName="
-				+ namespaceName + "]";
+				+ ", trustCerts=" + trustCerts + ", rateLimitQps=" + rateLimitQps
+				+ ", rateLimitBurst=" + rateLimitBurst
+				+ ", circuitBreaker=" + circuitBreaker
+				+ ", circuitBreakerWindowSize=" + circuitBreakerWindowSize
+				+ ", circuitBreakerErrorRate=" + circuitBreakerErrorRate
+				+ ", circuitBreakerSlowCallDuration=" + circuitBreakerSlowCallDuration
+				+ ", circuitBreakerSlowCallRate=" + circuitBreakerSlowCallRate
+				+ ", circuitBreakerCoolDown=" + circuitBreakerCoolDown + ", namespaceName="
+				+ namespaceName + ", namespaceNames=" + namespaceNames
+				+ ", namespacePattern=" + namespacePattern
+				+ ", watchPoolSize=" + watchPoolSize
+				+ ", labelSelector=" + labelSelector
+				+ ", labelKey=" + labelKey + ", labelValue=" + labelValue
+				+ ", fieldSelector=" + fieldSelector
+				+ ", eventBufferCapacity=" + eventBufferCapacity
+				+ ", eventBufferMaxBytes=" + eventBufferMaxBytes
+				+ ", eventBufferOverflowPolicy=" + eventBufferOverflowPolicy
+				+ ", coalesceEvents=" + coalesceEvents
+				+ ", watchReconnectInitialDelay=" + watchReconnectInitialDelay
+				+ ", watchReconnectMaxDelay=" + watchReconnectMaxDelay
+				+ ", checkpointStore=" + checkpointStore + ", checkpointFile="
+				+ checkpointFile + ", checkpointKey=" + checkpointKey
+				+ ", consumerMode=" + consumerMode + ", consumerPoolSize="
+				+ consumerPoolSize + ", buildPhases=" + buildPhases
+				+ ", useCache=" + useCache
+				+ ", listPageSize=" + listPageSize + ", producerPoolSize="
+				+ producerPoolSize + ", batchConcurrency=" + batchConcurrency
+				+ ", listConcurrency=" + listConcurrency
+				+ ", readCacheSize=" + readCacheSize
+				+ ", readCacheTtl=" + readCacheTtl
+				+ ", readCacheRevalidate=" + readCacheRevalidate
+				+ ", coalesceReads=" + coalesceReads
+				+ ", maxRetries=" + maxRetries
+				+ ", retryInitialDelay=" + retryInitialDelay
+				+ ", retryMaxDelay=" + retryMaxDelay + "]";
 	}
 }
@@ -20,6 +20,7 @@ public interface KubernetesConstants {
 	// Producer
     String KUBERNETES_OPERATION = "CamelKubernetesOperation";
     String KUBERNETES_NAMESPACE_NAME = "CamelKubernetesNamespaceName";
+    String KUBERNETES_NAMESPACE_NAMES = "CamelKubernetesNamespaceNames";
     String KUBERNETES_NAMESPACE_LABELS = "CamelKubernetesNamespaceLabels";
     String KUBERNETES_SERVICE_LABELS = "CamelKubernetesServiceLabels";
     String KUBERNETES_SERVICE_NAME = "CamelKubernetesServiceName";
@@ -50,8 +51,12 @@ public interface KubernetesConstants {
     String KUBERNETES_BUILD_NAME = "CamelKubernetesBuildName";
     String KUBERNETES_BUILD_CONFIGS_LABELS = "CamelKubernetesBuildConfigsLabels";
     String KUBERNETES_BUILD_CONFIG_NAME = "CamelKubernetesBuildConfigName";
+    String KUBERNETES_BATCH_FAILURES = "CamelKubernetesBatchFailures";
     
     // Consumer
     String KUBERNETES_EVENT_ACTION = "CamelKubernetesEventAction";
     String KUBERNETES_EVENT_TIMESTAMP = "CamelKubernetesEventTimestamp";
+    String KUBERNETES_EVENT_SEQUENCE = "CamelKubernetesEventSequence";
+    String KUBERNETES_BUILD_PHASE = "CamelKubernetesBuildPhase";
+    String KUBERNETES_BUILD_PREVIOUS_PHASE = "CamelKubernetesBuildPreviousPhase";
 }
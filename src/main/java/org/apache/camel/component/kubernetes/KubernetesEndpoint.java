@@ -16,6 +16,9 @@
  */
 package org.apache.camel.component.kubernetes;
 
+import com.ning.http.client.AsyncHttpClient;
+import com.ning.http.client.AsyncHttpClientConfig;
+import com.ning.http.client.filter.RequestFilter;
 import io.fabric8.kubernetes.client.Config;
 import io.fabric8.kubernetes.client.ConfigBuilder;
 import io.fabric8.kubernetes.client.DefaultKubernetesClient;
@@ -23,9 +26,19 @@ import io.fabric8.kubernetes.client.DefaultKubernetesClient;
 import org.apache.camel.Consumer;
 import org.apache.camel.Processor;
 import org.apache.camel.Producer;
+import org.apache.camel.api.management.ManagedAttribute;
+import org.apache.camel.api.management.ManagedOperation;
+import org.apache.camel.api.management.ManagedResource;
+import org.apache.camel.component.kubernetes.consumer.KubernetesBuildConfigsConsumer;
+import org.apache.camel.component.kubernetes.consumer.KubernetesBuildsConsumer;
+import org.apache.camel.component.kubernetes.consumer.KubernetesNamespacesConsumer;
+import org.apache.camel.component.kubernetes.consumer.KubernetesNodesConsumer;
+import org.apache.camel.component.kubernetes.consumer.KubernetesPersistentVolumesClaimsConsumer;
+import org.apache.camel.component.kubernetes.consumer.KubernetesPersistentVolumesConsumer;
 import org.apache.camel.component.kubernetes.consumer.KubernetesPodsConsumer;
 import org.apache.camel.component.kubernetes.consumer.KubernetesReplicationControllersConsumer;
 import org.apache.camel.component.kubernetes.consumer.KubernetesSecretsConsumer;
+import org.apache.camel.component.kubernetes.consumer.KubernetesServiceAccountsConsumer;
 import org.apache.camel.component.kubernetes.consumer.KubernetesServicesConsumer;
 import org.apache.camel.component.kubernetes.producer.KubernetesNamespacesProducer;
 import org.apache.camel.component.kubernetes.producer.KubernetesPersistentVolumesClaimsProducer;
@@ -47,6 +60,7 @@ import org.apache.camel.util.ObjectHelper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+@ManagedResource(description = "Managed Kubernetes Endpoint")
 @UriEndpoint(scheme = "kubernetes", title = "Kubernetes", syntax = "kubernetes:master", label = "cloud,paas")
 public class KubernetesEndpoint extends DefaultEndpoint {
 
@@ -58,6 +72,8 @@ public class KubernetesEndpoint extends DefaultEndpoint {
 
     private DefaultKubernetesClient client;
 
+    private boolean sharedClient;
+
     public KubernetesEndpoint(String uri, KubernetesComponent component,
             KubernetesConfiguration config) {
         super(uri, component);
@@ -139,6 +155,31 @@ public class KubernetesEndpoint extends DefaultEndpoint {
             case KubernetesCategory.SECRETS:
                 return new KubernetesSecretsConsumer(this, processor);
                 
+            case KubernetesCategory.NODES:
+                return new KubernetesNodesConsumer(this, processor);
+                
+            case KubernetesCategory.NAMESPACES:
+                return new KubernetesNamespacesConsumer(this, processor);
+                
+            case KubernetesCategory.PERSISTENT_VOLUMES:
+                return new KubernetesPersistentVolumesConsumer(this, processor);
+                
+            case KubernetesCategory.PERSISTENT_VOLUMES_CLAIMS:
+                return new KubernetesPersistentVolumesClaimsConsumer(this, processor);
+                
+            case KubernetesCategory.RESOURCES_QUOTA:
+                throw new IllegalArgumentException("The " + category
+                        + " category cannot be consumed, the client cannot read its watch events");
+                
+            case KubernetesCategory.SERVICE_ACCOUNTS:
+                return new KubernetesServiceAccountsConsumer(this, processor);
+                
+            case KubernetesCategory.BUILDS:
+                return new KubernetesBuildsConsumer(this, processor);
+                
+            case KubernetesCategory.BUILD_CONFIGS:
+                return new KubernetesBuildConfigsConsumer(this, processor);
+                
             default:
                 throw new IllegalArgumentException("The " + category
                         + " consumer category doesn't exist");
@@ -146,23 +187,36 @@ public class KubernetesEndpoint extends DefaultEndpoint {
         }
     }
 
+    @Override
+    public KubernetesComponent getComponent() {
+        return (KubernetesComponent) super.getComponent();
+    }
+
     @Override
     public boolean isSingleton() {
-        return false;
+        return true;
     }
 
     @Override
     protected void doStart() throws Exception {
         super.doStart();
         
-        client = configuration.getKubernetesClient() != null ? configuration
-                .getKubernetesClient() : createKubernetesClient();
+        if (configuration.getKubernetesClient() != null) {
+            client = configuration.getKubernetesClient();
+        } else {
+            client = getComponent().getClientRegistry().acquire(this);
+            sharedClient = true;
+        }
     }
 
     @Override
     protected void doStop() throws Exception {
         super.doStop();
-        client.close();
+        // a client given by the user is left open, it may well be used elsewhere
+        if (sharedClient) {
+            getComponent().getClientRegistry().release(client);
+            sharedClient = false;
+        }
     }
 
     public DefaultKubernetesClient getKubernetesClient() {
@@ -170,6 +224,102 @@ public class KubernetesEndpoint extends DefaultEndpoint {
     }
 
 
+    /**
+     * The rate limiter of the master, or <tt>null</tt> if its requests are
+     * not limited
+     */
+    public KubernetesRateLimiter getRateLimiter() {
+        KubernetesMasterFilter filter = getMasterFilter();
+        return filter != null ? filter.getRateLimiter() : null;
+    }
+
+    @ManagedAttribute(description = "Number of requests of the client waiting for the rate limit")
+    public int getRateLimitQueuedRequests() {
+        KubernetesRateLimiter limiter = getRateLimiter();
+        return limiter != null ? limiter.getQueuedRequests() : 0;
+    }
+
+    @ManagedAttribute(description = "Longest time in millis a request of the client waited for the rate limit")
+    public long getRateLimitMaxQueueDelay() {
+        KubernetesRateLimiter limiter = getRateLimiter();
+        return limiter != null ? limiter.getMaxQueueDelay() : 0;
+    }
+
+    @ManagedAttribute(description = "Average time in millis watch requests waited for the rate limit")
+    public double getRateLimitWatchQueueDelay() {
+        return averageQueueDelay(KubernetesRateLimiter.Priority.WATCH);
+    }
+
+    @ManagedAttribute(description = "Average time in millis write requests waited for the rate limit")
+    public double getRateLimitWriteQueueDelay() {
+        return averageQueueDelay(KubernetesRateLimiter.Priority.WRITE);
+    }
+
+    @ManagedAttribute(description = "Average time in millis get requests waited for the rate limit")
+    public double getRateLimitGetQueueDelay() {
+        return averageQueueDelay(KubernetesRateLimiter.Priority.GET);
+    }
+
+    @ManagedAttribute(description = "Average time in millis list requests waited for the rate limit")
+    public double getRateLimitListQueueDelay() {
+        return averageQueueDelay(KubernetesRateLimiter.Priority.LIST);
+    }
+
+    private double averageQueueDelay(KubernetesRateLimiter.Priority priority) {
+        KubernetesRateLimiter limiter = getRateLimiter();
+        return limiter != null ? limiter.getAverageQueueDelay(priority) : 0;
+    }
+
+    /**
+     * The circuit breaker of the master, or <tt>null</tt> if it has none
+     */
+    public KubernetesCircuitBreaker getCircuitBreaker() {
+        KubernetesMasterFilter filter = getMasterFilter();
+        return filter != null ? filter.getCircuitBreaker() : null;
+    }
+
+    private KubernetesMasterFilter getMasterFilter() {
+        return client != null ? KubernetesMasterFilter.of(client.getHttpClient()) : null;
+    }
+
+    @ManagedAttribute(description = "State of the circuit breaker of the client")
+    public String getCircuitBreakerState() {
+        KubernetesCircuitBreaker breaker = getCircuitBreaker();
+        return breaker != null ? breaker.getState().name() : null;
+    }
+
+    @ManagedAttribute(description = "Percentage of failed requests among the last requests of the client")
+    public double getCircuitBreakerFailureRate() {
+        KubernetesCircuitBreaker breaker = getCircuitBreaker();
+        return breaker != null ? breaker.getFailureRate() : 0;
+    }
+
+    @ManagedAttribute(description = "Percentage of slow requests among the last requests of the client")
+    public double getCircuitBreakerSlowCallRate() {
+        KubernetesCircuitBreaker breaker = getCircuitBreaker();
+        return breaker != null ? breaker.getSlowCallRate() : 0;
+    }
+
+    @ManagedAttribute(description = "Number of times the circuit breaker of the client opened")
+    public long getCircuitBreakerOpenedCount() {
+        KubernetesCircuitBreaker breaker = getCircuitBreaker();
+        return breaker != null ? breaker.getOpenedCount() : 0;
+    }
+
+    @ManagedAttribute(description = "Number of requests refused by the circuit breaker of the client")
+    public long getCircuitBreakerRejectedCount() {
+        KubernetesCircuitBreaker breaker = getCircuitBreaker();
+        return breaker != null ? breaker.getRejectedCount() : 0;
+    }
+
+    @ManagedOperation(description = "Closes the circuit breaker of the client")
+    public void closeCircuitBreaker() {
+        KubernetesCircuitBreaker breaker = getCircuitBreaker();
+        if (breaker != null) {
+            breaker.close();
+        }
+    }
+
     /**
      * The kubernetes Configuration
      */
@@ -177,10 +327,14 @@ public class KubernetesEndpoint extends DefaultEndpoint {
         return configuration;
     }
 
-    private DefaultKubernetesClient createKubernetesClient() {
+    /**
+     * A new client for the connection settings of the endpoint, sending its
+     * requests through the given filter
+     */
+    DefaultKubernetesClient createKubernetesClient(RequestFilter filter) {
         LOG.debug("Create Kubernetes client with the following Configuration: " + configuration.toString());
         
-        DefaultKubernetesClient kubeClient = new DefaultKubernetesClient();
+        DefaultKubernetesClient kubeClient;
         ConfigBuilder builder = new ConfigBuilder();
         builder.withMasterUrl(configuration.getMasterUrl());
         if ((ObjectHelper.isNotEmpty(configuration.getUsername()) && ObjectHelper
@@ -207,6 +361,18 @@ public class KubernetesEndpoint extends DefaultEndpoint {
         Config conf = builder.build();
         
         kubeClient = new DefaultKubernetesClient(conf);
-        return kubeClient;
+        return new DefaultKubernetesClient(withFilter(kubeClient.getHttpClient(), filter), conf);
+    }
+
+    /**
+     * A copy of the HTTP client with the given request filter added, closing
+     * the given client. The filters of a client cannot be changed once built
+     */
+    private static AsyncHttpClient withFilter(AsyncHttpClient httpClient, RequestFilter filter) {
+        // the thread pool of the given client goes with it, the copy gets its own
+        AsyncHttpClientConfig config = new AsyncHttpClientConfig.Builder(httpClient.getConfig())
+                .setExecutorService(null).addRequestFilter(filter).build();
+        httpClient.close();
+        return new AsyncHttpClient(config);
     }
 }
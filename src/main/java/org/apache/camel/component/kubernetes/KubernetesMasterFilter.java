@@ -0,0 +1,144 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.component.kubernetes;
+
+import java.util.Arrays;
+import java.util.List;
+
+import com.ning.http.client.AsyncHttpClient;
+import com.ning.http.client.filter.FilterContext;
+import com.ning.http.client.filter.FilterException;
+import com.ning.http.client.filter.RequestFilter;
+
+/**
+ * The request filter of all the clients talking to one master, so its rate
+ * limit and circuit breaker cover every request sent to the master whichever
+ * client, and so whichever endpoint, sends it.
+ * <p/>
+ * The first endpoint giving a rate limit or turning the circuit breaker on
+ * attaches it, and it stays until the last endpoint of the master stops.
+ * Endpoints giving no settings go through them too, while an endpoint giving
+ * other settings than the attached ones is refused, as a master has a
+ * single limit and breaker. The <tt>Retry-After</tt> header of the answers is
+ * always kept for the retries, see {@link KubernetesRetryAfter}.
+ */
+public class KubernetesMasterFilter implements RequestFilter {
+
+    private final String masterUrl;
+    private final KubernetesRetryAfter retryAfter = new KubernetesRetryAfter();
+
+    private volatile KubernetesRateLimiter rateLimiter;
+    private volatile KubernetesCircuitBreaker circuitBreaker;
+    private List<Object> rateLimitSettings;
+    private List<Object> circuitBreakerSettings;
+
+    public KubernetesMasterFilter(String masterUrl) {
+        this.masterUrl = masterUrl;
+    }
+
+    /**
+     * The filter installed on the given client, or <tt>null</tt> if it has
+     * none
+     */
+    public static KubernetesMasterFilter of(AsyncHttpClient client) {
+        for (RequestFilter filter : client.getConfig().getRequestFilters()) {
+            if (filter instanceof KubernetesMasterFilter) {
+                return (KubernetesMasterFilter) filter;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Attaches the rate limit and circuit breaker the configuration asks for,
+     * unless already attached with the same settings
+     *
+     * @throws IllegalArgumentException if the master already has a rate
+     *             limit or circuit breaker with other settings
+     */
+    public synchronized void attach(KubernetesConfiguration configuration) {
+        List<Object> rateLimit = null;
+        if (configuration.getRateLimitQps() > 0) {
+            rateLimit = Arrays.<Object>asList(configuration.getRateLimitQps(), configuration.getRateLimitBurst());
+            if (rateLimitSettings != null && !rateLimitSettings.equals(rateLimit)) {
+                throw new IllegalArgumentException("The rate limit (qps, burst) " + rateLimit + " conflicts with the rate limit "
+                        + rateLimitSettings + " of another endpoint of " + masterUrl);
+            }
+        }
+        List<Object> breaker = null;
+        if (configuration.isCircuitBreaker()) {
+            breaker = Arrays.<Object>asList(configuration.getCircuitBreakerWindowSize(),
+                    configuration.getCircuitBreakerErrorRate(), configuration.getCircuitBreakerSlowCallDuration(),
+                    configuration.getCircuitBreakerSlowCallRate(), configuration.getCircuitBreakerCoolDown());
+            if (circuitBreakerSettings != null && !circuitBreakerSettings.equals(breaker)) {
+                throw new IllegalArgumentException("The circuit breaker settings " + breaker + " conflict with the settings "
+                        + circuitBreakerSettings + " of another endpoint of " + masterUrl);
+            }
+        }
+        if (rateLimit != null && rateLimitSettings == null) {
+            rateLimiter = new KubernetesRateLimiter(configuration.getRateLimitQps(), configuration.getRateLimitBurst());
+            rateLimitSettings = rateLimit;
+        }
+        if (breaker != null && circuitBreakerSettings == null) {
+            circuitBreaker = new KubernetesCircuitBreaker(masterUrl, configuration.getCircuitBreakerWindowSize(),
+                    configuration.getCircuitBreakerErrorRate(), configuration.getCircuitBreakerSlowCallDuration(),
+                    configuration.getCircuitBreakerSlowCallRate(), configuration.getCircuitBreakerCoolDown());
+            circuitBreakerSettings = breaker;
+        }
+    }
+
+    @Override
+    public <T> FilterContext<T> filter(FilterContext<T> context) throws FilterException {
+        // the breaker goes first so an open breaker does not wait for the rate limit
+        KubernetesCircuitBreaker breaker = circuitBreaker;
+        if (breaker != null) {
+            context = breaker.filter(context);
+        }
+        boolean passed = false;
+        try {
+            KubernetesRateLimiter limiter = rateLimiter;
+            FilterContext<T> limited = limiter != null ? limiter.filter(context) : context;
+            FilterContext<T> answer = retryAfter.filter(limited);
+            passed = true;
+            return answer;
+        } finally {
+            if (!passed && breaker != null) {
+                // interrupted while waiting for the rate limit, the request let through by the breaker is not sent
+                breaker.abandon(context);
+            }
+        }
+    }
+
+    public String getMasterUrl() {
+        return masterUrl;
+    }
+
+    /**
+     * The rate limiter of the master, or <tt>null</tt> if its requests are
+     * not limited
+     */
+    public KubernetesRateLimiter getRateLimiter() {
+        return rateLimiter;
+    }
+
+    /**
+     * The circuit breaker of the master, or <tt>null</tt> if it has none
+     */
+    public KubernetesCircuitBreaker getCircuitBreaker() {
+        return circuitBreaker;
+    }
+}
@@ -0,0 +1,216 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.component.kubernetes;
+
+import java.util.concurrent.TimeUnit;
+
+import com.ning.http.client.Request;
+import com.ning.http.client.filter.FilterContext;
+import com.ning.http.client.filter.FilterException;
+import com.ning.http.client.filter.RequestFilter;
+import com.ning.http.client.ws.WebSocketUpgradeHandler;
+
+/**
+ * Limits the rate of the requests to a master with a token bucket of
+ * <tt>qps</tt> tokens a second holding at most <tt>burst</tt> tokens.
+ * <p/>
+ * The limiter is a request filter of the HTTP clients of the master, through
+ * its {@link KubernetesMasterFilter}, so it covers every request to the
+ * master whichever endpoint sends it, and it blocks the thread sending the
+ * request until a token is available. Each request is given a {@link Priority} from its method and URL; while
+ * requests of a higher priority wait for a token, the requests of lower
+ * priorities wait behind them.
+ * <p/>
+ * The time requests spent waiting is kept per priority.
+ */
+public class KubernetesRateLimiter implements RequestFilter {
+
+    /**
+     * The priority classes of the requests, highest first
+     */
+    public enum Priority {
+        /** Opening a watch */
+        WATCH,
+        /** Creating, replacing or deleting a resource */
+        WRITE,
+        /** Getting one resource */
+        GET,
+        /** Listing resources */
+        LIST
+    }
+
+    private static final int PRIORITIES = Priority.values().length;
+
+    private final double qps;
+    private final int burst;
+
+    private final int[] waiting = new int[PRIORITIES];
+    private final long[] requests = new long[PRIORITIES];
+    private final long[] delayed = new long[PRIORITIES];
+    private final long[] totalDelay = new long[PRIORITIES];
+    private long maxDelay;
+
+    private double tokens;
+    private long refilled;
+
+    public KubernetesRateLimiter(double qps, int burst) {
+        if (qps <= 0) {
+            throw new IllegalArgumentException("The rate limit must be greater than 0");
+        }
+        if (burst < 1) {
+            throw new IllegalArgumentException("The rate limit burst must be at least 1");
+        }
+        this.qps = qps;
+        this.burst = burst;
+        this.tokens = burst;
+        this.refilled = System.nanoTime();
+    }
+
+    @Override
+    public <T> FilterContext<T> filter(FilterContext<T> context) throws FilterException {
+        Priority priority = context.getAsyncHandler() instanceof WebSocketUpgradeHandler
+                ? Priority.WATCH : priorityOf(context.getRequest());
+        try {
+            acquire(priority);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new FilterException("Interrupted while waiting for the rate limit");
+        }
+        return context;
+    }
+
+    /**
+     * Waits until the request may be sent
+     */
+    public synchronized void acquire(Priority priority) throws InterruptedException {
+        int index = priority.ordinal();
+        long start = System.nanoTime();
+        waiting[index]++;
+        try {
+            while (true) {
+                refill();
+                if (tokens >= 1 && !higherWaiting(index)) {
+                    tokens -= 1;
+                    break;
+                }
+                // wake up when the next token is due, or earlier when a token is taken
+                long nanos = tokens >= 1 ? 0 : (long) Math.ceil((1 - tokens) * TimeUnit.SECONDS.toNanos(1) / qps);
+                TimeUnit.NANOSECONDS.timedWait(this, Math.max(nanos, TimeUnit.MILLISECONDS.toNanos(1)));
+            }
+        } finally {
+            waiting[index]--;
+            notifyAll();
+        }
+        long delay = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        requests[index]++;
+        if (delay > 0) {
+            delayed[index]++;
+            totalDelay[index] += delay;
+            maxDelay = Math.max(maxDelay, delay);
+        }
+    }
+
+    public double getQps() {
+        return qps;
+    }
+
+    public int getBurst() {
+        return burst;
+    }
+
+    /**
+     * The number of requests waiting for a token
+     */
+    public synchronized int getQueuedRequests() {
+        int queued = 0;
+        for (int count : waiting) {
+            queued += count;
+        }
+        return queued;
+    }
+
+    public synchronized long getRequests(Priority priority) {
+        return requests[priority.ordinal()];
+    }
+
+    /**
+     * The number of requests of the priority which had to wait for a token
+     */
+    public synchronized long getDelayedRequests(Priority priority) {
+        return delayed[priority.ordinal()];
+    }
+
+    /**
+     * The average time in millis the requests of the priority waited for a
+     * token, counting the requests which did not wait
+     */
+    public synchronized double getAverageQueueDelay(Priority priority) {
+        int index = priority.ordinal();
+        return requests[index] > 0 ? (double) totalDelay[index] / requests[index] : 0;
+    }
+
+    /**
+     * The longest time in millis a request waited for a token
+     */
+    public synchronized long getMaxQueueDelay() {
+        return maxDelay;
+    }
+
+    private void refill() {
+        long now = System.nanoTime();
+        tokens = Math.min(burst, tokens + (now - refilled) * qps / TimeUnit.SECONDS.toNanos(1));
+        refilled = now;
+    }
+
+    private boolean higherWaiting(int index) {
+        for (int i = 0; i < index; i++) {
+            if (waiting[i] > 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * The priority of a request from its method and URL: anything but a GET
+     * is a write, and a GET of a path ending with the plural of a resource,
+     * such as <tt>/api/v1/namespaces/default/pods</tt>, is a list
+     */
+    static Priority priorityOf(Request request) {
+        String url = request.getUrl();
+        int query = url.indexOf('?');
+        if (query >= 0 && url.indexOf("watch=true", query) > 0) {
+            return Priority.WATCH;
+        }
+        if (!"GET".equalsIgnoreCase(request.getMethod())) {
+            return Priority.WRITE;
+        }
+        String path = query >= 0 ? url.substring(0, query) : url;
+        int scheme = path.indexOf("://");
+        int start = path.indexOf('/', scheme >= 0 ? scheme + 3 : 0);
+        if (start < 0) {
+            return Priority.GET;
+        }
+        String[] segments = path.substring(start + 1).split("/");
+        // skip the api group and version, and the namespace if any
+        int index = 2;
+        if (segments.length > index + 2 && "namespaces".equals(segments[index])) {
+            index += 2;
+        }
+        return segments.length - index == 1 ? Priority.LIST : Priority.GET;
+    }
+}
@@ -0,0 +1,139 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.component.kubernetes;
+
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.Locale;
+import java.util.TimeZone;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.ning.http.client.AsyncHandler;
+import com.ning.http.client.HttpResponseBodyPart;
+import com.ning.http.client.HttpResponseHeaders;
+import com.ning.http.client.HttpResponseStatus;
+import com.ning.http.client.filter.FilterContext;
+import com.ning.http.client.filter.FilterException;
+import com.ning.http.client.filter.RequestFilter;
+import com.ning.http.client.ws.WebSocketUpgradeHandler;
+
+/**
+ * Keeps the <tt>Retry-After</tt> header of the last answer to each thread.
+ * <p/>
+ * The client turns a failed answer into an exception carrying its status but
+ * not its headers, so a server which only sends the header would have its
+ * request to back off ignored. Installed as a request filter of the HTTP
+ * client, this runs in the thread sending each request, and the header of
+ * the answer is kept for that thread, which is also the one handed the
+ * exception.
+ */
+public class KubernetesRetryAfter implements RequestFilter {
+
+    private static final ThreadLocal<AtomicLong> LAST = new ThreadLocal<AtomicLong>() {
+        @Override
+        protected AtomicLong initialValue() {
+            return new AtomicLong();
+        }
+    };
+
+    /**
+     * The time in millis the answer to the last request sent by the calling
+     * thread asked to wait, or 0
+     */
+    public static long lastRetryAfter() {
+        return LAST.get().get();
+    }
+
+    @Override
+    public <T> FilterContext<T> filter(FilterContext<T> context) throws FilterException {
+        AtomicLong retryAfter = LAST.get();
+        retryAfter.set(0);
+        if (context.getAsyncHandler() instanceof WebSocketUpgradeHandler) {
+            return context;
+        }
+        return new FilterContext.FilterContextBuilder<T>(context)
+                .asyncHandler(new Recorder<T>(context.getAsyncHandler(), retryAfter)).build();
+    }
+
+    /**
+     * The header value in millis: either a number of seconds or an HTTP date
+     */
+    static long parse(String value, long now) {
+        if (value == null || value.trim().isEmpty()) {
+            return 0;
+        }
+        String trimmed = value.trim();
+        try {
+            return TimeUnit.SECONDS.toMillis(Math.max(0, Long.parseLong(trimmed)));
+        } catch (NumberFormatException e) {
+            // not a number of seconds, so a date
+        }
+        SimpleDateFormat format = new SimpleDateFormat("EEE, dd MMM yyyy HH:mm:ss zzz", Locale.US);
+        format.setTimeZone(TimeZone.getTimeZone("GMT"));
+        try {
+            Date date = format.parse(trimmed);
+            return Math.max(0, date.getTime() - now);
+        } catch (ParseException e) {
+            return 0;
+        }
+    }
+
+    /**
+     * Passes the callbacks of a request on, keeping its Retry-After header
+     */
+    private static final class Recorder<T> implements AsyncHandler<T> {
+
+        private final AsyncHandler<T> delegate;
+        private final AtomicLong retryAfter;
+
+        private Recorder(AsyncHandler<T> delegate, AtomicLong retryAfter) {
+            this.delegate = delegate;
+            this.retryAfter = retryAfter;
+        }
+
+        @Override
+        public STATE onStatusReceived(HttpResponseStatus status) throws Exception {
+            return delegate.onStatusReceived(status);
+        }
+
+        @Override
+        public STATE onHeadersReceived(HttpResponseHeaders headers) throws Exception {
+            String value = headers.getHeaders().getFirstValue("Retry-After");
+            if (value != null) {
+                retryAfter.set(parse(value, System.currentTimeMillis()));
+            }
+            return delegate.onHeadersReceived(headers);
+        }
+
+        @Override
+        public STATE onBodyPartReceived(HttpResponseBodyPart bodyPart) throws Exception {
+            return delegate.onBodyPartReceived(bodyPart);
+        }
+
+        @Override
+        public T onCompleted() throws Exception {
+            return delegate.onCompleted();
+        }
+
+        @Override
+        public void onThrowable(Throwable t) {
+            delegate.onThrowable(t);
+        }
+    }
+}
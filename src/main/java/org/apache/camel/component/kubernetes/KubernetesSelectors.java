@@ -0,0 +1,159 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.component.kubernetes;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import io.fabric8.kubernetes.api.model.HasMetadata;
+import io.fabric8.kubernetes.api.model.KubernetesResourceList;
+import io.fabric8.kubernetes.client.dsl.FilterWatchListDeletable;
+
+import org.apache.camel.util.ObjectHelper;
+
+/**
+ * Applies the label and field selectors of an endpoint to a client
+ * operation, so they are sent with the list and watch requests and the
+ * filtering happens on the server.
+ * <p/>
+ * The client builds the selector query from its own filter methods, so the
+ * selectors are parsed into those calls. Label selectors support the
+ * <tt>=</tt>, <tt>==</tt>, <tt>!=</tt>, <tt>in</tt> and <tt>notin</tt>
+ * operators, field selectors only equality.
+ */
+public final class KubernetesSelectors {
+
+    private static final Pattern SET_TERM = Pattern.compile("(\\S+)\\s+(in|notin)\\s*\\((.*)\\)");
+
+    private KubernetesSelectors() {
+    }
+
+    /**
+     * Whether the configuration has any selector set
+     */
+    public static boolean hasSelectors(KubernetesConfiguration configuration) {
+        return ObjectHelper.isNotEmpty(configuration.getLabelSelector())
+                || ObjectHelper.isNotEmpty(configuration.getLabelKey())
+                || ObjectHelper.isNotEmpty(configuration.getLabelValue())
+                || ObjectHelper.isNotEmpty(configuration.getFieldSelector());
+    }
+
+    /**
+     * Restricts the operation to the resources matching the selectors of the
+     * configuration
+     *
+     * @throws IllegalArgumentException if a selector cannot be expressed
+     *         with the client
+     */
+    public static <T extends HasMetadata, L extends KubernetesResourceList> FilterWatchListDeletable<T, L, Boolean> apply(
+            FilterWatchListDeletable<T, L, Boolean> operation, KubernetesConfiguration configuration) {
+        FilterWatchListDeletable<T, L, Boolean> result = operation;
+        if (ObjectHelper.isNotEmpty(configuration.getLabelKey()) || ObjectHelper.isNotEmpty(configuration.getLabelValue())) {
+            if (ObjectHelper.isEmpty(configuration.getLabelKey()) || ObjectHelper.isEmpty(configuration.getLabelValue())) {
+                throw new IllegalArgumentException("labelKey and labelValue must be set together");
+            }
+            result = result.withLabel(configuration.getLabelKey(), configuration.getLabelValue());
+        }
+        for (String term : terms(configuration.getLabelSelector())) {
+            Matcher matcher = SET_TERM.matcher(term);
+            if (matcher.matches()) {
+                String[] values = values(matcher.group(3), term);
+                if ("in".equals(matcher.group(2))) {
+                    result = result.withLabelIn(matcher.group(1), values);
+                } else {
+                    result = result.withLabelNotIn(matcher.group(1), values);
+                }
+            } else if (term.contains("!=")) {
+                int index = term.indexOf("!=");
+                result = result.withoutLabel(key(term, index), value(term, index + 2));
+            } else if (term.contains("=")) {
+                int index = term.indexOf('=');
+                result = result.withLabel(key(term, index),
+                        value(term, term.startsWith("=", index + 1) ? index + 2 : index + 1));
+            } else {
+                throw new IllegalArgumentException("Unsupported label selector term " + term
+                        + ", use key=value, key!=value, key in (values) or key notin (values)");
+            }
+        }
+        for (String term : terms(configuration.getFieldSelector())) {
+            if (term.contains("!=") || !term.contains("=")) {
+                throw new IllegalArgumentException("Unsupported field selector term " + term + ", use field=value");
+            }
+            int index = term.indexOf('=');
+            result = result.withField(key(term, index),
+                    value(term, term.startsWith("=", index + 1) ? index + 2 : index + 1));
+        }
+        return result;
+    }
+
+    /**
+     * Splits a selector on the commas which are not within parentheses
+     */
+    private static List<String> terms(String selector) {
+        List<String> terms = new ArrayList<String>();
+        if (ObjectHelper.isEmpty(selector)) {
+            return terms;
+        }
+        int depth = 0;
+        int start = 0;
+        for (int i = 0; i <= selector.length(); i++) {
+            char c = i < selector.length() ? selector.charAt(i) : ',';
+            if (c == '(') {
+                depth++;
+            } else if (c == ')') {
+                depth--;
+            } else if (c == ',' && depth == 0) {
+                String term = selector.substring(start, i).trim();
+                if (!term.isEmpty()) {
+                    terms.add(term);
+                }
+                start = i + 1;
+            }
+        }
+        if (depth != 0) {
+            throw new IllegalArgumentException("Unbalanced parentheses in selector " + selector);
+        }
+        return terms;
+    }
+
+    private static String[] values(String values, String term) {
+        List<String> result = new ArrayList<String>();
+        for (String value : values.split(",")) {
+            if (!value.trim().isEmpty()) {
+                result.add(value.trim());
+            }
+        }
+        if (result.isEmpty()) {
+            throw new IllegalArgumentException("No values in selector term " + term);
+        }
+        return result.toArray(new String[result.size()]);
+    }
+
+    private static String key(String term, int end) {
+        String key = term.substring(0, end).trim();
+        if (key.isEmpty()) {
+            throw new IllegalArgumentException("No key in selector term " + term);
+        }
+        return key;
+    }
+
+    private static String value(String term, int start) {
+        return term.substring(start).trim();
+    }
+}
@@ -0,0 +1,461 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.component.kubernetes.cache;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import io.fabric8.kubernetes.api.model.HasMetadata;
+import io.fabric8.kubernetes.api.model.KubernetesResourceList;
+import io.fabric8.kubernetes.client.KubernetesClientException;
+import io.fabric8.kubernetes.client.Watcher;
+import io.fabric8.kubernetes.client.dsl.FilterWatchListDeletable;
+
+import org.apache.camel.CamelContext;
+import org.apache.camel.component.kubernetes.consumer.common.KubernetesEvent;
+import org.apache.camel.component.kubernetes.consumer.common.ResumableWatch;
+import org.apache.camel.support.ServiceSupport;
+import org.apache.camel.util.ObjectHelper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * An in-memory copy of the resources of one type, filled by a list and kept
+ * up to date by a {@link ResumableWatch}.
+ * <p/>
+ * List and get operations are answered from the copy, and listeners are
+ * handed the events of the watch after the copy has been updated, so any
+ * number of producers and consumers can share a single watch. The cached
+ * resources are shared too and must not be modified.
+ * <p/>
+ * Each listener has a queue of its own, drained on a separate thread, so a
+ * slow listener falls behind on its own without holding up the watch or the
+ * other listeners. The queue holds at most {@link #LISTENER_QUEUE_CAPACITY}
+ * events though: once a listener is that far behind the watch waits for it,
+ * so the back-pressure of a consumer with a blocking buffer reaches the
+ * watch rather than piling events up in memory.
+ * <p/>
+ * The resources are indexed by namespace and by label, so listing by labels
+ * intersects the sets of matching resources rather than scanning the whole
+ * cache.
+ */
+public class KubernetesInformer<T extends HasMetadata> extends ServiceSupport {
+
+    /**
+     * The most events waiting to be passed on to a single listener
+     */
+    public static final int LISTENER_QUEUE_CAPACITY = 100;
+
+    private static final Logger LOG = LoggerFactory.getLogger(KubernetesInformer.class);
+
+    private final CamelContext camelContext;
+    private final FilterWatchListDeletable<T, ? extends KubernetesResourceList, Boolean> resources;
+    private final Class<T> resourceType;
+    private final String namespaceName;
+    private final long reconnectInitialDelay;
+    private final long reconnectMaxDelay;
+
+    private final ConcurrentMap<String, T> store = new ConcurrentHashMap<String, T>();
+    private final ResourceIndex namespaceIndex = new ResourceIndex();
+    private final ResourceIndex labelIndex = new ResourceIndex();
+    private final List<ListenerQueue> listeners = new CopyOnWriteArrayList<ListenerQueue>();
+    // updates of the store and registration of listeners are serialised, so a listener sees each change once
+    private final Object lock = new Object();
+
+    private ScheduledExecutorService scheduler;
+    private ExecutorService listenerExecutor;
+    private ResumableWatch<T> watch;
+
+    public KubernetesInformer(CamelContext camelContext,
+            FilterWatchListDeletable<T, ? extends KubernetesResourceList, Boolean> resources, Class<T> resourceType,
+            String namespaceName, long reconnectInitialDelay, long reconnectMaxDelay) {
+        ObjectHelper.notNull(camelContext, "camelContext");
+        ObjectHelper.notNull(resources, "resources");
+        ObjectHelper.notNull(resourceType, "resourceType");
+        this.camelContext = camelContext;
+        this.resources = resources;
+        this.resourceType = resourceType;
+        this.namespaceName = ObjectHelper.isNotEmpty(namespaceName) ? namespaceName : null;
+        this.reconnectInitialDelay = reconnectInitialDelay;
+        this.reconnectMaxDelay = reconnectMaxDelay;
+    }
+
+    @Override
+    protected void doStart() throws Exception {
+        scheduler = camelContext.getExecutorServiceManager()
+                .newSingleThreadScheduledExecutor(this, "KubernetesInformer");
+        listenerExecutor = camelContext.getExecutorServiceManager()
+                .newCachedThreadPool(this, "KubernetesInformerListener");
+        watch = new ResumableWatch<T>(resources, resourceType, new StoreUpdater(), scheduler,
+                reconnectInitialDelay, reconnectMaxDelay);
+        watch.startWithList();
+        LOG.debug("Cached {} {} resources at resourceVersion {}",
+                new Object[] {store.size(), resourceType.getSimpleName(), watch.getResourceVersion()});
+    }
+
+    @Override
+    protected void doStop() throws Exception {
+        if (watch != null) {
+            watch.close();
+            watch = null;
+        }
+        if (scheduler != null) {
+            camelContext.getExecutorServiceManager().shutdownNow(scheduler);
+            scheduler = null;
+        }
+        if (listenerExecutor != null) {
+            camelContext.getExecutorServiceManager().shutdownNow(listenerExecutor);
+            listenerExecutor = null;
+        }
+        store.clear();
+        namespaceIndex.clear();
+        labelIndex.clear();
+    }
+
+    /**
+     * Whether the cache holds the resources of the given namespace
+     */
+    public boolean covers(String namespace) {
+        return namespaceName == null || namespaceName.equals(namespace);
+    }
+
+    /**
+     * The resource with the given name, or <tt>null</tt>
+     */
+    public T get(String namespace, String name) {
+        return store.get(ObjectHelper.isNotEmpty(namespace) ? namespace + "/" + name : name);
+    }
+
+    public List<T> list() {
+        return new ArrayList<T>(store.values());
+    }
+
+    /**
+     * The resources of the given namespace, or all of them if no namespace
+     * is given
+     */
+    public List<T> list(String namespace) {
+        if (ObjectHelper.isEmpty(namespace)) {
+            return list();
+        }
+        return resolve(namespaceIndex.get(namespace));
+    }
+
+    /**
+     * The resources carrying all the given labels, restricted to a namespace
+     * if one is given
+     */
+    public List<T> listByLabels(String namespace, Map<String, String> labels) {
+        if (labels == null || labels.isEmpty()) {
+            return list(namespace);
+        }
+        List<Set<String>> candidates = new ArrayList<Set<String>>(labels.size() + 1);
+        for (Map.Entry<String, String> entry : labels.entrySet()) {
+            candidates.add(labelIndex.get(labelTerm(entry.getKey(), entry.getValue())));
+        }
+        if (ObjectHelper.isNotEmpty(namespace)) {
+            candidates.add(namespaceIndex.get(namespace));
+        }
+        // walk the smallest set and probe the others
+        Collections.sort(candidates, new Comparator<Set<String>>() {
+            @Override
+            public int compare(Set<String> a, Set<String> b) {
+                return Integer.compare(a.size(), b.size());
+            }
+        });
+        List<T> answer = new ArrayList<T>();
+        Set<String> smallest = candidates.get(0);
+        for (String key : smallest) {
+            if (containedInAll(key, candidates)) {
+                T resource = store.get(key);
+                // the indexes are read without locking, so check the match against the resource itself
+                if (resource != null && hasLabels(resource, labels)
+                        && (ObjectHelper.isEmpty(namespace) || namespace.equals(resource.getMetadata().getNamespace()))) {
+                    answer.add(resource);
+                }
+            }
+        }
+        return answer;
+    }
+
+    public int size() {
+        return store.size();
+    }
+
+    /**
+     * The resourceVersion the cache is up to date with
+     */
+    public String getResourceVersion() {
+        return watch != null ? watch.getResourceVersion() : null;
+    }
+
+    public Class<T> getResourceType() {
+        return resourceType;
+    }
+
+    /**
+     * Registers a listener, first handing it every cached resource as an
+     * ADDED event. The events are passed on asynchronously, in order
+     */
+    public void addListener(Watcher<T> listener) {
+        ListenerQueue queue = new ListenerQueue(listener);
+        List<T> snapshot;
+        synchronized (lock) {
+            // the copy is taken under the lock, the listener is called with it once the lock is released
+            snapshot = new ArrayList<T>(store.values());
+            listeners.add(queue);
+        }
+        queue.start(snapshot);
+    }
+
+    public void removeListener(Watcher<T> listener) {
+        for (ListenerQueue queue : listeners) {
+            if (queue.listener == listener) {
+                queue.removed = true;
+                listeners.remove(queue);
+            }
+        }
+    }
+
+    private List<T> resolve(Set<String> keys) {
+        List<T> answer = new ArrayList<T>(keys.size());
+        for (String key : keys) {
+            T resource = store.get(key);
+            if (resource != null) {
+                answer.add(resource);
+            }
+        }
+        return answer;
+    }
+
+    private static boolean containedInAll(String key, List<Set<String>> candidates) {
+        for (int i = 1; i < candidates.size(); i++) {
+            if (!candidates.get(i).contains(key)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void index(String key, T resource) {
+        String namespace = resource.getMetadata().getNamespace();
+        if (namespace != null) {
+            namespaceIndex.add(namespace, key);
+        }
+        Map<String, String> labels = resource.getMetadata().getLabels();
+        if (labels != null) {
+            for (Map.Entry<String, String> entry : labels.entrySet()) {
+                labelIndex.add(labelTerm(entry.getKey(), entry.getValue()), key);
+            }
+        }
+    }
+
+    private void unindex(String key, T resource) {
+        String namespace = resource.getMetadata().getNamespace();
+        if (namespace != null) {
+            namespaceIndex.remove(namespace, key);
+        }
+        Map<String, String> labels = resource.getMetadata().getLabels();
+        if (labels != null) {
+            for (Map.Entry<String, String> entry : labels.entrySet()) {
+                labelIndex.remove(labelTerm(entry.getKey(), entry.getValue()), key);
+            }
+        }
+    }
+
+    private static String labelTerm(String key, String value) {
+        return key + "=" + value;
+    }
+
+    private static boolean hasLabels(HasMetadata resource, Map<String, String> labels) {
+        Map<String, String> actual = resource.getMetadata().getLabels();
+        if (actual == null) {
+            actual = Collections.emptyMap();
+        }
+        for (Map.Entry<String, String> entry : labels.entrySet()) {
+            if (!ObjectHelper.equal(entry.getValue(), actual.get(entry.getKey()))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private final class StoreUpdater implements Watcher<T> {
+
+        @Override
+        public void eventReceived(Action action, T resource) {
+            // waiting for room is done before taking the lock, so a slow listener never blocks a registration
+            List<ListenerQueue> reserved = new ArrayList<ListenerQueue>(listeners.size());
+            for (ListenerQueue queue : listeners) {
+                if (queue.reserve()) {
+                    reserved.add(queue);
+                }
+            }
+            synchronized (lock) {
+                if (action != Action.ERROR && resource != null && resource.getMetadata() != null) {
+                    String key = KubernetesEvent.keyOf(resource);
+                    T previous = action == Action.DELETED ? store.remove(key) : store.put(key, resource);
+                    if (previous != null) {
+                        unindex(key, previous);
+                    }
+                    if (action != Action.DELETED) {
+                        index(key, resource);
+                    }
+                }
+                // a listener registered while waiting for room gets the event without a reservation
+                for (ListenerQueue queue : listeners) {
+                    queue.pending.add(new Notification<T>(action, resource, null, reserved.contains(queue)));
+                }
+            }
+            for (ListenerQueue queue : listeners) {
+                queue.schedule();
+            }
+        }
+
+        @Override
+        public void onClose(KubernetesClientException cause) {
+            for (ListenerQueue queue : listeners) {
+                queue.pending.add(new Notification<T>(null, null, cause, false));
+                queue.schedule();
+            }
+        }
+    }
+
+    private static final class Notification<T> {
+
+        private final Watcher.Action action;
+        private final T resource;
+        private final KubernetesClientException cause;
+        private final boolean reserved;
+
+        Notification(Watcher.Action action, T resource, KubernetesClientException cause, boolean reserved) {
+            this.action = action;
+            this.resource = resource;
+            this.cause = cause;
+            this.reserved = reserved;
+        }
+    }
+
+    /**
+     * The events waiting to be passed on to one listener, drained by at most
+     * one thread at a time so the listener sees them in order
+     */
+    private final class ListenerQueue implements Runnable {
+
+        private final Watcher<T> listener;
+        private final ConcurrentLinkedQueue<Notification<T>> pending = new ConcurrentLinkedQueue<Notification<T>>();
+        private final Semaphore room = new Semaphore(LISTENER_QUEUE_CAPACITY);
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+        // the cached resources to hand over as ADDED events before anything queued
+        private volatile List<T> initial;
+        private volatile boolean started;
+        private volatile boolean removed;
+
+        ListenerQueue(Watcher<T> listener) {
+            this.listener = listener;
+        }
+
+        void start(List<T> resources) {
+            initial = resources;
+            started = true;
+            schedule();
+        }
+
+        /**
+         * Waits for room for one more event, giving up if the listener is
+         * removed or the informer stopped meanwhile
+         */
+        boolean reserve() {
+            try {
+                while (!removed && isRunAllowed()) {
+                    if (room.tryAcquire(100, TimeUnit.MILLISECONDS)) {
+                        return true;
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return false;
+        }
+
+        void schedule() {
+            ExecutorService executor = listenerExecutor;
+            if (!started || removed || executor == null || !scheduled.compareAndSet(false, true)) {
+                return;
+            }
+            try {
+                executor.execute(this);
+            } catch (RejectedExecutionException e) {
+                scheduled.set(false);
+            }
+        }
+
+        @Override
+        public void run() {
+            try {
+                List<T> resources = initial;
+                if (resources != null) {
+                    initial = null;
+                    for (T resource : resources) {
+                        if (removed) {
+                            return;
+                        }
+                        notify(Watcher.Action.ADDED, resource);
+                    }
+                }
+                Notification<T> notification;
+                while (!removed && (notification = pending.poll()) != null) {
+                    if (notification.reserved) {
+                        room.release();
+                    }
+                    if (notification.action != null) {
+                        notify(notification.action, notification.resource);
+                    } else {
+                        listener.onClose(notification.cause);
+                    }
+                }
+            } finally {
+                scheduled.set(false);
+                if (!pending.isEmpty()) {
+                    schedule();
+                }
+            }
+        }
+
+        private void notify(Watcher.Action action, T resource) {
+            try {
+                listener.eventReceived(action, resource);
+            } catch (RuntimeException e) {
+                LOG.warn("Listener failed on " + action + " event: " + e.getMessage(), e);
+            }
+        }
+    }
+}
@@ -0,0 +1,148 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.component.kubernetes.cache;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+import io.fabric8.kubernetes.api.model.HasMetadata;
+import io.fabric8.kubernetes.client.KubernetesClient;
+
+import org.apache.camel.component.kubernetes.KubernetesConfiguration;
+import org.apache.camel.component.kubernetes.KubernetesEndpoint;
+import org.apache.camel.util.ObjectHelper;
+import org.apache.camel.util.ServiceHelper;
+
+/**
+ * Hands out one {@link KubernetesInformer} per client, category and
+ * namespace, started on first use and stopped when the last user releases
+ * it.
+ */
+public class KubernetesInformerRegistry {
+
+    private final Map<Key, Entry> informers = new HashMap<Key, Entry>();
+
+    /**
+     * The informer for the client, category and namespace of the endpoint,
+     * started if it is not running yet. Every call must be matched by a call
+     * to {@link #release(KubernetesInformer)}
+     */
+    @SuppressWarnings("unchecked")
+    public synchronized <T extends HasMetadata> KubernetesInformer<T> acquire(KubernetesEndpoint endpoint) throws Exception {
+        KubernetesConfiguration configuration = endpoint.getKubernetesConfiguration();
+        KubernetesClient client = endpoint.getKubernetesClient();
+        String category = configuration.getCategory();
+        String namespaceName = configuration.getNamespaceName();
+        if (!KubernetesResources.isWatchable(category)) {
+            throw new IllegalArgumentException("The " + category
+                    + " category cannot be cached, the client cannot read its watch events");
+        }
+
+        Key key = new Key(client, category, namespaceName);
+        Entry entry = informers.get(key);
+        if (entry == null) {
+            KubernetesInformer<T> informer = new KubernetesInformer<T>(endpoint.getCamelContext(),
+                    KubernetesResources.<T>resources(client, category, namespaceName),
+                    (Class<T>) KubernetesResources.resourceType(category), namespaceName,
+                    configuration.getWatchReconnectInitialDelay(), configuration.getWatchReconnectMaxDelay());
+            ServiceHelper.startService(informer);
+            entry = new Entry(informer);
+            informers.put(key, entry);
+        }
+        entry.references++;
+        return (KubernetesInformer<T>) entry.informer;
+    }
+
+    /**
+     * Gives up one use of the informer, stopping it if it was the last one
+     */
+    public synchronized void release(KubernetesInformer<?> informer) throws Exception {
+        for (Iterator<Entry> it = informers.values().iterator(); it.hasNext();) {
+            Entry entry = it.next();
+            if (entry.informer == informer) {
+                if (--entry.references == 0) {
+                    it.remove();
+                    ServiceHelper.stopService(informer);
+                }
+                return;
+            }
+        }
+    }
+
+    /**
+     * Stops all the informers regardless of their users
+     */
+    public synchronized void clear() throws Exception {
+        List<KubernetesInformer<?>> running = new ArrayList<KubernetesInformer<?>>();
+        for (Entry entry : informers.values()) {
+            running.add(entry.informer);
+        }
+        informers.clear();
+        ServiceHelper.stopServices(running);
+    }
+
+    public synchronized int size() {
+        return informers.size();
+    }
+
+    private static final class Entry {
+
+        private final KubernetesInformer<?> informer;
+        private int references;
+
+        private Entry(KubernetesInformer<?> informer) {
+            this.informer = informer;
+        }
+    }
+
+    /**
+     * Clients are told apart by identity, as two clients for the same master
+     * may well use different credentials
+     */
+    private static final class Key {
+
+        private final KubernetesClient client;
+        private final String category;
+        private final String namespaceName;
+
+        private Key(KubernetesClient client, String category, String namespaceName) {
+            this.client = client;
+            this.category = category;
+            this.namespaceName = ObjectHelper.isNotEmpty(namespaceName) ? namespaceName : null;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) o;
+            return client == other.client && category.equals(other.category)
+                    && ObjectHelper.equal(namespaceName, other.namespaceName);
+        }
+
+        @Override
+        public int hashCode() {
+            int result = System.identityHashCode(client);
+            result = 31 * result + category.hashCode();
+            return 31 * result + (namespaceName != null ? namespaceName.hashCode() : 0);
+        }
+    }
+}
@@ -0,0 +1,241 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.component.kubernetes.cache;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+
+import io.fabric8.kubernetes.api.model.HasMetadata;
+
+import org.apache.camel.util.ObjectHelper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A bounded read-through cache for get operations, keyed by namespace and
+ * name.
+ * <p/>
+ * Entries live for a fixed time and the least recently used entry is evicted
+ * when the cache is full. Only resources which exist are cached, so a get of
+ * a missing resource always goes to the server.
+ * <p/>
+ * With revalidation an expired entry is still answered while a background
+ * get fetches the resource again: when its resourceVersion is unchanged the
+ * entry simply lives on, otherwise the new resource replaces it. An entry
+ * which is more than twice its time to live old is never answered, so a
+ * rarely read resource is not served very stale.
+ * <p/>
+ * The cached resources are shared and must not be modified.
+ */
+public class KubernetesReadCache<T extends HasMetadata> {
+
+    private static final Logger LOG = LoggerFactory.getLogger(KubernetesReadCache.class);
+
+    private final Loader<T> loader;
+    private final int maxSize;
+    private final long timeToLive;
+    private final ExecutorService revalidator;
+    private final Map<String, Entry<T>> entries;
+
+    private long hits;
+    private long misses;
+    private long evictions;
+    private long revalidations;
+    // moved on by every invalidation, so a load started before it is not cached after it
+    private long generation;
+
+    /**
+     * @param revalidator the executor revalidating expired entries, or
+     *            <tt>null</tt> to reload them in the caller
+     */
+    public KubernetesReadCache(Loader<T> loader, final int maxSize, long timeToLive, ExecutorService revalidator) {
+        ObjectHelper.notNull(loader, "loader");
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("The read cache size must be greater than 0");
+        }
+        if (timeToLive <= 0) {
+            throw new IllegalArgumentException("The read cache time to live must be greater than 0");
+        }
+        this.loader = loader;
+        this.maxSize = maxSize;
+        this.timeToLive = timeToLive;
+        this.revalidator = revalidator;
+        this.entries = new LinkedHashMap<String, Entry<T>>(16, 0.75f, true) {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry<T>> eldest) {
+                if (size() > maxSize) {
+                    evictions++;
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * The resource, from the cache if it holds a fresh enough copy
+     */
+    public T get(String namespace, String name) throws Exception {
+        final String key = key(namespace, name);
+        long now = System.currentTimeMillis();
+        long loadGeneration;
+        synchronized (this) {
+            Entry<T> entry = entries.get(key);
+            if (entry != null) {
+                long age = now - entry.loaded;
+                if (age < timeToLive) {
+                    hits++;
+                    return entry.resource;
+                }
+                if (revalidator != null && age < 2 * timeToLive) {
+                    hits++;
+                    if (!entry.revalidating) {
+                        revalidate(key, namespace, name, entry);
+                    }
+                    return entry.resource;
+                }
+                entries.remove(key);
+            }
+            misses++;
+            loadGeneration = generation;
+        }
+        T resource = loader.load(namespace, name);
+        if (resource != null) {
+            synchronized (this) {
+                if (generation == loadGeneration) {
+                    entries.put(key, new Entry<T>(resource, now));
+                }
+            }
+        }
+        return resource;
+    }
+
+    public synchronized void invalidate(String namespace, String name) {
+        generation++;
+        entries.remove(key(namespace, name));
+    }
+
+    public synchronized void clear() {
+        generation++;
+        entries.clear();
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    public long getTimeToLive() {
+        return timeToLive;
+    }
+
+    public synchronized long getHits() {
+        return hits;
+    }
+
+    public synchronized long getMisses() {
+        return misses;
+    }
+
+    /**
+     * The number of entries dropped to make room for others
+     */
+    public synchronized long getEvictions() {
+        return evictions;
+    }
+
+    /**
+     * The number of expired entries found unchanged on the server
+     */
+    public synchronized long getRevalidations() {
+        return revalidations;
+    }
+
+    private void revalidate(final String key, final String namespace, final String name, final Entry<T> entry) {
+        entry.revalidating = true;
+        try {
+            revalidator.execute(new Runnable() {
+                @Override
+                public void run() {
+                    T resource = null;
+                    Exception failure = null;
+                    long loaded = System.currentTimeMillis();
+                    try {
+                        resource = loader.load(namespace, name);
+                    } catch (Exception e) {
+                        failure = e;
+                    }
+                    synchronized (KubernetesReadCache.this) {
+                        entry.revalidating = false;
+                        if (entries.get(key) != entry) {
+                            // invalidated or replaced in the meantime
+                            return;
+                        }
+                        if (failure != null) {
+                            LOG.debug("Cannot revalidate {}: {}", key, failure.getMessage());
+                        } else if (resource == null) {
+                            entries.remove(key);
+                        } else if (ObjectHelper.equal(resourceVersion(resource), resourceVersion(entry.resource))) {
+                            entry.loaded = loaded;
+                            revalidations++;
+                        } else {
+                            entries.put(key, new Entry<T>(resource, loaded));
+                        }
+                    }
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            entry.revalidating = false;
+        }
+    }
+
+    private static String resourceVersion(HasMetadata resource) {
+        return resource.getMetadata() != null ? resource.getMetadata().getResourceVersion() : null;
+    }
+
+    private static String key(String namespace, String name) {
+        return ObjectHelper.isNotEmpty(namespace) ? namespace + "/" + name : name;
+    }
+
+    /**
+     * Fetches a resource from the server, answering <tt>null</tt> if it does
+     * not exist
+     */
+    public interface Loader<T> {
+
+        T load(String namespace, String name) throws Exception;
+    }
+
+    private static final class Entry<T> {
+
+        private final T resource;
+        private long loaded;
+        private boolean revalidating;
+
+        private Entry(T resource, long loaded) {
+            this.resource = resource;
+            this.loaded = loaded;
+        }
+    }
+}
@@ -0,0 +1,184 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.component.kubernetes.cache;
+
+import java.io.UnsupportedEncodingException;
+import java.net.URLEncoder;
+import java.util.Map;
+
+import io.fabric8.kubernetes.api.model.HasMetadata;
+import io.fabric8.kubernetes.api.model.KubernetesResourceList;
+import io.fabric8.kubernetes.api.model.Namespace;
+import io.fabric8.kubernetes.api.model.Node;
+import io.fabric8.kubernetes.api.model.PersistentVolume;
+import io.fabric8.kubernetes.api.model.PersistentVolumeClaim;
+import io.fabric8.kubernetes.api.model.Pod;
+import io.fabric8.kubernetes.api.model.ReplicationController;
+import io.fabric8.kubernetes.api.model.ResourceQuota;
+import io.fabric8.kubernetes.api.model.Secret;
+import io.fabric8.kubernetes.api.model.Service;
+import io.fabric8.kubernetes.api.model.ServiceAccount;
+import io.fabric8.kubernetes.client.KubernetesClient;
+import io.fabric8.kubernetes.client.dsl.ClientOperation;
+import io.fabric8.kubernetes.client.dsl.FilterWatchListDeletable;
+import io.fabric8.kubernetes.client.dsl.internal.OperationSupport;
+import io.fabric8.kubernetes.client.internal.URLUtils;
+import io.fabric8.openshift.api.model.Build;
+import io.fabric8.openshift.api.model.BuildConfig;
+import io.fabric8.openshift.client.OpenShiftClient;
+
+import org.apache.camel.component.kubernetes.KubernetesCategory;
+import org.apache.camel.util.ObjectHelper;
+
+/**
+ * Maps a category to the resource type and the client operations used to
+ * list and watch its resources.
+ */
+public final class KubernetesResources {
+
+    private KubernetesResources() {
+    }
+
+    /**
+     * The resource type of the given category
+     */
+    public static Class<? extends HasMetadata> resourceType(String category) {
+        switch (category) {
+        case KubernetesCategory.NAMESPACES:
+            return Namespace.class;
+        case KubernetesCategory.NODES:
+            return Node.class;
+        case KubernetesCategory.PODS:
+            return Pod.class;
+        case KubernetesCategory.SERVICES:
+            return Service.class;
+        case KubernetesCategory.REPLICATION_CONTROLLERS:
+            return ReplicationController.class;
+        case KubernetesCategory.SECRETS:
+            return Secret.class;
+        case KubernetesCategory.PERSISTENT_VOLUMES:
+            return PersistentVolume.class;
+        case KubernetesCategory.PERSISTENT_VOLUMES_CLAIMS:
+            return PersistentVolumeClaim.class;
+        case KubernetesCategory.RESOURCES_QUOTA:
+            return ResourceQuota.class;
+        case KubernetesCategory.SERVICE_ACCOUNTS:
+            return ServiceAccount.class;
+        case KubernetesCategory.BUILDS:
+            return Build.class;
+        case KubernetesCategory.BUILD_CONFIGS:
+            return BuildConfig.class;
+        default:
+            throw new IllegalArgumentException("The " + category + " category doesn't exist");
+        }
+    }
+
+    /**
+     * The resources of the given category, restricted to a namespace if one
+     * is given and the resources are namespaced
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public static <T extends HasMetadata> FilterWatchListDeletable<T, ? extends KubernetesResourceList, Boolean> resources(
+            KubernetesClient client, String category, String namespaceName) {
+        ClientOperation operation;
+        switch (category) {
+        case KubernetesCategory.NAMESPACES:
+            return (FilterWatchListDeletable) client.namespaces();
+        case KubernetesCategory.NODES:
+            return (FilterWatchListDeletable) client.nodes();
+        case KubernetesCategory.PODS:
+            operation = client.pods();
+            break;
+        case KubernetesCategory.SERVICES:
+            operation = client.services();
+            break;
+        case KubernetesCategory.REPLICATION_CONTROLLERS:
+            operation = client.replicationControllers();
+            break;
+        case KubernetesCategory.SECRETS:
+            operation = client.secrets();
+            break;
+        case KubernetesCategory.PERSISTENT_VOLUMES:
+            operation = client.persistentVolumes();
+            break;
+        case KubernetesCategory.PERSISTENT_VOLUMES_CLAIMS:
+            operation = client.persistentVolumeClaims();
+            break;
+        case KubernetesCategory.RESOURCES_QUOTA:
+            operation = client.resourceQuotas();
+            break;
+        case KubernetesCategory.SERVICE_ACCOUNTS:
+            operation = client.serviceAccounts();
+            break;
+        case KubernetesCategory.BUILDS:
+            operation = client.adapt(OpenShiftClient.class).builds();
+            break;
+        case KubernetesCategory.BUILD_CONFIGS:
+            operation = client.adapt(OpenShiftClient.class).buildConfigs();
+            break;
+        default:
+            throw new IllegalArgumentException("The " + category + " category doesn't exist");
+        }
+        if (ObjectHelper.isNotEmpty(namespaceName)) {
+            return (FilterWatchListDeletable) operation.inNamespace(namespaceName);
+        }
+        return (FilterWatchListDeletable) operation;
+    }
+
+    /**
+     * Whether the resources of the given category can be watched. The model
+     * of the client does not know the ResourceQuota kind, so the watch events
+     * of quotas are dropped by the client
+     */
+    public static boolean isWatchable(String category) {
+        return !KubernetesCategory.RESOURCES_QUOTA.equals(category);
+    }
+
+    /**
+     * Whether the resources of the given category live in a namespace
+     */
+    public static boolean isNamespaced(String category) {
+        return !KubernetesCategory.NAMESPACES.equals(category) && !KubernetesCategory.NODES.equals(category)
+                && !KubernetesCategory.PERSISTENT_VOLUMES.equals(category);
+    }
+
+    /**
+     * The URL listing the resources of the given category, as the client
+     * would build it, optionally selecting them by labels
+     */
+    public static String listUrl(KubernetesClient client, String category, String namespaceName,
+            Map<String, String> labels) throws UnsupportedEncodingException {
+        boolean namespaced = isNamespaced(category);
+        OperationSupport<?> operation = (OperationSupport<?>) resources(client, category, namespaced ? namespaceName : null);
+        String root = operation.getRootUrl().toString();
+        String namespace = namespaced ? operation.getNamespace() : null;
+        String url = ObjectHelper.isNotEmpty(namespace)
+                ? URLUtils.join(root, "namespaces", namespace, operation.getResourceT())
+                : URLUtils.join(root, operation.getResourceT());
+        if (labels != null && !labels.isEmpty()) {
+            StringBuilder selector = new StringBuilder();
+            for (Map.Entry<String, String> entry : labels.entrySet()) {
+                if (selector.length() > 0) {
+                    selector.append(',');
+                }
+                selector.append(entry.getKey()).append('=').append(entry.getValue());
+            }
+            url += "?labelSelector=" + URLEncoder.encode(selector.toString(), "UTF-8");
+        }
+        return url;
+    }
+}
@@ -0,0 +1,69 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.component.kubernetes.cache;
+
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * An inverted index from a value, such as a label <tt>key=value</tt> pair,
+ * to the keys of the cached resources carrying it.
+ * <p/>
+ * Updates are expected from a single thread at a time while lookups may run
+ * concurrently with them.
+ */
+class ResourceIndex {
+
+    private final ConcurrentMap<String, Set<String>> keysByValue = new ConcurrentHashMap<String, Set<String>>();
+
+    void add(String value, String key) {
+        Set<String> keys = keysByValue.get(value);
+        if (keys == null) {
+            keys = Collections.newSetFromMap(new ConcurrentHashMap<String, Boolean>());
+            keysByValue.put(value, keys);
+        }
+        keys.add(key);
+    }
+
+    void remove(String value, String key) {
+        Set<String> keys = keysByValue.get(value);
+        if (keys != null) {
+            keys.remove(key);
+            if (keys.isEmpty()) {
+                keysByValue.remove(value);
+            }
+        }
+    }
+
+    /**
+     * The keys of the resources carrying the value, as a live view
+     */
+    Set<String> get(String value) {
+        Set<String> keys = keysByValue.get(value);
+        return keys != null ? keys : Collections.<String>emptySet();
+    }
+
+    int size() {
+        return keysByValue.size();
+    }
+
+    void clear() {
+        keysByValue.clear();
+    }
+}
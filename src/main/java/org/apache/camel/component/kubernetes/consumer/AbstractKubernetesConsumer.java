@@ -0,0 +1,652 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.component.kubernetes.consumer;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+import io.fabric8.kubernetes.api.model.HasMetadata;
+import io.fabric8.kubernetes.api.model.KubernetesResourceList;
+import io.fabric8.kubernetes.api.model.Namespace;
+import io.fabric8.kubernetes.client.KubernetesClientException;
+import io.fabric8.kubernetes.client.Watcher;
+import io.fabric8.kubernetes.client.dsl.FilterWatchListDeletable;
+
+import org.apache.camel.Exchange;
+import org.apache.camel.Processor;
+import org.apache.camel.api.management.ManagedAttribute;
+import org.apache.camel.api.management.ManagedResource;
+import org.apache.camel.component.kubernetes.KubernetesConfiguration;
+import org.apache.camel.component.kubernetes.KubernetesConstants;
+import org.apache.camel.component.kubernetes.KubernetesEndpoint;
+import org.apache.camel.component.kubernetes.KubernetesSelectors;
+import org.apache.camel.component.kubernetes.cache.KubernetesInformer;
+import org.apache.camel.component.kubernetes.cache.KubernetesResources;
+import org.apache.camel.component.kubernetes.consumer.common.CheckpointStore;
+import org.apache.camel.component.kubernetes.consumer.common.ConsumerMode;
+import org.apache.camel.component.kubernetes.consumer.common.FileCheckpointStore;
+import org.apache.camel.component.kubernetes.consumer.common.KubernetesEvent;
+import org.apache.camel.component.kubernetes.consumer.common.KubernetesEventBuffer;
+import org.apache.camel.component.kubernetes.consumer.common.ResumableWatch;
+import org.apache.camel.impl.ScheduledPollConsumer;
+import org.apache.camel.util.ObjectHelper;
+import org.apache.camel.util.ServiceHelper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Base class for the consumers which watch a Kubernetes resource type and
+ * hand the events over to the route.
+ * <p/>
+ * Events are queued by the watch thread into a {@link KubernetesEventBuffer}
+ * and delivered in arrival order, either by {@link #poll()} or, in
+ * {@link ConsumerMode#PUSH} mode, by worker threads waiting on the buffer so
+ * the route sees an event without waiting for the next poll.
+ * <p/>
+ * The watch is a {@link ResumableWatch}, so a dropped connection is
+ * re-established from the last seen resourceVersion. With a
+ * {@link CheckpointStore} the resourceVersion of each delivered event is also
+ * saved once the route has processed it without failure, and a restarted
+ * consumer resumes its watch from it. The checkpoint only moves forward, so
+ * it needs the events delivered in order by a single worker. Once the route
+ * fails on an event the checkpoint of its namespace stays where it was until
+ * the consumer is restarted, so the failed event and those after it are
+ * delivered again on restart: events are delivered at least once.
+ * <p/>
+ * With <tt>useCache</tt> the consumer opens no watch of its own but listens
+ * to the shared {@link KubernetesInformer}, which starts by handing it every
+ * cached resource as an ADDED event. The informer queues few events per listener, so
+ * a full buffer holds back the shared watch, as it would a watch of its own.
+ * <p/>
+ * Label and field selectors are sent with the watch, so the server only
+ * passes on the events of the matching resources. As the shared cache holds
+ * all the resources, a consumer with selectors always opens its own watch.
+ * <p/>
+ * A consumer may also watch a list of namespaces, or the namespaces matching
+ * a pattern, with one watch per namespace opened on a small pool. The events
+ * of all the namespaces go through the same buffer, where each namespace
+ * gets an equal share of the capacity so a busy one cannot hold back the
+ * others.
+ * <p/>
+ * The buffer statistics are exposed over JMX to show when the route is too
+ * slow for the watch and back-pressure kicks in.
+ */
+@ManagedResource(description = "Managed Kubernetes Consumer")
+public abstract class AbstractKubernetesConsumer<T extends HasMetadata> extends ScheduledPollConsumer {
+
+    private static final Logger LOG = LoggerFactory.getLogger(AbstractKubernetesConsumer.class);
+
+    private final Class<T> resourceType;
+
+    private KubernetesEventBuffer<KubernetesEvent<T>> buffer;
+
+    private ResumableWatch<T> watch;
+
+    private KubernetesInformer<T> informer;
+
+    private EventWatcher informerListener;
+
+    private ExecutorService executor;
+
+    private ScheduledExecutorService reconnectExecutor;
+
+    private final ConcurrentMap<String, ResumableWatch<T>> namespaceWatches = new ConcurrentHashMap<String, ResumableWatch<T>>();
+
+    private ResumableWatch<Namespace> namespacesWatch;
+
+    private Pattern namespacePattern;
+
+    private boolean multiNamespace;
+
+    private CheckpointStore checkpointStore;
+
+    private boolean ownCheckpointStore;
+
+    private String checkpointKey;
+
+    private final ConcurrentMap<String, String> checkpoints = new ConcurrentHashMap<String, String>();
+
+    // the checkpoint keys held back by a failed event
+    private final Set<String> failedCheckpoints = Collections.newSetFromMap(new ConcurrentHashMap<String, Boolean>());
+
+    public AbstractKubernetesConsumer(KubernetesEndpoint endpoint, Processor processor, Class<T> resourceType) {
+        super(endpoint, processor);
+        this.resourceType = resourceType;
+    }
+
+    @Override
+    public KubernetesEndpoint getEndpoint() {
+        return (KubernetesEndpoint) super.getEndpoint();
+    }
+
+    /**
+     * The resources to watch, optionally restricted to a namespace
+     */
+    protected abstract FilterWatchListDeletable<T, ? extends KubernetesResourceList, Boolean> resources(String namespaceName);
+
+    /**
+     * The event to pass on to the route, or <tt>null</tt> to skip it
+     */
+    protected abstract KubernetesEvent<T> createEvent(Watcher.Action action, T resource);
+
+    @Override
+    protected void doStart() throws Exception {
+        KubernetesConfiguration configuration = getEndpoint().getKubernetesConfiguration();
+        List<String> namespaceNames = namespaceNames(configuration);
+        namespacePattern = ObjectHelper.isNotEmpty(configuration.getNamespacePattern())
+                ? Pattern.compile(configuration.getNamespacePattern()) : null;
+        multiNamespace = namespaceNames != null || namespacePattern != null;
+        if (multiNamespace) {
+            if (!KubernetesResources.isNamespaced(configuration.getCategory())) {
+                throw new IllegalArgumentException("The " + configuration.getCategory()
+                        + " category is not namespaced, namespaceNames and namespacePattern do not apply");
+            }
+            if (ObjectHelper.isNotEmpty(configuration.getNamespaceName()) || (namespaceNames != null && namespacePattern != null)) {
+                throw new IllegalArgumentException("Only one of namespaceName, namespaceNames and namespacePattern can be set");
+            }
+        }
+        boolean checkpointed = configuration.getCheckpointStore() != null
+                || ObjectHelper.isNotEmpty(configuration.getCheckpointFile());
+        if (checkpointed && configuration.getConsumerMode() == ConsumerMode.PUSH && configuration.getConsumerPoolSize() > 1) {
+            throw new IllegalArgumentException("A checkpoint can only be kept with consumerPoolSize=1,"
+                    + " as concurrent workers complete the events out of order");
+        }
+        // selectors are parsed up front, so a bad one fails the start before any thread is created
+        boolean selective = KubernetesSelectors.hasSelectors(configuration);
+        boolean cached = configuration.isUseCache() && !selective && !multiNamespace;
+        if (checkpointed && cached) {
+            throw new IllegalArgumentException("A checkpoint cannot be kept with useCache=true,"
+                    + " as the shared cache is not resumed from it");
+        }
+        FilterWatchListDeletable<T, ? extends KubernetesResourceList, Boolean> watched = null;
+        if (selective) {
+            watched = KubernetesSelectors.apply(resources(configuration.getNamespaceName()), configuration);
+        }
+
+        buffer = new KubernetesEventBuffer<KubernetesEvent<T>>(configuration.getEventBufferCapacity(),
+                configuration.getEventBufferMaxBytes(), configuration.getEventBufferOverflowPolicy(),
+                configuration.isCoalesceEvents());
+
+        boolean push = configuration.getConsumerMode() == ConsumerMode.PUSH;
+        if (push) {
+            setStartScheduler(false);
+        }
+
+        super.doStart();
+
+        if (push) {
+            int poolSize = configuration.getConsumerPoolSize();
+            executor = getEndpoint().getCamelContext().getExecutorServiceManager()
+                    .newFixedThreadPool(this, "KubernetesConsumer", poolSize);
+            for (int i = 0; i < poolSize; i++) {
+                executor.submit(new PushTask());
+            }
+        }
+
+        if (cached) {
+            informer = getEndpoint().getComponent().getInformerRegistry().acquire(getEndpoint());
+            informerListener = new EventWatcher();
+            informer.addListener(informerListener);
+        } else if (ObjectHelper.isNotEmpty(configuration.getOauthToken()) && multiNamespace) {
+            reconnectExecutor = getEndpoint().getCamelContext().getExecutorServiceManager()
+                    .newScheduledThreadPool(this, "KubernetesWatch", configuration.getWatchPoolSize());
+            startCheckpoint(configuration);
+            if (namespacePattern != null) {
+                namespacesWatch = new ResumableWatch<Namespace>(getEndpoint().getKubernetesClient().namespaces(),
+                        Namespace.class, new NamespaceWatcher(), reconnectExecutor,
+                        configuration.getWatchReconnectInitialDelay(), configuration.getWatchReconnectMaxDelay());
+                namespacesWatch.startWithList();
+            } else {
+                openWatches(namespaceNames);
+            }
+        } else if (ObjectHelper.isNotEmpty(configuration.getOauthToken())) {
+            reconnectExecutor = getEndpoint().getCamelContext().getExecutorServiceManager()
+                    .newSingleThreadScheduledExecutor(this, "KubernetesWatchReconnect");
+            if (watched == null) {
+                watched = resources(configuration.getNamespaceName());
+            }
+            watch = new ResumableWatch<T>(watched, resourceType, new EventWatcher(),
+                    reconnectExecutor, configuration.getWatchReconnectInitialDelay(), configuration.getWatchReconnectMaxDelay());
+            startCheckpoint(configuration);
+            watch.start(loadCheckpoint(configuration.getNamespaceName()));
+        }
+    }
+
+    @Override
+    protected void doStop() throws Exception {
+        if (watch != null) {
+            watch.close();
+            watch = null;
+        }
+        if (namespacesWatch != null) {
+            namespacesWatch.close();
+            namespacesWatch = null;
+        }
+        for (String namespace : namespaceWatches.keySet()) {
+            closeWatch(namespace);
+        }
+        if (informer != null) {
+            informer.removeListener(informerListener);
+            getEndpoint().getComponent().getInformerRegistry().release(informer);
+            informer = null;
+            informerListener = null;
+        }
+        if (reconnectExecutor != null) {
+            getEndpoint().getCamelContext().getExecutorServiceManager().shutdownNow(reconnectExecutor);
+            reconnectExecutor = null;
+        }
+        if (ownCheckpointStore) {
+            ServiceHelper.stopService(checkpointStore);
+        }
+        checkpointStore = null;
+        checkpoints.clear();
+        failedCheckpoints.clear();
+        if (executor != null) {
+            getEndpoint().getCamelContext().getExecutorServiceManager().shutdownNow(executor);
+            executor = null;
+        }
+        super.doStop();
+        buffer.clear();
+    }
+
+    @Override
+    protected int poll() throws Exception {
+        // only deliver what is buffered right now so a busy watch cannot keep us here forever
+        int pending = buffer.size();
+        int processed = 0;
+        while (processed < pending && isRunAllowed()) {
+            KubernetesEvent<T> event = buffer.poll();
+            if (event == null) {
+                break;
+            }
+            deliver(event);
+            processed++;
+        }
+        return processed;
+    }
+
+    protected void deliver(KubernetesEvent<T> event) {
+        Exchange exchange = createExchange(event);
+        try {
+            getProcessor().process(exchange);
+        } catch (Exception e) {
+            exchange.setException(e);
+        }
+        if (exchange.getException() != null) {
+            getExceptionHandler().handleException("Error processing exchange", exchange, exchange.getException());
+        }
+        if (checkpointStore != null) {
+            checkpoint(event.getResource(), exchange.getException() == null);
+        }
+    }
+
+    /**
+     * Saves the resourceVersion of a delivered resource, unless it would move
+     * the checkpoint backwards or past an event the route failed on; the
+     * tombstones of a relist only carry the version seen before the deletion
+     * so they are never saved
+     */
+    private void checkpoint(T resource, boolean processed) {
+        if (resource == null || resource.getMetadata() == null) {
+            return;
+        }
+        String key = checkpointKey(resource.getMetadata().getNamespace());
+        if (!processed) {
+            if (failedCheckpoints.add(key)) {
+                LOG.warn("Not moving checkpoint {} past resourceVersion {} until the consumer is restarted,"
+                        + " as the route failed on a later event", key, checkpoints.get(key));
+            }
+            return;
+        }
+        String resourceVersion = resource.getMetadata().getResourceVersion();
+        if (resourceVersion == null || ResumableWatch.isTombstone(resource) || failedCheckpoints.contains(key)) {
+            return;
+        }
+        String previous = checkpoints.get(key);
+        if (previous != null && !isNewer(resourceVersion, previous)) {
+            return;
+        }
+        checkpoints.put(key, resourceVersion);
+        checkpointStore.save(key, resourceVersion);
+    }
+
+    private static boolean isNewer(String resourceVersion, String previous) {
+        try {
+            return Long.parseLong(resourceVersion) > Long.parseLong(previous);
+        } catch (NumberFormatException e) {
+            // resourceVersions are opaque to clients, only known to be ordered when they are numbers
+            return !resourceVersion.equals(previous);
+        }
+    }
+
+    /**
+     * Opens the watches of the given namespaces side by side on the watch
+     * pool, failing if any of them cannot be opened
+     */
+    private void openWatches(List<String> namespaces) throws Exception {
+        List<Future<Void>> futures = new ArrayList<Future<Void>>();
+        for (final String namespace : namespaces) {
+            futures.add(reconnectExecutor.submit(new Callable<Void>() {
+                @Override
+                public Void call() throws Exception {
+                    openWatch(namespace);
+                    return null;
+                }
+            }));
+        }
+        for (Future<Void> future : futures) {
+            try {
+                future.get();
+            } catch (ExecutionException e) {
+                throw e.getCause() instanceof Exception ? (Exception) e.getCause() : e;
+            }
+        }
+    }
+
+    private void openWatch(String namespace) throws Exception {
+        KubernetesConfiguration configuration = getEndpoint().getKubernetesConfiguration();
+        FilterWatchListDeletable<T, ? extends KubernetesResourceList, Boolean> resources = resources(namespace);
+        if (KubernetesSelectors.hasSelectors(configuration)) {
+            resources = KubernetesSelectors.apply(resources, configuration);
+        }
+        ResumableWatch<T> namespaceWatch = new ResumableWatch<T>(resources, resourceType, new EventWatcher(),
+                reconnectExecutor, configuration.getWatchReconnectInitialDelay(), configuration.getWatchReconnectMaxDelay());
+        if (namespaceWatches.putIfAbsent(namespace, namespaceWatch) != null) {
+            return;
+        }
+        updateNamespaceShare();
+        try {
+            namespaceWatch.start(loadCheckpoint(namespace));
+        } catch (Exception e) {
+            namespaceWatches.remove(namespace, namespaceWatch);
+            updateNamespaceShare();
+            throw e;
+        }
+        if (!isRunAllowed()) {
+            // stopped while the watch was being opened
+            closeWatch(namespace);
+        } else {
+            LOG.debug("Watching {} in namespace {}", configuration.getCategory(), namespace);
+        }
+    }
+
+    private void closeWatch(String namespace) {
+        ResumableWatch<T> namespaceWatch = namespaceWatches.remove(namespace);
+        if (namespaceWatch != null) {
+            namespaceWatch.close();
+            updateNamespaceShare();
+        }
+    }
+
+    private void updateNamespaceShare() {
+        int watches = namespaceWatches.size();
+        buffer.setNamespaceShare(Math.max(1, buffer.getCapacity() / Math.max(1, watches)));
+    }
+
+    private static List<String> namespaceNames(KubernetesConfiguration configuration) {
+        if (ObjectHelper.isEmpty(configuration.getNamespaceNames())) {
+            return null;
+        }
+        List<String> names = new ArrayList<String>();
+        for (String name : configuration.getNamespaceNames().split(",")) {
+            if (ObjectHelper.isNotEmpty(name.trim()) && !names.contains(name.trim())) {
+                names.add(name.trim());
+            }
+        }
+        return names.isEmpty() ? null : names;
+    }
+
+    /**
+     * Starts the checkpoint store, if any
+     */
+    private void startCheckpoint(KubernetesConfiguration configuration) throws Exception {
+        checkpointStore = configuration.getCheckpointStore();
+        ownCheckpointStore = false;
+        if (checkpointStore == null && ObjectHelper.isNotEmpty(configuration.getCheckpointFile())) {
+            checkpointStore = new FileCheckpointStore(new File(configuration.getCheckpointFile()));
+            ownCheckpointStore = true;
+        }
+        if (checkpointStore == null) {
+            return;
+        }
+        ServiceHelper.startService(checkpointStore);
+
+        checkpointKey = configuration.getCheckpointKey();
+        if (ObjectHelper.isEmpty(checkpointKey)) {
+            String namespace = configuration.getNamespaceName();
+            checkpointKey = configuration.getMasterUrl() + "/" + configuration.getCategory();
+            if (!multiNamespace) {
+                checkpointKey += "/" + (ObjectHelper.isNotEmpty(namespace) ? namespace : "*");
+            }
+        }
+    }
+
+    /**
+     * The resourceVersion to resume the watch of the given namespace from
+     */
+    private String loadCheckpoint(String namespace) {
+        if (checkpointStore == null) {
+            return null;
+        }
+        String key = checkpointKey(namespace);
+        String resourceVersion = checkpointStore.load(key);
+        if (resourceVersion != null) {
+            checkpoints.put(key, resourceVersion);
+        }
+        LOG.info("Resuming watch for {} from checkpointed resourceVersion {}", key, resourceVersion);
+        return resourceVersion;
+    }
+
+    /**
+     * With several namespaces each one is checkpointed under a key of its own
+     */
+    private String checkpointKey(String namespace) {
+        return multiNamespace ? checkpointKey + "/" + namespace : checkpointKey;
+    }
+
+    protected Exchange createExchange(KubernetesEvent<T> event) {
+        Exchange exchange = getEndpoint().createExchange();
+        exchange.getIn().setBody(event.getResource());
+        exchange.getIn().setHeader(KubernetesConstants.KUBERNETES_EVENT_ACTION, event.getAction());
+        exchange.getIn().setHeader(KubernetesConstants.KUBERNETES_EVENT_TIMESTAMP, event.getTimestamp());
+        exchange.getIn().setHeader(KubernetesConstants.KUBERNETES_EVENT_SEQUENCE, event.getSequence());
+        return exchange;
+    }
+
+    protected KubernetesEventBuffer<KubernetesEvent<T>> getBuffer() {
+        return buffer;
+    }
+
+    @ManagedAttribute(description = "The resourceVersion of the last received event")
+    public String getResourceVersion() {
+        if (watch != null) {
+            return watch.getResourceVersion();
+        }
+        return informer != null ? informer.getResourceVersion() : null;
+    }
+
+    @ManagedAttribute(description = "Number of times the watch was re-established")
+    public long getWatchReconnectCount() {
+        long count = watch != null ? watch.getReconnectCount() : 0;
+        for (ResumableWatch<T> namespaceWatch : namespaceWatches.values()) {
+            count += namespaceWatch.getReconnectCount();
+        }
+        return count;
+    }
+
+    @ManagedAttribute(description = "Number of times the resources were listed again to resume the watch")
+    public long getWatchRelistCount() {
+        long count = watch != null ? watch.getRelistCount() : 0;
+        for (ResumableWatch<T> namespaceWatch : namespaceWatches.values()) {
+            count += namespaceWatch.getRelistCount();
+        }
+        return count;
+    }
+
+    @ManagedAttribute(description = "The namespaces watched with a watch each")
+    public String getWatchedNamespaces() {
+        StringBuilder namespaces = new StringBuilder();
+        for (String namespace : new TreeSet<String>(namespaceWatches.keySet())) {
+            if (namespaces.length() > 0) {
+                namespaces.append(',');
+            }
+            namespaces.append(namespace);
+        }
+        return namespaces.toString();
+    }
+
+    @ManagedAttribute(description = "Number of buffered events")
+    public int getBufferSize() {
+        return buffer != null ? buffer.size() : 0;
+    }
+
+    @ManagedAttribute(description = "Estimated size in bytes of the buffered events")
+    public long getBufferBytes() {
+        return buffer != null ? buffer.getBytes() : 0;
+    }
+
+    @ManagedAttribute(description = "Whether the buffer is full or the watch is waiting for room")
+    public boolean isBackPressureActive() {
+        return buffer != null && buffer.isBackPressureActive();
+    }
+
+    @ManagedAttribute(description = "Number of times the watch waited for room in the buffer")
+    public long getBackPressureBlockedCount() {
+        return buffer != null ? buffer.getBlockedCount() : 0;
+    }
+
+    @ManagedAttribute(description = "Total time in millis the watch waited for room in the buffer")
+    public long getBackPressureBlockedTime() {
+        return buffer != null ? buffer.getBlockedTime() : 0;
+    }
+
+    @ManagedAttribute(description = "Number of events dropped because the buffer was full")
+    public long getDroppedEvents() {
+        return buffer != null ? buffer.getDroppedCount() : 0;
+    }
+
+    @ManagedAttribute(description = "Number of events coalesced with a pending event for the same object")
+    public long getCoalescedEvents() {
+        return buffer != null ? buffer.getCoalescedCount() : 0;
+    }
+
+    @ManagedAttribute(description = "Number of events rejected because the buffer was full")
+    public long getRejectedEvents() {
+        return buffer != null ? buffer.getRejectedCount() : 0;
+    }
+
+    private final class PushTask implements Runnable {
+
+        @Override
+        public void run() {
+            while (isRunAllowed()) {
+                try {
+                    if (isSuspended()) {
+                        Thread.sleep(100);
+                        continue;
+                    }
+                    KubernetesEvent<T> event = buffer.poll(1, TimeUnit.SECONDS);
+                    if (event != null) {
+                        deliver(event);
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * Opens and closes the watches of the namespaces matching the pattern as
+     * they come and go
+     */
+    private final class NamespaceWatcher implements Watcher<Namespace> {
+
+        @Override
+        public void eventReceived(Action action, Namespace namespace) {
+            if (action == Action.ERROR || namespace == null || namespace.getMetadata() == null) {
+                return;
+            }
+            final String name = namespace.getMetadata().getName();
+            if (name == null || !namespacePattern.matcher(name).matches()) {
+                return;
+            }
+            if (action == Action.DELETED) {
+                closeWatch(name);
+            } else if (!namespaceWatches.containsKey(name)) {
+                reconnectExecutor.submit(new Runnable() {
+                    @Override
+                    public void run() {
+                        try {
+                            openWatch(name);
+                        } catch (Exception e) {
+                            getExceptionHandler().handleException("Cannot watch namespace " + name, e);
+                        }
+                    }
+                });
+            }
+        }
+
+        @Override
+        public void onClose(KubernetesClientException cause) {
+            if (cause != null) {
+                LOG.error(cause.getMessage(), cause);
+            }
+        }
+    }
+
+    private final class EventWatcher implements Watcher<T> {
+
+        @Override
+        public void eventReceived(Action action, T resource) {
+            KubernetesEvent<T> event = createEvent(action, resource);
+            if (event == null) {
+                return;
+            }
+            try {
+                if (!buffer.offer(event)) {
+                    LOG.debug("Event buffer full, dropped or coalesced an event to make room for {} event", action);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (IllegalStateException e) {
+                getExceptionHandler().handleException("Cannot buffer " + action + " event", e);
+            }
+        }
+
+        @Override
+        public void onClose(KubernetesClientException cause) {
+            if (cause != null) {
+                LOG.error(cause.getMessage(), cause);
+            }
+        }
+    }
+}
@@ -0,0 +1,52 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.camel.component.kubernetes.consumer;
+
+import io.fabric8.kubernetes.client.Watcher.Action;
+import io.fabric8.kubernetes.client.dsl.FilterWatchListDeletable;
+import io.fabric8.openshift.api.model.BuildConfig;
+import io.fabric8.openshift.api.model.BuildConfigList;
+import io.fabric8.openshift.client.OpenShiftClient;
+
+import org.apache.camel.Processor;
+import org.apache.camel.component.kubernetes.KubernetesEndpoint;
+import org.apache.camel.component.kubernetes.consumer.common.BuildConfigEvent;
+import org.apache.camel.util.ObjectHelper;
+
+public class KubernetesBuildConfigsConsumer extends AbstractKubernetesConsumer<BuildConfig> {
+
+	public KubernetesBuildConfigsConsumer(KubernetesEndpoint endpoint,
+			Processor processor) {
+		super(endpoint, processor, BuildConfig.class);
+	}
+
+	@Override
+	protected FilterWatchListDeletable<BuildConfig, BuildConfigList, Boolean> resources(
+			String namespaceName) {
+		OpenShiftClient client = getEndpoint().getKubernetesClient().adapt(OpenShiftClient.class);
+		if (ObjectHelper.isNotEmpty(namespaceName)) {
+			return client.buildConfigs().inNamespace(namespaceName);
+		}
+		return client.buildConfigs();
+	}
+
+	@Override
+	protected BuildConfigEvent createEvent(Action action, BuildConfig resource) {
+		return new BuildConfigEvent(action, resource);
+	}
+}
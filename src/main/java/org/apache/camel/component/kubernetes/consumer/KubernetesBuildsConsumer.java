@@ -0,0 +1,115 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.camel.component.kubernetes.consumer;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import io.fabric8.kubernetes.client.Watcher.Action;
+import io.fabric8.kubernetes.client.dsl.FilterWatchListDeletable;
+import io.fabric8.openshift.api.model.Build;
+import io.fabric8.openshift.api.model.BuildList;
+import io.fabric8.openshift.client.OpenShiftClient;
+
+import org.apache.camel.Exchange;
+import org.apache.camel.Processor;
+import org.apache.camel.component.kubernetes.KubernetesConstants;
+import org.apache.camel.component.kubernetes.KubernetesEndpoint;
+import org.apache.camel.component.kubernetes.consumer.common.BuildEvent;
+import org.apache.camel.component.kubernetes.consumer.common.KubernetesEvent;
+import org.apache.camel.util.ObjectHelper;
+
+/**
+ * Passes on the phase transitions of builds. A MODIFIED event which leaves
+ * the phase of a build unchanged is skipped, and with <tt>buildPhases</tt>
+ * set only the builds which moved into one of the given phases are passed
+ * on. The exchange carries the current and the previous phase as headers.
+ */
+public class KubernetesBuildsConsumer extends AbstractKubernetesConsumer<Build> {
+
+	// the last seen phase of every live build
+	private final ConcurrentMap<String, String> phases = new ConcurrentHashMap<String, String>();
+
+	private Set<String> acceptedPhases;
+
+	public KubernetesBuildsConsumer(KubernetesEndpoint endpoint,
+			Processor processor) {
+		super(endpoint, processor, Build.class);
+	}
+
+	@Override
+	protected void doStart() throws Exception {
+		phases.clear();
+		acceptedPhases = null;
+		String buildPhases = getEndpoint().getKubernetesConfiguration().getBuildPhases();
+		if (ObjectHelper.isNotEmpty(buildPhases)) {
+			acceptedPhases = new HashSet<String>();
+			for (String phase : buildPhases.split(",")) {
+				if (ObjectHelper.isNotEmpty(phase.trim())) {
+					acceptedPhases.add(phase.trim());
+				}
+			}
+		}
+		super.doStart();
+	}
+
+	@Override
+	protected FilterWatchListDeletable<Build, BuildList, Boolean> resources(
+			String namespaceName) {
+		OpenShiftClient client = getEndpoint().getKubernetesClient().adapt(OpenShiftClient.class);
+		if (ObjectHelper.isNotEmpty(namespaceName)) {
+			return client.builds().inNamespace(namespaceName);
+		}
+		return client.builds();
+	}
+
+	@Override
+	protected BuildEvent createEvent(Action action, Build resource) {
+		String key = KubernetesEvent.keyOf(resource);
+		if (action == Action.ERROR || key == null) {
+			return new BuildEvent(action, resource, null);
+		}
+		String phase = BuildEvent.phaseOf(resource);
+		String previous;
+		if (action == Action.DELETED || phase == null) {
+			previous = phases.remove(key);
+		} else {
+			previous = phases.put(key, phase);
+		}
+		if (action == Action.MODIFIED && ObjectHelper.equal(previous, phase)) {
+			return null;
+		}
+		// a deleted build is matched on the phase it was last seen in
+		String matched = action == Action.DELETED && phase == null ? previous : phase;
+		if (acceptedPhases != null && !acceptedPhases.contains(matched)) {
+			return null;
+		}
+		return new BuildEvent(action, resource, previous);
+	}
+
+	@Override
+	protected Exchange createExchange(KubernetesEvent<Build> event) {
+		Exchange exchange = super.createExchange(event);
+		BuildEvent buildEvent = (BuildEvent) event;
+		exchange.getIn().setHeader(KubernetesConstants.KUBERNETES_BUILD_PHASE, buildEvent.getPhase());
+		exchange.getIn().setHeader(KubernetesConstants.KUBERNETES_BUILD_PREVIOUS_PHASE, buildEvent.getPreviousPhase());
+		return exchange;
+	}
+}
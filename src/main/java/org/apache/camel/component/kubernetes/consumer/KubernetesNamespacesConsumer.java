@@ -0,0 +1,46 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.component.kubernetes.consumer;
+
+import io.fabric8.kubernetes.api.model.Namespace;
+import io.fabric8.kubernetes.api.model.NamespaceList;
+import io.fabric8.kubernetes.client.Watcher.Action;
+import io.fabric8.kubernetes.client.dsl.FilterWatchListDeletable;
+
+import org.apache.camel.Processor;
+import org.apache.camel.component.kubernetes.KubernetesEndpoint;
+import org.apache.camel.component.kubernetes.consumer.common.NamespaceEvent;
+
+public class KubernetesNamespacesConsumer extends AbstractKubernetesConsumer<Namespace> {
+
+	public KubernetesNamespacesConsumer(KubernetesEndpoint endpoint,
+			Processor processor) {
+		super(endpoint, processor, Namespace.class);
+	}
+
+	@Override
+	protected FilterWatchListDeletable<Namespace, NamespaceList, Boolean> resources(
+			String namespaceName) {
+		// namespaces are not namespaced, so the whole cluster is watched
+		return getEndpoint().getKubernetesClient().namespaces();
+	}
+
+	@Override
+	protected NamespaceEvent createEvent(Action action, Namespace resource) {
+		return new NamespaceEvent(action, resource);
+	}
+}
@@ -0,0 +1,50 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.component.kubernetes.consumer;
+
+import io.fabric8.kubernetes.api.model.PersistentVolumeClaim;
+import io.fabric8.kubernetes.api.model.PersistentVolumeClaimList;
+import io.fabric8.kubernetes.client.Watcher.Action;
+import io.fabric8.kubernetes.client.dsl.FilterWatchListDeletable;
+
+import org.apache.camel.Processor;
+import org.apache.camel.component.kubernetes.KubernetesEndpoint;
+import org.apache.camel.component.kubernetes.consumer.common.PersistentVolumeClaimEvent;
+import org.apache.camel.util.ObjectHelper;
+
+public class KubernetesPersistentVolumesClaimsConsumer extends AbstractKubernetesConsumer<PersistentVolumeClaim> {
+
+	public KubernetesPersistentVolumesClaimsConsumer(KubernetesEndpoint endpoint,
+			Processor processor) {
+		super(endpoint, processor, PersistentVolumeClaim.class);
+	}
+
+	@Override
+	protected FilterWatchListDeletable<PersistentVolumeClaim, PersistentVolumeClaimList, Boolean> resources(
+			String namespaceName) {
+		if (ObjectHelper.isNotEmpty(namespaceName)) {
+			return getEndpoint().getKubernetesClient().persistentVolumeClaims()
+					.inNamespace(namespaceName);
+		}
+		return getEndpoint().getKubernetesClient().persistentVolumeClaims();
+	}
+
+	@Override
+	protected PersistentVolumeClaimEvent createEvent(Action action, PersistentVolumeClaim resource) {
+		return new PersistentVolumeClaimEvent(action, resource);
+	}
+}
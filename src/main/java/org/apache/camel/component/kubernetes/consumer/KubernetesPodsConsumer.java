@@ -14,119 +14,38 @@
  * See the License for the specific language governing permissions and
  * limitations under the License.
  */
+
 package org.apache.camel.component.kubernetes.consumer;
 
 import io.fabric8.kubernetes.api.model.Pod;
-import io.fabric8.kubernetes.client.KubernetesClientException;
-import io.fabric8.kubernetes.client.Watcher;
-
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ConcurrentMap;
+import io.fabric8.kubernetes.api.model.PodList;
+import io.fabric8.kubernetes.client.Watcher.Action;
+import io.fabric8.kubernetes.client.dsl.FilterWatchListDeletable;
 
-import org.apache.camel.Exchange;
 import org.apache.camel.Processor;
-import org.apache.camel.component.kubernetes.KubernetesConstants;
 import org.apache.camel.component.kubernetes.KubernetesEndpoint;
 import org.apache.camel.component.kubernetes.consumer.common.PodEvent;
-import org.apache.camel.impl.ScheduledPollConsumer;
 import org.apache.camel.util.ObjectHelper;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
-
-public class KubernetesPodsConsumer extends ScheduledPollConsumer {
 
-	private static final Logger LOG = LoggerFactory
-			.getLogger(KubernetesPodsConsumer.class);
-
-	private ConcurrentMap<Long, PodEvent> map;
+public class KubernetesPodsConsumer extends AbstractKubernetesConsumer<Pod> {
 
 	public KubernetesPodsConsumer(KubernetesEndpoint endpoint,
 			Processor processor) {
-		super(endpoint, processor);
+		super(endpoint, processor, Pod.class);
 	}
 
 	@Override
-	public KubernetesEndpoint getEndpoint() {
-		return (KubernetesEndpoint) super.getEndpoint();
-	}
-
-	@Override
-	protected void doStart() throws Exception {
-		super.doStart();
-		map = new ConcurrentHashMap<Long, PodEvent>();
-
-		if (ObjectHelper.isNotEmpty(getEndpoint().getKubernetesConfiguration()
-				.getOauthToken())) {
-			if (ObjectHelper.isNotEmpty(getEndpoint()
-					.getKubernetesConfiguration().getNamespaceName())) {
-				getEndpoint()
-						.getKubernetesClient()
-						.pods()
-						.inNamespace(
-								getEndpoint().getKubernetesConfiguration()
-										.getNamespaceName())
-						.watch(new Watcher<Pod>() {
-
-							@Override
-							public void eventReceived(
-									io.fabric8.kubernetes.client.Watcher.Action action,
-									Pod resource) {
-								PodEvent pe = new PodEvent(action, resource);
-								map.put(System.currentTimeMillis(), pe);
-							}
-
-							@Override
-							public void onClose(KubernetesClientException cause) {
-								if (cause != null) {
-									LOG.error(cause.getMessage(), cause);
-								}
-
-							}
-						});
-			} else {
-				getEndpoint().getKubernetesClient().pods()
-						.watch(new Watcher<Pod>() {
-
-							@Override
-							public void eventReceived(
-									io.fabric8.kubernetes.client.Watcher.Action action,
-									Pod resource) {
-								PodEvent pe = new PodEvent(action, resource);
-								map.put(System.currentTimeMillis(), pe);
-							}
-
-							@Override
-							public void onClose(KubernetesClientException cause) {
-								if (cause != null) {
-									LOG.error(cause.getMessage(), cause);
-								}
-							}
-						});
-			}
+	protected FilterWatchListDeletable<Pod, PodList, Boolean> resources(
+			String namespaceName) {
+		if (ObjectHelper.isNotEmpty(namespaceName)) {
+			return getEndpoint().getKubernetesClient().pods()
+					.inNamespace(namespaceName);
 		}
+		return getEndpoint().getKubernetesClient().pods();
 	}
 
 	@Override
-	protected void doStop() throws Exception {
-		super.doStop();
-		map.clear();
+	protected PodEvent createEvent(Action action, Pod resource) {
+		return new PodEvent(action, resource);
 	}
-
-	@Override
-	protected int poll() throws Exception {
-		int mapSize = map.size();
-		for (ConcurrentMap.Entry<Long, PodEvent> entry : map.entrySet()) {
-			PodEvent podEvent = (PodEvent) entry.getValue();
-			Exchange e = getEndpoint().createExchange();
-			e.getIn().setBody(podEvent.getPod());
-			e.getIn().setHeader(KubernetesConstants.KUBERNETES_EVENT_ACTION,
-					podEvent.getAction());
-			e.getIn().setHeader(KubernetesConstants.KUBERNETES_EVENT_TIMESTAMP,
-					entry.getKey());
-			getProcessor().process(e);
-			map.remove(entry.getKey());
-		}
-		return mapSize;
-	}
-
 }
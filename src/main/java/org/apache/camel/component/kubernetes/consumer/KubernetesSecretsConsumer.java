@@ -14,112 +14,38 @@
  * See the License for the specific language governing permissions and
  * limitations under the License.
  */
+
 package org.apache.camel.component.kubernetes.consumer;
 
-import io.fabric8.kubernetes.api.model.Pod;
 import io.fabric8.kubernetes.api.model.Secret;
-import io.fabric8.kubernetes.client.KubernetesClientException;
-import io.fabric8.kubernetes.client.Watcher;
-
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ConcurrentMap;
+import io.fabric8.kubernetes.api.model.SecretList;
+import io.fabric8.kubernetes.client.Watcher.Action;
+import io.fabric8.kubernetes.client.dsl.FilterWatchListDeletable;
 
-import org.apache.camel.Exchange;
 import org.apache.camel.Processor;
-import org.apache.camel.component.kubernetes.KubernetesConstants;
 import org.apache.camel.component.kubernetes.KubernetesEndpoint;
-import org.apache.camel.component.kubernetes.consumer.common.PodEvent;
 import org.apache.camel.component.kubernetes.consumer.common.SecretEvent;
-import org.apache.camel.impl.ScheduledPollConsumer;
 import org.apache.camel.util.ObjectHelper;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
-
-public class KubernetesSecretsConsumer extends ScheduledPollConsumer {
 
-	private static final Logger LOG = LoggerFactory
-			.getLogger(KubernetesSecretsConsumer.class);
-
-	private ConcurrentMap<Long, SecretEvent> map;
+public class KubernetesSecretsConsumer extends AbstractKubernetesConsumer<Secret> {
 
 	public KubernetesSecretsConsumer(KubernetesEndpoint endpoint,
 			Processor processor) {
-		super(endpoint, processor);
+		super(endpoint, processor, Secret.class);
 	}
 
 	@Override
-	public KubernetesEndpoint getEndpoint() {
-		return (KubernetesEndpoint) super.getEndpoint();
-	}
-
-	@Override
-	protected void doStart() throws Exception {
-		super.doStart();
-		map = new ConcurrentHashMap<Long, SecretEvent>();
-		
-		if (ObjectHelper.isNotEmpty(getEndpoint().getKubernetesConfiguration().getOauthToken())) {
-		if (ObjectHelper.isNotEmpty(getEndpoint().getKubernetesConfiguration().getNamespaceName())) {
-		getEndpoint().getKubernetesClient().secrets().inNamespace(getEndpoint().getKubernetesConfiguration().getNamespaceName())
-				.watch(new Watcher<Secret>() {
-
-					@Override
-					public void eventReceived(
-							io.fabric8.kubernetes.client.Watcher.Action action,
-							Secret resource) {
-						SecretEvent se = new SecretEvent(action, resource);
-						map.put(System.currentTimeMillis(), se);
-					}
-
-					@Override
-					public void onClose(KubernetesClientException cause) {
-				          if (cause != null) {
-					            LOG.error(cause.getMessage(), cause);
-					      }	
-
-					}
-				});
-	    } else {
-			getEndpoint().getKubernetesClient().secrets()
-			.watch(new Watcher<Secret>() {
-
-				@Override
-				public void eventReceived(
-						io.fabric8.kubernetes.client.Watcher.Action action,
-						Secret resource) {
-					SecretEvent se = new SecretEvent(action, resource);
-					map.put(System.currentTimeMillis(), se);
-				}
-
-				@Override
-				public void onClose(KubernetesClientException cause) {
-			          if (cause != null) {
-				            LOG.error(cause.getMessage(), cause);
-				      }	
-				}
-			});
-	    }
+	protected FilterWatchListDeletable<Secret, SecretList, Boolean> resources(
+			String namespaceName) {
+		if (ObjectHelper.isNotEmpty(namespaceName)) {
+			return getEndpoint().getKubernetesClient().secrets()
+					.inNamespace(namespaceName);
 		}
+		return getEndpoint().getKubernetesClient().secrets();
 	}
 
 	@Override
-	protected void doStop() throws Exception {
-		super.doStop();
-		map.clear();
-	}
-
-	@Override
-	protected int poll() throws Exception {
-		int mapSize = map.size();
-		for (ConcurrentMap.Entry<Long, SecretEvent> entry : map.entrySet()) {
-			SecretEvent podEvent = (SecretEvent) entry.getValue();
-			Exchange e = getEndpoint().createExchange();
-			e.getIn().setBody(podEvent.getSecret());
-			e.getIn().setHeader(KubernetesConstants.KUBERNETES_EVENT_ACTION, podEvent.getAction());
-			e.getIn().setHeader(KubernetesConstants.KUBERNETES_EVENT_TIMESTAMP, entry.getKey());
-			getProcessor().process(e);
-			map.remove(entry.getKey());
-		}
-		return mapSize;
+	protected SecretEvent createEvent(Action action, Secret resource) {
+		return new SecretEvent(action, resource);
 	}
-
 }
@@ -0,0 +1,50 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.component.kubernetes.consumer;
+
+import io.fabric8.kubernetes.api.model.ServiceAccount;
+import io.fabric8.kubernetes.api.model.ServiceAccountList;
+import io.fabric8.kubernetes.client.Watcher.Action;
+import io.fabric8.kubernetes.client.dsl.FilterWatchListDeletable;
+
+import org.apache.camel.Processor;
+import org.apache.camel.component.kubernetes.KubernetesEndpoint;
+import org.apache.camel.component.kubernetes.consumer.common.ServiceAccountEvent;
+import org.apache.camel.util.ObjectHelper;
+
+public class KubernetesServiceAccountsConsumer extends AbstractKubernetesConsumer<ServiceAccount> {
+
+	public KubernetesServiceAccountsConsumer(KubernetesEndpoint endpoint,
+			Processor processor) {
+		super(endpoint, processor, ServiceAccount.class);
+	}
+
+	@Override
+	protected FilterWatchListDeletable<ServiceAccount, ServiceAccountList, Boolean> resources(
+			String namespaceName) {
+		if (ObjectHelper.isNotEmpty(namespaceName)) {
+			return getEndpoint().getKubernetesClient().serviceAccounts()
+					.inNamespace(namespaceName);
+		}
+		return getEndpoint().getKubernetesClient().serviceAccounts();
+	}
+
+	@Override
+	protected ServiceAccountEvent createEvent(Action action, ServiceAccount resource) {
+		return new ServiceAccountEvent(action, resource);
+	}
+}
@@ -14,114 +14,38 @@
  * See the License for the specific language governing permissions and
  * limitations under the License.
  */
+
 package org.apache.camel.component.kubernetes.consumer;
 
 import io.fabric8.kubernetes.api.model.Service;
-import io.fabric8.kubernetes.client.KubernetesClientException;
-import io.fabric8.kubernetes.client.Watcher;
-
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ConcurrentMap;
+import io.fabric8.kubernetes.api.model.ServiceList;
+import io.fabric8.kubernetes.client.Watcher.Action;
+import io.fabric8.kubernetes.client.dsl.FilterWatchListDeletable;
 
-import org.apache.camel.Exchange;
 import org.apache.camel.Processor;
-import org.apache.camel.component.kubernetes.KubernetesConstants;
 import org.apache.camel.component.kubernetes.KubernetesEndpoint;
 import org.apache.camel.component.kubernetes.consumer.common.ServiceEvent;
-import org.apache.camel.impl.ScheduledPollConsumer;
 import org.apache.camel.util.ObjectHelper;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
-
-public class KubernetesServicesConsumer extends ScheduledPollConsumer {
 
-	private static final Logger LOG = LoggerFactory
-			.getLogger(KubernetesServicesConsumer.class);
-
-	private ConcurrentMap<Long, ServiceEvent> map;
+public class KubernetesServicesConsumer extends AbstractKubernetesConsumer<Service> {
 
 	public KubernetesServicesConsumer(KubernetesEndpoint endpoint,
 			Processor processor) {
-		super(endpoint, processor);
-	}
-
-	@Override
-	public KubernetesEndpoint getEndpoint() {
-		return (KubernetesEndpoint) super.getEndpoint();
+		super(endpoint, processor, Service.class);
 	}
 
 	@Override
-	protected void doStart() throws Exception {
-		super.doStart();
-		map = new ConcurrentHashMap<Long, ServiceEvent>();
-		
-		if (ObjectHelper.isNotEmpty(getEndpoint().getKubernetesConfiguration().getOauthToken())) {
-		if (ObjectHelper.isNotEmpty(getEndpoint().getKubernetesConfiguration().getNamespaceName())) {
-		getEndpoint().getKubernetesClient().services().inNamespace(getEndpoint().getKubernetesConfiguration().getNamespaceName())
-				.watch(new Watcher<Service>() {
-
-					@Override
-					public void eventReceived(
-							io.fabric8.kubernetes.client.Watcher.Action action,
-							Service resource) {
-						ServiceEvent se = new ServiceEvent(action, resource);
-						map.put(System.currentTimeMillis(), se);
-						
-					}
-
-					@Override
-					public void onClose(KubernetesClientException cause) {
-				          if (cause != null) {
-					            LOG.error(cause.getMessage(), cause);
-					      }	
-					}
-
-
-				});
-	    } else {
-			getEndpoint().getKubernetesClient().services()
-			.watch(new Watcher<Service>() {
-
-
-				@Override
-				public void eventReceived(
-						io.fabric8.kubernetes.client.Watcher.Action action,
-						Service resource) {
-					ServiceEvent se = new ServiceEvent(action, resource);
-					map.put(System.currentTimeMillis(), se);
-					
-				}
-
-				@Override
-				public void onClose(KubernetesClientException cause) {
-			          if (cause != null) {
-			            LOG.error(cause.getMessage(), cause);
-			          }					
-				}
-			});
-	    }
+	protected FilterWatchListDeletable<Service, ServiceList, Boolean> resources(
+			String namespaceName) {
+		if (ObjectHelper.isNotEmpty(namespaceName)) {
+			return getEndpoint().getKubernetesClient().services()
+					.inNamespace(namespaceName);
 		}
+		return getEndpoint().getKubernetesClient().services();
 	}
 
 	@Override
-	protected void doStop() throws Exception {
-		super.doStop();
-		map.clear();
+	protected ServiceEvent createEvent(Action action, Service resource) {
+		return new ServiceEvent(action, resource);
 	}
-
-	@Override
-	protected int poll() throws Exception {
-		int mapSize = map.size();
-		for (ConcurrentMap.Entry<Long, ServiceEvent> entry : map.entrySet()) {
-			ServiceEvent serviceEvent = (ServiceEvent) entry.getValue();
-			Exchange e = getEndpoint().createExchange();
-			e.getIn().setBody(serviceEvent.getService());
-			e.getIn().setHeader(KubernetesConstants.KUBERNETES_EVENT_ACTION, serviceEvent.getAction());
-			e.getIn().setHeader(KubernetesConstants.KUBERNETES_EVENT_TIMESTAMP, entry.getKey());
-			getProcessor().process(e);
-			map.remove(entry.getKey());
-		}
-		return mapSize;
-	}
-
 }
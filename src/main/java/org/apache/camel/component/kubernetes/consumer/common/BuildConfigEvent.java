@@ -0,0 +1,19 @@
+package org.apache.camel.component.kubernetes.consumer.common;
+
+import io.fabric8.kubernetes.client.Watcher.Action;
+import io.fabric8.openshift.api.model.BuildConfig;
+
+public class BuildConfigEvent extends KubernetesEvent<BuildConfig> {
+
+	public BuildConfigEvent(Action action, BuildConfig buildConfig) {
+		super(action, buildConfig);
+	}
+
+	public BuildConfig getBuildConfig() {
+		return getResource();
+	}
+
+	public void setBuildConfig(BuildConfig buildConfig) {
+		setResource(buildConfig);
+	}
+}
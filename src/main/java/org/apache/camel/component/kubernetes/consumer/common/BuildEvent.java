@@ -0,0 +1,48 @@
+package org.apache.camel.component.kubernetes.consumer.common;
+
+import io.fabric8.kubernetes.client.Watcher.Action;
+import io.fabric8.openshift.api.model.Build;
+
+public class BuildEvent extends KubernetesEvent<Build> {
+
+	private String previousPhase;
+
+	public BuildEvent(Action action, Build build, String previousPhase) {
+		super(action, build);
+		this.previousPhase = previousPhase;
+	}
+
+	public Build getBuild() {
+		return getResource();
+	}
+
+	public void setBuild(Build build) {
+		setResource(build);
+	}
+
+	/**
+	 * The phase the build is in now
+	 */
+	public String getPhase() {
+		return phaseOf(getResource());
+	}
+
+	/**
+	 * The phase the build was in before this event, or <tt>null</tt> for a
+	 * build seen for the first time
+	 */
+	public String getPreviousPhase() {
+		return previousPhase;
+	}
+
+	public void setPreviousPhase(String previousPhase) {
+		this.previousPhase = previousPhase;
+	}
+
+	public static String phaseOf(Build build) {
+		if (build == null || build.getStatus() == null) {
+			return null;
+		}
+		return build.getStatus().getPhase();
+	}
+}
@@ -0,0 +1,34 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.component.kubernetes.consumer.common;
+
+/**
+ * Remembers the resourceVersion of the last event a consumer delivered, so
+ * that after a restart the watch resumes from there instead of relisting.
+ * <p/>
+ * If the implementation is also a {@link org.apache.camel.Service} the
+ * consumer starts it.
+ */
+public interface CheckpointStore {
+
+    /**
+     * The last resourceVersion saved for the key, or <tt>null</tt> if none
+     */
+    String load(String key);
+
+    void save(String key, String resourceVersion);
+}
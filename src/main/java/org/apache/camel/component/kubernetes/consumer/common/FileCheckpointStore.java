@@ -0,0 +1,195 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.component.kubernetes.consumer.common;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.apache.camel.api.management.ManagedAttribute;
+import org.apache.camel.api.management.ManagedOperation;
+import org.apache.camel.api.management.ManagedResource;
+import org.apache.camel.support.ServiceSupport;
+import org.apache.camel.util.IOHelper;
+import org.apache.camel.util.ObjectHelper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A {@link CheckpointStore} keeping the resourceVersions in a properties file.
+ * <p/>
+ * Saves are kept in memory and written out at most once per flush interval,
+ * and when the store stops. The file is replaced with an atomic rename, so a
+ * crash never leaves it half written; at worst the events of the last
+ * interval are delivered again. Several stores may share a file, each one
+ * only overwrites the keys it saved itself.
+ */
+@ManagedResource(description = "File based Kubernetes checkpoint store")
+public class FileCheckpointStore extends ServiceSupport implements CheckpointStore {
+
+    private static final Logger LOG = LoggerFactory.getLogger(FileCheckpointStore.class);
+
+    private static final ConcurrentMap<String, Object> FILE_LOCKS = new ConcurrentHashMap<String, Object>();
+
+    private final Map<String, String> loaded = new ConcurrentHashMap<String, String>();
+    private final Map<String, String> saved = new ConcurrentHashMap<String, String>();
+
+    private File file;
+    private long flushInterval = 1000;
+    private volatile boolean dirty;
+    private volatile long lastFlush;
+
+    public FileCheckpointStore() {
+    }
+
+    public FileCheckpointStore(File file) {
+        this.file = file;
+    }
+
+    @Override
+    public String load(String key) {
+        String version = saved.get(key);
+        return version != null ? version : loaded.get(key);
+    }
+
+    @Override
+    public void save(String key, String resourceVersion) {
+        if (key == null || resourceVersion == null) {
+            return;
+        }
+        saved.put(key, resourceVersion);
+        dirty = true;
+        if (System.currentTimeMillis() - lastFlush >= flushInterval) {
+            flush();
+        }
+    }
+
+    /**
+     * Writes the saved resourceVersions to the file
+     */
+    @ManagedOperation(description = "Writes the saved resourceVersions to the file")
+    public void flush() {
+        Object lock = fileLock();
+        synchronized (lock) {
+            if (!dirty) {
+                return;
+            }
+            dirty = false;
+            lastFlush = System.currentTimeMillis();
+            try {
+                Properties properties = read();
+                properties.putAll(saved);
+                write(properties);
+            } catch (IOException e) {
+                dirty = true;
+                LOG.warn("Cannot write checkpoint file " + file + ": " + e.getMessage(), e);
+            }
+        }
+    }
+
+    @ManagedAttribute(description = "The checkpoint file")
+    public String getFilePath() {
+        return file != null ? file.getPath() : null;
+    }
+
+    public File getFile() {
+        return file;
+    }
+
+    public void setFile(File file) {
+        this.file = file;
+    }
+
+    @ManagedAttribute(description = "The minimum time in millis between writes to the file")
+    public long getFlushInterval() {
+        return flushInterval;
+    }
+
+    /**
+     * The minimum time in millis between writes to the file
+     */
+    public void setFlushInterval(long flushInterval) {
+        this.flushInterval = flushInterval;
+    }
+
+    @Override
+    protected void doStart() throws Exception {
+        ObjectHelper.notNull(file, "file", this);
+        synchronized (fileLock()) {
+            for (Map.Entry<Object, Object> entry : read().entrySet()) {
+                loaded.put((String) entry.getKey(), (String) entry.getValue());
+            }
+        }
+        LOG.debug("Loaded {} checkpoints from {}", loaded.size(), file);
+    }
+
+    @Override
+    protected void doStop() throws Exception {
+        flush();
+    }
+
+    private Object fileLock() {
+        String path = file.getAbsolutePath();
+        Object lock = FILE_LOCKS.get(path);
+        if (lock == null) {
+            Object created = new Object();
+            lock = FILE_LOCKS.putIfAbsent(path, created);
+            if (lock == null) {
+                lock = created;
+            }
+        }
+        return lock;
+    }
+
+    private Properties read() throws IOException {
+        Properties properties = new Properties();
+        if (file.exists()) {
+            InputStream in = new FileInputStream(file);
+            try {
+                properties.load(in);
+            } finally {
+                IOHelper.close(in, "checkpoint file", LOG);
+            }
+        }
+        return properties;
+    }
+
+    private void write(Properties properties) throws IOException {
+        File dir = file.getAbsoluteFile().getParentFile();
+        if (dir != null && !dir.exists() && !dir.mkdirs()) {
+            throw new IOException("Cannot create directory " + dir);
+        }
+        File tmp = new File(dir, file.getName() + ".tmp");
+        FileOutputStream out = new FileOutputStream(tmp);
+        try {
+            properties.store(out, "Kubernetes consumer checkpoints");
+            out.flush();
+            out.getFD().sync();
+        } finally {
+            IOHelper.close(out, "checkpoint file", LOG);
+        }
+        Files.move(tmp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+}
@@ -0,0 +1,107 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.component.kubernetes.consumer.common;
+
+import io.fabric8.kubernetes.api.model.HasMetadata;
+import io.fabric8.kubernetes.client.Watcher.Action;
+
+/**
+ * A watch event received by one of the Kubernetes consumers.
+ * <p/>
+ * The sequence number is assigned by the {@link KubernetesEventBuffer} when
+ * the event is accepted and reflects the order in which events arrived.
+ */
+public class KubernetesEvent<T extends HasMetadata> {
+
+    private Action action;
+
+    private T resource;
+
+    private final long timestamp;
+
+    private long sequence;
+
+    private long size;
+
+    public KubernetesEvent(Action action, T resource) {
+        this.action = action;
+        this.resource = resource;
+        this.timestamp = System.currentTimeMillis();
+    }
+
+    public Action getAction() {
+        return action;
+    }
+
+    public void setAction(Action action) {
+        this.action = action;
+    }
+
+    public T getResource() {
+        return resource;
+    }
+
+    public void setResource(T resource) {
+        this.resource = resource;
+    }
+
+    /**
+     * The time in milliseconds at which the event was received
+     */
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    /**
+     * The arrival order of the event within its buffer
+     */
+    public long getSequence() {
+        return sequence;
+    }
+
+    void setSequence(long sequence) {
+        this.sequence = sequence;
+    }
+
+    /**
+     * Identifies the object the event is about, as <tt>namespace/name</tt>
+     */
+    public String getKey() {
+        return keyOf(resource);
+    }
+
+    /**
+     * The <tt>namespace/name</tt> key of a resource, or just the name for
+     * resources which are not namespaced
+     */
+    public static String keyOf(HasMetadata resource) {
+        if (resource == null || resource.getMetadata() == null) {
+            return null;
+        }
+        String namespace = resource.getMetadata().getNamespace();
+        String name = resource.getMetadata().getName();
+        return namespace != null ? namespace + "/" + name : name;
+    }
+
+    long getSize() {
+        return size;
+    }
+
+    void setSize(long size) {
+        this.size = size;
+    }
+}
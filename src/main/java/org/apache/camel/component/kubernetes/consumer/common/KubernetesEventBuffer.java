@@ -0,0 +1,519 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.component.kubernetes.consumer.common;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+import io.fabric8.kubernetes.client.Watcher.Action;
+import io.fabric8.kubernetes.client.internal.SerializationUtils;
+
+import org.apache.camel.util.ObjectHelper;
+
+/**
+ * A bounded FIFO buffer sitting between the watch threads, which may be
+ * several, and the threads delivering events to the route.
+ * <p/>
+ * Every accepted event gets a sequence number under the same lock that
+ * appends it, so the sequence always matches the delivery order and no two
+ * events can collide the way timestamp keys do.
+ * <p/>
+ * With coalescing enabled only the newest event per object is kept between
+ * deliveries: an object the route has not seen yet stays ADDED, and a
+ * DELETED event is never overwritten so the route always sees it.
+ * <p/>
+ * The buffer is bounded by an event count and optionally by a byte budget.
+ * Event sizes are estimated from the JSON form of the resource, which costs
+ * a serialization per event, so that is only done when a budget is set.
+ * <p/>
+ * When events from several namespaces share the buffer, a namespace share
+ * can be set: no namespace may then hold more than that many pending
+ * events, and the overflow policy applies to a namespace reaching its share
+ * just as to a full buffer. A busy namespace thus holds back or drops its
+ * own events rather than crowding out the others, while delivery stays in
+ * arrival order.
+ */
+public class KubernetesEventBuffer<E extends KubernetesEvent<?>> {
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition notEmpty = lock.newCondition();
+    private final Condition notFull = lock.newCondition();
+
+    private final ArrayDeque<E> queue;
+    private final Map<String, E> pendingByKey;
+    private final Map<String, Integer> pendingByNamespace = new HashMap<String, Integer>();
+    private final int capacity;
+    private final long maxBytes;
+    private final OverflowPolicy overflowPolicy;
+    private final boolean coalesceEvents;
+
+    private int namespaceShare;
+    private long sequence;
+    private long bytes;
+
+    private long dropped;
+    private long coalesced;
+    private long rejected;
+    private long blocked;
+    private long blockedNanos;
+
+    public KubernetesEventBuffer(int capacity, OverflowPolicy overflowPolicy) {
+        this(capacity, 0, overflowPolicy);
+    }
+
+    /**
+     * @param maxBytes the byte budget, or 0 to only bound the event count
+     */
+    public KubernetesEventBuffer(int capacity, long maxBytes, OverflowPolicy overflowPolicy) {
+        this(capacity, maxBytes, overflowPolicy, false);
+    }
+
+    /**
+     * @param maxBytes the byte budget, or 0 to only bound the event count
+     * @param coalesceEvents whether to always fold a new event into the
+     *            pending one for the same object, not only when full
+     */
+    public KubernetesEventBuffer(int capacity, long maxBytes, OverflowPolicy overflowPolicy, boolean coalesceEvents) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("The event buffer capacity must be greater than 0");
+        }
+        if (maxBytes < 0) {
+            throw new IllegalArgumentException("The event buffer byte budget must not be negative");
+        }
+        ObjectHelper.notNull(overflowPolicy, "overflowPolicy");
+        this.capacity = capacity;
+        this.maxBytes = maxBytes;
+        this.overflowPolicy = overflowPolicy;
+        this.coalesceEvents = coalesceEvents;
+        this.queue = new ArrayDeque<E>(Math.min(capacity, 1024));
+        this.pendingByKey = coalesceEvents || overflowPolicy == OverflowPolicy.COALESCE ? new HashMap<String, E>() : null;
+    }
+
+    /**
+     * Appends the event, applying the overflow policy if the buffer is full.
+     *
+     * @return <tt>false</tt> if an older event had to be dropped, or the event
+     *         was folded into an older one, to make room
+     * @throws IllegalStateException if the buffer is full and the policy is
+     *             {@link OverflowPolicy#FAIL}
+     */
+    public boolean offer(E event) throws InterruptedException {
+        ObjectHelper.notNull(event, "event");
+        if (maxBytes > 0) {
+            event.setSize(weigh(event));
+        }
+        boolean accepted = true;
+        lock.lockInterruptibly();
+        try {
+            if (coalesceEvents && coalesce(event)) {
+                return true;
+            }
+            while (true) {
+                boolean namespaceFull = isNamespaceFull(event);
+                if (!namespaceFull && !isFull(event)) {
+                    break;
+                }
+                if (overflowPolicy == OverflowPolicy.DROP_OLDEST) {
+                    remove(namespaceFull ? pollFirst(namespaceOf(event)) : queue.pollFirst());
+                    dropped++;
+                    accepted = false;
+                } else if (overflowPolicy == OverflowPolicy.COALESCE && coalesce(event)) {
+                    return false;
+                } else if (overflowPolicy == OverflowPolicy.FAIL) {
+                    rejected++;
+                    throw new IllegalStateException("The event buffer is full (capacity " + capacity
+                            + ", byte budget " + maxBytes + ")");
+                } else {
+                    awaitNotFull();
+                }
+            }
+            event.setSequence(++sequence);
+            queue.addLast(event);
+            bytes += event.getSize();
+            if (pendingByKey != null && event.getKey() != null) {
+                pendingByKey.put(event.getKey(), event);
+            }
+            String namespace = namespaceOf(event);
+            if (namespace != null) {
+                Integer pending = pendingByNamespace.get(namespace);
+                pendingByNamespace.put(namespace, pending != null ? pending + 1 : 1);
+            }
+            notEmpty.signal();
+        } finally {
+            lock.unlock();
+        }
+        return accepted;
+    }
+
+    /**
+     * Removes the oldest event, or returns <tt>null</tt> if the buffer is empty
+     */
+    public E poll() {
+        lock.lock();
+        try {
+            E event = queue.pollFirst();
+            if (event != null) {
+                remove(event);
+                signalNotFull();
+            }
+            return event;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Removes the oldest event, waiting up to the given time for one to arrive
+     */
+    public E poll(long timeout, TimeUnit unit) throws InterruptedException {
+        long nanos = unit.toNanos(timeout);
+        lock.lockInterruptibly();
+        try {
+            while (queue.isEmpty()) {
+                if (nanos <= 0) {
+                    return null;
+                }
+                nanos = notEmpty.awaitNanos(nanos);
+            }
+            E event = queue.pollFirst();
+            remove(event);
+            signalNotFull();
+            return event;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Moves up to <tt>maxEvents</tt> events, oldest first, into the given
+     * collection
+     *
+     * @return the number of events moved
+     */
+    public int drainTo(Collection<? super E> target, int maxEvents) {
+        lock.lock();
+        try {
+            int n = 0;
+            while (n < maxEvents && !queue.isEmpty()) {
+                E event = queue.pollFirst();
+                remove(event);
+                target.add(event);
+                n++;
+            }
+            if (n > 0) {
+                notFull.signalAll();
+            }
+            return n;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void clear() {
+        lock.lock();
+        try {
+            queue.clear();
+            if (pendingByKey != null) {
+                pendingByKey.clear();
+            }
+            pendingByNamespace.clear();
+            bytes = 0;
+            notFull.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int size() {
+        lock.lock();
+        try {
+            return queue.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * The estimated size of the buffered events, only tracked with a byte budget
+     */
+    public long getBytes() {
+        lock.lock();
+        try {
+            return bytes;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * The most pending events a single namespace may hold, or 0 for no limit
+     * other than the capacity
+     */
+    public int getNamespaceShare() {
+        lock.lock();
+        try {
+            return namespaceShare;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void setNamespaceShare(int namespaceShare) {
+        if (namespaceShare < 0) {
+            throw new IllegalArgumentException("The namespace share must not be negative");
+        }
+        lock.lock();
+        try {
+            this.namespaceShare = namespaceShare;
+            notFull.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * The number of pending events of the given namespace
+     */
+    public int size(String namespace) {
+        lock.lock();
+        try {
+            Integer pending = pendingByNamespace.get(namespace);
+            return pending != null ? pending : 0;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long getMaxBytes() {
+        return maxBytes;
+    }
+
+    public OverflowPolicy getOverflowPolicy() {
+        return overflowPolicy;
+    }
+
+    public boolean isCoalesceEvents() {
+        return coalesceEvents;
+    }
+
+    /**
+     * Whether the buffer is full or a watch thread is waiting for room
+     */
+    public boolean isBackPressureActive() {
+        lock.lock();
+        try {
+            return lock.hasWaiters(notFull) || queue.size() >= capacity || (maxBytes > 0 && bytes >= maxBytes);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * The number of events discarded by the {@link OverflowPolicy#DROP_OLDEST} policy
+     */
+    public long getDroppedCount() {
+        lock.lock();
+        try {
+            return dropped;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * The number of events folded into an older one for the same object
+     */
+    public long getCoalescedCount() {
+        lock.lock();
+        try {
+            return coalesced;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * The number of events refused by the {@link OverflowPolicy#FAIL} policy
+     */
+    public long getRejectedCount() {
+        lock.lock();
+        try {
+            return rejected;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * The number of times a watch thread had to wait for room
+     */
+    public long getBlockedCount() {
+        lock.lock();
+        try {
+            return blocked;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * The total time watch threads spent waiting for room, in milliseconds
+     */
+    public long getBlockedTime() {
+        lock.lock();
+        try {
+            return TimeUnit.NANOSECONDS.toMillis(blockedNanos);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Estimates the memory held by an event from the size of its JSON form
+     */
+    protected long weigh(E event) {
+        if (event.getResource() == null) {
+            return 0;
+        }
+        CountingOutputStream out = new CountingOutputStream();
+        try {
+            SerializationUtils.getMapper().writeValue(out, event.getResource());
+        } catch (IOException e) {
+            // best effort, keep what has been counted so far
+        }
+        return out.count;
+    }
+
+    private boolean isFull(E event) {
+        if (queue.isEmpty()) {
+            // always accept a single event however large, or nothing would ever move
+            return false;
+        }
+        return queue.size() >= capacity || (maxBytes > 0 && bytes + event.getSize() > maxBytes);
+    }
+
+    private boolean isNamespaceFull(E event) {
+        if (namespaceShare <= 0) {
+            return false;
+        }
+        String namespace = namespaceOf(event);
+        Integer pending = namespace != null ? pendingByNamespace.get(namespace) : null;
+        return pending != null && pending >= namespaceShare;
+    }
+
+    private E pollFirst(String namespace) {
+        for (Iterator<E> it = queue.iterator(); it.hasNext();) {
+            E event = it.next();
+            if (namespace.equals(namespaceOf(event))) {
+                it.remove();
+                return event;
+            }
+        }
+        return null;
+    }
+
+    private static String namespaceOf(KubernetesEvent<?> event) {
+        if (event.getResource() == null || event.getResource().getMetadata() == null) {
+            return null;
+        }
+        return event.getResource().getMetadata().getNamespace();
+    }
+
+    private void signalNotFull() {
+        // with a namespace share the next waiter may be held back by its share, so wake them all
+        if (namespaceShare > 0) {
+            notFull.signalAll();
+        } else {
+            notFull.signal();
+        }
+    }
+
+    private void awaitNotFull() throws InterruptedException {
+        long start = System.nanoTime();
+        blocked++;
+        try {
+            notFull.await();
+        } finally {
+            blockedNanos += System.nanoTime() - start;
+        }
+    }
+
+    /**
+     * Folds the event into the buffered one for the same object, unless that
+     * one is a DELETED which has to stay terminal
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private boolean coalesce(E event) {
+        String key = event.getKey();
+        E pending = key != null ? pendingByKey.get(key) : null;
+        if (pending == null || pending.getAction() == Action.DELETED) {
+            return false;
+        }
+        // an object the route has not seen yet stays ADDED whatever happened since
+        if (!(pending.getAction() == Action.ADDED && event.getAction() == Action.MODIFIED)) {
+            pending.setAction(event.getAction());
+        }
+        ((KubernetesEvent) pending).setResource(event.getResource());
+        bytes += event.getSize() - pending.getSize();
+        pending.setSize(event.getSize());
+        coalesced++;
+        return true;
+    }
+
+    private void remove(E event) {
+        bytes -= event.getSize();
+        String namespace = namespaceOf(event);
+        Integer pending = namespace != null ? pendingByNamespace.get(namespace) : null;
+        if (pending != null) {
+            if (pending > 1) {
+                pendingByNamespace.put(namespace, pending - 1);
+            } else {
+                pendingByNamespace.remove(namespace);
+            }
+        }
+        if (pendingByKey != null && event.getKey() != null && pendingByKey.get(event.getKey()) == event) {
+            pendingByKey.remove(event.getKey());
+        }
+    }
+
+    private static final class CountingOutputStream extends OutputStream {
+
+        private long count;
+
+        @Override
+        public void write(int b) {
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            count += len;
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package org.apache.camel.component.kubernetes.consumer.common;
+
+import io.fabric8.kubernetes.api.model.Namespace;
+import io.fabric8.kubernetes.client.Watcher.Action;
+
+public class NamespaceEvent extends KubernetesEvent<Namespace> {
+
+	public NamespaceEvent(Action action, Namespace namespace) {
+		super(action, namespace);
+	}
+
+	public Namespace getNamespace() {
+		return getResource();
+	}
+
+	public void setNamespace(Namespace namespace) {
+		setResource(namespace);
+	}
+}
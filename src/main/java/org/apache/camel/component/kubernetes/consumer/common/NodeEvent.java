@@ -0,0 +1,19 @@
+package org.apache.camel.component.kubernetes.consumer.common;
+
+import io.fabric8.kubernetes.api.model.Node;
+import io.fabric8.kubernetes.client.Watcher.Action;
+
+public class NodeEvent extends KubernetesEvent<Node> {
+
+	public NodeEvent(Action action, Node node) {
+		super(action, node);
+	}
+
+	public Node getNode() {
+		return getResource();
+	}
+
+	public void setNode(Node node) {
+		setResource(node);
+	}
+}
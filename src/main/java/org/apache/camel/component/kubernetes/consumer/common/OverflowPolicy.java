@@ -0,0 +1,44 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.component.kubernetes.consumer.common;
+
+/**
+ * What a {@link KubernetesEventBuffer} does with a new event when it is full.
+ */
+public enum OverflowPolicy {
+
+    /**
+     * Block the watch thread until the route has made room
+     */
+    BLOCK,
+
+    /**
+     * Discard the oldest buffered event to make room for the new one
+     */
+    DROP_OLDEST,
+
+    /**
+     * Fold the new event into the one already buffered for the same object,
+     * blocking like {@link #BLOCK} when there is none
+     */
+    COALESCE,
+
+    /**
+     * Reject the new event with an {@link IllegalStateException}
+     */
+    FAIL
+}
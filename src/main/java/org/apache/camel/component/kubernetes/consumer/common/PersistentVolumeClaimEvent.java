@@ -0,0 +1,19 @@
+package org.apache.camel.component.kubernetes.consumer.common;
+
+import io.fabric8.kubernetes.api.model.PersistentVolumeClaim;
+import io.fabric8.kubernetes.client.Watcher.Action;
+
+public class PersistentVolumeClaimEvent extends KubernetesEvent<PersistentVolumeClaim> {
+
+	public PersistentVolumeClaimEvent(Action action, PersistentVolumeClaim persistentVolumeClaim) {
+		super(action, persistentVolumeClaim);
+	}
+
+	public PersistentVolumeClaim getPersistentVolumeClaim() {
+		return getResource();
+	}
+
+	public void setPersistentVolumeClaim(PersistentVolumeClaim persistentVolumeClaim) {
+		setResource(persistentVolumeClaim);
+	}
+}
@@ -0,0 +1,19 @@
+package org.apache.camel.component.kubernetes.consumer.common;
+
+import io.fabric8.kubernetes.api.model.PersistentVolume;
+import io.fabric8.kubernetes.client.Watcher.Action;
+
+public class PersistentVolumeEvent extends KubernetesEvent<PersistentVolume> {
+
+	public PersistentVolumeEvent(Action action, PersistentVolume persistentVolume) {
+		super(action, persistentVolume);
+	}
+
+	public PersistentVolume getPersistentVolume() {
+		return getResource();
+	}
+
+	public void setPersistentVolume(PersistentVolume persistentVolume) {
+		setResource(persistentVolume);
+	}
+}
@@ -3,30 +3,17 @@ package org.apache.camel.component.kubernetes.consumer.common;
 import io.fabric8.kubernetes.api.model.Pod;
 import io.fabric8.kubernetes.client.Watcher.Action;
 
-public class PodEvent {
-    private io.fabric8.kubernetes.client.Watcher.Action action;
-    
-    private Pod pod;
+public class PodEvent extends KubernetesEvent<Pod> {
 
 	public PodEvent(Action action, Pod pod) {
-		super();
-		this.action = action;
-		this.pod = pod;
-	}
-
-	public io.fabric8.kubernetes.client.Watcher.Action getAction() {
-		return action;
-	}
-
-	public void setAction(io.fabric8.kubernetes.client.Watcher.Action action) {
-		this.action = action;
+		super(action, pod);
 	}
 
 	public Pod getPod() {
-		return pod;
+		return getResource();
 	}
 
 	public void setPod(Pod pod) {
-		this.pod = pod;
+		setResource(pod);
 	}
 }
@@ -1,33 +1,19 @@
 package org.apache.camel.component.kubernetes.consumer.common;
 
 import io.fabric8.kubernetes.api.model.ReplicationController;
-import io.fabric8.kubernetes.api.model.Service;
 import io.fabric8.kubernetes.client.Watcher.Action;
 
-public class ReplicationControllerEvent {
-    private io.fabric8.kubernetes.client.Watcher.Action action;
-    
-    private ReplicationController replicationController;
+public class ReplicationControllerEvent extends KubernetesEvent<ReplicationController> {
 
-	public ReplicationControllerEvent(Action action, ReplicationController rc) {
-		super();
-		this.action = action;
-		this.replicationController = rc;
-	}
-
-	public io.fabric8.kubernetes.client.Watcher.Action getAction() {
-		return action;
-	}
-
-	public void setAction(io.fabric8.kubernetes.client.Watcher.Action action) {
-		this.action = action;
+	public ReplicationControllerEvent(Action action, ReplicationController replicationController) {
+		super(action, replicationController);
 	}
 
 	public ReplicationController getReplicationController() {
-		return replicationController;
+		return getResource();
 	}
 
 	public void setReplicationController(ReplicationController replicationController) {
-		this.replicationController = replicationController;
+		setResource(replicationController);
 	}
 }
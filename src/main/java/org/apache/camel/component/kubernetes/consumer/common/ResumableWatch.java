@@ -0,0 +1,304 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.component.kubernetes.consumer.common;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import io.fabric8.kubernetes.api.model.HasMetadata;
+import io.fabric8.kubernetes.api.model.KubernetesResourceList;
+import io.fabric8.kubernetes.api.model.ObjectMeta;
+import io.fabric8.kubernetes.client.KubernetesClientException;
+import io.fabric8.kubernetes.client.Watch;
+import io.fabric8.kubernetes.client.Watcher;
+import io.fabric8.kubernetes.client.dsl.FilterWatchListDeletable;
+
+import org.apache.camel.util.ObjectHelper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A watch which re-establishes itself after the client gives up on the
+ * connection, resuming from the last resourceVersion it has seen.
+ * <p/>
+ * Reconnects back off exponentially. Only when the server answers that the
+ * resourceVersion is too old (HTTP 410 Gone) are the resources listed again
+ * and compared with what was seen before, so that just the changes missed in
+ * the meantime are passed on as synthetic events.
+ */
+public class ResumableWatch<T extends HasMetadata> {
+
+    private static final Logger LOG = LoggerFactory.getLogger(ResumableWatch.class);
+
+    private static final int HTTP_GONE = 410;
+
+    private final FilterWatchListDeletable<T, ? extends KubernetesResourceList, Boolean> resources;
+    private final Class<T> resourceType;
+    private final Watcher<T> delegate;
+    private final ScheduledExecutorService scheduler;
+    private final long initialDelay;
+    private final long maxDelay;
+
+    // the last seen metadata of every live object, to work out what changed across a relist
+    private final ConcurrentMap<String, ObjectMeta> known = new ConcurrentHashMap<String, ObjectMeta>();
+    private final AtomicBoolean reconnectPending = new AtomicBoolean();
+    private final AtomicInteger attempts = new AtomicInteger();
+    private final AtomicLong reconnects = new AtomicLong();
+    private final AtomicLong relists = new AtomicLong();
+
+    private volatile String resourceVersion;
+    private volatile Connection connection;
+    private volatile boolean relistNeeded;
+    private volatile boolean closed;
+
+    public ResumableWatch(FilterWatchListDeletable<T, ? extends KubernetesResourceList, Boolean> resources,
+            Class<T> resourceType, Watcher<T> delegate, ScheduledExecutorService scheduler,
+            long initialDelay, long maxDelay) {
+        ObjectHelper.notNull(resources, "resources");
+        ObjectHelper.notNull(resourceType, "resourceType");
+        ObjectHelper.notNull(delegate, "delegate");
+        ObjectHelper.notNull(scheduler, "scheduler");
+        this.resources = resources;
+        this.resourceType = resourceType;
+        this.delegate = delegate;
+        this.scheduler = scheduler;
+        this.initialDelay = Math.max(1, initialDelay);
+        this.maxDelay = Math.max(this.initialDelay, maxDelay);
+    }
+
+    /**
+     * Opens the watch, from the given resourceVersion if not <tt>null</tt>
+     */
+    public synchronized void start(String fromResourceVersion) {
+        closed = false;
+        resourceVersion = fromResourceVersion;
+        connect();
+    }
+
+    /**
+     * Lists the resources, passing each one on as an ADDED event, and opens
+     * the watch from the resourceVersion of the list
+     */
+    public synchronized void startWithList() {
+        closed = false;
+        resourceVersion = null;
+        relist();
+        connect();
+    }
+
+    public synchronized void close() {
+        closed = true;
+        Connection current = connection;
+        connection = null;
+        if (current != null) {
+            current.watch.close();
+        }
+    }
+
+    /**
+     * The resourceVersion of the last event passed on
+     */
+    public String getResourceVersion() {
+        return resourceVersion;
+    }
+
+    public long getReconnectCount() {
+        return reconnects.get();
+    }
+
+    public long getRelistCount() {
+        return relists.get();
+    }
+
+    private void connect() {
+        Connection previous = connection;
+        Connection next = new Connection();
+        connection = next;
+        if (previous != null && previous.watch != null) {
+            previous.watch.close();
+        }
+        try {
+            next.watch = open(next);
+        } catch (KubernetesClientException e) {
+            if (!isVersionTooOld(e)) {
+                throw e;
+            }
+            LOG.info("ResourceVersion {} is too old to resume from, listing the resources again", resourceVersion);
+            relist();
+            next.watch = open(next);
+        }
+    }
+
+    private Watch open(Watcher<T> watcher) {
+        String version = resourceVersion;
+        return version != null ? resources.watch(version, watcher) : resources.watch(watcher);
+    }
+
+    @SuppressWarnings("unchecked")
+    private void relist() {
+        relists.incrementAndGet();
+        KubernetesResourceList list = resources.list();
+        Set<String> listed = new HashSet<String>();
+        for (T item : (List<T>) list.getItems()) {
+            String key = KubernetesEvent.keyOf(item);
+            listed.add(key);
+            ObjectMeta previous = known.get(key);
+            if (previous == null) {
+                receive(Watcher.Action.ADDED, item);
+            } else if (!ObjectHelper.equal(previous.getResourceVersion(), item.getMetadata().getResourceVersion())) {
+                receive(Watcher.Action.MODIFIED, item);
+            }
+        }
+        for (Map.Entry<String, ObjectMeta> entry : known.entrySet()) {
+            if (!listed.contains(entry.getKey())) {
+                receive(Watcher.Action.DELETED, tombstone(entry.getValue()));
+            }
+        }
+        if (list.getMetadata() != null && list.getMetadata().getResourceVersion() != null) {
+            resourceVersion = list.getMetadata().getResourceVersion();
+        }
+        relistNeeded = false;
+    }
+
+    private void receive(Watcher.Action action, T resource) {
+        if (action != Watcher.Action.ERROR && resource != null && resource.getMetadata() != null) {
+            ObjectMeta meta = resource.getMetadata();
+            String key = KubernetesEvent.keyOf(resource);
+            if (action == Watcher.Action.DELETED) {
+                known.remove(key);
+            } else {
+                ObjectMeta slim = new ObjectMeta();
+                slim.setName(meta.getName());
+                slim.setNamespace(meta.getNamespace());
+                slim.setUid(meta.getUid());
+                slim.setResourceVersion(meta.getResourceVersion());
+                known.put(key, slim);
+            }
+            if (meta.getResourceVersion() != null) {
+                resourceVersion = meta.getResourceVersion();
+            }
+        }
+        delegate.eventReceived(action, resource);
+    }
+
+    private T tombstone(ObjectMeta meta) {
+        TombstoneMeta tombstoneMeta = new TombstoneMeta();
+        tombstoneMeta.setName(meta.getName());
+        tombstoneMeta.setNamespace(meta.getNamespace());
+        tombstoneMeta.setUid(meta.getUid());
+        tombstoneMeta.setResourceVersion(meta.getResourceVersion());
+        T resource = ObjectHelper.newInstance(resourceType);
+        resource.setMetadata(tombstoneMeta);
+        return resource;
+    }
+
+    /**
+     * Whether the resource was made up for a DELETED event found by a
+     * relist; it only carries the last resourceVersion seen before the
+     * deletion, not the one of the deletion itself
+     */
+    public static boolean isTombstone(HasMetadata resource) {
+        return resource != null && resource.getMetadata() instanceof TombstoneMeta;
+    }
+
+    private void scheduleReconnect() {
+        if (closed || !reconnectPending.compareAndSet(false, true)) {
+            return;
+        }
+        int attempt = attempts.getAndIncrement();
+        long delay = Math.min(maxDelay, initialDelay << Math.min(attempt, 20));
+        LOG.info("Watch closed, reconnecting in {} ms from resourceVersion {}", delay, resourceVersion);
+        scheduler.schedule(new Runnable() {
+            @Override
+            public void run() {
+                reconnect();
+            }
+        }, delay, TimeUnit.MILLISECONDS);
+    }
+
+    private synchronized void reconnect() {
+        reconnectPending.set(false);
+        if (closed) {
+            return;
+        }
+        try {
+            if (relistNeeded) {
+                LOG.info("ResourceVersion {} is too old to resume from, listing the resources again", resourceVersion);
+                relist();
+            }
+            connect();
+            reconnects.incrementAndGet();
+        } catch (Exception e) {
+            LOG.warn("Cannot re-establish the watch: " + e.getMessage());
+            scheduleReconnect();
+        }
+    }
+
+    private static boolean isVersionTooOld(KubernetesClientException e) {
+        return e.getCode() == HTTP_GONE || (e.getStatus() != null && e.getStatus().getCode() != null
+                && e.getStatus().getCode() == HTTP_GONE);
+    }
+
+    private static final class TombstoneMeta extends ObjectMeta {
+    }
+
+    /**
+     * Passes the events of one connection on, so a late close notification
+     * from a replaced connection cannot trigger another reconnect
+     */
+    private final class Connection implements Watcher<T> {
+
+        private Watch watch;
+
+        @Override
+        public void eventReceived(Action action, T resource) {
+            if (connection != this) {
+                return;
+            }
+            if (action != Action.ERROR) {
+                attempts.set(0);
+            }
+            receive(action, resource);
+            if (action == Action.ERROR) {
+                // the client cannot pass a Status on as the event object, so all that is
+                // known is that the server gave up on the watch: resume from where we are
+                scheduleReconnect();
+            }
+        }
+
+        @Override
+        public void onClose(KubernetesClientException cause) {
+            if (closed || connection != this) {
+                return;
+            }
+            delegate.onClose(cause);
+            if (cause != null && isVersionTooOld(cause)) {
+                relistNeeded = true;
+            }
+            scheduleReconnect();
+        }
+    }
+}
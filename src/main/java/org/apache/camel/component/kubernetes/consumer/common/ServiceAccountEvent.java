@@ -0,0 +1,19 @@
+package org.apache.camel.component.kubernetes.consumer.common;
+
+import io.fabric8.kubernetes.api.model.ServiceAccount;
+import io.fabric8.kubernetes.client.Watcher.Action;
+
+public class ServiceAccountEvent extends KubernetesEvent<ServiceAccount> {
+
+	public ServiceAccountEvent(Action action, ServiceAccount serviceAccount) {
+		super(action, serviceAccount);
+	}
+
+	public ServiceAccount getServiceAccount() {
+		return getResource();
+	}
+
+	public void setServiceAccount(ServiceAccount serviceAccount) {
+		setResource(serviceAccount);
+	}
+}
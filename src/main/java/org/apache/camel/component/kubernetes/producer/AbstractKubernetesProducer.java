@@ -0,0 +1,677 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.component.kubernetes.producer;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+
+import io.fabric8.kubernetes.api.model.HasMetadata;
+import io.fabric8.kubernetes.api.model.KubernetesResourceList;
+import io.fabric8.kubernetes.client.dsl.ClientNonNamespaceOperation;
+import io.fabric8.kubernetes.client.dsl.Deletable;
+import io.fabric8.kubernetes.client.dsl.FilterWatchListDeletable;
+import io.fabric8.kubernetes.client.dsl.Gettable;
+
+import org.apache.camel.AsyncCallback;
+import org.apache.camel.Exchange;
+import org.apache.camel.ThreadPoolRejectedPolicy;
+import org.apache.camel.api.management.ManagedAttribute;
+import org.apache.camel.api.management.ManagedOperation;
+import org.apache.camel.api.management.ManagedResource;
+import org.apache.camel.builder.ThreadPoolProfileBuilder;
+import org.apache.camel.component.kubernetes.KubernetesConfiguration;
+import org.apache.camel.component.kubernetes.KubernetesConstants;
+import org.apache.camel.component.kubernetes.KubernetesEndpoint;
+import org.apache.camel.component.kubernetes.cache.KubernetesInformer;
+import org.apache.camel.component.kubernetes.cache.KubernetesReadCache;
+import org.apache.camel.component.kubernetes.cache.KubernetesResources;
+import org.apache.camel.impl.DefaultAsyncProducer;
+import org.apache.camel.spi.ThreadPoolProfile;
+import org.apache.camel.support.SynchronizationAdapter;
+import org.apache.camel.util.ObjectHelper;
+
+/**
+ * Base class for the producers, holding on to the shared
+ * {@link KubernetesInformer} when the endpoint uses the cache and creating
+ * the iterators of paged list operations.
+ * <p/>
+ * The client blocks for the whole request, so unless the endpoint is
+ * synchronous the operations run on a pool of the producer and the calling
+ * thread is released as soon as the operation is handed over. The pool has
+ * a bounded queue; when it is full, or the pool is shutting down, the caller
+ * runs the operation itself, which slows the route down rather than failing
+ * it.
+ * <p/>
+ * Batch create and delete operations take a collection of items as body and
+ * run their requests on a separate pool, at most <tt>batchConcurrency</tt>
+ * at a time, answering with a {@link KubernetesBatchResult} per item.
+ * <p/>
+ * List operations given several namespaces in the
+ * <tt>CamelKubernetesNamespaceNames</tt> header list in each of them, at most
+ * <tt>listConcurrency</tt> at a time, and answer with the merged results. With
+ * a page size the answer is a {@link KubernetesFanOutIterator} streaming the
+ * items of all the namespaces as they are read, which must be read before
+ * the exchange completes as it is closed then.
+ * <p/>
+ * With a <tt>readCacheSize</tt> get operations not served by the informer
+ * go through a {@link KubernetesReadCache} of the producer, which is cleared
+ * by any operation other than a get or a list. Its hit and miss counts are
+ * exposed over JMX.
+ * <p/>
+ * With <tt>coalesceReads</tt> a get or list operation with the same
+ * parameters as one in flight waits for it through a
+ * {@link KubernetesSingleFlight} and answers with its result, so a burst of
+ * identical reads sends a single request. The exchanges then share the
+ * resources of the answer, which must not be modified.
+ * <p/>
+ * With <tt>maxRetries</tt> an operation failing with a transient error is
+ * run again by a {@link KubernetesRetry}, and so is each item of a batch,
+ * rather than failing the exchange. Creates are only retried when the
+ * server certainly did not apply them.
+ * <p/>
+ * An operation given on the endpoint is resolved to its {@link Operation}
+ * once when the producer starts, so exchanges go straight to it; otherwise
+ * the operation is read from the header and the resolved operations are
+ * kept by name.
+ */
+@ManagedResource(description = "Managed Kubernetes Producer")
+public abstract class AbstractKubernetesProducer extends DefaultAsyncProducer {
+
+    private static final int MAX_QUEUE_SIZE = 1000;
+
+    private KubernetesInformer<?> informer;
+
+    private volatile ExecutorService executor;
+
+    private ExecutorService batchExecutor;
+
+    private ExecutorService listExecutor;
+
+    private ExecutorService readCacheExecutor;
+
+    private KubernetesReadCache<HasMetadata> readCache;
+
+    private KubernetesSingleFlight singleFlight;
+
+    private KubernetesRetry retry;
+
+    private final ConcurrentMap<String, Operation> operations = new ConcurrentHashMap<String, Operation>();
+
+    private String fixedOperationName;
+
+    private Operation fixedOperation;
+
+    public AbstractKubernetesProducer(KubernetesEndpoint endpoint) {
+        super(endpoint);
+    }
+
+    @Override
+    public KubernetesEndpoint getEndpoint() {
+        return (KubernetesEndpoint) super.getEndpoint();
+    }
+
+    @Override
+    protected void doStart() throws Exception {
+        super.doStart();
+        KubernetesConfiguration configuration = getEndpoint().getKubernetesConfiguration();
+        if (ObjectHelper.isNotEmpty(configuration.getOperation())) {
+            fixedOperationName = configuration.getOperation();
+            fixedOperation = operation(fixedOperationName);
+        }
+        if (configuration.isUseCache()) {
+            informer = getEndpoint().getComponent().getInformerRegistry().acquire(getEndpoint());
+        }
+        if (!getEndpoint().isSynchronous()) {
+            ThreadPoolProfile profile = new ThreadPoolProfileBuilder("KubernetesProducer")
+                    .poolSize(configuration.getProducerPoolSize()).maxPoolSize(configuration.getProducerPoolSize())
+                    .maxQueueSize(MAX_QUEUE_SIZE).allowCoreThreadTimeOut(true)
+                    .rejectedPolicy(ThreadPoolRejectedPolicy.Abort).build();
+            executor = getEndpoint().getCamelContext().getExecutorServiceManager()
+                    .newThreadPool(this, "KubernetesProducer", profile);
+        }
+        batchExecutor = getEndpoint().getCamelContext().getExecutorServiceManager()
+                .newFixedThreadPool(this, "KubernetesBatch", configuration.getBatchConcurrency());
+        listExecutor = getEndpoint().getCamelContext().getExecutorServiceManager()
+                .newFixedThreadPool(this, "KubernetesList", configuration.getListConcurrency());
+        if (configuration.getReadCacheSize() > 0) {
+            if (configuration.isReadCacheRevalidate()) {
+                readCacheExecutor = getEndpoint().getCamelContext().getExecutorServiceManager()
+                        .newSingleThreadExecutor(this, "KubernetesReadCache");
+            }
+            readCache = new KubernetesReadCache<HasMetadata>(new KubernetesReadCache.Loader<HasMetadata>() {
+                @Override
+                public HasMetadata load(String namespace, String name) throws Exception {
+                    return fetch(namespace, name);
+                }
+            }, configuration.getReadCacheSize(), configuration.getReadCacheTtl(), readCacheExecutor);
+        }
+        if (configuration.isCoalesceReads()) {
+            singleFlight = new KubernetesSingleFlight();
+        }
+        if (configuration.getMaxRetries() > 0) {
+            retry = new KubernetesRetry(configuration.getMaxRetries(), configuration.getRetryInitialDelay(),
+                    configuration.getRetryMaxDelay());
+        }
+    }
+
+    @Override
+    protected void doStop() throws Exception {
+        if (executor != null) {
+            getEndpoint().getCamelContext().getExecutorServiceManager().shutdownGraceful(executor);
+            executor = null;
+        }
+        if (batchExecutor != null) {
+            getEndpoint().getCamelContext().getExecutorServiceManager().shutdownNow(batchExecutor);
+            batchExecutor = null;
+        }
+        if (listExecutor != null) {
+            getEndpoint().getCamelContext().getExecutorServiceManager().shutdownNow(listExecutor);
+            listExecutor = null;
+        }
+        if (readCacheExecutor != null) {
+            getEndpoint().getCamelContext().getExecutorServiceManager().shutdownNow(readCacheExecutor);
+            readCacheExecutor = null;
+        }
+        readCache = null;
+        singleFlight = null;
+        retry = null;
+        if (informer != null) {
+            getEndpoint().getComponent().getInformerRegistry().release(informer);
+            informer = null;
+        }
+        fixedOperationName = null;
+        fixedOperation = null;
+        operations.clear();
+        super.doStop();
+    }
+
+    @Override
+    public boolean process(final Exchange exchange, final AsyncCallback callback) {
+        ExecutorService pool = executor;
+        if (pool != null) {
+            try {
+                pool.execute(new Runnable() {
+                    @Override
+                    public void run() {
+                        execute(exchange);
+                        callback.done(false);
+                    }
+                });
+                return false;
+            } catch (RejectedExecutionException e) {
+                // the queue is full or the pool is shutting down, so the caller runs it
+            }
+        }
+        execute(exchange);
+        callback.done(true);
+        return true;
+    }
+
+    /**
+     * Runs the operation of the exchange, blocking until it completes
+     */
+    protected void doProcess(Exchange exchange) throws Exception {
+        String name;
+        Operation operation;
+        if (fixedOperation != null) {
+            name = fixedOperationName;
+            operation = fixedOperation;
+        } else {
+            name = exchange.getIn().getHeader(KubernetesConstants.KUBERNETES_OPERATION, String.class);
+            operation = name != null ? operations.get(name) : null;
+            if (operation == null) {
+                operation = operation(name);
+            }
+        }
+        boolean read = name.startsWith("get") || name.startsWith("list");
+        try {
+            if (read && singleFlight != null && !isPagedList()) {
+                executeShared(exchange, name, operation);
+            } else {
+                executeWithRetry(exchange, name, operation);
+            }
+        } finally {
+            KubernetesReadCache<HasMetadata> cache = readCache;
+            if (cache != null && !read) {
+                // a write may have changed any of the cached resources
+                cache.clear();
+            }
+        }
+    }
+
+    /**
+     * The operation of the given name, or <tt>null</tt> if the producer does
+     * not support it
+     */
+    protected abstract Operation resolveOperation(String operation);
+
+    private Operation operation(String name) {
+        Operation operation = name != null ? resolveOperation(name) : null;
+        if (operation == null) {
+            throw new IllegalArgumentException("Unsupported operation " + name);
+        }
+        operations.putIfAbsent(name, operation);
+        return operation;
+    }
+
+    /**
+     * Runs a read operation, or waits for the identical one in flight and
+     * answers with its result. A list result gets a list of its own, but the
+     * resources in it, like the resource of a get, are the same instances as
+     * in the body of the exchange which ran the operation
+     */
+    private void executeShared(final Exchange exchange, final String name, final Operation operation)
+            throws Exception {
+        boolean[] leader = new boolean[1];
+        Object body = singleFlight.execute(readKey(exchange, name), new Callable<Object>() {
+            @Override
+            public Object call() throws Exception {
+                executeWithRetry(exchange, name, operation);
+                return exchange.getOut().getBody();
+            }
+        }, leader);
+        if (!leader[0]) {
+            exchange.getOut().setBody(body instanceof List ? new ArrayList<Object>((List<?>) body) : body);
+        }
+    }
+
+    /**
+     * Runs the operation, retrying it on transient errors if the endpoint
+     * asks for it
+     */
+    private void executeWithRetry(final Exchange exchange, final String name, final Operation operation)
+            throws Exception {
+        KubernetesRetry policy = retry;
+        if (policy == null) {
+            operation.execute(exchange, name);
+            return;
+        }
+        policy.execute(new Callable<Object>() {
+            @Override
+            public Object call() throws Exception {
+                operation.execute(exchange, name);
+                return null;
+            }
+        }, !name.startsWith("create"));
+    }
+
+    /**
+     * The operation with the kubernetes headers it is given, which are all
+     * the parameters of a read
+     */
+    private static String readKey(Exchange exchange, String name) {
+        Map<String, Object> parameters = new TreeMap<String, Object>();
+        for (Map.Entry<String, Object> header : exchange.getIn().getHeaders().entrySet()) {
+            if (header.getKey().startsWith("CamelKubernetes")) {
+                Object value = header.getValue();
+                if (value instanceof Map) {
+                    value = new TreeMap<Object, Object>((Map<?, ?>) value);
+                }
+                parameters.put(header.getKey(), value);
+            }
+        }
+        return name + parameters;
+    }
+
+    private void execute(Exchange exchange) {
+        try {
+            doProcess(exchange);
+        } catch (Throwable e) {
+            exchange.setException(e);
+        }
+    }
+
+    /**
+     * The cache to serve list and get operations from, or <tt>null</tt> if
+     * the endpoint does not use the cache
+     */
+    @SuppressWarnings("unchecked")
+    protected <T extends HasMetadata> KubernetesInformer<T> getInformer() {
+        return (KubernetesInformer<T>) informer;
+    }
+
+    /**
+     * The cache to serve get operations from when the informer does not
+     * hold the resource, or <tt>null</tt> if the endpoint has no read cache
+     */
+    @SuppressWarnings("unchecked")
+    protected <T extends HasMetadata> KubernetesReadCache<T> getReadCache() {
+        return (KubernetesReadCache<T>) (KubernetesReadCache<?>) readCache;
+    }
+
+    @SuppressWarnings("rawtypes")
+    private HasMetadata fetch(String namespace, String name) {
+        String category = getEndpoint().getKubernetesConfiguration().getCategory();
+        ClientNonNamespaceOperation operation = (ClientNonNamespaceOperation) KubernetesResources
+                .resources(getEndpoint().getKubernetesClient(), category, namespace);
+        return (HasMetadata) ((Gettable) operation.withName(name)).get();
+    }
+
+    @ManagedAttribute(description = "Number of get operations answered from the read cache")
+    public long getReadCacheHits() {
+        KubernetesReadCache<HasMetadata> cache = readCache;
+        return cache != null ? cache.getHits() : 0;
+    }
+
+    @ManagedAttribute(description = "Number of get operations the read cache had to fetch")
+    public long getReadCacheMisses() {
+        KubernetesReadCache<HasMetadata> cache = readCache;
+        return cache != null ? cache.getMisses() : 0;
+    }
+
+    @ManagedAttribute(description = "Number of resources evicted from the full read cache")
+    public long getReadCacheEvictions() {
+        KubernetesReadCache<HasMetadata> cache = readCache;
+        return cache != null ? cache.getEvictions() : 0;
+    }
+
+    @ManagedAttribute(description = "Number of expired resources of the read cache found unchanged")
+    public long getReadCacheRevalidations() {
+        KubernetesReadCache<HasMetadata> cache = readCache;
+        return cache != null ? cache.getRevalidations() : 0;
+    }
+
+    @ManagedAttribute(description = "Number of resources in the read cache")
+    public int getReadCacheSize() {
+        KubernetesReadCache<HasMetadata> cache = readCache;
+        return cache != null ? cache.size() : 0;
+    }
+
+    @ManagedAttribute(description = "Number of reads answered by an identical read in flight")
+    public long getCoalescedReads() {
+        KubernetesSingleFlight flight = singleFlight;
+        return flight != null ? flight.getSharedCount() : 0;
+    }
+
+    @ManagedAttribute(description = "Number of requests retried after a transient error")
+    public long getRetries() {
+        KubernetesRetry policy = retry;
+        return policy != null ? policy.getRetries() : 0;
+    }
+
+    @ManagedOperation(description = "Removes all the resources from the read cache")
+    public void clearReadCache() {
+        KubernetesReadCache<HasMetadata> cache = readCache;
+        if (cache != null) {
+            cache.clear();
+        }
+    }
+
+    /**
+     * Whether list operations should return a {@link KubernetesListIterator}
+     */
+    protected boolean isPagedList() {
+        return getEndpoint().getKubernetesConfiguration().getListPageSize() > 0;
+    }
+
+    /**
+     * A lazy list of the resources, optionally restricted to a namespace and
+     * selected by labels
+     */
+    @SuppressWarnings("unchecked")
+    protected <T extends HasMetadata> KubernetesListIterator<T> pagedList(String namespaceName,
+            Map<String, String> labels) throws Exception {
+        KubernetesConfiguration configuration = getEndpoint().getKubernetesConfiguration();
+        String category = configuration.getCategory();
+        String url = KubernetesResources.listUrl(getEndpoint().getKubernetesClient(), category, namespaceName, labels);
+        return new KubernetesListIterator<T>(getEndpoint().getKubernetesClient().getHttpClient(), url,
+                (Class<T>) KubernetesResources.resourceType(category), configuration.getListPageSize());
+    }
+
+    /**
+     * Lists the resources in every namespace of the
+     * <tt>CamelKubernetesNamespaceNames</tt> header, optionally selected by
+     * labels, setting the merged result as body
+     *
+     * @return <tt>false</tt> if the header is not set and the operation
+     *         should list as usual
+     */
+    protected boolean doFanOutList(Exchange exchange, Map<String, String> labels) throws Exception {
+        Object header = exchange.getIn().getHeader(KubernetesConstants.KUBERNETES_NAMESPACE_NAMES);
+        if (ObjectHelper.isEmpty(header)) {
+            return false;
+        }
+        List<String> namespaces = new ArrayList<String>();
+        for (Iterator<Object> it = ObjectHelper.createIterator(header); it.hasNext();) {
+            String namespace = it.next().toString().trim();
+            if (!namespace.isEmpty() && !namespaces.contains(namespace)) {
+                namespaces.add(namespace);
+            }
+        }
+        if (isPagedList()) {
+            List<Iterator<HasMetadata>> sources = new ArrayList<Iterator<HasMetadata>>(namespaces.size());
+            for (String namespace : namespaces) {
+                KubernetesInformer<HasMetadata> informer = getInformer();
+                if (informer != null && informer.covers(namespace)) {
+                    sources.add(cachedList(informer, namespace, labels).iterator());
+                } else {
+                    sources.add(this.<HasMetadata>pagedList(namespace, labels));
+                }
+            }
+            int capacity = getEndpoint().getKubernetesConfiguration().getListPageSize();
+            final KubernetesFanOutIterator<HasMetadata> iterator
+                    = new KubernetesFanOutIterator<HasMetadata>(listExecutor, sources, capacity);
+            // a body the route leaves unread must not keep the tasks reading ahead
+            exchange.addOnCompletion(new SynchronizationAdapter() {
+                @Override
+                public void onDone(Exchange exchange) {
+                    iterator.close();
+                }
+            });
+            exchange.getOut().setBody(iterator);
+            return true;
+        }
+
+        List<Future<List<HasMetadata>>> futures = new ArrayList<Future<List<HasMetadata>>>(namespaces.size());
+        for (final String namespace : namespaces) {
+            final Map<String, String> selector = labels;
+            futures.add(listExecutor.submit(new Callable<List<HasMetadata>>() {
+                @Override
+                public List<HasMetadata> call() throws Exception {
+                    return list(namespace, selector);
+                }
+            }));
+        }
+        List<HasMetadata> result = new ArrayList<HasMetadata>();
+        try {
+            for (Future<List<HasMetadata>> future : futures) {
+                result.addAll(future.get());
+            }
+        } catch (ExecutionException e) {
+            for (Future<List<HasMetadata>> future : futures) {
+                future.cancel(true);
+            }
+            throw e.getCause() instanceof Exception ? (Exception) e.getCause() : e;
+        } catch (InterruptedException e) {
+            for (Future<List<HasMetadata>> future : futures) {
+                future.cancel(true);
+            }
+            throw e;
+        }
+        exchange.getOut().setBody(result);
+        return true;
+    }
+
+    /**
+     * The resources of one namespace, from the cache if it holds them
+     */
+    @SuppressWarnings("unchecked")
+    private List<HasMetadata> list(String namespace, Map<String, String> labels) {
+        KubernetesInformer<HasMetadata> informer = getInformer();
+        if (informer != null && informer.covers(namespace)) {
+            return cachedList(informer, namespace, labels);
+        }
+        FilterWatchListDeletable<HasMetadata, ? extends KubernetesResourceList, Boolean> resources = KubernetesResources
+                .<HasMetadata>resources(getEndpoint().getKubernetesClient(), getEndpoint().getKubernetesConfiguration().getCategory(), namespace);
+        if (labels != null && !labels.isEmpty()) {
+            resources = resources.withLabels(labels);
+        }
+        return (List<HasMetadata>) resources.list().getItems();
+    }
+
+    private static List<HasMetadata> cachedList(KubernetesInformer<HasMetadata> informer, String namespace,
+            Map<String, String> labels) {
+        return labels != null && !labels.isEmpty() ? informer.listByLabels(namespace, labels) : informer.list(namespace);
+    }
+
+    /**
+     * Creates each resource of the body, in its own namespace or else in the
+     * namespace of the header
+     */
+    protected void doBatchCreate(Exchange exchange, String operation) throws Exception {
+        final String namespaceName = exchange.getIn().getHeader(KubernetesConstants.KUBERNETES_NAMESPACE_NAME, String.class);
+        runBatch(exchange, new BatchAction() {
+            @Override
+            public Object run(Object item) {
+                return createItem(item, namespaceName);
+            }
+        }, false);
+    }
+
+    /**
+     * Deletes each resource of the body, given as a resource or by name
+     */
+    protected void doBatchDelete(Exchange exchange, String operation) throws Exception {
+        final String namespaceName = exchange.getIn().getHeader(KubernetesConstants.KUBERNETES_NAMESPACE_NAME, String.class);
+        runBatch(exchange, new BatchAction() {
+            @Override
+            public Object run(Object item) {
+                return deleteItem(item, namespaceName);
+            }
+        }, true);
+    }
+
+    private void runBatch(Exchange exchange, final BatchAction action, final boolean idempotent) throws Exception {
+        List<Object> items = new ArrayList<Object>();
+        for (Iterator<Object> it = ObjectHelper.createIterator(exchange.getIn().getBody()); it.hasNext();) {
+            items.add(it.next());
+        }
+        List<Future<Object>> futures = new ArrayList<Future<Object>>(items.size());
+        for (final Object item : items) {
+            futures.add(batchExecutor.submit(new Callable<Object>() {
+                @Override
+                public Object call() throws Exception {
+                    KubernetesRetry policy = retry;
+                    if (policy == null) {
+                        return action.run(item);
+                    }
+                    return policy.execute(new Callable<Object>() {
+                        @Override
+                        public Object call() throws Exception {
+                            return action.run(item);
+                        }
+                    }, idempotent);
+                }
+            }));
+        }
+
+        List<KubernetesBatchResult> results = new ArrayList<KubernetesBatchResult>(items.size());
+        int failures = 0;
+        try {
+            for (int i = 0; i < items.size(); i++) {
+                try {
+                    results.add(new KubernetesBatchResult(items.get(i), futures.get(i).get(), null));
+                } catch (ExecutionException e) {
+                    Exception cause = e.getCause() instanceof Exception ? (Exception) e.getCause() : e;
+                    results.add(new KubernetesBatchResult(items.get(i), null, cause));
+                    failures++;
+                }
+            }
+        } catch (InterruptedException e) {
+            for (Future<Object> future : futures) {
+                future.cancel(true);
+            }
+            throw e;
+        }
+        exchange.getOut().setBody(results);
+        exchange.getOut().setHeader(KubernetesConstants.KUBERNETES_BATCH_FAILURES, failures);
+    }
+
+    /**
+     * Creates one resource of a batch, answering the created resource
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    protected Object createItem(Object item, String namespaceName) {
+        String category = getEndpoint().getKubernetesConfiguration().getCategory();
+        Class<?> resourceType = KubernetesResources.resourceType(category);
+        if (!resourceType.isInstance(item)) {
+            throw new IllegalArgumentException("Create " + category + " require " + resourceType.getSimpleName()
+                    + " items but got " + item);
+        }
+        HasMetadata resource = (HasMetadata) item;
+        String namespace = resource.getMetadata() != null && ObjectHelper.isNotEmpty(resource.getMetadata().getNamespace())
+                ? resource.getMetadata().getNamespace() : namespaceName;
+        ClientNonNamespaceOperation operation = (ClientNonNamespaceOperation) resources(category, namespace);
+        return operation.create(resource);
+    }
+
+    /**
+     * Deletes one resource of a batch, answering whether it was deleted
+     */
+    @SuppressWarnings("rawtypes")
+    protected Object deleteItem(Object item, String namespaceName) {
+        String category = getEndpoint().getKubernetesConfiguration().getCategory();
+        String name;
+        String namespace = namespaceName;
+        if (item instanceof HasMetadata && ((HasMetadata) item).getMetadata() != null) {
+            HasMetadata resource = (HasMetadata) item;
+            name = resource.getMetadata().getName();
+            if (ObjectHelper.isNotEmpty(resource.getMetadata().getNamespace())) {
+                namespace = resource.getMetadata().getNamespace();
+            }
+        } else if (item instanceof String) {
+            name = (String) item;
+        } else {
+            throw new IllegalArgumentException("Delete " + category + " require resources or names but got " + item);
+        }
+        if (ObjectHelper.isEmpty(name)) {
+            throw new IllegalArgumentException("Delete " + category + " require a name for every item");
+        }
+        ClientNonNamespaceOperation operation = (ClientNonNamespaceOperation) resources(category, namespace);
+        return ((Deletable) operation.withName(name)).delete();
+    }
+
+    private Object resources(String category, String namespace) {
+        if (KubernetesResources.isNamespaced(category) && ObjectHelper.isEmpty(namespace)) {
+            throw new IllegalArgumentException(category + " batch operations require specify a namespace name");
+        }
+        return KubernetesResources.resources(getEndpoint().getKubernetesClient(), category, namespace);
+    }
+
+    private interface BatchAction {
+
+        Object run(Object item) throws Exception;
+    }
+
+    /**
+     * An operation of the producer, resolved once by name
+     */
+    protected interface Operation {
+
+        void execute(Exchange exchange, String operation) throws Exception;
+    }
+}
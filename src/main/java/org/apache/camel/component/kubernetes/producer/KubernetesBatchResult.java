@@ -0,0 +1,61 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.component.kubernetes.producer;
+
+/**
+ * The outcome of one item of a batch operation: the resource created, or
+ * whether it was deleted, or the exception it failed with.
+ */
+public class KubernetesBatchResult {
+
+    private final Object item;
+    private final Object result;
+    private final Exception exception;
+
+    public KubernetesBatchResult(Object item, Object result, Exception exception) {
+        this.item = item;
+        this.result = result;
+        this.exception = exception;
+    }
+
+    /**
+     * The item of the exchange body this is the outcome of
+     */
+    public Object getItem() {
+        return item;
+    }
+
+    /**
+     * The created resource, or <tt>true</tt> if the resource was deleted
+     */
+    public Object getResult() {
+        return result;
+    }
+
+    public Exception getException() {
+        return exception;
+    }
+
+    public boolean isFailed() {
+        return exception != null;
+    }
+
+    @Override
+    public String toString() {
+        return "KubernetesBatchResult [item=" + item + ", result=" + result + ", exception=" + exception + "]";
+    }
+}
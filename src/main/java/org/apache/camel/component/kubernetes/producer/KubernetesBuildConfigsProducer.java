@@ -37,12 +37,13 @@ import io.fabric8.openshift.client.dsl.ClientBuildConfigResource;
 import org.apache.camel.Exchange;
 import org.apache.camel.component.kubernetes.KubernetesConstants;
 import org.apache.camel.component.kubernetes.KubernetesEndpoint;
-import org.apache.camel.impl.DefaultProducer;
+import org.apache.camel.component.kubernetes.cache.KubernetesInformer;
+import org.apache.camel.component.kubernetes.cache.KubernetesReadCache;
 import org.apache.camel.util.ObjectHelper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-public class KubernetesBuildConfigsProducer extends DefaultProducer {
+public class KubernetesBuildConfigsProducer extends AbstractKubernetesProducer {
 
     private static final Logger LOG = LoggerFactory
             .getLogger(KubernetesBuildConfigsProducer.class);
@@ -52,44 +53,51 @@ public class KubernetesBuildConfigsProducer extends DefaultProducer {
     }
 
     @Override
-    public KubernetesEndpoint getEndpoint() {
-        return (KubernetesEndpoint) super.getEndpoint();
-    }
-
-    @Override
-    public void process(Exchange exchange) throws Exception {
-        String operation;
-
-        if (ObjectHelper.isEmpty(getEndpoint().getKubernetesConfiguration()
-                .getOperation())) {
-            operation = exchange.getIn().getHeader(
-                    KubernetesConstants.KUBERNETES_OPERATION, String.class);
-        } else {
-            operation = getEndpoint().getKubernetesConfiguration()
-                    .getOperation();
-        }
-
+    protected Operation resolveOperation(String operation) {
         switch (operation) {
 
         case KubernetesOperations.LIST_BUILD_CONFIGS:
-            doList(exchange, operation);
-            break;
+            return new Operation() {
+                @Override
+                public void execute(Exchange exchange, String operation) throws Exception {
+                    doList(exchange, operation);
+                }
+            };
 
         case KubernetesOperations.LIST_BUILD_CONFIGS_BY_LABELS_OPERATION:
-        	doListBuildConfigsByLabels(exchange, operation);
-            break;
+            return new Operation() {
+                @Override
+                public void execute(Exchange exchange, String operation) throws Exception {
+                    doListBuildConfigsByLabels(exchange, operation);
+                }
+            };
 
         case KubernetesOperations.GET_BUILD_CONFIG_OPERATION:
-            doGetBuildConfig(exchange, operation);
-            break;
+            return new Operation() {
+                @Override
+                public void execute(Exchange exchange, String operation) throws Exception {
+                    doGetBuildConfig(exchange, operation);
+                }
+            };
 
         default:
-            throw new IllegalArgumentException("Unsupported operation "
-                    + operation);
+            return null;
         }
     }
 
     protected void doList(Exchange exchange, String operation) throws Exception {
+        if (doFanOutList(exchange, null)) {
+            return;
+        }
+        KubernetesInformer<BuildConfig> informer = getInformer();
+        if (informer != null && informer.covers(null)) {
+            exchange.getOut().setBody(informer.list());
+            return;
+        }
+        if (isPagedList()) {
+            exchange.getOut().setBody(pagedList(null, null));
+            return;
+        }
         BuildConfigList buildConfigsList = getEndpoint()
                 .getKubernetesClient().adapt(OpenShiftClient.class).buildConfigs().list();
         exchange.getOut().setBody(buildConfigsList.getItems());
@@ -103,6 +111,18 @@ public class KubernetesBuildConfigsProducer extends DefaultProducer {
                 Map.class);
         String namespaceName = exchange.getIn().getHeader(
                 KubernetesConstants.KUBERNETES_NAMESPACE_NAME, String.class);
+        if (doFanOutList(exchange, labels)) {
+            return;
+        }
+        KubernetesInformer<BuildConfig> informer = getInformer();
+        if (informer != null && informer.covers(namespaceName)) {
+            exchange.getOut().setBody(informer.listByLabels(namespaceName, labels));
+            return;
+        }
+        if (isPagedList()) {
+            exchange.getOut().setBody(pagedList(namespaceName, labels));
+            return;
+        }
         if (!ObjectHelper.isEmpty(namespaceName)) {
             ClientNonNamespaceOperation<OpenShiftClient, BuildConfig, BuildConfigList, DoneableBuildConfig, ClientBuildConfigResource<BuildConfig, DoneableBuildConfig, Void, Void>> buildConfigs;
             buildConfigs = getEndpoint().getKubernetesClient().adapt(OpenShiftClient.class).buildConfigs()
@@ -140,6 +160,16 @@ public class KubernetesBuildConfigsProducer extends DefaultProducer {
             throw new IllegalArgumentException(
                     "Get a specific Build Config require specify a namespace name");
         }
+        KubernetesInformer<BuildConfig> informer = getInformer();
+        if (informer != null && informer.covers(namespaceName)) {
+            exchange.getOut().setBody(informer.get(namespaceName, buildConfigName));
+            return;
+        }
+        KubernetesReadCache<BuildConfig> cache = getReadCache();
+        if (cache != null) {
+            exchange.getOut().setBody(cache.get(namespaceName, buildConfigName));
+            return;
+        }
         buildConfig = getEndpoint().getKubernetesClient().adapt(OpenShiftClient.class).buildConfigs()
                 .inNamespace(namespaceName).withName(buildConfigName).get();
         exchange.getOut().setBody(buildConfig);
@@ -33,12 +33,13 @@ import io.fabric8.openshift.client.OpenShiftClient;
 import org.apache.camel.Exchange;
 import org.apache.camel.component.kubernetes.KubernetesConstants;
 import org.apache.camel.component.kubernetes.KubernetesEndpoint;
-import org.apache.camel.impl.DefaultProducer;
+import org.apache.camel.component.kubernetes.cache.KubernetesInformer;
+import org.apache.camel.component.kubernetes.cache.KubernetesReadCache;
 import org.apache.camel.util.ObjectHelper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-public class KubernetesBuildsProducer extends DefaultProducer {
+public class KubernetesBuildsProducer extends AbstractKubernetesProducer {
 
     private static final Logger LOG = LoggerFactory
             .getLogger(KubernetesBuildsProducer.class);
@@ -48,44 +49,51 @@ public class KubernetesBuildsProducer extends DefaultProducer {
     }
 
     @Override
-    public KubernetesEndpoint getEndpoint() {
-        return (KubernetesEndpoint) super.getEndpoint();
-    }
-
-    @Override
-    public void process(Exchange exchange) throws Exception {
-        String operation;
-
-        if (ObjectHelper.isEmpty(getEndpoint().getKubernetesConfiguration()
-                .getOperation())) {
-            operation = exchange.getIn().getHeader(
-                    KubernetesConstants.KUBERNETES_OPERATION, String.class);
-        } else {
-            operation = getEndpoint().getKubernetesConfiguration()
-                    .getOperation();
-        }
-
+    protected Operation resolveOperation(String operation) {
         switch (operation) {
 
         case KubernetesOperations.LIST_BUILD:
-            doList(exchange, operation);
-            break;
+            return new Operation() {
+                @Override
+                public void execute(Exchange exchange, String operation) throws Exception {
+                    doList(exchange, operation);
+                }
+            };
 
         case KubernetesOperations.LIST_BUILD_BY_LABELS_OPERATION:
-        	doListBuildByLabels(exchange, operation);
-            break;
+            return new Operation() {
+                @Override
+                public void execute(Exchange exchange, String operation) throws Exception {
+                    doListBuildByLabels(exchange, operation);
+                }
+            };
 
         case KubernetesOperations.GET_BUILD_OPERATION:
-            doGetBuild(exchange, operation);
-            break;
+            return new Operation() {
+                @Override
+                public void execute(Exchange exchange, String operation) throws Exception {
+                    doGetBuild(exchange, operation);
+                }
+            };
 
         default:
-            throw new IllegalArgumentException("Unsupported operation "
-                    + operation);
+            return null;
         }
     }
 
     protected void doList(Exchange exchange, String operation) throws Exception {
+        if (doFanOutList(exchange, null)) {
+            return;
+        }
+        KubernetesInformer<Build> informer = getInformer();
+        if (informer != null && informer.covers(null)) {
+            exchange.getOut().setBody(informer.list());
+            return;
+        }
+        if (isPagedList()) {
+            exchange.getOut().setBody(pagedList(null, null));
+            return;
+        }
         BuildList buildList = getEndpoint()
                 .getKubernetesClient().adapt(OpenShiftClient.class).builds().list();
         exchange.getOut().setBody(buildList.getItems());
@@ -99,6 +107,18 @@ public class KubernetesBuildsProducer extends DefaultProducer {
                 Map.class);
         String namespaceName = exchange.getIn().getHeader(
                 KubernetesConstants.KUBERNETES_NAMESPACE_NAME, String.class);
+        if (doFanOutList(exchange, labels)) {
+            return;
+        }
+        KubernetesInformer<Build> informer = getInformer();
+        if (informer != null && informer.covers(namespaceName)) {
+            exchange.getOut().setBody(informer.listByLabels(namespaceName, labels));
+            return;
+        }
+        if (isPagedList()) {
+            exchange.getOut().setBody(pagedList(namespaceName, labels));
+            return;
+        }
         if (!ObjectHelper.isEmpty(namespaceName)) {
             ClientNonNamespaceOperation<OpenShiftClient, Build, BuildList, DoneableBuild, ClientResource<Build, DoneableBuild>> builds;
             builds = getEndpoint().getKubernetesClient().adapt(OpenShiftClient.class).builds()
@@ -136,6 +156,16 @@ public class KubernetesBuildsProducer extends DefaultProducer {
             throw new IllegalArgumentException(
                     "Get a specific Build require specify a namespace name");
         }
+        KubernetesInformer<Build> informer = getInformer();
+        if (informer != null && informer.covers(namespaceName)) {
+            exchange.getOut().setBody(informer.get(namespaceName, buildName));
+            return;
+        }
+        KubernetesReadCache<Build> cache = getReadCache();
+        if (cache != null) {
+            exchange.getOut().setBody(cache.get(namespaceName, buildName));
+            return;
+        }
         build = getEndpoint().getKubernetesClient().adapt(OpenShiftClient.class).builds()
                 .inNamespace(namespaceName).withName(buildName).get();
         exchange.getOut().setBody(build);
@@ -0,0 +1,172 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.component.kubernetes.producer;
+
+import java.io.Closeable;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import io.fabric8.kubernetes.client.KubernetesClientException;
+
+import org.apache.camel.util.IOHelper;
+import org.apache.camel.util.ObjectHelper;
+
+/**
+ * Merges several lazy lists, read side by side on a pool, into one iterator.
+ * <p/>
+ * Every source is drained by a task of its own into a bounded queue, so the
+ * items come in the order they arrive rather than source by source, and the
+ * tasks wait when the reader falls behind. The first source to fail ends the
+ * iteration with its exception.
+ * <p/>
+ * The iterator should be closed if it is not read to the end, to stop the
+ * tasks and release their connections. A task waiting for room in the queue
+ * gives up as soon as the iterator is closed.
+ */
+public class KubernetesFanOutIterator<T> implements Iterator<T>, Closeable {
+
+    private static final Object END = new Object();
+
+    private static final long OFFER_TIMEOUT = 100;
+
+    private final List<? extends Iterator<T>> sources;
+    private final BlockingQueue<Object> queue;
+    private final List<Future<?>> tasks;
+
+    private volatile boolean closed;
+    private volatile RuntimeException failure;
+    private int running;
+    private T next;
+
+    /**
+     * @param capacity the number of items read ahead of the reader
+     */
+    public KubernetesFanOutIterator(ExecutorService executor, List<? extends Iterator<T>> sources, int capacity) {
+        ObjectHelper.notNull(executor, "executor");
+        ObjectHelper.notNull(sources, "sources");
+        this.sources = sources;
+        this.queue = new ArrayBlockingQueue<Object>(Math.max(1, capacity));
+        this.tasks = new ArrayList<Future<?>>(sources.size());
+        this.running = sources.size();
+        for (final Iterator<T> source : sources) {
+            tasks.add(executor.submit(new Runnable() {
+                @Override
+                public void run() {
+                    drain(source);
+                }
+            }));
+        }
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public boolean hasNext() {
+        while (next == null && running > 0 && !closed) {
+            Object item;
+            try {
+                item = queue.take();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                close();
+                throw new KubernetesClientException("Interrupted while listing", e);
+            }
+            if (item == END) {
+                running--;
+                if (failure != null) {
+                    close();
+                    throw failure;
+                }
+            } else {
+                next = (T) item;
+            }
+        }
+        return next != null;
+    }
+
+    @Override
+    public T next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        T answer = next;
+        next = null;
+        return answer;
+    }
+
+    @Override
+    public void remove() {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        for (Future<?> task : tasks) {
+            task.cancel(true);
+        }
+        queue.clear();
+        for (Iterator<T> source : sources) {
+            if (source instanceof Closeable) {
+                IOHelper.close((Closeable) source);
+            }
+        }
+    }
+
+    private void drain(Iterator<T> source) {
+        try {
+            while (!closed && source.hasNext()) {
+                if (!offer(source.next())) {
+                    return;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        } catch (RuntimeException e) {
+            if (failure == null) {
+                failure = e;
+            }
+        }
+        try {
+            offer(END);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Waits for room in the queue until the iterator is closed
+     */
+    private boolean offer(Object item) throws InterruptedException {
+        while (!closed) {
+            if (queue.offer(item, OFFER_TIMEOUT, TimeUnit.MILLISECONDS)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,227 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.component.kubernetes.producer;
+
+import java.io.ByteArrayInputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URLEncoder;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ExecutionException;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ning.http.client.AsyncHttpClient;
+import com.ning.http.client.Response;
+
+import io.fabric8.kubernetes.client.KubernetesClientException;
+
+import org.apache.camel.util.IOHelper;
+import org.apache.camel.util.ObjectHelper;
+
+/**
+ * Lists resources lazily, one page at a time.
+ * <p/>
+ * Each page is requested with the <tt>limit</tt> and <tt>continue</tt>
+ * parameters and read fully before its items are parsed one by one, so at
+ * most a page is held in memory however many resources there are, and a
+ * slow reader never holds up the I/O thread of the shared HTTP client. A
+ * server which does not know these parameters answers with everything in a
+ * single page.
+ * <p/>
+ * The iterator should be closed if it is not read to the end, to release the
+ * page it holds.
+ */
+public class KubernetesListIterator<T> implements Iterator<T>, Closeable {
+
+    private static final int HTTP_OK = 200;
+
+    private final AsyncHttpClient httpClient;
+    private final String url;
+    private final Class<T> itemType;
+    private final int pageSize;
+    // the client's own mapper reads YAML, which limits the length of a JSON line
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    private InputStream page;
+    private JsonParser parser;
+    private boolean inItems;
+    private String continueToken;
+    private boolean done;
+    private T next;
+    private int pages;
+
+    public KubernetesListIterator(AsyncHttpClient httpClient, String url, Class<T> itemType, int pageSize) {
+        ObjectHelper.notNull(url, "url");
+        ObjectHelper.notNull(itemType, "itemType");
+        if (pageSize <= 0) {
+            throw new IllegalArgumentException("The page size must be positive: " + pageSize);
+        }
+        this.httpClient = httpClient;
+        this.url = url;
+        this.itemType = itemType;
+        this.pageSize = pageSize;
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (next == null && !done) {
+            try {
+                next = advance();
+            } catch (IOException e) {
+                close();
+                throw new KubernetesClientException("Cannot list " + url + ": " + e.getMessage(), e);
+            }
+        }
+        return next != null;
+    }
+
+    @Override
+    public T next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        T answer = next;
+        next = null;
+        return answer;
+    }
+
+    @Override
+    public void remove() {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void close() {
+        done = true;
+        closePage();
+    }
+
+    /**
+     * The number of pages requested so far
+     */
+    public int getPages() {
+        return pages;
+    }
+
+    private T advance() throws IOException {
+        while (true) {
+            if (parser == null) {
+                startPage();
+            }
+            T item = nextItem();
+            if (item != null) {
+                return item;
+            }
+            closePage();
+            if (ObjectHelper.isEmpty(continueToken)) {
+                done = true;
+                return null;
+            }
+        }
+    }
+
+    private void startPage() throws IOException {
+        String token = continueToken;
+        continueToken = null;
+        page = openPage(token);
+        pages++;
+        parser = mapper.getFactory().createParser(page);
+        if (parser.nextToken() != JsonToken.START_OBJECT) {
+            throw new IOException("Expected a resource list");
+        }
+        readFields();
+    }
+
+    /**
+     * Reads the fields of the list up to its items, or to its end
+     */
+    private void readFields() throws IOException {
+        JsonToken token;
+        while ((token = parser.nextToken()) == JsonToken.FIELD_NAME) {
+            String field = parser.getCurrentName();
+            parser.nextToken();
+            if ("items".equals(field) && parser.getCurrentToken() == JsonToken.START_ARRAY) {
+                inItems = true;
+                return;
+            } else if ("metadata".equals(field)) {
+                JsonNode metadata = mapper.readTree(parser);
+                if (metadata != null && metadata.hasNonNull("continue")) {
+                    continueToken = metadata.get("continue").asText();
+                }
+            } else {
+                parser.skipChildren();
+            }
+        }
+        if (token != JsonToken.END_OBJECT) {
+            throw new IOException("Unexpected " + token + " in resource list");
+        }
+        inItems = false;
+    }
+
+    private T nextItem() throws IOException {
+        if (!inItems) {
+            return null;
+        }
+        if (parser.nextToken() == JsonToken.START_OBJECT) {
+            return mapper.readValue(parser, itemType);
+        }
+        // the items are over, though the metadata may still follow
+        readFields();
+        return null;
+    }
+
+    /**
+     * Requests a page of the list, returning its body once it has been
+     * received in full
+     */
+    protected InputStream openPage(String continueToken) throws IOException {
+        StringBuilder uri = new StringBuilder(url);
+        uri.append(url.indexOf('?') < 0 ? '?' : '&').append("limit=").append(pageSize);
+        if (continueToken != null) {
+            uri.append("&continue=").append(URLEncoder.encode(continueToken, "UTF-8"));
+        }
+        Response response;
+        try {
+            response = httpClient.prepareGet(uri.toString()).execute().get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted waiting for " + uri);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
+            }
+            throw new IOException("Cannot request " + uri, e.getCause());
+        }
+        if (response.getStatusCode() != HTTP_OK) {
+            int code = response.getStatusCode();
+            throw new KubernetesClientException("Failure executing: GET at: " + uri + ". Status: " + code, code, null);
+        }
+        return new ByteArrayInputStream(response.getResponseBodyAsBytes());
+    }
+
+    private void closePage() {
+        IOHelper.close(parser, page);
+        parser = null;
+        page = null;
+        inItems = false;
+    }
+}
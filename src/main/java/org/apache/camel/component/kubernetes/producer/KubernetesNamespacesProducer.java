@@ -30,12 +30,13 @@ import io.fabric8.kubernetes.client.dsl.ClientResource;
 import org.apache.camel.Exchange;
 import org.apache.camel.component.kubernetes.KubernetesConstants;
 import org.apache.camel.component.kubernetes.KubernetesEndpoint;
-import org.apache.camel.impl.DefaultProducer;
+import org.apache.camel.component.kubernetes.cache.KubernetesInformer;
+import org.apache.camel.component.kubernetes.cache.KubernetesReadCache;
 import org.apache.camel.util.ObjectHelper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-public class KubernetesNamespacesProducer extends DefaultProducer {
+public class KubernetesNamespacesProducer extends AbstractKubernetesProducer {
 
     private static final Logger LOG = LoggerFactory
             .getLogger(KubernetesNamespacesProducer.class);
@@ -45,58 +46,87 @@ public class KubernetesNamespacesProducer extends DefaultProducer {
     }
 
     @Override
-    public KubernetesEndpoint getEndpoint() {
-        return (KubernetesEndpoint) super.getEndpoint();
-    }
-
-    @Override
-    public void process(Exchange exchange) throws Exception {
-        String operation;
-
-        if (ObjectHelper.isEmpty(getEndpoint().getKubernetesConfiguration()
-                .getOperation())) {
-            operation = exchange.getIn().getHeader(
-                    KubernetesConstants.KUBERNETES_OPERATION, String.class);
-        } else {
-            operation = getEndpoint().getKubernetesConfiguration()
-                    .getOperation();
-        }
-
+    protected Operation resolveOperation(String operation) {
         switch (operation) {
 
         case KubernetesOperations.LIST_NAMESPACE_OPERATION:
-            doList(exchange, operation);
-            break;
+            return new Operation() {
+                @Override
+                public void execute(Exchange exchange, String operation) throws Exception {
+                    doList(exchange, operation);
+                }
+            };
 
         case KubernetesOperations.LIST_NAMESPACE_BY_LABELS_OPERATION:
-            doListNamespaceByLabel(exchange, operation);
-            break;
+            return new Operation() {
+                @Override
+                public void execute(Exchange exchange, String operation) throws Exception {
+                    doListNamespaceByLabel(exchange, operation);
+                }
+            };
 
         case KubernetesOperations.GET_NAMESPACE_OPERATION:
-            doGetNamespace(exchange, operation);
-            break;
+            return new Operation() {
+                @Override
+                public void execute(Exchange exchange, String operation) throws Exception {
+                    doGetNamespace(exchange, operation);
+                }
+            };
 
         case KubernetesOperations.CREATE_NAMESPACE_OPERATION:
-            doCreateNamespace(exchange, operation);
-            break;
+            return new Operation() {
+                @Override
+                public void execute(Exchange exchange, String operation) throws Exception {
+                    doCreateNamespace(exchange, operation);
+                }
+            };
 
         case KubernetesOperations.DELETE_NAMESPACE_OPERATION:
-            doDeleteNamespace(exchange, operation);
-            break;
+            return new Operation() {
+                @Override
+                public void execute(Exchange exchange, String operation) throws Exception {
+                    doDeleteNamespace(exchange, operation);
+                }
+            };
+
+        case KubernetesOperations.CREATE_NAMESPACES_OPERATION:
+            return new Operation() {
+                @Override
+                public void execute(Exchange exchange, String operation) throws Exception {
+                    doBatchCreate(exchange, operation);
+                }
+            };
+
+        case KubernetesOperations.DELETE_NAMESPACES_OPERATION:
+            return new Operation() {
+                @Override
+                public void execute(Exchange exchange, String operation) throws Exception {
+                    doBatchDelete(exchange, operation);
+                }
+            };
 
         default:
-            throw new IllegalArgumentException("Unsupported operation "
-                    + operation);
+            return null;
         }
     }
 
     protected void doList(Exchange exchange, String operation) throws Exception {
+        KubernetesInformer<Namespace> informer = getInformer();
+        if (informer != null && informer.covers(null)) {
+            exchange.getOut().setBody(informer.list());
+            return;
+        }
+        if (isPagedList()) {
+            exchange.getOut().setBody(pagedList(null, null));
+            return;
+        }
         NamespaceList namespacesList = getEndpoint().getKubernetesClient()
                 .namespaces().list();
         exchange.getOut().setBody(namespacesList.getItems());
     }
 
-    protected void doListNamespaceByLabel(Exchange exchange, String operation) {
+    protected void doListNamespaceByLabel(Exchange exchange, String operation)
+            throws Exception {
         Map<String, String> labels = exchange.getIn().getHeader(
                 KubernetesConstants.KUBERNETES_NAMESPACE_LABELS, Map.class);
         if (ObjectHelper.isEmpty(labels)) {
@@ -104,6 +134,15 @@ public class KubernetesNamespacesProducer extends DefaultProducer {
             throw new IllegalArgumentException(
                     "Get a specific namespace by labels require specify a labels set");
         }
+        KubernetesInformer<Namespace> informer = getInformer();
+        if (informer != null && informer.covers(null)) {
+            exchange.getOut().setBody(informer.listByLabels(null, labels));
+            return;
+        }
+        if (isPagedList()) {
+            exchange.getOut().setBody(pagedList(null, labels));
+            return;
+        }
         ClientNonNamespaceOperation<KubernetesClient, Namespace, NamespaceList, DoneableNamespace, ClientResource<Namespace, DoneableNamespace>> namespaces;
         namespaces = getEndpoint().getKubernetesClient().namespaces();
         for (Map.Entry<String, String> entry : labels.entrySet()) {
@@ -113,7 +152,7 @@ public class KubernetesNamespacesProducer extends DefaultProducer {
         exchange.getOut().setBody(namespace.getItems());
     }
 
-    protected void doGetNamespace(Exchange exchange, String operation) {
+    protected void doGetNamespace(Exchange exchange, String operation) throws Exception {
         String namespaceName = exchange.getIn().getHeader(
                 KubernetesConstants.KUBERNETES_NAMESPACE_NAME, String.class);
         if (ObjectHelper.isEmpty(namespaceName)) {
@@ -121,6 +160,16 @@ public class KubernetesNamespacesProducer extends DefaultProducer {
             throw new IllegalArgumentException(
                     "Get a specific namespace require specify a namespace name");
         }
+        KubernetesInformer<Namespace> informer = getInformer();
+        if (informer != null) {
+            exchange.getOut().setBody(informer.get(null, namespaceName));
+            return;
+        }
+        KubernetesReadCache<Namespace> cache = getReadCache();
+        if (cache != null) {
+            exchange.getOut().setBody(cache.get(null, namespaceName));
+            return;
+        }
         Namespace namespace = getEndpoint().getKubernetesClient().namespaces()
                 .withName(namespaceName).get();
         exchange.getOut().setBody(namespace);
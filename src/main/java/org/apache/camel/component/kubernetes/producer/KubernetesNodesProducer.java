@@ -32,12 +32,13 @@ import io.fabric8.kubernetes.client.dsl.ClientResource;
 import org.apache.camel.Exchange;
 import org.apache.camel.component.kubernetes.KubernetesConstants;
 import org.apache.camel.component.kubernetes.KubernetesEndpoint;
-import org.apache.camel.impl.DefaultProducer;
+import org.apache.camel.component.kubernetes.cache.KubernetesInformer;
+import org.apache.camel.component.kubernetes.cache.KubernetesReadCache;
 import org.apache.camel.util.ObjectHelper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-public class KubernetesNodesProducer extends DefaultProducer {
+public class KubernetesNodesProducer extends AbstractKubernetesProducer {
 
     private static final Logger LOG = LoggerFactory
             .getLogger(KubernetesNodesProducer.class);
@@ -47,44 +48,48 @@ public class KubernetesNodesProducer extends DefaultProducer {
     }
 
     @Override
-    public KubernetesEndpoint getEndpoint() {
-        return (KubernetesEndpoint) super.getEndpoint();
-    }
-
-    @Override
-    public void process(Exchange exchange) throws Exception {
-        String operation;
-
-        if (ObjectHelper.isEmpty(getEndpoint().getKubernetesConfiguration()
-                .getOperation())) {
-            operation = exchange.getIn().getHeader(
-                    KubernetesConstants.KUBERNETES_OPERATION, String.class);
-        } else {
-            operation = getEndpoint().getKubernetesConfiguration()
-                    .getOperation();
-        }
-
+    protected Operation resolveOperation(String operation) {
         switch (operation) {
 
         case KubernetesOperations.LIST_NODES:
-            doList(exchange, operation);
-            break;
+            return new Operation() {
+                @Override
+                public void execute(Exchange exchange, String operation) throws Exception {
+                    doList(exchange, operation);
+                }
+            };
 
         case KubernetesOperations.LIST_NODES_BY_LABELS_OPERATION:
-            doListNodesByLabels(exchange, operation);
-            break;
+            return new Operation() {
+                @Override
+                public void execute(Exchange exchange, String operation) throws Exception {
+                    doListNodesByLabels(exchange, operation);
+                }
+            };
 
         case KubernetesOperations.GET_NODE_OPERATION:
-            doGetNode(exchange, operation);
-            break;
+            return new Operation() {
+                @Override
+                public void execute(Exchange exchange, String operation) throws Exception {
+                    doGetNode(exchange, operation);
+                }
+            };
 
         default:
-            throw new IllegalArgumentException("Unsupported operation "
-                    + operation);
+            return null;
         }
     }
 
     protected void doList(Exchange exchange, String operation) throws Exception {
+        KubernetesInformer<Node> informer = getInformer();
+        if (informer != null && informer.covers(null)) {
+            exchange.getOut().setBody(informer.list());
+            return;
+        }
+        if (isPagedList()) {
+            exchange.getOut().setBody(pagedList(null, null));
+            return;
+        }
         NodeList nodeList = getEndpoint()
                 .getKubernetesClient().nodes().list();
         exchange.getOut().setBody(nodeList.getItems());
@@ -96,6 +101,15 @@ public class KubernetesNodesProducer extends DefaultProducer {
         Map<String, String> labels = exchange.getIn().getHeader(
                 KubernetesConstants.KUBERNETES_NODES_LABELS,
                 Map.class);
+        KubernetesInformer<Node> informer = getInformer();
+        if (informer != null && informer.covers(null)) {
+            exchange.getOut().setBody(informer.listByLabels(null, labels));
+            return;
+        }
+        if (isPagedList()) {
+            exchange.getOut().setBody(pagedList(null, labels));
+            return;
+        }
             ClientNonNamespaceOperation<KubernetesClient, Node, NodeList, DoneableNode, ClientResource<Node, DoneableNode>> nodes;
             nodes = getEndpoint().getKubernetesClient().nodes();
             for (Map.Entry<String, String> entry : labels.entrySet()) {
@@ -116,6 +130,16 @@ public class KubernetesNodesProducer extends DefaultProducer {
             throw new IllegalArgumentException(
                     "Get a specific Node require specify a Node name");
         }
+        KubernetesInformer<Node> informer = getInformer();
+        if (informer != null) {
+            exchange.getOut().setBody(informer.get(null, pvName));
+            return;
+        }
+        KubernetesReadCache<Node> cache = getReadCache();
+        if (cache != null) {
+            exchange.getOut().setBody(cache.get(null, pvName));
+            return;
+        }
         node = getEndpoint().getKubernetesClient().nodes().withName(pvName).get();
         
         exchange.getOut().setBody(node);
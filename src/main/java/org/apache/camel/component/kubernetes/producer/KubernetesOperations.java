@@ -24,6 +24,8 @@ public interface KubernetesOperations {
     String GET_NAMESPACE_OPERATION = "getNamespace";
     String CREATE_NAMESPACE_OPERATION = "createNamespace";
     String DELETE_NAMESPACE_OPERATION = "deleteNamespace";
+    String CREATE_NAMESPACES_OPERATION = "createNamespaces";
+    String DELETE_NAMESPACES_OPERATION = "deleteNamespaces";
     
     // Services 
     String LIST_SERVICES_OPERATION = "listServices";
@@ -31,6 +33,8 @@ public interface KubernetesOperations {
     String GET_SERVICE_OPERATION = "getService";
     String CREATE_SERVICE_OPERATION = "createService";
     String DELETE_SERVICE_OPERATION = "deleteService";
+    String CREATE_SERVICES_OPERATION = "createServices";
+    String DELETE_SERVICES_OPERATION = "deleteServices";
     
     // Replication Controllers
     String LIST_REPLICATION_CONTROLLERS_OPERATION = "listReplicationControllers";
@@ -38,6 +42,8 @@ public interface KubernetesOperations {
     String GET_REPLICATION_CONTROLLER_OPERATION = "getReplicationController";
     String CREATE_REPLICATION_CONTROLLER_OPERATION = "createReplicationController";
     String DELETE_REPLICATION_CONTROLLER_OPERATION = "deleteReplicationController";
+    String CREATE_REPLICATION_CONTROLLERS_OPERATION = "createReplicationControllers";
+    String DELETE_REPLICATION_CONTROLLERS_OPERATION = "deleteReplicationControllers";
     
     // Pods
     String LIST_PODS_OPERATION = "listPods";
@@ -45,6 +51,8 @@ public interface KubernetesOperations {
     String GET_POD_OPERATION = "getPod";
     String CREATE_POD_OPERATION = "createPod";
     String DELETE_POD_OPERATION = "deletePod";
+    String CREATE_PODS_OPERATION = "createPods";
+    String DELETE_PODS_OPERATION = "deletePods";
     
     // Persistent Volumes
     String LIST_PERSISTENT_VOLUMES = "listPersistentVolumes";
@@ -57,6 +65,8 @@ public interface KubernetesOperations {
     String GET_PERSISTENT_VOLUME_CLAIM_OPERATION = "getPersistentVolumeClaim";
     String CREATE_PERSISTENT_VOLUME_CLAIM_OPERATION = "createPersistentVolumeClaim";
     String DELETE_PERSISTENT_VOLUME_CLAIM_OPERATION = "deletePersistentVolumeClaim";
+    String CREATE_PERSISTENT_VOLUMES_CLAIMS_OPERATION = "createPersistentVolumesClaims";
+    String DELETE_PERSISTENT_VOLUMES_CLAIMS_OPERATION = "deletePersistentVolumesClaims";
     
     // Secrets
     String LIST_SECRETS = "listSecrets";
@@ -64,6 +74,8 @@ public interface KubernetesOperations {
     String GET_SECRET_OPERATION = "getSecret";
     String CREATE_SECRET_OPERATION = "createSecret";
     String DELETE_SECRET_OPERATION = "deleteSecret";
+    String CREATE_SECRETS_OPERATION = "createSecrets";
+    String DELETE_SECRETS_OPERATION = "deleteSecrets";
     
     // Resources quota
     String LIST_RESOURCES_QUOTA = "listResourcesQuota";
@@ -71,6 +83,8 @@ public interface KubernetesOperations {
     String GET_RESOURCE_QUOTA_OPERATION = "getResourceQuota";
     String CREATE_RESOURCE_QUOTA_OPERATION = "createResourceQuota";
     String DELETE_RESOURCE_QUOTA_OPERATION = "deleteResourceQuota";
+    String CREATE_RESOURCES_QUOTA_OPERATION = "createResourcesQuota";
+    String DELETE_RESOURCES_QUOTA_OPERATION = "deleteResourcesQuota";
     
     // Service Accounts
     String LIST_SERVICE_ACCOUNTS = "listServiceAccounts";
@@ -78,6 +92,8 @@ public interface KubernetesOperations {
     String GET_SERVICE_ACCOUNT_OPERATION = "getServiceAccount";
     String CREATE_SERVICE_ACCOUNT_OPERATION = "createServiceAccount";
     String DELETE_SERVICE_ACCOUNT_OPERATION = "deleteServiceAccount";
+    String CREATE_SERVICE_ACCOUNTS_OPERATION = "createServiceAccounts";
+    String DELETE_SERVICE_ACCOUNTS_OPERATION = "deleteServiceAccounts";
     
     // Nodes
     String LIST_NODES = "listNodes";
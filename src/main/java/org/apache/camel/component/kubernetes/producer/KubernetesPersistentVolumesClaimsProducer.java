@@ -32,12 +32,13 @@ import io.fabric8.kubernetes.client.dsl.ClientResource;
 import org.apache.camel.Exchange;
 import org.apache.camel.component.kubernetes.KubernetesConstants;
 import org.apache.camel.component.kubernetes.KubernetesEndpoint;
-import org.apache.camel.impl.DefaultProducer;
+import org.apache.camel.component.kubernetes.cache.KubernetesInformer;
+import org.apache.camel.component.kubernetes.cache.KubernetesReadCache;
 import org.apache.camel.util.ObjectHelper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-public class KubernetesPersistentVolumesClaimsProducer extends DefaultProducer {
+public class KubernetesPersistentVolumesClaimsProducer extends AbstractKubernetesProducer {
 
     private static final Logger LOG = LoggerFactory
             .getLogger(KubernetesPersistentVolumesClaimsProducer.class);
@@ -47,52 +48,83 @@ public class KubernetesPersistentVolumesClaimsProducer extends DefaultProducer {
     }
 
     @Override
-    public KubernetesEndpoint getEndpoint() {
-        return (KubernetesEndpoint) super.getEndpoint();
-    }
-
-    @Override
-    public void process(Exchange exchange) throws Exception {
-        String operation;
-
-        if (ObjectHelper.isEmpty(getEndpoint().getKubernetesConfiguration()
-                .getOperation())) {
-            operation = exchange.getIn().getHeader(
-                    KubernetesConstants.KUBERNETES_OPERATION, String.class);
-        } else {
-            operation = getEndpoint().getKubernetesConfiguration()
-                    .getOperation();
-        }
-
+    protected Operation resolveOperation(String operation) {
         switch (operation) {
 
         case KubernetesOperations.LIST_PERSISTENT_VOLUMES_CLAIMS:
-            doList(exchange, operation);
-            break;
+            return new Operation() {
+                @Override
+                public void execute(Exchange exchange, String operation) throws Exception {
+                    doList(exchange, operation);
+                }
+            };
 
         case KubernetesOperations.LIST_PERSISTENT_VOLUMES_CLAIMS_BY_LABELS_OPERATION:
-            doListPersistentVolumesClaimsByLabels(exchange, operation);
-            break;
+            return new Operation() {
+                @Override
+                public void execute(Exchange exchange, String operation) throws Exception {
+                    doListPersistentVolumesClaimsByLabels(exchange, operation);
+                }
+            };
 
         case KubernetesOperations.GET_PERSISTENT_VOLUME_CLAIM_OPERATION:
-            doGetPersistentVolumeClaim(exchange, operation);
-            break;
+            return new Operation() {
+                @Override
+                public void execute(Exchange exchange, String operation) throws Exception {
+                    doGetPersistentVolumeClaim(exchange, operation);
+                }
+            };
 
         case KubernetesOperations.CREATE_PERSISTENT_VOLUME_CLAIM_OPERATION:
-            doCreatePersistentVolumeClaim(exchange, operation);
-            break;
+            return new Operation() {
+                @Override
+                public void execute(Exchange exchange, String operation) throws Exception {
+                    doCreatePersistentVolumeClaim(exchange, operation);
+                }
+            };
 
         case KubernetesOperations.DELETE_PERSISTENT_VOLUME_CLAIM_OPERATION:
-            doDeletePersistentVolumeClaim(exchange, operation);
-            break;
+            return new Operation() {
+                @Override
+                public void execute(Exchange exchange, String operation) throws Exception {
+                    doDeletePersistentVolumeClaim(exchange, operation);
+                }
+            };
+
+        case KubernetesOperations.CREATE_PERSISTENT_VOLUMES_CLAIMS_OPERATION:
+            return new Operation() {
+                @Override
+                public void execute(Exchange exchange, String operation) throws Exception {
+                    doBatchCreate(exchange, operation);
+                }
+            };
+
+        case KubernetesOperations.DELETE_PERSISTENT_VOLUMES_CLAIMS_OPERATION:
+            return new Operation() {
+                @Override
+                public void execute(Exchange exchange, String operation) throws Exception {
+                    doBatchDelete(exchange, operation);
+                }
+            };
 
         default:
-            throw new IllegalArgumentException("Unsupported operation "
-                    + operation);
+            return null;
         }
     }
 
     protected void doList(Exchange exchange, String operation) throws Exception {
+        if (doFanOutList(exchange, null)) {
+            return;
+        }
+        KubernetesInformer<PersistentVolumeClaim> informer = getInformer();
+        if (informer != null && informer.covers(null)) {
+            exchange.getOut().setBody(informer.list());
+            return;
+        }
+        if (isPagedList()) {
+            exchange.getOut().setBody(pagedList(null, null));
+            return;
+        }
         PersistentVolumeClaimList persistentVolumeClaimList = getEndpoint()
                 .getKubernetesClient().persistentVolumeClaims().list();
         exchange.getOut().setBody(persistentVolumeClaimList.getItems());
@@ -108,6 +140,18 @@ public class KubernetesPersistentVolumesClaimsProducer extends DefaultProducer {
                         Map.class);
         String namespaceName = exchange.getIn().getHeader(
                 KubernetesConstants.KUBERNETES_NAMESPACE_NAME, String.class);
+        if (doFanOutList(exchange, labels)) {
+            return;
+        }
+        KubernetesInformer<PersistentVolumeClaim> informer = getInformer();
+        if (informer != null && informer.covers(namespaceName)) {
+            exchange.getOut().setBody(informer.listByLabels(namespaceName, labels));
+            return;
+        }
+        if (isPagedList()) {
+            exchange.getOut().setBody(pagedList(namespaceName, labels));
+            return;
+        }
         if (!ObjectHelper.isEmpty(namespaceName)) {
             ClientNonNamespaceOperation<KubernetesClient, PersistentVolumeClaim, PersistentVolumeClaimList, 
                 DoneablePersistentVolumeClaim, ClientResource<PersistentVolumeClaim, DoneablePersistentVolumeClaim>> pvcs;
@@ -147,6 +191,16 @@ public class KubernetesPersistentVolumesClaimsProducer extends DefaultProducer {
             throw new IllegalArgumentException(
                     "Get a specific Persistent Volume Claim require specify a namespace name");
         }
+        KubernetesInformer<PersistentVolumeClaim> informer = getInformer();
+        if (informer != null && informer.covers(namespaceName)) {
+            exchange.getOut().setBody(informer.get(namespaceName, pvcName));
+            return;
+        }
+        KubernetesReadCache<PersistentVolumeClaim> cache = getReadCache();
+        if (cache != null) {
+            exchange.getOut().setBody(cache.get(namespaceName, pvcName));
+            return;
+        }
         pvc = getEndpoint().getKubernetesClient().persistentVolumeClaims()
                 .inNamespace(namespaceName).withName(pvcName).get();
         exchange.getOut().setBody(pvc);
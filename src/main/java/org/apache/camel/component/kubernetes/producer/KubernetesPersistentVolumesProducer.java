@@ -29,12 +29,13 @@ import io.fabric8.kubernetes.client.dsl.ClientResource;
 import org.apache.camel.Exchange;
 import org.apache.camel.component.kubernetes.KubernetesConstants;
 import org.apache.camel.component.kubernetes.KubernetesEndpoint;
-import org.apache.camel.impl.DefaultProducer;
+import org.apache.camel.component.kubernetes.cache.KubernetesInformer;
+import org.apache.camel.component.kubernetes.cache.KubernetesReadCache;
 import org.apache.camel.util.ObjectHelper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-public class KubernetesPersistentVolumesProducer extends DefaultProducer {
+public class KubernetesPersistentVolumesProducer extends AbstractKubernetesProducer {
 
     private static final Logger LOG = LoggerFactory
             .getLogger(KubernetesPersistentVolumesProducer.class);
@@ -44,44 +45,48 @@ public class KubernetesPersistentVolumesProducer extends DefaultProducer {
     }
 
     @Override
-    public KubernetesEndpoint getEndpoint() {
-        return (KubernetesEndpoint) super.getEndpoint();
-    }
-
-    @Override
-    public void process(Exchange exchange) throws Exception {
-        String operation;
-
-        if (ObjectHelper.isEmpty(getEndpoint().getKubernetesConfiguration()
-                .getOperation())) {
-            operation = exchange.getIn().getHeader(
-                    KubernetesConstants.KUBERNETES_OPERATION, String.class);
-        } else {
-            operation = getEndpoint().getKubernetesConfiguration()
-                    .getOperation();
-        }
-
+    protected Operation resolveOperation(String operation) {
         switch (operation) {
 
         case KubernetesOperations.LIST_PERSISTENT_VOLUMES:
-            doList(exchange, operation);
-            break;
+            return new Operation() {
+                @Override
+                public void execute(Exchange exchange, String operation) throws Exception {
+                    doList(exchange, operation);
+                }
+            };
 
         case KubernetesOperations.LIST_PERSISTENT_VOLUMES_BY_LABELS_OPERATION:
-            doListPersistentVolumesByLabels(exchange, operation);
-            break;
+            return new Operation() {
+                @Override
+                public void execute(Exchange exchange, String operation) throws Exception {
+                    doListPersistentVolumesByLabels(exchange, operation);
+                }
+            };
 
         case KubernetesOperations.GET_PERSISTENT_VOLUME_OPERATION:
-            doGetPersistentVolume(exchange, operation);
-            break;
+            return new Operation() {
+                @Override
+                public void execute(Exchange exchange, String operation) throws Exception {
+                    doGetPersistentVolume(exchange, operation);
+                }
+            };
 
         default:
-            throw new IllegalArgumentException("Unsupported operation "
-                    + operation);
+            return null;
         }
     }
 
     protected void doList(Exchange exchange, String operation) throws Exception {
+        KubernetesInformer<PersistentVolume> informer = getInformer();
+        if (informer != null && informer.covers(null)) {
+            exchange.getOut().setBody(informer.list());
+            return;
+        }
+        if (isPagedList()) {
+            exchange.getOut().setBody(pagedList(null, null));
+            return;
+        }
         PersistentVolumeList persistentVolumeList = getEndpoint()
                 .getKubernetesClient().persistentVolumes().inAnyNamespace().list();
         exchange.getOut().setBody(persistentVolumeList.getItems());
@@ -95,6 +100,15 @@ public class KubernetesPersistentVolumesProducer extends DefaultProducer {
                 Map.class);
         String namespaceName = exchange.getIn().getHeader(
                 KubernetesConstants.KUBERNETES_NAMESPACE_NAME, String.class);
+        KubernetesInformer<PersistentVolume> informer = getInformer();
+        if (informer != null && informer.covers(null)) {
+            exchange.getOut().setBody(informer.listByLabels(null, labels));
+            return;
+        }
+        if (isPagedList()) {
+            exchange.getOut().setBody(pagedList(null, labels));
+            return;
+        }
         if (!ObjectHelper.isEmpty(namespaceName)) {
             ClientNonNamespaceOperation<KubernetesClient, PersistentVolume, PersistentVolumeList, DoneablePersistentVolume, ClientResource<PersistentVolume, DoneablePersistentVolume>> pvs;
             pvs = getEndpoint().getKubernetesClient().persistentVolumes()
@@ -132,6 +146,16 @@ public class KubernetesPersistentVolumesProducer extends DefaultProducer {
             throw new IllegalArgumentException(
                     "Get a specific Persistent Volume require specify a namespace name");
         }
+        KubernetesInformer<PersistentVolume> informer = getInformer();
+        if (informer != null) {
+            exchange.getOut().setBody(informer.get(null, pvName));
+            return;
+        }
+        KubernetesReadCache<PersistentVolume> cache = getReadCache();
+        if (cache != null) {
+            exchange.getOut().setBody(cache.get(null, pvName));
+            return;
+        }
         pv = getEndpoint().getKubernetesClient().persistentVolumes()
                 .inNamespace(namespaceName).withName(pvName).get();
         exchange.getOut().setBody(pv);
@@ -32,12 +32,13 @@ import io.fabric8.kubernetes.client.dsl.ClientResource;
 import org.apache.camel.Exchange;
 import org.apache.camel.component.kubernetes.KubernetesConstants;
 import org.apache.camel.component.kubernetes.KubernetesEndpoint;
-import org.apache.camel.impl.DefaultProducer;
+import org.apache.camel.component.kubernetes.cache.KubernetesInformer;
+import org.apache.camel.component.kubernetes.cache.KubernetesReadCache;
 import org.apache.camel.util.ObjectHelper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-public class KubernetesPodsProducer extends DefaultProducer {
+public class KubernetesPodsProducer extends AbstractKubernetesProducer {
 
     private static final Logger LOG = LoggerFactory
             .getLogger(KubernetesPodsProducer.class);
@@ -47,57 +48,89 @@ public class KubernetesPodsProducer extends DefaultProducer {
     }
 
     @Override
-    public KubernetesEndpoint getEndpoint() {
-        return (KubernetesEndpoint) super.getEndpoint();
-    }
-
-    @Override
-    public void process(Exchange exchange) throws Exception {
-        String operation;
-
-        if (ObjectHelper.isEmpty(getEndpoint().getKubernetesConfiguration()
-                .getOperation())) {
-            operation = exchange.getIn().getHeader(
-                    KubernetesConstants.KUBERNETES_OPERATION, String.class);
-        } else {
-            operation = getEndpoint().getKubernetesConfiguration()
-                    .getOperation();
-        }
-
+    protected Operation resolveOperation(String operation) {
         switch (operation) {
 
         case KubernetesOperations.LIST_PODS_OPERATION:
-            doList(exchange, operation);
-            break;
+            return new Operation() {
+                @Override
+                public void execute(Exchange exchange, String operation) throws Exception {
+                    doList(exchange, operation);
+                }
+            };
 
         case KubernetesOperations.LIST_PODS_BY_LABELS_OPERATION:
-            doListPodsByLabel(exchange, operation);
-            break;
+            return new Operation() {
+                @Override
+                public void execute(Exchange exchange, String operation) throws Exception {
+                    doListPodsByLabel(exchange, operation);
+                }
+            };
 
         case KubernetesOperations.GET_POD_OPERATION:
-            doGetPod(exchange, operation);
-            break;
+            return new Operation() {
+                @Override
+                public void execute(Exchange exchange, String operation) throws Exception {
+                    doGetPod(exchange, operation);
+                }
+            };
 
         case KubernetesOperations.CREATE_POD_OPERATION:
-            doCreatePod(exchange, operation);
-            break;
+            return new Operation() {
+                @Override
+                public void execute(Exchange exchange, String operation) throws Exception {
+                    doCreatePod(exchange, operation);
+                }
+            };
 
         case KubernetesOperations.DELETE_POD_OPERATION:
-            doDeletePod(exchange, operation);
-            break;
+            return new Operation() {
+                @Override
+                public void execute(Exchange exchange, String operation) throws Exception {
+                    doDeletePod(exchange, operation);
+                }
+            };
+
+        case KubernetesOperations.CREATE_PODS_OPERATION:
+            return new Operation() {
+                @Override
+                public void execute(Exchange exchange, String operation) throws Exception {
+                    doBatchCreate(exchange, operation);
+                }
+            };
+
+        case KubernetesOperations.DELETE_PODS_OPERATION:
+            return new Operation() {
+                @Override
+                public void execute(Exchange exchange, String operation) throws Exception {
+                    doBatchDelete(exchange, operation);
+                }
+            };
 
         default:
-            throw new IllegalArgumentException("Unsupported operation "
-                    + operation);
+            return null;
         }
     }
 
     protected void doList(Exchange exchange, String operation) throws Exception {
+        if (doFanOutList(exchange, null)) {
+            return;
+        }
+        KubernetesInformer<Pod> informer = getInformer();
+        if (informer != null && informer.covers(null)) {
+            exchange.getOut().setBody(informer.list());
+            return;
+        }
+        if (isPagedList()) {
+            exchange.getOut().setBody(pagedList(null, null));
+            return;
+        }
         PodList podList = getEndpoint().getKubernetesClient().pods().list();
         exchange.getOut().setBody(podList.getItems());
     }
 
-    protected void doListPodsByLabel(Exchange exchange, String operation) {
+    protected void doListPodsByLabel(Exchange exchange, String operation)
+            throws Exception {
         Map<String, String> labels = exchange.getIn().getHeader(
                 KubernetesConstants.KUBERNETES_PODS_LABELS, Map.class);
         if (ObjectHelper.isEmpty(labels)) {
@@ -105,6 +138,18 @@ public class KubernetesPodsProducer extends DefaultProducer {
             throw new IllegalArgumentException(
                     "Get pods by labels require specify a labels set");
         }
+        if (doFanOutList(exchange, labels)) {
+            return;
+        }
+        KubernetesInformer<Pod> informer = getInformer();
+        if (informer != null && informer.covers(null)) {
+            exchange.getOut().setBody(informer.listByLabels(null, labels));
+            return;
+        }
+        if (isPagedList()) {
+            exchange.getOut().setBody(pagedList(null, labels));
+            return;
+        }
         ClientOperation<KubernetesClient, Pod, PodList, DoneablePod, ClientLoggableResource<Pod, DoneablePod>> pods;
         pods = getEndpoint().getKubernetesClient().pods();
         for (Map.Entry<String, String> entry : labels.entrySet()) {
@@ -131,6 +176,16 @@ public class KubernetesPodsProducer extends DefaultProducer {
             throw new IllegalArgumentException(
                     "Get a specific pod require specify a namespace name");
         }
+        KubernetesInformer<Pod> informer = getInformer();
+        if (informer != null && informer.covers(namespaceName)) {
+            exchange.getOut().setBody(informer.get(namespaceName, podName));
+            return;
+        }
+        KubernetesReadCache<Pod> cache = getReadCache();
+        if (cache != null) {
+            exchange.getOut().setBody(cache.get(namespaceName, podName));
+            return;
+        }
         pod = getEndpoint().getKubernetesClient().pods()
                 .inNamespace(namespaceName).withName(podName).get();
         exchange.getOut().setBody(pod);
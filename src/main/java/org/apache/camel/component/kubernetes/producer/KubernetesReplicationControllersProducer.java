@@ -32,12 +32,13 @@ import io.fabric8.kubernetes.client.dsl.ClientRollableScallableResource;
 import org.apache.camel.Exchange;
 import org.apache.camel.component.kubernetes.KubernetesConstants;
 import org.apache.camel.component.kubernetes.KubernetesEndpoint;
-import org.apache.camel.impl.DefaultProducer;
+import org.apache.camel.component.kubernetes.cache.KubernetesInformer;
+import org.apache.camel.component.kubernetes.cache.KubernetesReadCache;
 import org.apache.camel.util.ObjectHelper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-public class KubernetesReplicationControllersProducer extends DefaultProducer {
+public class KubernetesReplicationControllersProducer extends AbstractKubernetesProducer {
 
     private static final Logger LOG = LoggerFactory
             .getLogger(KubernetesReplicationControllersProducer.class);
@@ -47,48 +48,67 @@ public class KubernetesReplicationControllersProducer extends DefaultProducer {
     }
 
     @Override
-    public KubernetesEndpoint getEndpoint() {
-        return (KubernetesEndpoint) super.getEndpoint();
-    }
-
-    @Override
-    public void process(Exchange exchange) throws Exception {
-        String operation;
-
-        if (ObjectHelper.isEmpty(getEndpoint().getKubernetesConfiguration()
-                .getOperation())) {
-            operation = exchange.getIn().getHeader(
-                    KubernetesConstants.KUBERNETES_OPERATION, String.class);
-        } else {
-            operation = getEndpoint().getKubernetesConfiguration()
-                    .getOperation();
-        }
-
+    protected Operation resolveOperation(String operation) {
         switch (operation) {
 
         case KubernetesOperations.LIST_REPLICATION_CONTROLLERS_OPERATION:
-            doList(exchange, operation);
-            break;
+            return new Operation() {
+                @Override
+                public void execute(Exchange exchange, String operation) throws Exception {
+                    doList(exchange, operation);
+                }
+            };
 
         case KubernetesOperations.LIST_REPLICATION_CONTROLLERS_BY_LABELS_OPERATION:
-            doListReplicationControllersByLabels(exchange, operation);
-            break;
+            return new Operation() {
+                @Override
+                public void execute(Exchange exchange, String operation) throws Exception {
+                    doListReplicationControllersByLabels(exchange, operation);
+                }
+            };
 
         case KubernetesOperations.GET_REPLICATION_CONTROLLER_OPERATION:
-            doGetReplicationController(exchange, operation);
-            break;
+            return new Operation() {
+                @Override
+                public void execute(Exchange exchange, String operation) throws Exception {
+                    doGetReplicationController(exchange, operation);
+                }
+            };
 
         case KubernetesOperations.CREATE_REPLICATION_CONTROLLER_OPERATION:
-            doCreateReplicationController(exchange, operation);
-            break;
+            return new Operation() {
+                @Override
+                public void execute(Exchange exchange, String operation) throws Exception {
+                    doCreateReplicationController(exchange, operation);
+                }
+            };
 
         case KubernetesOperations.DELETE_REPLICATION_CONTROLLER_OPERATION:
-            doDeleteReplicationController(exchange, operation);
-            break;
+            return new Operation() {
+                @Override
+                public void execute(Exchange exchange, String operation) throws Exception {
+                    doDeleteReplicationController(exchange, operation);
+                }
+            };
+
+        case KubernetesOperations.CREATE_REPLICATION_CONTROLLERS_OPERATION:
+            return new Operation() {
+                @Override
+                public void execute(Exchange exchange, String operation) throws Exception {
+                    doBatchCreate(exchange, operation);
+                }
+            };
+
+        case KubernetesOperations.DELETE_REPLICATION_CONTROLLERS_OPERATION:
+            return new Operation() {
+                @Override
+                public void execute(Exchange exchange, String operation) throws Exception {
+                    doBatchDelete(exchange, operation);
+                }
+            };
 
         default:
-            throw new IllegalArgumentException("Unsupported operation "
-                    + operation);
+            return null;
         }
     }
 
@@ -96,6 +116,18 @@ public class KubernetesReplicationControllersProducer extends DefaultProducer {
         ReplicationControllerList rcList = null;
         String namespaceName = exchange.getIn().getHeader(
                 KubernetesConstants.KUBERNETES_NAMESPACE_NAME, String.class);
+        if (doFanOutList(exchange, null)) {
+            return;
+        }
+        KubernetesInformer<ReplicationController> informer = getInformer();
+        if (informer != null && informer.covers(namespaceName)) {
+            exchange.getOut().setBody(informer.list(namespaceName));
+            return;
+        }
+        if (isPagedList()) {
+            exchange.getOut().setBody(pagedList(namespaceName, null));
+            return;
+        }
         if (!ObjectHelper.isEmpty(namespaceName)) {
             rcList = getEndpoint().getKubernetesClient()
                     .replicationControllers().inNamespace(namespaceName).list();
@@ -114,6 +146,18 @@ public class KubernetesReplicationControllersProducer extends DefaultProducer {
                 Map.class);
         String namespaceName = exchange.getIn().getHeader(
                 KubernetesConstants.KUBERNETES_NAMESPACE_NAME, String.class);
+        if (doFanOutList(exchange, labels)) {
+            return;
+        }
+        KubernetesInformer<ReplicationController> informer = getInformer();
+        if (informer != null && informer.covers(namespaceName)) {
+            exchange.getOut().setBody(informer.listByLabels(namespaceName, labels));
+            return;
+        }
+        if (isPagedList()) {
+            exchange.getOut().setBody(pagedList(namespaceName, labels));
+            return;
+        }
         if (!ObjectHelper.isEmpty(namespaceName)) {
             ClientNonNamespaceOperation<KubernetesClient, ReplicationController, ReplicationControllerList, DoneableReplicationController, ClientRollableScallableResource<ReplicationController, 
             DoneableReplicationController>> replicationControllers;
@@ -156,6 +200,16 @@ public class KubernetesReplicationControllersProducer extends DefaultProducer {
             throw new IllegalArgumentException(
                     "Get a specific replication controller require specify a namespace name");
         }
+        KubernetesInformer<ReplicationController> informer = getInformer();
+        if (informer != null && informer.covers(namespaceName)) {
+            exchange.getOut().setBody(informer.get(namespaceName, rcName));
+            return;
+        }
+        KubernetesReadCache<ReplicationController> cache = getReadCache();
+        if (cache != null) {
+            exchange.getOut().setBody(cache.get(namespaceName, rcName));
+            return;
+        }
         rc = getEndpoint().getKubernetesClient().replicationControllers()
                 .inNamespace(namespaceName).withName(rcName).get();
         exchange.getOut().setBody(rc);
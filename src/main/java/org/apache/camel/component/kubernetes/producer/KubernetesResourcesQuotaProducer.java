@@ -32,12 +32,13 @@ import io.fabric8.kubernetes.client.dsl.ClientResource;
 import org.apache.camel.Exchange;
 import org.apache.camel.component.kubernetes.KubernetesConstants;
 import org.apache.camel.component.kubernetes.KubernetesEndpoint;
-import org.apache.camel.impl.DefaultProducer;
+import org.apache.camel.component.kubernetes.cache.KubernetesInformer;
+import org.apache.camel.component.kubernetes.cache.KubernetesReadCache;
 import org.apache.camel.util.ObjectHelper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-public class KubernetesResourcesQuotaProducer extends DefaultProducer {
+public class KubernetesResourcesQuotaProducer extends AbstractKubernetesProducer {
 
     private static final Logger LOG = LoggerFactory
             .getLogger(KubernetesResourcesQuotaProducer.class);
@@ -47,52 +48,83 @@ public class KubernetesResourcesQuotaProducer extends DefaultProducer {
     }
 
     @Override
-    public KubernetesEndpoint getEndpoint() {
-        return (KubernetesEndpoint) super.getEndpoint();
-    }
-
-    @Override
-    public void process(Exchange exchange) throws Exception {
-        String operation;
-
-        if (ObjectHelper.isEmpty(getEndpoint().getKubernetesConfiguration()
-                .getOperation())) {
-            operation = exchange.getIn().getHeader(
-                    KubernetesConstants.KUBERNETES_OPERATION, String.class);
-        } else {
-            operation = getEndpoint().getKubernetesConfiguration()
-                    .getOperation();
-        }
-
+    protected Operation resolveOperation(String operation) {
         switch (operation) {
 
         case KubernetesOperations.LIST_RESOURCES_QUOTA:
-            doList(exchange, operation);
-            break;
+            return new Operation() {
+                @Override
+                public void execute(Exchange exchange, String operation) throws Exception {
+                    doList(exchange, operation);
+                }
+            };
 
-        case KubernetesOperations.LIST_SECRETS_BY_LABELS_OPERATION:
-            doListResourceQuotasByLabels(exchange, operation);
-            break;
+        case KubernetesOperations.LIST_RESOURCES_QUOTA_BY_LABELS_OPERATION:
+            return new Operation() {
+                @Override
+                public void execute(Exchange exchange, String operation) throws Exception {
+                    doListResourceQuotasByLabels(exchange, operation);
+                }
+            };
 
         case KubernetesOperations.GET_RESOURCE_QUOTA_OPERATION:
-            doGetResourceQuota(exchange, operation);
-            break;
+            return new Operation() {
+                @Override
+                public void execute(Exchange exchange, String operation) throws Exception {
+                    doGetResourceQuota(exchange, operation);
+                }
+            };
 
         case KubernetesOperations.CREATE_RESOURCE_QUOTA_OPERATION:
-            doCreateResourceQuota(exchange, operation);
-            break;
+            return new Operation() {
+                @Override
+                public void execute(Exchange exchange, String operation) throws Exception {
+                    doCreateResourceQuota(exchange, operation);
+                }
+            };
 
         case KubernetesOperations.DELETE_RESOURCE_QUOTA_OPERATION:
-            doDeleteResourceQuota(exchange, operation);
-            break;
+            return new Operation() {
+                @Override
+                public void execute(Exchange exchange, String operation) throws Exception {
+                    doDeleteResourceQuota(exchange, operation);
+                }
+            };
+
+        case KubernetesOperations.CREATE_RESOURCES_QUOTA_OPERATION:
+            return new Operation() {
+                @Override
+                public void execute(Exchange exchange, String operation) throws Exception {
+                    doBatchCreate(exchange, operation);
+                }
+            };
+
+        case KubernetesOperations.DELETE_RESOURCES_QUOTA_OPERATION:
+            return new Operation() {
+                @Override
+                public void execute(Exchange exchange, String operation) throws Exception {
+                    doBatchDelete(exchange, operation);
+                }
+            };
 
         default:
-            throw new IllegalArgumentException("Unsupported operation "
-                    + operation);
+            return null;
         }
     }
 
     protected void doList(Exchange exchange, String operation) throws Exception {
+        if (doFanOutList(exchange, null)) {
+            return;
+        }
+        KubernetesInformer<ResourceQuota> informer = getInformer();
+        if (informer != null && informer.covers(null)) {
+            exchange.getOut().setBody(informer.list());
+            return;
+        }
+        if (isPagedList()) {
+            exchange.getOut().setBody(pagedList(null, null));
+            return;
+        }
         ResourceQuotaList resList = getEndpoint().getKubernetesClient()
                 .resourceQuotas().list();
         exchange.getOut().setBody(resList.getItems());
@@ -106,6 +138,18 @@ public class KubernetesResourcesQuotaProducer extends DefaultProducer {
                 Map.class);
         String namespaceName = exchange.getIn().getHeader(
                 KubernetesConstants.KUBERNETES_NAMESPACE_NAME, String.class);
+        if (doFanOutList(exchange, labels)) {
+            return;
+        }
+        KubernetesInformer<ResourceQuota> informer = getInformer();
+        if (informer != null && informer.covers(namespaceName)) {
+            exchange.getOut().setBody(informer.listByLabels(namespaceName, labels));
+            return;
+        }
+        if (isPagedList()) {
+            exchange.getOut().setBody(pagedList(namespaceName, labels));
+            return;
+        }
         if (!ObjectHelper.isEmpty(namespaceName)) {
             ClientNonNamespaceOperation<KubernetesClient, ResourceQuota, ResourceQuotaList, DoneableResourceQuota, ClientResource<ResourceQuota, DoneableResourceQuota>> resQuota;
             resQuota = getEndpoint().getKubernetesClient().resourceQuotas()
@@ -143,6 +187,16 @@ public class KubernetesResourcesQuotaProducer extends DefaultProducer {
             throw new IllegalArgumentException(
                     "Get a specific Resource Quota require specify a namespace name");
         }
+        KubernetesInformer<ResourceQuota> informer = getInformer();
+        if (informer != null && informer.covers(namespaceName)) {
+            exchange.getOut().setBody(informer.get(namespaceName, rqName));
+            return;
+        }
+        KubernetesReadCache<ResourceQuota> cache = getReadCache();
+        if (cache != null) {
+            exchange.getOut().setBody(cache.get(namespaceName, rqName));
+            return;
+        }
         rq = getEndpoint().getKubernetesClient().resourceQuotas()
                 .inNamespace(namespaceName).withName(rqName).get();
         exchange.getOut().setBody(rq);
@@ -0,0 +1,177 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.component.kubernetes.producer;
+
+import java.io.IOException;
+import java.net.ConnectException;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import io.fabric8.kubernetes.client.KubernetesClientException;
+
+import org.apache.camel.component.kubernetes.KubernetesRetryAfter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Retries the requests failing with a transient error, waiting a jittered
+ * exponential backoff between the attempts.
+ * <p/>
+ * A request throttled by the server (HTTP 429) or which could not connect
+ * was not applied, so it is retried whatever it does. Server errors (HTTP
+ * 500, 502, 503 and 504) and connections dropped while the request was in
+ * flight leave it unknown whether it was applied, so only idempotent
+ * requests are retried on them: a create is not, as it could create the
+ * resource twice or answer a conflict for the resource it created itself.
+ * <p/>
+ * When the server tells how long to wait, through the retryAfterSeconds
+ * of the status details or else the <tt>Retry-After</tt> header kept by
+ * {@link KubernetesRetryAfter}, the next attempt waits at least that long.
+ * A server asking to wait longer than <tt>maxDelay</tt> gets no retry: the
+ * request fails at once rather than holding its thread that long.
+ */
+public class KubernetesRetry {
+
+    private static final Logger LOG = LoggerFactory.getLogger(KubernetesRetry.class);
+
+    private static final int TOO_MANY_REQUESTS = 429;
+
+    private final int maxRetries;
+    private final long initialDelay;
+    private final long maxDelay;
+    private final AtomicLong retries = new AtomicLong();
+
+    public KubernetesRetry(int maxRetries, long initialDelay, long maxDelay) {
+        if (maxRetries < 0) {
+            throw new IllegalArgumentException("The number of retries must not be negative");
+        }
+        this.maxRetries = maxRetries;
+        this.initialDelay = Math.max(1, initialDelay);
+        this.maxDelay = Math.max(this.initialDelay, maxDelay);
+    }
+
+    /**
+     * Runs the call, retrying it at most <tt>maxRetries</tt> times while it
+     * fails with an error retryable for it
+     */
+    public <V> V execute(Callable<V> call, boolean idempotent) throws Exception {
+        for (int attempt = 0;; attempt++) {
+            try {
+                return call.call();
+            } catch (Exception e) {
+                if (attempt >= maxRetries || !isRetryable(e, idempotent)) {
+                    throw e;
+                }
+                long retryAfter = retryAfter(e);
+                if (retryAfter > maxDelay) {
+                    LOG.debug("Request failed with {}, not retrying as the server asks to wait {} ms", e.getMessage(), retryAfter);
+                    throw e;
+                }
+                long delay = delay(attempt, e);
+                LOG.debug("Request failed with {}, retrying in {} ms", e.getMessage(), delay);
+                retries.incrementAndGet();
+                Thread.sleep(delay);
+            }
+        }
+    }
+
+    public int getMaxRetries() {
+        return maxRetries;
+    }
+
+    /**
+     * The number of attempts made after a failure
+     */
+    public long getRetries() {
+        return retries.get();
+    }
+
+    /**
+     * The time to wait before the attempt following the given one: a random
+     * time between half and all of the exponential backoff, or the time the
+     * server asked for if longer, which {@link #execute} never lets exceed
+     * <tt>maxDelay</tt>
+     */
+    long delay(int attempt, Exception failure) {
+        long backoff = Math.min(maxDelay, initialDelay << Math.min(attempt, 20));
+        long delay = backoff / 2 + ThreadLocalRandom.current().nextLong(backoff / 2 + 1);
+        return Math.max(delay, retryAfter(failure));
+    }
+
+    /**
+     * Whether the failure is transient, and the request certainly not applied
+     * if it is not idempotent
+     */
+    static boolean isRetryable(Exception failure, boolean idempotent) {
+        int code = codeOf(failure);
+        if (code == TOO_MANY_REQUESTS) {
+            return true;
+        }
+        if (code == 500 || code == 502 || code == 503 || code == 504) {
+            return idempotent;
+        }
+        if (code > 0) {
+            return false;
+        }
+        for (Throwable cause = failure; cause != null; cause = cause.getCause()) {
+            if (cause instanceof ConnectException) {
+                return true;
+            }
+            if (cause instanceof IOException) {
+                return idempotent;
+            }
+            if (cause.getCause() == cause) {
+                break;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * The time in millis the server asked to wait, or 0
+     */
+    static long retryAfter(Exception failure) {
+        if (failure instanceof KubernetesClientException) {
+            KubernetesClientException e = (KubernetesClientException) failure;
+            if (e.getStatus() != null && e.getStatus().getDetails() != null
+                    && e.getStatus().getDetails().getRetryAfterSeconds() != null) {
+                return TimeUnit.SECONDS.toMillis(e.getStatus().getDetails().getRetryAfterSeconds());
+            }
+            if (codeOf(e) > 0) {
+                // the answer failing the request was the last one this thread got
+                return KubernetesRetryAfter.lastRetryAfter();
+            }
+        }
+        return 0;
+    }
+
+    private static int codeOf(Exception failure) {
+        if (!(failure instanceof KubernetesClientException)) {
+            return 0;
+        }
+        KubernetesClientException e = (KubernetesClientException) failure;
+        if (e.getCode() > 0) {
+            return e.getCode();
+        }
+        if (e.getStatus() != null && e.getStatus().getCode() != null) {
+            return e.getStatus().getCode();
+        }
+        return 0;
+    }
+}
@@ -32,12 +32,13 @@ import io.fabric8.kubernetes.client.dsl.ClientResource;
 import org.apache.camel.Exchange;
 import org.apache.camel.component.kubernetes.KubernetesConstants;
 import org.apache.camel.component.kubernetes.KubernetesEndpoint;
-import org.apache.camel.impl.DefaultProducer;
+import org.apache.camel.component.kubernetes.cache.KubernetesInformer;
+import org.apache.camel.component.kubernetes.cache.KubernetesReadCache;
 import org.apache.camel.util.ObjectHelper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-public class KubernetesServiceAccountsProducer extends DefaultProducer {
+public class KubernetesServiceAccountsProducer extends AbstractKubernetesProducer {
 
     private static final Logger LOG = LoggerFactory
             .getLogger(KubernetesServiceAccountsProducer.class);
@@ -47,52 +48,83 @@ public class KubernetesServiceAccountsProducer extends DefaultProducer {
     }
 
     @Override
-    public KubernetesEndpoint getEndpoint() {
-        return (KubernetesEndpoint) super.getEndpoint();
-    }
-
-    @Override
-    public void process(Exchange exchange) throws Exception {
-        String operation;
-
-        if (ObjectHelper.isEmpty(getEndpoint().getKubernetesConfiguration()
-                .getOperation())) {
-            operation = exchange.getIn().getHeader(
-                    KubernetesConstants.KUBERNETES_OPERATION, String.class);
-        } else {
-            operation = getEndpoint().getKubernetesConfiguration()
-                    .getOperation();
-        }
-
+    protected Operation resolveOperation(String operation) {
         switch (operation) {
 
         case KubernetesOperations.LIST_SERVICE_ACCOUNTS:
-            doList(exchange, operation);
-            break;
+            return new Operation() {
+                @Override
+                public void execute(Exchange exchange, String operation) throws Exception {
+                    doList(exchange, operation);
+                }
+            };
 
         case KubernetesOperations.LIST_SERVICE_ACCOUNTS_BY_LABELS_OPERATION:
-            doListServiceAccountsByLabels(exchange, operation);
-            break;
-
-        case KubernetesOperations.GET_SECRET_OPERATION:
-            doGetServiceAccount(exchange, operation);
-            break;
+            return new Operation() {
+                @Override
+                public void execute(Exchange exchange, String operation) throws Exception {
+                    doListServiceAccountsByLabels(exchange, operation);
+                }
+            };
+
+        case KubernetesOperations.GET_SERVICE_ACCOUNT_OPERATION:
+            return new Operation() {
+                @Override
+                public void execute(Exchange exchange, String operation) throws Exception {
+                    doGetServiceAccount(exchange, operation);
+                }
+            };
 
         case KubernetesOperations.CREATE_SERVICE_ACCOUNT_OPERATION:
-            doCreateServiceAccount(exchange, operation);
-            break;
+            return new Operation() {
+                @Override
+                public void execute(Exchange exchange, String operation) throws Exception {
+                    doCreateServiceAccount(exchange, operation);
+                }
+            };
 
         case KubernetesOperations.DELETE_SERVICE_ACCOUNT_OPERATION:
-            doDeleteServiceAccount(exchange, operation);
-            break;
+            return new Operation() {
+                @Override
+                public void execute(Exchange exchange, String operation) throws Exception {
+                    doDeleteServiceAccount(exchange, operation);
+                }
+            };
+
+        case KubernetesOperations.CREATE_SERVICE_ACCOUNTS_OPERATION:
+            return new Operation() {
+                @Override
+                public void execute(Exchange exchange, String operation) throws Exception {
+                    doBatchCreate(exchange, operation);
+                }
+            };
+
+        case KubernetesOperations.DELETE_SERVICE_ACCOUNTS_OPERATION:
+            return new Operation() {
+                @Override
+                public void execute(Exchange exchange, String operation) throws Exception {
+                    doBatchDelete(exchange, operation);
+                }
+            };
 
         default:
-            throw new IllegalArgumentException("Unsupported operation "
-                    + operation);
+            return null;
         }
     }
 
     protected void doList(Exchange exchange, String operation) throws Exception {
+        if (doFanOutList(exchange, null)) {
+            return;
+        }
+        KubernetesInformer<ServiceAccount> informer = getInformer();
+        if (informer != null && informer.covers(null)) {
+            exchange.getOut().setBody(informer.list());
+            return;
+        }
+        if (isPagedList()) {
+            exchange.getOut().setBody(pagedList(null, null));
+            return;
+        }
         ServiceAccountList saList = getEndpoint().getKubernetesClient().serviceAccounts()
                 .list();
         exchange.getOut().setBody(saList.getItems());
@@ -105,6 +137,18 @@ public class KubernetesServiceAccountsProducer extends DefaultProducer {
                 KubernetesConstants.KUBERNETES_SERVICE_ACCOUNTS_LABELS, Map.class);
         String namespaceName = exchange.getIn().getHeader(
                 KubernetesConstants.KUBERNETES_NAMESPACE_NAME, String.class);
+        if (doFanOutList(exchange, labels)) {
+            return;
+        }
+        KubernetesInformer<ServiceAccount> informer = getInformer();
+        if (informer != null && informer.covers(namespaceName)) {
+            exchange.getOut().setBody(informer.listByLabels(namespaceName, labels));
+            return;
+        }
+        if (isPagedList()) {
+            exchange.getOut().setBody(pagedList(namespaceName, labels));
+            return;
+        }
         if (!ObjectHelper.isEmpty(namespaceName)) {
             ClientNonNamespaceOperation<KubernetesClient, ServiceAccount, ServiceAccountList, DoneableServiceAccount, ClientResource<ServiceAccount, DoneableServiceAccount>> serviceAccounts;
             serviceAccounts = getEndpoint().getKubernetesClient().serviceAccounts()
@@ -141,6 +185,16 @@ public class KubernetesServiceAccountsProducer extends DefaultProducer {
             throw new IllegalArgumentException(
                     "Get a specific Service Account require specify a namespace name");
         }
+        KubernetesInformer<ServiceAccount> informer = getInformer();
+        if (informer != null && informer.covers(namespaceName)) {
+            exchange.getOut().setBody(informer.get(namespaceName, saName));
+            return;
+        }
+        KubernetesReadCache<ServiceAccount> cache = getReadCache();
+        if (cache != null) {
+            exchange.getOut().setBody(cache.get(namespaceName, saName));
+            return;
+        }
         sa = getEndpoint().getKubernetesClient().serviceAccounts()
                 .inNamespace(namespaceName).withName(saName).get();
         exchange.getOut().setBody(sa);
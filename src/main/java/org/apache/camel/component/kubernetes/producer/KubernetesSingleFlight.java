@@ -0,0 +1,88 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.component.kubernetes.producer;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.camel.util.ObjectHelper;
+
+/**
+ * Lets identical calls share one execution.
+ * <p/>
+ * The first caller of a key runs the call in its own thread; callers of the
+ * same key arriving while it is in flight wait for it and get its result,
+ * or its exception. A call arriving after it completed runs again, so
+ * nothing is cached beyond the call itself.
+ */
+public class KubernetesSingleFlight {
+
+    private final ConcurrentMap<String, FutureTask<?>> inFlight = new ConcurrentHashMap<String, FutureTask<?>>();
+    private final AtomicLong shared = new AtomicLong();
+
+    /**
+     * Runs the call, or waits for the identical call in flight
+     *
+     * @param leader set to <tt>true</tt> if the call was run by this caller,
+     *            may be <tt>null</tt>
+     */
+    @SuppressWarnings("unchecked")
+    public <V> V execute(String key, Callable<V> call, boolean[] leader) throws Exception {
+        ObjectHelper.notNull(key, "key");
+        FutureTask<V> task = new FutureTask<V>(call);
+        FutureTask<V> running = (FutureTask<V>) inFlight.putIfAbsent(key, task);
+        if (running != null) {
+            shared.incrementAndGet();
+            return result(running);
+        }
+        if (leader != null) {
+            leader[0] = true;
+        }
+        try {
+            task.run();
+        } finally {
+            inFlight.remove(key, task);
+        }
+        return result(task);
+    }
+
+    /**
+     * The number of calls answered by another call in flight
+     */
+    public long getSharedCount() {
+        return shared.get();
+    }
+
+    private static <V> V result(FutureTask<V> task) throws Exception {
+        try {
+            return task.get();
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof Exception) {
+                throw (Exception) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw e;
+        }
+    }
+}
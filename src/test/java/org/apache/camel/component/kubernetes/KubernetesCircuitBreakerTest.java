@@ -0,0 +1,243 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.component.kubernetes;
+
+import com.ning.http.client.AsyncHandler;
+import com.ning.http.client.HttpResponseBodyPart;
+import com.ning.http.client.HttpResponseHeaders;
+import com.ning.http.client.HttpResponseStatus;
+import com.ning.http.client.RequestBuilder;
+import com.ning.http.client.filter.FilterContext;
+import io.fabric8.kubernetes.client.KubernetesClientException;
+
+import org.apache.camel.CamelContext;
+import org.apache.camel.component.kubernetes.KubernetesCircuitBreaker.State;
+import org.apache.camel.impl.DefaultCamelContext;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class KubernetesCircuitBreakerTest {
+
+    @Test
+    public void opensOnErrorRate() throws Exception {
+        KubernetesCircuitBreaker breaker = new KubernetesCircuitBreaker("http://master", 4, 50, 0, 100, 60000);
+        breaker.record(true, 1);
+        breaker.record(true, 1);
+        breaker.record(false, 1);
+        assertEquals(State.CLOSED, breaker.getState());
+
+        breaker.record(false, 1);
+        assertEquals(State.OPEN, breaker.getState());
+        assertFalse(breaker.acquire(false));
+        assertEquals(1, breaker.getRejectedCount());
+        assertEquals(1, breaker.getOpenedCount());
+    }
+
+    @Test
+    public void oldOutcomesLeaveTheWindow() throws Exception {
+        KubernetesCircuitBreaker breaker = new KubernetesCircuitBreaker("http://master", 4, 75, 0, 100, 60000);
+        breaker.record(true, 1);
+        breaker.record(true, 1);
+        breaker.record(false, 1);
+        breaker.record(false, 1);
+        breaker.record(false, 1);
+        assertEquals(25.0, breaker.getFailureRate(), 0.01);
+        breaker.record(true, 1);
+        breaker.record(true, 1);
+        assertEquals(State.CLOSED, breaker.getState());
+        breaker.record(true, 1);
+        assertEquals(State.OPEN, breaker.getState());
+    }
+
+    @Test
+    public void opensOnSlowCalls() throws Exception {
+        KubernetesCircuitBreaker breaker = new KubernetesCircuitBreaker("http://master", 2, 100, 100, 50, 60000);
+        breaker.record(false, 10);
+        breaker.record(false, 150);
+        assertEquals(50.0, breaker.getSlowCallRate(), 0.01);
+        assertEquals(State.OPEN, breaker.getState());
+    }
+
+    @Test
+    public void slowBodyIsNotASlowCall() throws Exception {
+        KubernetesCircuitBreaker breaker = new KubernetesCircuitBreaker("http://master", 1, 100, 100, 100, 60000);
+        AsyncHandler<Object> handler = observe(breaker);
+        handler.onHeadersReceived(null);
+        Thread.sleep(150);
+        handler.onCompleted();
+        assertEquals(State.CLOSED, breaker.getState());
+
+        handler = observe(breaker);
+        Thread.sleep(150);
+        handler.onHeadersReceived(null);
+        handler.onCompleted();
+        assertEquals(State.OPEN, breaker.getState());
+    }
+
+    @Test
+    public void probesWhenHalfOpen() throws Exception {
+        KubernetesCircuitBreaker breaker = new KubernetesCircuitBreaker("http://master", 1, 100, 0, 100, 50);
+        breaker.record(true, 1);
+        assertEquals(State.OPEN, breaker.getState());
+
+        Thread.sleep(80);
+        assertEquals(State.HALF_OPEN, breaker.getState());
+        assertFalse(breaker.acquire(true));
+        assertTrue(breaker.acquire(false));
+        assertFalse(breaker.acquire(false));
+        breaker.record(true, 1);
+        assertEquals(State.OPEN, breaker.getState());
+        assertEquals(2, breaker.getOpenedCount());
+
+        Thread.sleep(80);
+        assertTrue(breaker.acquire(false));
+        breaker.record(false, 1);
+        assertEquals(State.CLOSED, breaker.getState());
+        assertTrue(breaker.acquire(false));
+    }
+
+    @Test
+    public void failsFastOnceOpen() throws Exception {
+        KubernetesMockServer server = new KubernetesMockServer();
+        server.start();
+        CamelContext context = new DefaultCamelContext();
+        try {
+            context.start();
+            String uri = "kubernetes:" + server.getUrl() + "?oauthToken=token&category=pods&circuitBreaker=true"
+                    + "&circuitBreakerWindowSize=4&circuitBreakerCoolDown=200";
+            KubernetesEndpoint endpoint = context.getEndpoint(uri, KubernetesEndpoint.class);
+            endpoint.start();
+            server.failNext(4, 503, null);
+            for (int i = 0; i < 4; i++) {
+                try {
+                    endpoint.getKubernetesClient().pods().inNamespace("default").list();
+                    fail("Should have failed");
+                } catch (KubernetesClientException e) {
+                    assertEquals(503, e.getCode());
+                }
+            }
+            assertEquals("OPEN", endpoint.getCircuitBreakerState());
+
+            long requests = server.getRequestCount();
+            try {
+                endpoint.getKubernetesClient().pods().inNamespace("default").list();
+                fail("Should have failed");
+            } catch (KubernetesClientException e) {
+                // the client keeps the refusal of the breaker as cause
+                assertTrue(causedByBreaker(e));
+            }
+            assertEquals(requests, server.getRequestCount());
+            assertEquals(1, endpoint.getCircuitBreakerRejectedCount());
+
+            Thread.sleep(250);
+            endpoint.getKubernetesClient().pods().inNamespace("default").list();
+            assertEquals("CLOSED", endpoint.getCircuitBreakerState());
+        } finally {
+            context.stop();
+            server.stop();
+        }
+    }
+
+    @Test
+    public void probeRefusedByTheRateLimitIsGivenUp() throws Exception {
+        KubernetesMockServer server = new KubernetesMockServer();
+        server.start();
+        CamelContext context = new DefaultCamelContext();
+        try {
+            context.start();
+            String uri = "kubernetes:" + server.getUrl() + "?oauthToken=token&category=pods&circuitBreaker=true"
+                    + "&circuitBreakerWindowSize=1&circuitBreakerCoolDown=100&rateLimitQps=1&rateLimitBurst=1";
+            final KubernetesEndpoint endpoint = context.getEndpoint(uri, KubernetesEndpoint.class);
+            endpoint.start();
+            server.failNext(1, 503, null);
+            try {
+                endpoint.getKubernetesClient().pods().inNamespace("default").list();
+                fail("Should have failed");
+            } catch (KubernetesClientException e) {
+                assertEquals(503, e.getCode());
+            }
+            Thread.sleep(150);
+            assertEquals("HALF_OPEN", endpoint.getCircuitBreakerState());
+
+            // the probe waits for the rate limit and is interrupted there
+            Thread probe = new Thread() {
+                @Override
+                public void run() {
+                    try {
+                        endpoint.getKubernetesClient().pods().inNamespace("default").list();
+                    } catch (KubernetesClientException e) {
+                        // refused by the rate limit
+                    }
+                }
+            };
+            probe.start();
+            Thread.sleep(200);
+            probe.interrupt();
+            probe.join(5000);
+
+            endpoint.getKubernetesClient().pods().inNamespace("default").list();
+            assertEquals("CLOSED", endpoint.getCircuitBreakerState());
+        } finally {
+            context.stop();
+            server.stop();
+        }
+    }
+
+    private static AsyncHandler<Object> observe(KubernetesCircuitBreaker breaker) throws Exception {
+        FilterContext<Object> context = new FilterContext.FilterContextBuilder<Object>()
+                .request(new RequestBuilder("GET").setUrl("http://master/api/v1/pods").build())
+                .asyncHandler(new AsyncHandler<Object>() {
+                    @Override
+                    public STATE onStatusReceived(HttpResponseStatus status) {
+                        return STATE.CONTINUE;
+                    }
+
+                    @Override
+                    public STATE onHeadersReceived(HttpResponseHeaders headers) {
+                        return STATE.CONTINUE;
+                    }
+
+                    @Override
+                    public STATE onBodyPartReceived(HttpResponseBodyPart bodyPart) {
+                        return STATE.CONTINUE;
+                    }
+
+                    @Override
+                    public Object onCompleted() {
+                        return null;
+                    }
+
+                    @Override
+                    public void onThrowable(Throwable t) {
+                    }
+                }).build();
+        return breaker.filter(context).getAsyncHandler();
+    }
+
+    private static boolean causedByBreaker(Throwable failure) {
+        for (Throwable cause = failure; cause != null; cause = cause.getCause()) {
+            if (cause.getMessage() != null && cause.getMessage().startsWith("Circuit breaker")) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,120 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.component.kubernetes;
+
+import io.fabric8.kubernetes.client.DefaultKubernetesClient;
+
+import org.apache.camel.CamelContext;
+import org.apache.camel.ResolveEndpointFailedException;
+import org.apache.camel.impl.DefaultCamelContext;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class KubernetesClientRegistryTest {
+
+    private CamelContext context;
+    private KubernetesComponent component;
+
+    @Before
+    public void setUp() throws Exception {
+        context = new DefaultCamelContext();
+        context.start();
+        component = context.getComponent("kubernetes", KubernetesComponent.class);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        context.stop();
+    }
+
+    @Test
+    public void endpointsWithSameSettingsShareClient() throws Exception {
+        KubernetesEndpoint pods = endpoint("kubernetes:http://localhost:8080?category=pods&oauthToken=a");
+        KubernetesEndpoint services = endpoint("kubernetes:http://localhost:8080?category=services&oauthToken=a");
+        KubernetesEndpoint otherUser = endpoint("kubernetes:http://localhost:8080?category=pods&oauthToken=b");
+
+        assertSame(pods.getKubernetesClient(), services.getKubernetesClient());
+        assertNotSame(pods.getKubernetesClient(), otherUser.getKubernetesClient());
+        assertEquals(2, component.getClientRegistry().size());
+
+        pods.stop();
+        assertEquals(2, component.getClientRegistry().size());
+        services.stop();
+        assertEquals(1, component.getClientRegistry().size());
+        otherUser.stop();
+        assertEquals(0, component.getClientRegistry().size());
+    }
+
+    @Test
+    public void rateLimitAndBreakerAreSharedByTheEndpointsOfAMaster() throws Exception {
+        KubernetesEndpoint plain = endpoint("kubernetes:http://localhost:8080?category=pods&oauthToken=a");
+        KubernetesEndpoint limited = endpoint("kubernetes:http://localhost:8080?category=services&oauthToken=a"
+                + "&rateLimitQps=5&circuitBreaker=true");
+        KubernetesEndpoint otherUser = endpoint("kubernetes:http://localhost:8080?category=pods&oauthToken=b");
+
+        assertSame(plain.getKubernetesClient(), limited.getKubernetesClient());
+        assertNotNull(limited.getRateLimiter());
+        assertSame(limited.getRateLimiter(), plain.getRateLimiter());
+        assertSame(limited.getRateLimiter(), otherUser.getRateLimiter());
+        assertSame(limited.getCircuitBreaker(), otherUser.getCircuitBreaker());
+        assertNull(endpoint("kubernetes:http://otherhost:8080?category=pods").getRateLimiter());
+    }
+
+    @Test
+    public void conflictingRateLimitIsRefused() throws Exception {
+        endpoint("kubernetes:http://localhost:8080?category=pods&rateLimitQps=5");
+        try {
+            endpoint("kubernetes:http://localhost:8080?category=services&rateLimitQps=50");
+            fail("Should not start with another rate limit for the same master");
+        } catch (ResolveEndpointFailedException e) {
+            assertTrue(e.getCause() instanceof IllegalArgumentException);
+            assertTrue(e.getCause().getMessage().contains("rate limit"));
+        }
+        assertEquals(1, component.getClientRegistry().size());
+    }
+
+    @Test
+    public void givenClientIsNotShared() throws Exception {
+        DefaultKubernetesClient client = new DefaultKubernetesClient("http://localhost:8080");
+        try {
+            KubernetesEndpoint endpoint = endpoint("kubernetes:http://localhost:8080?category=pods");
+            endpoint.getKubernetesConfiguration().setKubernetesClient(client);
+            endpoint.stop();
+            endpoint.start();
+
+            assertSame(client, endpoint.getKubernetesClient());
+            assertEquals(0, component.getClientRegistry().size());
+        } finally {
+            client.close();
+        }
+    }
+
+    private KubernetesEndpoint endpoint(String uri) throws Exception {
+        KubernetesEndpoint endpoint = context.getEndpoint(uri, KubernetesEndpoint.class);
+        endpoint.start();
+        return endpoint;
+    }
+}
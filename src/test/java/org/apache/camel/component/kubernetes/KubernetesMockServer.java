@@ -0,0 +1,1077 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.component.kubernetes;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.URLDecoder;
+import java.security.MessageDigest;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import javax.xml.bind.DatatypeConverter;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.fabric8.kubernetes.api.model.HasMetadata;
+import io.fabric8.kubernetes.api.model.Namespace;
+import io.fabric8.kubernetes.api.model.Node;
+import io.fabric8.kubernetes.api.model.PersistentVolume;
+import io.fabric8.kubernetes.api.model.PersistentVolumeClaim;
+import io.fabric8.kubernetes.api.model.Pod;
+import io.fabric8.kubernetes.api.model.PodBuilder;
+import io.fabric8.kubernetes.api.model.ReplicationController;
+import io.fabric8.kubernetes.api.model.ResourceQuota;
+import io.fabric8.kubernetes.api.model.Secret;
+import io.fabric8.kubernetes.api.model.SecretBuilder;
+import io.fabric8.kubernetes.api.model.Service;
+import io.fabric8.kubernetes.api.model.ServiceAccount;
+import io.fabric8.kubernetes.api.model.ServiceBuilder;
+import io.fabric8.openshift.api.model.Build;
+import io.fabric8.openshift.api.model.BuildBuilder;
+import io.fabric8.openshift.api.model.BuildConfig;
+
+/**
+ * An in-process stand-in for the REST and watch API of a Kubernetes or
+ * OpenShift master, good enough for the client of the component to list,
+ * get, create, replace, delete and watch the resources it holds, so
+ * producers and consumers can be load tested without a cluster.
+ * <p/>
+ * Resources are kept per plural name (<tt>pods</tt>, <tt>services</tt>,
+ * <tt>builds</tt>...) and served under both <tt>/api/v1</tt> and
+ * <tt>/oapi/v1</tt>, cluster wide or per namespace. Lists and watches honour
+ * label and field selectors, lists also <tt>limit</tt> and
+ * <tt>continue</tt>.
+ * <p/>
+ * Watches are WebSockets, as the client expects. Every change is kept in a
+ * bounded history so a watch from an older resourceVersion gets the changes
+ * since, or a 410 Gone error once they have been dropped. {@link #storm}
+ * sends synthetic MODIFIED events as fast as, or at the rate, asked.
+ */
+public class KubernetesMockServer {
+
+    private static final String UTF_8 = "UTF-8";
+    private static final String WEBSOCKET_GUID = "258EAFA5-E914-47DA-95CA-C5AB0DC85B11";
+    private static final int DEFAULT_HISTORY_SIZE = 10000;
+    private static final Pattern SET_TERM = Pattern.compile("(\\S+)\\s+(in|notin)\\s*\\((.*)\\)");
+    private static final Map<String, Class<? extends HasMetadata>> TYPES = new HashMap<String, Class<? extends HasMetadata>>();
+
+    static {
+        TYPES.put("namespaces", Namespace.class);
+        TYPES.put("nodes", Node.class);
+        TYPES.put("pods", Pod.class);
+        TYPES.put("services", Service.class);
+        TYPES.put("replicationcontrollers", ReplicationController.class);
+        TYPES.put("secrets", Secret.class);
+        TYPES.put("persistentvolumes", PersistentVolume.class);
+        TYPES.put("persistentvolumeclaims", PersistentVolumeClaim.class);
+        TYPES.put("resourcequotas", ResourceQuota.class);
+        TYPES.put("serviceaccounts", ServiceAccount.class);
+        TYPES.put("builds", Build.class);
+        TYPES.put("buildconfigs", BuildConfig.class);
+    }
+
+    private final ObjectMapper mapper = new ObjectMapper();
+    private final ConcurrentMap<String, ConcurrentSkipListMap<String, HasMetadata>> resources
+            = new ConcurrentHashMap<String, ConcurrentSkipListMap<String, HasMetadata>>();
+    private final List<WatchConnection> watches = new CopyOnWriteArrayList<WatchConnection>();
+    private final AtomicLong requests = new AtomicLong();
+    private final ConcurrentLinkedQueue<Failure> failures = new ConcurrentLinkedQueue<Failure>();
+
+    // changes and watch registrations are serialized on this lock so every watch sees events in order
+    private final Object lock = new Object();
+    private final ArrayDeque<Event> history = new ArrayDeque<Event>();
+    private int historySize = DEFAULT_HISTORY_SIZE;
+    private long resourceVersion;
+    private long compactedVersion;
+
+    private volatile long latency;
+    private ServerSocket serverSocket;
+    private ExecutorService executor;
+
+    public synchronized void start() throws IOException {
+        serverSocket = new ServerSocket(0, 128, InetAddress.getLoopbackAddress());
+        executor = Executors.newCachedThreadPool(new ThreadFactory() {
+            @Override
+            public Thread newThread(Runnable runnable) {
+                Thread thread = new Thread(runnable, "KubernetesMockServer");
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+        executor.execute(new Runnable() {
+            @Override
+            public void run() {
+                accept();
+            }
+        });
+    }
+
+    public synchronized void stop() throws IOException {
+        closeWatches();
+        if (serverSocket != null) {
+            serverSocket.close();
+            serverSocket = null;
+        }
+        if (executor != null) {
+            executor.shutdownNow();
+            executor = null;
+        }
+    }
+
+    /**
+     * The master URL to give the client
+     */
+    public String getUrl() {
+        return "http://127.0.0.1:" + serverSocket.getLocalPort();
+    }
+
+    /**
+     * Number of requests served so far, watches included
+     */
+    public long getRequestCount() {
+        return requests.get();
+    }
+
+    /**
+     * Number of open watches
+     */
+    public int getWatchCount() {
+        return watches.size();
+    }
+
+    public long getResourceVersion() {
+        synchronized (lock) {
+            return resourceVersion;
+        }
+    }
+
+    /**
+     * Delays every answer but watch events by the given millis
+     */
+    public void setLatency(long latency) {
+        this.latency = latency;
+    }
+
+    /**
+     * Fails the next <tt>count</tt> REST requests with the given status
+     * code, without applying them. The status asks the client to retry after
+     * the given seconds when not <tt>null</tt>
+     */
+    public void failNext(int count, int code, Integer retryAfterSeconds) {
+        for (int i = 0; i < count; i++) {
+            failures.add(new Failure(code, retryAfterSeconds));
+        }
+    }
+
+    /**
+     * Fails the next <tt>count</tt> REST requests with the given status
+     * code, asking the client to retry after the given seconds through the
+     * <tt>Retry-After</tt> header only
+     */
+    public void failNextWithRetryAfterHeader(int count, int code, int retryAfterSeconds) {
+        for (int i = 0; i < count; i++) {
+            failures.add(new Failure(code, null, retryAfterSeconds));
+        }
+    }
+
+    /**
+     * Drops the connection of the next <tt>count</tt> REST requests once
+     * read, without applying them
+     */
+    public void resetNext(int count) {
+        for (int i = 0; i < count; i++) {
+            failures.add(new Failure(0, null));
+        }
+    }
+
+    /**
+     * Number of past events kept to resume watches from
+     */
+    public void setHistorySize(int historySize) {
+        synchronized (lock) {
+            this.historySize = historySize;
+            trimHistory();
+        }
+    }
+
+    /**
+     * Drops the event history, so watches resuming from any earlier
+     * resourceVersion get a 410 Gone error
+     */
+    public void compact() {
+        synchronized (lock) {
+            history.clear();
+            compactedVersion = resourceVersion;
+        }
+    }
+
+    /**
+     * Closes the open watches as a restarting master would
+     */
+    public void closeWatches() {
+        for (WatchConnection watch : watches) {
+            watch.close(true);
+        }
+    }
+
+    /**
+     * Stores the resource under the given plural name, giving it a new
+     * resourceVersion, and tells the watches it was ADDED or MODIFIED
+     */
+    public HasMetadata put(String plural, HasMetadata resource) {
+        synchronized (lock) {
+            String key = keyOf(resource.getMetadata().getNamespace(), resource.getMetadata().getName());
+            if (resource.getMetadata().getUid() == null) {
+                resource.getMetadata().setUid(UUID.randomUUID().toString());
+            }
+            resource.getMetadata().setResourceVersion(Long.toString(++resourceVersion));
+            HasMetadata previous = store(plural).put(key, resource);
+            publish(plural, previous == null ? "ADDED" : "MODIFIED", resource);
+            return previous;
+        }
+    }
+
+    /**
+     * Removes the resource, telling the watches it was DELETED
+     */
+    public HasMetadata remove(String plural, String namespace, String name) {
+        synchronized (lock) {
+            HasMetadata removed = store(plural).remove(keyOf(namespace, name));
+            if (removed != null) {
+                removed.getMetadata().setResourceVersion(Long.toString(++resourceVersion));
+                publish(plural, "DELETED", removed);
+            }
+            return removed;
+        }
+    }
+
+    public HasMetadata get(String plural, String namespace, String name) {
+        return store(plural).get(keyOf(namespace, name));
+    }
+
+    public int size(String plural) {
+        return store(plural).size();
+    }
+
+    /**
+     * Removes every resource without telling the watches
+     */
+    public void clear() {
+        synchronized (lock) {
+            resources.clear();
+        }
+    }
+
+    /**
+     * Modifies the resources of the given plural name round robin, sending a
+     * MODIFIED event for each, at most <tt>eventsPerSecond</tt> a second or
+     * as fast as possible if 0
+     *
+     * @return the number of events sent
+     */
+    public int storm(String plural, int events, int eventsPerSecond) throws InterruptedException {
+        List<HasMetadata> targets = new ArrayList<HasMetadata>(store(plural).values());
+        if (targets.isEmpty()) {
+            return 0;
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < events; i++) {
+            if (eventsPerSecond > 0) {
+                long due = start + TimeUnit.SECONDS.toNanos(i) / eventsPerSecond;
+                long wait = due - System.nanoTime();
+                if (wait > 0) {
+                    TimeUnit.NANOSECONDS.sleep(wait);
+                }
+            }
+            put(plural, targets.get(i % targets.size()));
+        }
+        return events;
+    }
+
+    /**
+     * Adds <tt>count</tt> pods named <tt>pod-0</tt>, <tt>pod-1</tt>... to the
+     * namespace; the pod <tt>i</tt> gets the label <tt>group=group-(i % groups)</tt>
+     * besides the given labels
+     */
+    public void addPods(String namespace, int count, int groups, Map<String, String> labels) {
+        for (int i = 0; i < count; i++) {
+            Pod pod = new PodBuilder().withNewMetadata().withName("pod-" + i).withNamespace(namespace)
+                    .withLabels(labels(labels, i, groups)).endMetadata()
+                    .withNewSpec().addNewContainer().withName("app").withImage("busybox").endContainer().endSpec()
+                    .withNewStatus().withPhase("Running").endStatus().build();
+            put("pods", pod);
+        }
+    }
+
+    /**
+     * Adds <tt>count</tt> services named <tt>service-0</tt>, <tt>service-1</tt>...
+     */
+    public void addServices(String namespace, int count, int groups, Map<String, String> labels) {
+        for (int i = 0; i < count; i++) {
+            Service service = new ServiceBuilder().withNewMetadata().withName("service-" + i).withNamespace(namespace)
+                    .withLabels(labels(labels, i, groups)).endMetadata()
+                    .withNewSpec().addNewPort().withPort(8080).endPort().addToSelector("app", "service-" + i).endSpec()
+                    .build();
+            put("services", service);
+        }
+    }
+
+    /**
+     * Adds <tt>count</tt> secrets named <tt>secret-0</tt>, <tt>secret-1</tt>...
+     */
+    public void addSecrets(String namespace, int count, int groups, Map<String, String> labels) {
+        for (int i = 0; i < count; i++) {
+            Secret secret = new SecretBuilder().withNewMetadata().withName("secret-" + i).withNamespace(namespace)
+                    .withLabels(labels(labels, i, groups)).endMetadata()
+                    .addToData("password", DatatypeConverter.printBase64Binary(("secret-" + i).getBytes()))
+                    .build();
+            put("secrets", secret);
+        }
+    }
+
+    /**
+     * Adds <tt>count</tt> builds named <tt>build-0</tt>, <tt>build-1</tt>...
+     * in the given phase
+     */
+    public void addBuilds(String namespace, int count, int groups, Map<String, String> labels, String phase) {
+        for (int i = 0; i < count; i++) {
+            Build build = new BuildBuilder().withNewMetadata().withName("build-" + i).withNamespace(namespace)
+                    .withLabels(labels(labels, i, groups)).endMetadata()
+                    .withNewStatus().withPhase(phase).endStatus().build();
+            put("builds", build);
+        }
+    }
+
+    private static Map<String, String> labels(Map<String, String> labels, int index, int groups) {
+        Map<String, String> result = new HashMap<String, String>(labels);
+        result.put("group", "group-" + (index % Math.max(1, groups)));
+        return result;
+    }
+
+    private ConcurrentSkipListMap<String, HasMetadata> store(String plural) {
+        ConcurrentSkipListMap<String, HasMetadata> store = resources.get(plural);
+        if (store == null) {
+            ConcurrentSkipListMap<String, HasMetadata> created = new ConcurrentSkipListMap<String, HasMetadata>();
+            store = resources.putIfAbsent(plural, created);
+            if (store == null) {
+                store = created;
+            }
+        }
+        return store;
+    }
+
+    private static String keyOf(String namespace, String name) {
+        return (namespace != null ? namespace : "") + "/" + name;
+    }
+
+    private void publish(String plural, String type, HasMetadata resource) {
+        Event event;
+        try {
+            event = new Event(plural, resourceVersion, type, resource, mapper.writeValueAsString(resource));
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+        history.addLast(event);
+        trimHistory();
+        for (WatchConnection watch : watches) {
+            watch.send(event);
+        }
+    }
+
+    private void trimHistory() {
+        while (history.size() > historySize) {
+            compactedVersion = history.removeFirst().resourceVersion;
+        }
+    }
+
+    private void accept() {
+        ServerSocket server = serverSocket;
+        while (server != null && !server.isClosed()) {
+            try {
+                final Socket socket = server.accept();
+                executor.execute(new Runnable() {
+                    @Override
+                    public void run() {
+                        serve(socket);
+                    }
+                });
+            } catch (IOException e) {
+                return;
+            } catch (RuntimeException e) {
+                // rejected once stopped
+                return;
+            }
+        }
+    }
+
+    private void serve(Socket socket) {
+        try {
+            socket.setTcpNoDelay(true);
+            InputStream in = new BufferedInputStream(socket.getInputStream());
+            OutputStream out = socket.getOutputStream();
+            while (true) {
+                Request request = Request.read(in);
+                if (request == null) {
+                    return;
+                }
+                requests.incrementAndGet();
+                if ("websocket".equalsIgnoreCase(request.headers.get("upgrade"))) {
+                    watch(request, socket, in, out);
+                    return;
+                }
+                if (latency > 0) {
+                    Thread.sleep(latency);
+                }
+                Failure failure = failures.poll();
+                if (failure != null) {
+                    if (failure.code == 0) {
+                        socket.setSoLinger(true, 0);
+                        return;
+                    }
+                    Map<String, Object> status = statusMap(failure.code, "Failure", "Injected failure");
+                    if (failure.retryAfterSeconds != null) {
+                        status.put("details", Collections.singletonMap("retryAfterSeconds", failure.retryAfterSeconds));
+                    }
+                    String headers = failure.retryAfterHeader != null ? "Retry-After: " + failure.retryAfterHeader + "\r\n" : "";
+                    respond(out, failure.code, headers, mapper.writeValueAsBytes(status));
+                    continue;
+                }
+                handle(request, out);
+                if ("close".equalsIgnoreCase(request.headers.get("connection"))) {
+                    return;
+                }
+            }
+        } catch (IOException e) {
+            // the client went away
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            try {
+                socket.close();
+            } catch (IOException e) {
+                // ignore
+            }
+        }
+    }
+
+    /**
+     * Answers a REST request
+     */
+    protected void handle(Request request, OutputStream out) throws IOException {
+        if ("/".equals(request.path) && "GET".equals(request.method)) {
+            // the root paths tell the client it may adapt to an OpenShift client
+            respond(out, 200, mapper.writeValueAsBytes(Collections.singletonMap("paths",
+                    Arrays.asList("/api", "/api/v1", "/oapi", "/oapi/v1"))));
+            return;
+        }
+        ResourcePath path = ResourcePath.parse(request.path);
+        if (path == null) {
+            respond(out, 404, status(404, "NotFound", request.method + " " + request.path));
+            return;
+        }
+        if ("GET".equals(request.method)) {
+            if (path.name == null) {
+                respond(out, 200, list(path, request.query));
+                return;
+            }
+            HasMetadata resource = get(path.plural, path.namespace, path.name);
+            if (resource == null) {
+                respond(out, 404, status(404, "NotFound", path.plural + " \"" + path.name + "\" not found"));
+            } else {
+                respond(out, 200, mapper.writeValueAsBytes(resource));
+            }
+        } else if ("POST".equals(request.method) || "PUT".equals(request.method)) {
+            Class<? extends HasMetadata> type = TYPES.get(path.plural);
+            if (type == null) {
+                respond(out, 404, status(404, "NotFound", "the server could not find " + path.plural));
+                return;
+            }
+            HasMetadata resource = mapper.readValue(request.body, type);
+            if (resource.getMetadata().getNamespace() == null) {
+                resource.getMetadata().setNamespace(path.namespace);
+            }
+            boolean create = "POST".equals(request.method);
+            synchronized (lock) {
+                boolean exists = get(path.plural, path.namespace, resource.getMetadata().getName()) != null;
+                if (create && exists) {
+                    respond(out, 409, status(409, "AlreadyExists", path.plural + " \"" + resource.getMetadata().getName()
+                            + "\" already exists"));
+                    return;
+                } else if (!create && !exists) {
+                    respond(out, 404, status(404, "NotFound", path.plural + " \"" + path.name + "\" not found"));
+                    return;
+                }
+                put(path.plural, resource);
+            }
+            respond(out, create ? 201 : 200, mapper.writeValueAsBytes(resource));
+        } else if ("DELETE".equals(request.method) && path.name != null) {
+            if (remove(path.plural, path.namespace, path.name) == null) {
+                respond(out, 404, status(404, "NotFound", path.plural + " \"" + path.name + "\" not found"));
+            } else {
+                Map<String, Object> status = new LinkedHashMap<String, Object>();
+                status.put("kind", "Status");
+                status.put("apiVersion", "v1");
+                status.put("status", "Success");
+                respond(out, 200, mapper.writeValueAsBytes(status));
+            }
+        } else {
+            respond(out, 405, status(405, "MethodNotAllowed", request.method + " " + request.path));
+        }
+    }
+
+    protected byte[] list(ResourcePath path, Map<String, String> query) throws IOException {
+        Selector selector = new Selector(query.get("labelSelector"), query.get("fieldSelector"));
+        int limit = query.containsKey("limit") ? Integer.parseInt(query.get("limit")) : Integer.MAX_VALUE;
+        String from = query.get("continue");
+
+        String version;
+        Map<String, HasMetadata> store;
+        synchronized (lock) {
+            version = Long.toString(resourceVersion);
+            store = store(path.plural);
+        }
+        if (from != null) {
+            store = ((ConcurrentSkipListMap<String, HasMetadata>) store).tailMap(from, false);
+        } else if (path.namespace != null) {
+            store = ((ConcurrentSkipListMap<String, HasMetadata>) store).tailMap(path.namespace + "/", true);
+        }
+        List<HasMetadata> items = new ArrayList<HasMetadata>();
+        String last = null;
+        boolean more = false;
+        for (Map.Entry<String, HasMetadata> entry : store.entrySet()) {
+            HasMetadata resource = entry.getValue();
+            if (path.namespace != null && !path.namespace.equals(resource.getMetadata().getNamespace())) {
+                if (entry.getKey().compareTo(path.namespace + "/") > 0) {
+                    break;
+                }
+                continue;
+            }
+            if (!selector.matches(resource)) {
+                continue;
+            }
+            if (items.size() == limit) {
+                more = true;
+                break;
+            }
+            items.add(resource);
+            last = entry.getKey();
+        }
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(256 + items.size() * 512);
+        JsonGenerator generator = mapper.getFactory().createGenerator(bytes);
+        generator.writeStartObject();
+        generator.writeStringField("apiVersion", "v1");
+        generator.writeStringField("kind", "List");
+        generator.writeObjectFieldStart("metadata");
+        generator.writeStringField("resourceVersion", version);
+        if (more) {
+            generator.writeStringField("continue", last);
+        }
+        generator.writeEndObject();
+        generator.writeArrayFieldStart("items");
+        for (HasMetadata item : items) {
+            mapper.writeValue(generator, item);
+        }
+        generator.writeEndArray();
+        generator.writeEndObject();
+        generator.close();
+        return bytes.toByteArray();
+    }
+
+    private void watch(Request request, Socket socket, InputStream in, OutputStream out) throws IOException {
+        ResourcePath path = ResourcePath.parse(request.path);
+        if (path == null) {
+            respond(out, 404, status(404, "NotFound", request.path));
+            return;
+        }
+        String accept;
+        try {
+            MessageDigest sha1 = MessageDigest.getInstance("SHA-1");
+            accept = DatatypeConverter.printBase64Binary(sha1.digest(
+                    (request.headers.get("sec-websocket-key") + WEBSOCKET_GUID).getBytes(UTF_8)));
+        } catch (java.security.NoSuchAlgorithmException e) {
+            throw new IOException(e);
+        }
+        out.write(("HTTP/1.1 101 Switching Protocols\r\nUpgrade: websocket\r\nConnection: Upgrade\r\n"
+                + "Sec-WebSocket-Accept: " + accept + "\r\n\r\n").getBytes(UTF_8));
+        out.flush();
+
+        WatchConnection watch = new WatchConnection(path,
+                new Selector(request.query.get("labelSelector"), request.query.get("fieldSelector")), socket, out);
+        String from = request.query.get("resourceVersion");
+        synchronized (lock) {
+            if (from != null && !from.isEmpty() && Long.parseLong(from) < compactedVersion) {
+                watch.sendGone(from);
+                watch.close(true);
+                return;
+            }
+            if (from != null && !from.isEmpty()) {
+                long version = Long.parseLong(from);
+                for (Event event : history) {
+                    if (event.resourceVersion > version) {
+                        watch.send(event);
+                    }
+                }
+            }
+            watches.add(watch);
+        }
+        try {
+            watch.readFrames(in);
+        } finally {
+            watch.close(false);
+        }
+    }
+
+    protected byte[] status(int code, String reason, String message) throws IOException {
+        return mapper.writeValueAsBytes(statusMap(code, reason, message));
+    }
+
+    private static Map<String, Object> statusMap(int code, String reason, String message) {
+        Map<String, Object> status = new LinkedHashMap<String, Object>();
+        status.put("apiVersion", "v1");
+        status.put("kind", "Status");
+        status.put("status", "Failure");
+        status.put("message", message);
+        status.put("reason", reason);
+        status.put("code", code);
+        return status;
+    }
+
+    protected static void respond(OutputStream out, int code, byte[] body) throws IOException {
+        respond(out, code, "", body);
+    }
+
+    private static void respond(OutputStream out, int code, String headers, byte[] body) throws IOException {
+        String head = "HTTP/1.1 " + code + " " + (code < 400 ? "OK" : "Error") + "\r\n" + headers
+                + "Content-Type: application/json\r\n"
+                + "Content-Length: " + body.length + "\r\n\r\n";
+        out.write(head.getBytes(UTF_8));
+        out.write(body);
+        out.flush();
+    }
+
+    private static final class Failure {
+
+        final int code;
+        final Integer retryAfterSeconds;
+        final Integer retryAfterHeader;
+
+        Failure(int code, Integer retryAfterSeconds) {
+            this(code, retryAfterSeconds, null);
+        }
+
+        Failure(int code, Integer retryAfterSeconds, Integer retryAfterHeader) {
+            this.code = code;
+            this.retryAfterSeconds = retryAfterSeconds;
+            this.retryAfterHeader = retryAfterHeader;
+        }
+    }
+
+    /**
+     * A change of a resource, serialized once for all watches
+     */
+    private static final class Event {
+
+        final String plural;
+        final long resourceVersion;
+        final String type;
+        final HasMetadata resource;
+        final String json;
+
+        Event(String plural, long resourceVersion, String type, HasMetadata resource, String json) {
+            this.plural = plural;
+            this.resourceVersion = resourceVersion;
+            this.type = type;
+            this.resource = resource;
+            this.json = json;
+        }
+    }
+
+    /**
+     * An open watch, sending the events it selects as WebSocket text frames
+     */
+    private final class WatchConnection {
+
+        private final ResourcePath path;
+        private final Selector selector;
+        private final Socket socket;
+        private final OutputStream out;
+        private volatile boolean open = true;
+
+        WatchConnection(ResourcePath path, Selector selector, Socket socket, OutputStream out) {
+            this.path = path;
+            this.selector = selector;
+            this.socket = socket;
+            this.out = out;
+        }
+
+        void send(Event event) {
+            if (!open || !path.plural.equals(event.plural)
+                    || (path.namespace != null && !path.namespace.equals(event.resource.getMetadata().getNamespace()))
+                    || !selector.matches(event.resource)) {
+                return;
+            }
+            sendText("{\"type\":\"" + event.type + "\",\"object\":" + event.json + "}");
+        }
+
+        void sendGone(String version) {
+            try {
+                sendText("{\"type\":\"ERROR\",\"object\":" + mapper.writeValueAsString(
+                        statusMap(410, "Gone", "too old resource version: " + version)) + "}");
+            } catch (IOException e) {
+                close(false);
+            }
+        }
+
+        private void sendText(String text) {
+            try {
+                frame(0x1, text.getBytes(UTF_8));
+            } catch (IOException e) {
+                close(false);
+            }
+        }
+
+        private synchronized void frame(int opcode, byte[] payload) throws IOException {
+            out.write(0x80 | opcode);
+            if (payload.length < 126) {
+                out.write(payload.length);
+            } else if (payload.length < 65536) {
+                out.write(126);
+                out.write(payload.length >>> 8);
+                out.write(payload.length);
+            } else {
+                out.write(127);
+                for (int shift = 56; shift >= 0; shift -= 8) {
+                    out.write((int) ((long) payload.length >>> shift));
+                }
+            }
+            out.write(payload);
+            out.flush();
+        }
+
+        /**
+         * Reads the frames of the client until it closes, answering pings
+         */
+        void readFrames(InputStream in) throws IOException {
+            while (open) {
+                int first = in.read();
+                int second = in.read();
+                if (first < 0 || second < 0) {
+                    return;
+                }
+                long length = second & 0x7f;
+                if (length == 126) {
+                    length = (read(in) << 8) | read(in);
+                } else if (length == 127) {
+                    length = 0;
+                    for (int i = 0; i < 8; i++) {
+                        length = (length << 8) | read(in);
+                    }
+                }
+                byte[] mask = new byte[4];
+                if ((second & 0x80) != 0) {
+                    for (int i = 0; i < 4; i++) {
+                        mask[i] = (byte) read(in);
+                    }
+                }
+                byte[] payload = new byte[(int) length];
+                for (int i = 0; i < payload.length; i++) {
+                    payload[i] = (byte) (read(in) ^ mask[i % 4]);
+                }
+                int opcode = first & 0x0f;
+                if (opcode == 0x8) {
+                    close(true);
+                    return;
+                } else if (opcode == 0x9) {
+                    frame(0xA, payload);
+                }
+            }
+        }
+
+        private int read(InputStream in) throws IOException {
+            int b = in.read();
+            if (b < 0) {
+                throw new EOFException();
+            }
+            return b;
+        }
+
+        void close(boolean sendClose) {
+            if (!open) {
+                return;
+            }
+            open = false;
+            watches.remove(this);
+            try {
+                if (sendClose) {
+                    frame(0x8, new byte[0]);
+                }
+            } catch (IOException e) {
+                // already gone
+            }
+            try {
+                socket.close();
+            } catch (IOException e) {
+                // ignore
+            }
+        }
+    }
+
+    /**
+     * Label and field selectors with the equality, inequality, existence and
+     * set operators; field paths are looked up in the JSON of the resource,
+     * as in <tt>status.phase=Running</tt>
+     */
+    private final class Selector {
+
+        private final List<Term> labels;
+        private final List<Term> fields;
+
+        Selector(String labelSelector, String fieldSelector) {
+            this.labels = parse(labelSelector);
+            this.fields = parse(fieldSelector);
+        }
+
+        boolean matches(HasMetadata resource) {
+            if (!labels.isEmpty()) {
+                Map<String, String> actual = resource.getMetadata().getLabels();
+                if (!matches(labels, actual != null ? actual : Collections.<String, String>emptyMap())) {
+                    return false;
+                }
+            }
+            if (!fields.isEmpty()) {
+                JsonNode tree = mapper.valueToTree(resource);
+                Map<String, String> actual = new HashMap<String, String>();
+                for (Term term : fields) {
+                    JsonNode node = tree;
+                    for (Iterator<String> it = Arrays.asList(term.key.split("\\.")).iterator(); it.hasNext() && node != null;) {
+                        node = node.get(it.next());
+                    }
+                    if (node != null && !node.isNull()) {
+                        actual.put(term.key, node.asText());
+                    }
+                }
+                return matches(fields, actual);
+            }
+            return true;
+        }
+
+        private boolean matches(List<Term> selector, Map<String, String> actual) {
+            for (Term term : selector) {
+                String value = actual.get(term.key);
+                boolean match;
+                if (term.values == null) {
+                    match = actual.containsKey(term.key);
+                } else {
+                    match = term.values.contains(value);
+                }
+                if (match == term.negated) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private List<Term> parse(String selector) {
+            List<Term> terms = new ArrayList<Term>();
+            if (selector == null || selector.isEmpty()) {
+                return terms;
+            }
+            for (String term : selector.split(",(?![^(]*\\))")) {
+                term = term.trim();
+                Matcher set = SET_TERM.matcher(term);
+                if (set.matches()) {
+                    List<String> values = new ArrayList<String>();
+                    for (String value : set.group(3).split(",")) {
+                        values.add(value.trim());
+                    }
+                    terms.add(new Term(set.group(1), values, "notin".equals(set.group(2))));
+                } else if (term.contains("!=")) {
+                    int index = term.indexOf("!=");
+                    terms.add(new Term(term.substring(0, index).trim(),
+                            Collections.singletonList(term.substring(index + 2).trim()), true));
+                } else if (term.contains("=")) {
+                    int index = term.indexOf('=');
+                    String value = term.substring(index + 1);
+                    terms.add(new Term(term.substring(0, index).trim(),
+                            Collections.singletonList((value.startsWith("=") ? value.substring(1) : value).trim()), false));
+                } else if (term.startsWith("!")) {
+                    terms.add(new Term(term.substring(1).trim(), null, true));
+                } else if (!term.isEmpty()) {
+                    terms.add(new Term(term, null, false));
+                }
+            }
+            return terms;
+        }
+    }
+
+    /**
+     * One term of a selector; without values it only asks for the key to be
+     * there, or not
+     */
+    private static final class Term {
+
+        private final String key;
+        private final List<String> values;
+        private final boolean negated;
+
+        Term(String key, List<String> values, boolean negated) {
+            this.key = key;
+            this.values = values;
+            this.negated = negated;
+        }
+    }
+
+    /**
+     * A request read off the connection
+     */
+    protected static final class Request {
+
+        final String method;
+        final String path;
+        final Map<String, String> query;
+        final Map<String, String> headers;
+        final byte[] body;
+
+        private Request(String method, String path, Map<String, String> query, Map<String, String> headers, byte[] body) {
+            this.method = method;
+            this.path = path;
+            this.query = query;
+            this.headers = headers;
+            this.body = body;
+        }
+
+        static Request read(InputStream in) throws IOException {
+            String line = readLine(in);
+            while (line != null && line.isEmpty()) {
+                line = readLine(in);
+            }
+            if (line == null) {
+                return null;
+            }
+            String[] parts = line.split(" ");
+            if (parts.length < 2) {
+                throw new IOException("Bad request line " + line);
+            }
+            Map<String, String> headers = new HashMap<String, String>();
+            for (String header = readLine(in); header != null && !header.isEmpty(); header = readLine(in)) {
+                int index = header.indexOf(':');
+                if (index > 0) {
+                    headers.put(header.substring(0, index).trim().toLowerCase(Locale.ENGLISH), header.substring(index + 1).trim());
+                }
+            }
+            byte[] body = new byte[headers.containsKey("content-length") ? Integer.parseInt(headers.get("content-length")) : 0];
+            for (int read = 0; read < body.length;) {
+                int count = in.read(body, read, body.length - read);
+                if (count < 0) {
+                    throw new EOFException("Truncated body");
+                }
+                read += count;
+            }
+
+            String target = parts[1];
+            Map<String, String> query = new HashMap<String, String>();
+            int index = target.indexOf('?');
+            if (index >= 0) {
+                for (String param : target.substring(index + 1).split("&")) {
+                    int equals = param.indexOf('=');
+                    if (equals > 0) {
+                        query.put(URLDecoder.decode(param.substring(0, equals), UTF_8),
+                                URLDecoder.decode(param.substring(equals + 1), UTF_8));
+                    } else if (!param.isEmpty()) {
+                        query.put(URLDecoder.decode(param, UTF_8), "");
+                    }
+                }
+                target = target.substring(0, index);
+            }
+            return new Request(parts[0], target, query, headers, body);
+        }
+
+        private static String readLine(InputStream in) throws IOException {
+            StringBuilder line = new StringBuilder();
+            int c = in.read();
+            if (c < 0) {
+                return null;
+            }
+            while (c >= 0 && c != '\n') {
+                if (c != '\r') {
+                    line.append((char) c);
+                }
+                c = in.read();
+            }
+            return line.toString();
+        }
+    }
+
+    /**
+     * The resource addressed by a path like
+     * <tt>/api/v1/namespaces/default/pods/name</tt>
+     */
+    protected static final class ResourcePath {
+
+        final String namespace;
+        final String plural;
+        final String name;
+
+        private ResourcePath(String namespace, String plural, String name) {
+            this.namespace = namespace;
+            this.plural = plural;
+            this.name = name;
+        }
+
+        static ResourcePath parse(String path) {
+            String[] segments = path.replaceAll("^/+|/+$", "").split("/");
+            if (segments.length < 3 || !("api".equals(segments[0]) || "oapi".equals(segments[0]))) {
+                return null;
+            }
+            if ("namespaces".equals(segments[2]) && segments.length >= 5) {
+                return new ResourcePath(segments[3], segments[4], segments.length > 5 ? segments[5] : null);
+            }
+            return new ResourcePath(null, segments[2], segments.length > 3 ? segments[3] : null);
+        }
+    }
+}
@@ -0,0 +1,156 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.component.kubernetes;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import io.fabric8.kubernetes.api.model.Pod;
+import io.fabric8.kubernetes.api.model.PodBuilder;
+import io.fabric8.kubernetes.client.ConfigBuilder;
+import io.fabric8.kubernetes.client.DefaultKubernetesClient;
+import io.fabric8.kubernetes.client.KubernetesClientException;
+import io.fabric8.kubernetes.client.Watch;
+import io.fabric8.kubernetes.client.Watcher;
+import io.fabric8.openshift.api.model.Build;
+import io.fabric8.openshift.client.OpenShiftClient;
+
+import org.apache.camel.builder.RouteBuilder;
+import org.apache.camel.component.mock.MockEndpoint;
+import org.junit.Test;
+
+/**
+ * Runs the client and a consumer against the {@link KubernetesMockServer}
+ */
+public class KubernetesMockServerTest extends KubernetesMockServerTestSupport {
+
+    private DefaultKubernetesClient client;
+
+    @Override
+    public void setUp() throws Exception {
+        super.setUp();
+        client = new DefaultKubernetesClient(new ConfigBuilder().withMasterUrl(server.getUrl()).build());
+    }
+
+    @Override
+    public void tearDown() throws Exception {
+        client.close();
+        super.tearDown();
+    }
+
+    @Test
+    public void listGetAndSelect() throws Exception {
+        server.addPods("default", 20, 4, Collections.singletonMap("app", "test"));
+        server.addPods("other", 5, 1, Collections.<String, String>emptyMap());
+        server.addBuilds("default", 3, 1, Collections.<String, String>emptyMap(), "Complete");
+
+        assertEquals(25, client.pods().list().getItems().size());
+        assertEquals(20, client.pods().inNamespace("default").list().getItems().size());
+        assertEquals(5, client.pods().inNamespace("default").withLabel("group", "group-1").list().getItems().size());
+        assertEquals(1, client.pods().inNamespace("other").withField("metadata.name", "pod-3").list().getItems().size());
+        assertEquals("pod-7", client.pods().inNamespace("default").withName("pod-7").get().getMetadata().getName());
+        assertNull(client.pods().inNamespace("default").withName("missing").get());
+
+        List<Build> builds = client.adapt(OpenShiftClient.class).builds().inNamespace("default").list().getItems();
+        assertEquals(3, builds.size());
+        assertEquals("Complete", builds.get(0).getStatus().getPhase());
+    }
+
+    @Test
+    public void watchSeesChangesInOrder() throws Exception {
+        server.addPods("default", 10, 1, Collections.<String, String>emptyMap());
+        RecordingWatcher watcher = new RecordingWatcher(2 + 5000);
+        Watch watch = client.pods().inNamespace("default").watch(watcher);
+        try {
+            client.pods().inNamespace("default").create(new PodBuilder().withNewMetadata().withName("created")
+                    .endMetadata().build());
+            assertTrue(client.pods().inNamespace("default").withName("created").delete());
+            server.storm("pods", 5000, 0);
+
+            assertTrue(watcher.latch.await(30, TimeUnit.SECONDS));
+            assertEquals("ADDED created", watcher.events.get(0));
+            assertEquals("DELETED created", watcher.events.get(1));
+            assertEquals("MODIFIED pod-0", watcher.events.get(2));
+            long previous = 0;
+            for (String version : watcher.versions) {
+                assertTrue(Long.parseLong(version) > previous);
+                previous = Long.parseLong(version);
+            }
+        } finally {
+            watch.close();
+        }
+    }
+
+    @Test
+    public void watchResumesFromResourceVersion() throws Exception {
+        server.addPods("default", 3, 1, Collections.<String, String>emptyMap());
+        String version = Long.toString(server.getResourceVersion());
+        server.storm("pods", 6, 0);
+
+        RecordingWatcher watcher = new RecordingWatcher(6);
+        Watch watch = client.pods().inNamespace("default").watch(version, watcher);
+        try {
+            assertTrue(watcher.latch.await(10, TimeUnit.SECONDS));
+            assertEquals("MODIFIED pod-0", watcher.events.get(0));
+        } finally {
+            watch.close();
+        }
+    }
+
+    @Test
+    public void podsConsumerReceivesEventStorm() throws Exception {
+        server.addPods("default", 100, 1, Collections.<String, String>emptyMap());
+        MockEndpoint mock = getMockEndpoint("mock:result");
+        mock.expectedMessageCount(10000);
+
+        addRoutesAndAwaitWatches(new RouteBuilder() {
+            @Override
+            public void configure() throws Exception {
+                from(kubernetesUri("category=pods&namespaceName=default&consumerMode=push&eventBufferCapacity=20000"))
+                        .to("mock:result");
+            }
+        }, 1);
+        server.storm("pods", 10000, 0);
+
+        mock.assertIsSatisfied(30000);
+    }
+
+    private static final class RecordingWatcher implements Watcher<Pod> {
+
+        private final List<String> events = Collections.synchronizedList(new ArrayList<String>());
+        private final List<String> versions = Collections.synchronizedList(new ArrayList<String>());
+        private final CountDownLatch latch;
+
+        RecordingWatcher(int expected) {
+            latch = new CountDownLatch(expected);
+        }
+
+        @Override
+        public void eventReceived(Action action, Pod pod) {
+            events.add(action + " " + pod.getMetadata().getName());
+            versions.add(pod.getMetadata().getResourceVersion());
+            latch.countDown();
+        }
+
+        @Override
+        public void onClose(KubernetesClientException cause) {
+        }
+    }
+}
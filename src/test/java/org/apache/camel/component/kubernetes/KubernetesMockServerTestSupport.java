@@ -0,0 +1,63 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.component.kubernetes;
+
+import org.apache.camel.builder.RouteBuilder;
+import org.apache.camel.test.junit4.CamelTestSupport;
+
+/**
+ * Runs the routes of a test against a {@link KubernetesMockServer}, which is
+ * started before the CamelContext and stopped after it
+ */
+public class KubernetesMockServerTestSupport extends CamelTestSupport {
+
+    protected KubernetesMockServer server;
+
+    @Override
+    public void setUp() throws Exception {
+        server = new KubernetesMockServer();
+        server.start();
+        super.setUp();
+    }
+
+    @Override
+    public void tearDown() throws Exception {
+        super.tearDown();
+        server.stop();
+    }
+
+    /**
+     * The URI of a kubernetes endpoint on the mock server; the token is
+     * needed by the consumers to open their watch
+     */
+    protected String kubernetesUri(String options) {
+        return "kubernetes:" + server.getUrl() + "?oauthToken=token&" + options;
+    }
+
+    /**
+     * Adds a route and waits for the watches it opens
+     */
+    protected void addRoutesAndAwaitWatches(RouteBuilder builder, int watches) throws Exception {
+        int before = server.getWatchCount();
+        context.addRoutes(builder);
+        long deadline = System.currentTimeMillis() + 10000;
+        while (server.getWatchCount() < before + watches && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertTrue("Watches not opened", server.getWatchCount() >= before + watches);
+    }
+}
@@ -0,0 +1,98 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.component.kubernetes;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.fabric8.kubernetes.api.model.Pod;
+import io.fabric8.kubernetes.api.model.PodBuilder;
+import io.fabric8.kubernetes.api.model.PodList;
+import io.fabric8.kubernetes.api.model.PodListBuilder;
+import io.fabric8.kubernetes.api.model.WatchEvent;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the Jackson (de)serialization of the model the client does for
+ * every list answer and watch event.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class KubernetesModelBenchmark {
+
+    /**
+     * Number of pods in the list
+     */
+    @Param({"100", "1000"})
+    public int pods;
+
+    private final ObjectMapper mapper = new ObjectMapper();
+    private PodList podList;
+    private byte[] podListJson;
+    private byte[] watchEventJson;
+
+    @Setup
+    public void setUp() throws Exception {
+        List<Pod> items = new ArrayList<Pod>(pods);
+        for (int i = 0; i < pods; i++) {
+            Map<String, String> labels = new HashMap<String, String>();
+            labels.put("app", "benchmark");
+            labels.put("group", "group-" + (i % 10));
+            items.add(new PodBuilder().withNewMetadata().withName("pod-" + i).withNamespace("default")
+                    .withResourceVersion(Integer.toString(i)).withLabels(labels).endMetadata()
+                    .withNewSpec().addNewContainer().withName("app").withImage("busybox").endContainer().endSpec()
+                    .withNewStatus().withPhase("Running").endStatus().build());
+        }
+        podList = new PodListBuilder().withItems(items).build();
+        podListJson = mapper.writeValueAsBytes(podList);
+        watchEventJson = mapper.writeValueAsBytes(new WatchEvent(items.get(0), "MODIFIED"));
+    }
+
+    @Benchmark
+    public byte[] serializePodList() throws Exception {
+        return mapper.writeValueAsBytes(podList);
+    }
+
+    @Benchmark
+    public PodList deserializePodList() throws Exception {
+        return mapper.readValue(podListJson, PodList.class);
+    }
+
+    @Benchmark
+    public WatchEvent deserializeWatchEvent() throws Exception {
+        return mapper.readValue(watchEventJson, WatchEvent.class);
+    }
+}
@@ -0,0 +1,138 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.component.kubernetes;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import com.ning.http.client.RequestBuilder;
+
+import org.apache.camel.CamelContext;
+import org.apache.camel.component.kubernetes.KubernetesRateLimiter.Priority;
+import org.apache.camel.impl.DefaultCamelContext;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class KubernetesRateLimiterTest {
+
+    @Test
+    public void burstThenRate() throws Exception {
+        KubernetesRateLimiter limiter = new KubernetesRateLimiter(20, 5);
+        long start = System.currentTimeMillis();
+        for (int i = 0; i < 5; i++) {
+            limiter.acquire(Priority.GET);
+        }
+        assertTrue(System.currentTimeMillis() - start < 40);
+        assertEquals(0, limiter.getDelayedRequests(Priority.GET));
+
+        for (int i = 0; i < 10; i++) {
+            limiter.acquire(Priority.GET);
+        }
+        assertTrue(System.currentTimeMillis() - start >= 400);
+        assertEquals(15, limiter.getRequests(Priority.GET));
+        assertTrue(limiter.getDelayedRequests(Priority.GET) >= 9);
+        assertTrue(limiter.getMaxQueueDelay() > 0);
+    }
+
+    @Test
+    public void higherPrioritiesGoFirst() throws Exception {
+        final KubernetesRateLimiter limiter = new KubernetesRateLimiter(5, 1);
+        limiter.acquire(Priority.GET);
+        final List<Priority> order = new CopyOnWriteArrayList<Priority>();
+
+        Thread list = acquire(limiter, Priority.LIST, order);
+        Thread.sleep(50);
+        Thread write = acquire(limiter, Priority.WRITE, order);
+        list.join(2000);
+        write.join(2000);
+
+        assertEquals(2, order.size());
+        assertEquals(Priority.WRITE, order.get(0));
+        assertEquals(Priority.LIST, order.get(1));
+        assertTrue(limiter.getAverageQueueDelay(Priority.LIST) > limiter.getAverageQueueDelay(Priority.WRITE));
+    }
+
+    @Test
+    public void requestsArePrioritizedByMethodAndUrl() throws Exception {
+        assertEquals(Priority.LIST, priorityOf("GET", "http://master:8443/api/v1/namespaces/default/pods"));
+        assertEquals(Priority.LIST, priorityOf("GET", "http://master:8443/api/v1/namespaces/default/pods?labelSelector=a%3Db"));
+        assertEquals(Priority.LIST, priorityOf("GET", "http://master:8443/api/v1/nodes"));
+        assertEquals(Priority.LIST, priorityOf("GET", "http://master:8443/api/v1/namespaces"));
+        assertEquals(Priority.GET, priorityOf("GET", "http://master:8443/api/v1/namespaces/default"));
+        assertEquals(Priority.GET, priorityOf("GET", "http://master:8443/api/v1/namespaces/default/pods/web"));
+        assertEquals(Priority.GET, priorityOf("GET", "http://master:8443/oapi/v1/namespaces/default/builds/b-1"));
+        assertEquals(Priority.WRITE, priorityOf("POST", "http://master:8443/api/v1/namespaces/default/pods"));
+        assertEquals(Priority.WRITE, priorityOf("DELETE", "http://master:8443/api/v1/namespaces/default/pods/web"));
+        assertEquals(Priority.WATCH, priorityOf("GET", "http://master:8443/api/v1/namespaces/default/pods?watch=true"));
+    }
+
+    @Test
+    public void limiterCoversEveryEndpointOfTheMaster() throws Exception {
+        KubernetesMockServer server = new KubernetesMockServer();
+        server.start();
+        CamelContext context = new DefaultCamelContext();
+        try {
+            context.start();
+            String uri = "kubernetes:" + server.getUrl() + "?oauthToken=token&category=pods&rateLimitQps=10&rateLimitBurst=1";
+            KubernetesEndpoint endpoint = context.getEndpoint(uri, KubernetesEndpoint.class);
+            endpoint.start();
+            KubernetesEndpoint unlimited = context.getEndpoint("kubernetes:" + server.getUrl() + "?oauthToken=token&category=services",
+                    KubernetesEndpoint.class);
+            unlimited.start();
+
+            KubernetesRateLimiter limiter = endpoint.getRateLimiter();
+            assertNotNull(limiter);
+            assertSame(limiter, unlimited.getRateLimiter());
+
+            long start = System.currentTimeMillis();
+            for (int i = 0; i < 4; i++) {
+                endpoint.getKubernetesClient().pods().inNamespace("default").list();
+            }
+            assertTrue(System.currentTimeMillis() - start >= 250);
+            assertEquals(4, limiter.getRequests(Priority.LIST));
+            assertTrue(limiter.getDelayedRequests(Priority.LIST) >= 3);
+            assertTrue(endpoint.getRateLimitListQueueDelay() > 0);
+        } finally {
+            context.stop();
+            server.stop();
+        }
+    }
+
+    private static Priority priorityOf(String method, String url) {
+        return KubernetesRateLimiter.priorityOf(new RequestBuilder(method).setUrl(url).build());
+    }
+
+    private static Thread acquire(final KubernetesRateLimiter limiter, final Priority priority, final List<Priority> order) {
+        Thread thread = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    limiter.acquire(priority);
+                    order.add(priority);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        });
+        thread.start();
+        return thread;
+    }
+}
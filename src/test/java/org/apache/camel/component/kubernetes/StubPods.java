@@ -0,0 +1,170 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.component.kubernetes;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import io.fabric8.kubernetes.api.model.ListMeta;
+import io.fabric8.kubernetes.api.model.ObjectMeta;
+import io.fabric8.kubernetes.api.model.Pod;
+import io.fabric8.kubernetes.api.model.PodList;
+import io.fabric8.kubernetes.client.KubernetesClientException;
+import io.fabric8.kubernetes.client.Watch;
+import io.fabric8.kubernetes.client.Watcher;
+import io.fabric8.kubernetes.client.dsl.FilterWatchListDeletable;
+
+import static org.junit.Assert.assertTrue;
+
+/**
+ * In-memory pods to list and watch, recording the resourceVersion of each
+ * watch opened so tests can drive the watchers by hand
+ */
+public class StubPods implements FilterWatchListDeletable<Pod, PodList, Boolean> {
+
+    private final List<Watcher<Pod>> watchers = new CopyOnWriteArrayList<Watcher<Pod>>();
+    private final List<String> versions = new CopyOnWriteArrayList<String>();
+    private volatile List<Pod> items = new ArrayList<Pod>();
+    private volatile String listVersion;
+    private volatile String rejectVersion;
+
+    public static Pod pod(String namespace, String name, String resourceVersion) {
+        Pod pod = new Pod();
+        ObjectMeta meta = new ObjectMeta();
+        meta.setName(name);
+        meta.setNamespace(namespace);
+        meta.setResourceVersion(resourceVersion);
+        pod.setMetadata(meta);
+        return pod;
+    }
+
+    /**
+     * The watcher of the last watch opened
+     */
+    public Watcher<Pod> current() {
+        return watchers.get(watchers.size() - 1);
+    }
+
+    public void awaitWatches(int count) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (watchers.size() < count && System.currentTimeMillis() < deadline) {
+            Thread.sleep(5);
+        }
+        assertTrue("Expected " + count + " watches but got " + watchers.size(), watchers.size() >= count);
+    }
+
+    /**
+     * The resourceVersion each watch was opened from
+     */
+    public List<String> getVersions() {
+        return versions;
+    }
+
+    public void setItems(List<Pod> items) {
+        this.items = items;
+    }
+
+    public void setListVersion(String listVersion) {
+        this.listVersion = listVersion;
+    }
+
+    /**
+     * Fails opening a watch from this resourceVersion as being too old
+     */
+    public void setRejectVersion(String rejectVersion) {
+        this.rejectVersion = rejectVersion;
+    }
+
+    @Override
+    public Watch watch(Watcher<Pod> watcher) {
+        return watch(null, watcher);
+    }
+
+    @Override
+    public Watch watch(String resourceVersion, Watcher<Pod> watcher) {
+        versions.add(resourceVersion);
+        if (resourceVersion != null && resourceVersion.equals(rejectVersion)) {
+            throw new KubernetesClientException("too old resource version", 410, null);
+        }
+        watchers.add(watcher);
+        return new Watch() {
+            @Override
+            public boolean isOpen() {
+                return true;
+            }
+
+            @Override
+            public void close() {
+            }
+        };
+    }
+
+    @Override
+    public PodList list() {
+        PodList list = new PodList();
+        list.setItems(items);
+        list.setMetadata(new ListMeta(listVersion, null));
+        return list;
+    }
+
+    @Override
+    public Boolean delete() {
+        return false;
+    }
+
+    @Override
+    public FilterWatchListDeletable<Pod, PodList, Boolean> withLabels(Map<String, String> labels) {
+        return this;
+    }
+
+    @Override
+    public FilterWatchListDeletable<Pod, PodList, Boolean> withoutLabels(Map<String, String> labels) {
+        return this;
+    }
+
+    @Override
+    public FilterWatchListDeletable<Pod, PodList, Boolean> withLabelIn(String key, String... values) {
+        return this;
+    }
+
+    @Override
+    public FilterWatchListDeletable<Pod, PodList, Boolean> withLabelNotIn(String key, String... values) {
+        return this;
+    }
+
+    @Override
+    public FilterWatchListDeletable<Pod, PodList, Boolean> withLabel(String key, String value) {
+        return this;
+    }
+
+    @Override
+    public FilterWatchListDeletable<Pod, PodList, Boolean> withoutLabel(String key, String value) {
+        return this;
+    }
+
+    @Override
+    public FilterWatchListDeletable<Pod, PodList, Boolean> withFields(Map<String, String> fields) {
+        return this;
+    }
+
+    @Override
+    public FilterWatchListDeletable<Pod, PodList, Boolean> withField(String key, String value) {
+        return this;
+    }
+}
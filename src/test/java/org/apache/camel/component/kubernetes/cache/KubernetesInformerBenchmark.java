@@ -0,0 +1,124 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.component.kubernetes.cache;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.fabric8.kubernetes.api.model.Pod;
+import io.fabric8.kubernetes.api.model.PodList;
+import io.fabric8.kubernetes.client.internal.SerializationUtils;
+
+import org.apache.camel.CamelContext;
+import org.apache.camel.component.kubernetes.StubPods;
+import org.apache.camel.impl.DefaultCamelContext;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares listing pods by labels from the {@link KubernetesInformer} with
+ * what a server list costs the client. The server side is approximated by
+ * parsing the JSON of the list and filtering it, leaving the network out, so
+ * the real round trip is slower still.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class KubernetesInformerBenchmark {
+
+    /**
+     * Number of pods, spread over 50 namespaces and 500 apps
+     */
+    @Param({"10000", "50000"})
+    public int pods;
+
+    private ObjectMapper mapper;
+    private byte[] json;
+    private Map<String, String> selector;
+    private CamelContext context;
+    private KubernetesInformer<Pod> informer;
+
+    @Setup
+    public void setUp() throws Exception {
+        List<Pod> items = new ArrayList<Pod>(pods);
+        for (int i = 0; i < pods; i++) {
+            Pod pod = StubPods.pod("ns-" + (i % 50), "pod-" + i, String.valueOf(i));
+            Map<String, String> labels = new HashMap<String, String>();
+            labels.put("app", "app-" + (i % 500));
+            labels.put("tier", i % 3 == 0 ? "frontend" : "backend");
+            pod.getMetadata().setLabels(labels);
+            items.add(pod);
+        }
+        StubPods stub = new StubPods();
+        stub.setItems(items);
+        stub.setListVersion(String.valueOf(pods));
+
+        selector = new HashMap<String, String>();
+        selector.put("app", "app-7");
+        selector.put("tier", "frontend");
+
+        mapper = SerializationUtils.getMapper();
+        json = mapper.writeValueAsBytes(stub.list());
+
+        context = new DefaultCamelContext();
+        context.start();
+        informer = new KubernetesInformer<Pod>(context, stub, Pod.class, null, 1000, 1000);
+        informer.start();
+    }
+
+    @TearDown
+    public void tearDown() throws Exception {
+        informer.stop();
+        context.stop();
+    }
+
+    @Benchmark
+    public int serverList() throws Exception {
+        PodList list = mapper.readValue(json, PodList.class);
+        int found = 0;
+        for (Pod pod : list.getItems()) {
+            if (selector.get("app").equals(pod.getMetadata().getLabels().get("app"))
+                    && selector.get("tier").equals(pod.getMetadata().getLabels().get("tier"))) {
+                found++;
+            }
+        }
+        return found;
+    }
+
+    @Benchmark
+    public int cacheListByLabels() {
+        return informer.listByLabels(null, selector).size();
+    }
+}
@@ -0,0 +1,289 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.component.kubernetes.cache;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+
+import io.fabric8.kubernetes.api.model.Pod;
+import io.fabric8.kubernetes.client.KubernetesClientException;
+import io.fabric8.kubernetes.client.Watcher;
+import io.fabric8.kubernetes.client.Watcher.Action;
+
+import org.apache.camel.CamelContext;
+import org.apache.camel.component.kubernetes.StubPods;
+import org.apache.camel.impl.DefaultCamelContext;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.apache.camel.component.kubernetes.StubPods.pod;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class KubernetesInformerTest {
+
+    private CamelContext context;
+    private StubPods pods;
+    private KubernetesInformer<Pod> informer;
+
+    @Before
+    public void setUp() throws Exception {
+        context = new DefaultCamelContext();
+        context.start();
+        pods = new StubPods();
+        Pod labelled = pod("default", "b", "2");
+        labelled.getMetadata().setLabels(Collections.singletonMap("app", "web"));
+        pods.setItems(Arrays.asList(pod("default", "a", "1"), labelled, pod("other", "c", "3")));
+        pods.setListVersion("3");
+        informer = new KubernetesInformer<Pod>(context, pods, Pod.class, null, 1, 10);
+        informer.start();
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        informer.stop();
+        context.stop();
+    }
+
+    @Test
+    public void listAndGetFromCache() throws Exception {
+        assertEquals(3, informer.size());
+        assertEquals("3", pods.getVersions().get(0));
+        assertEquals("a", informer.get("default", "a").getMetadata().getName());
+        assertNull(informer.get("other", "a"));
+        assertEquals(3, informer.list().size());
+        assertEquals(1, informer.list("other").size());
+        assertEquals(1, informer.listByLabels(null, Collections.singletonMap("app", "web")).size());
+        assertEquals(0, informer.listByLabels("other", Collections.singletonMap("app", "web")).size());
+        assertTrue(informer.covers("any"));
+    }
+
+    @Test
+    public void watchKeepsCacheUpToDate() throws Exception {
+        Pod modified = pod("default", "a", "4");
+        pods.current().eventReceived(Action.MODIFIED, modified);
+        pods.current().eventReceived(Action.DELETED, pod("default", "b", "5"));
+        pods.current().eventReceived(Action.ADDED, pod("other", "d", "6"));
+
+        assertSame(modified, informer.get("default", "a"));
+        assertNull(informer.get("default", "b"));
+        assertEquals(2, informer.list("other").size());
+        assertEquals("6", informer.getResourceVersion());
+    }
+
+    @Test
+    public void labelIndexFollowsChanges() throws Exception {
+        Map<String, String> web = Collections.singletonMap("app", "web");
+        Map<String, String> webProd = new HashMap<String, String>();
+        webProd.put("app", "web");
+        webProd.put("env", "prod");
+
+        Pod relabelled = pod("default", "b", "4");
+        relabelled.getMetadata().setLabels(Collections.singletonMap("app", "db"));
+        pods.current().eventReceived(Action.MODIFIED, relabelled);
+        assertTrue(informer.listByLabels(null, web).isEmpty());
+
+        Pod c = pod("other", "c", "5");
+        c.getMetadata().setLabels(webProd);
+        pods.current().eventReceived(Action.MODIFIED, c);
+        Pod d = pod("default", "d", "6");
+        d.getMetadata().setLabels(web);
+        pods.current().eventReceived(Action.ADDED, d);
+
+        assertEquals(2, informer.listByLabels(null, web).size());
+        assertEquals(1, informer.listByLabels(null, webProd).size());
+        assertEquals("d", informer.listByLabels("default", web).get(0).getMetadata().getName());
+        assertTrue(informer.listByLabels("default", webProd).isEmpty());
+
+        pods.current().eventReceived(Action.DELETED, c);
+        assertTrue(informer.listByLabels(null, webProd).isEmpty());
+        assertEquals(3, informer.list("default").size());
+    }
+
+    @Test
+    public void listenerSeesCachedResourcesThenChanges() throws Exception {
+        RecordingWatcher listener = new RecordingWatcher();
+        informer.addListener(listener);
+        listener.await(3);
+        assertEquals(3, listener.events.size());
+        assertTrue(listener.events.contains("ADDED c"));
+
+        pods.current().eventReceived(Action.DELETED, pod("other", "c", "4"));
+        listener.await(4);
+        assertEquals("DELETED c", listener.events.get(3));
+
+        informer.removeListener(listener);
+        pods.current().eventReceived(Action.ADDED, pod("other", "e", "5"));
+        Thread.sleep(100);
+        assertEquals(4, listener.events.size());
+    }
+
+    @Test
+    public void blockedListenerDoesNotHoldUpTheWatch() throws Exception {
+        final CountDownLatch release = new CountDownLatch(1);
+        Watcher<Pod> blocked = new Watcher<Pod>() {
+            @Override
+            public void eventReceived(Action action, Pod resource) {
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+
+            @Override
+            public void onClose(KubernetesClientException cause) {
+            }
+        };
+        RecordingWatcher listener = new RecordingWatcher();
+        try {
+            informer.addListener(blocked);
+            informer.addListener(listener);
+
+            // the watch thread is never the one waiting on the blocked listener
+            pods.current().eventReceived(Action.ADDED, pod("other", "d", "4"));
+            assertEquals("d", informer.get("other", "d").getMetadata().getName());
+            listener.await(4);
+            assertEquals("ADDED d", listener.events.get(3));
+        } finally {
+            release.countDown();
+        }
+    }
+
+    @Test
+    public void listenerFarBehindHoldsUpTheWatch() throws Exception {
+        final CountDownLatch release = new CountDownLatch(1);
+        Watcher<Pod> blocked = new Watcher<Pod>() {
+            @Override
+            public void eventReceived(Action action, Pod resource) {
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+
+            @Override
+            public void onClose(KubernetesClientException cause) {
+            }
+        };
+        final int events = KubernetesInformer.LISTENER_QUEUE_CAPACITY * 2;
+        Thread watch = new Thread() {
+            @Override
+            public void run() {
+                for (int i = 0; i < events; i++) {
+                    pods.current().eventReceived(Action.ADDED, pod("other", "d" + i, String.valueOf(4 + i)));
+                }
+            }
+        };
+        try {
+            informer.addListener(blocked);
+            watch.start();
+            Thread.sleep(500);
+
+            // the listener took the first cached resource, its queue holds no more than its capacity
+            assertTrue(watch.isAlive());
+            assertTrue(informer.size() <= 3 + KubernetesInformer.LISTENER_QUEUE_CAPACITY + 1);
+        } finally {
+            release.countDown();
+        }
+        watch.join(10000);
+        assertFalse(watch.isAlive());
+        assertEquals(3 + events, informer.size());
+    }
+
+    @Test
+    public void listByLabelsFindsWhatAScanFinds() throws Exception {
+        List<Pod> items = new ArrayList<Pod>();
+        for (int i = 0; i < 5000; i++) {
+            Pod pod = pod("ns-" + (i % 50), "pod-" + i, String.valueOf(i));
+            Map<String, String> labels = new HashMap<String, String>();
+            labels.put("app", "app-" + (i % 500));
+            labels.put("tier", i % 3 == 0 ? "frontend" : "backend");
+            pod.getMetadata().setLabels(labels);
+            items.add(pod);
+        }
+        StubPods many = new StubPods();
+        many.setItems(items);
+        many.setListVersion("5000");
+        Map<String, String> selector = new HashMap<String, String>();
+        selector.put("app", "app-7");
+        selector.put("tier", "frontend");
+
+        Set<String> expected = new HashSet<String>();
+        for (Pod pod : items) {
+            if (pod.getMetadata().getLabels().entrySet().containsAll(selector.entrySet())
+                    && "ns-7".equals(pod.getMetadata().getNamespace())) {
+                expected.add(pod.getMetadata().getName());
+            }
+        }
+
+        KubernetesInformer<Pod> large = new KubernetesInformer<Pod>(context, many, Pod.class, null, 1, 10);
+        large.start();
+        try {
+            Set<String> found = new HashSet<String>();
+            for (Pod pod : large.listByLabels("ns-7", selector)) {
+                found.add(pod.getMetadata().getName());
+            }
+            assertFalse(expected.isEmpty());
+            assertEquals(expected, found);
+            assertEquals(10, large.listByLabels(null, Collections.singletonMap("app", "app-7")).size());
+        } finally {
+            large.stop();
+        }
+    }
+
+    @Test
+    public void namespacedCacheOnlyCoversItsNamespace() throws Exception {
+        KubernetesInformer<Pod> namespaced = new KubernetesInformer<Pod>(context, pods, Pod.class, "default", 1, 10);
+        assertTrue(namespaced.covers("default"));
+        assertFalse(namespaced.covers("other"));
+        assertFalse(namespaced.covers(null));
+    }
+
+    private static final class RecordingWatcher implements Watcher<Pod> {
+
+        private final List<String> events = new CopyOnWriteArrayList<String>();
+
+        @Override
+        public void eventReceived(Action action, Pod resource) {
+            events.add(action + " " + resource.getMetadata().getName());
+        }
+
+        @Override
+        public void onClose(KubernetesClientException cause) {
+        }
+
+        void await(int count) throws InterruptedException {
+            for (int i = 0; i < 500 && events.size() < count; i++) {
+                Thread.sleep(10);
+            }
+        }
+    }
+}
@@ -0,0 +1,196 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.component.kubernetes.cache;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import io.fabric8.kubernetes.api.model.Pod;
+
+import org.junit.After;
+import org.junit.Test;
+
+import static org.apache.camel.component.kubernetes.StubPods.pod;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+public class KubernetesReadCacheTest {
+
+    private final Map<String, Pod> pods = new HashMap<String, Pod>();
+    private final AtomicInteger loads = new AtomicInteger();
+    private final KubernetesReadCache.Loader<Pod> loader = new KubernetesReadCache.Loader<Pod>() {
+        @Override
+        public Pod load(String namespace, String name) throws Exception {
+            loads.incrementAndGet();
+            synchronized (pods) {
+                return pods.get(name);
+            }
+        }
+    };
+    private ExecutorService revalidator;
+
+    @After
+    public void tearDown() throws Exception {
+        if (revalidator != null) {
+            revalidator.shutdownNow();
+        }
+    }
+
+    @Test
+    public void loadsAgainOnceExpired() throws Exception {
+        put(pod("default", "a", "1"));
+        KubernetesReadCache<Pod> cache = new KubernetesReadCache<Pod>(loader, 10, 50, null);
+
+        Pod first = cache.get("default", "a");
+        assertSame(first, cache.get("default", "a"));
+        assertEquals(1, loads.get());
+        assertEquals(1, cache.getHits());
+        assertEquals(1, cache.getMisses());
+
+        Thread.sleep(80);
+        cache.get("default", "a");
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    public void evictsLeastRecentlyUsed() throws Exception {
+        put(pod("default", "a", "1"));
+        put(pod("default", "b", "2"));
+        put(pod("default", "c", "3"));
+        KubernetesReadCache<Pod> cache = new KubernetesReadCache<Pod>(loader, 2, 60000, null);
+
+        cache.get("default", "a");
+        cache.get("default", "b");
+        cache.get("default", "a");
+        cache.get("default", "c");
+        assertEquals(2, cache.size());
+        assertEquals(1, cache.getEvictions());
+
+        cache.get("default", "a");
+        assertEquals(3, loads.get());
+        cache.get("default", "b");
+        assertEquals(4, loads.get());
+    }
+
+    @Test
+    public void missingResourcesAreNotCached() throws Exception {
+        KubernetesReadCache<Pod> cache = new KubernetesReadCache<Pod>(loader, 10, 60000, null);
+
+        assertNull(cache.get("default", "a"));
+        put(pod("default", "a", "1"));
+        assertEquals("a", cache.get("default", "a").getMetadata().getName());
+        assertEquals(0, cache.getHits());
+        assertEquals(2, cache.getMisses());
+    }
+
+    @Test
+    public void revalidatesExpiredEntriesInTheBackground() throws Exception {
+        revalidator = Executors.newSingleThreadExecutor();
+        put(pod("default", "a", "1"));
+        KubernetesReadCache<Pod> cache = new KubernetesReadCache<Pod>(loader, 10, 100, revalidator);
+        Pod first = cache.get("default", "a");
+
+        // unchanged on the server: the cached pod lives on
+        Thread.sleep(120);
+        put(pod("default", "a", "1"));
+        assertSame(first, cache.get("default", "a"));
+        awaitRevalidation();
+        assertEquals(1, cache.getRevalidations());
+        assertSame(first, cache.get("default", "a"));
+        assertEquals(2, loads.get());
+
+        // changed on the server: the stale pod is answered until the new one is fetched
+        Thread.sleep(120);
+        put(pod("default", "a", "2"));
+        assertSame(first, cache.get("default", "a"));
+        awaitRevalidation();
+        assertEquals("2", cache.get("default", "a").getMetadata().getResourceVersion());
+        assertEquals(1, cache.getRevalidations());
+        assertEquals(3, loads.get());
+    }
+
+    @Test
+    public void invalidateRemovesTheEntry() throws Exception {
+        put(pod("default", "a", "1"));
+        put(pod("other", "a", "2"));
+        KubernetesReadCache<Pod> cache = new KubernetesReadCache<Pod>(loader, 10, 60000, null);
+
+        cache.get("default", "a");
+        cache.get("other", "a");
+        cache.invalidate("default", "a");
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    public void loadRacingAWriteIsNotCached() throws Exception {
+        put(pod("default", "a", "1"));
+        final CountDownLatch loading = new CountDownLatch(1);
+        final CountDownLatch written = new CountDownLatch(1);
+        final KubernetesReadCache<Pod> cache = new KubernetesReadCache<Pod>(new KubernetesReadCache.Loader<Pod>() {
+            @Override
+            public Pod load(String namespace, String name) throws Exception {
+                Pod pod = loader.load(namespace, name);
+                loading.countDown();
+                written.await();
+                return pod;
+            }
+        }, 10, 60000, null);
+
+        ExecutorService reader = Executors.newSingleThreadExecutor();
+        try {
+            Future<Pod> stale = reader.submit(new Callable<Pod>() {
+                @Override
+                public Pod call() throws Exception {
+                    return cache.get("default", "a");
+                }
+            });
+            loading.await();
+            // the write lands while the load is on its way back with the old version
+            put(pod("default", "a", "2"));
+            cache.clear();
+            written.countDown();
+
+            assertEquals("1", stale.get().getMetadata().getResourceVersion());
+            assertEquals(0, cache.size());
+            assertEquals("2", cache.get("default", "a").getMetadata().getResourceVersion());
+        } finally {
+            reader.shutdownNow();
+        }
+    }
+
+    private void put(Pod pod) {
+        synchronized (pods) {
+            pods.put(pod.getMetadata().getName(), pod);
+        }
+    }
+
+    private void awaitRevalidation() throws Exception {
+        // the revalidator has a single thread, so this runs after the revalidation
+        revalidator.submit(new Runnable() {
+            @Override
+            public void run() {
+            }
+        }).get();
+    }
+}
@@ -0,0 +1,153 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.component.kubernetes.consumer;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import io.fabric8.kubernetes.api.model.Pod;
+import io.fabric8.kubernetes.api.model.PodBuilder;
+import io.fabric8.kubernetes.client.Watcher.Action;
+
+import org.apache.camel.Exchange;
+import org.apache.camel.Processor;
+import org.apache.camel.builder.RouteBuilder;
+import org.apache.camel.component.kubernetes.KubernetesMockServerTestSupport;
+import org.apache.camel.component.kubernetes.consumer.common.CheckpointStore;
+import org.apache.camel.component.kubernetes.consumer.common.PodEvent;
+import org.apache.camel.component.mock.MockEndpoint;
+import org.apache.camel.impl.JndiRegistry;
+import org.junit.Test;
+
+public class KubernetesCheckpointConsumerTest extends KubernetesMockServerTestSupport {
+
+    private final RecordingCheckpointStore store = new RecordingCheckpointStore();
+
+    @Test
+    public void failedEventHoldsTheCheckpointBack() throws Exception {
+        MockEndpoint mock = getMockEndpoint("mock:result");
+        mock.expectedMessageCount(2);
+
+        addRoutesAndAwaitWatches(checkpointedRoute("consumerMode=push"), 1);
+        Pod good = pod("good");
+        Pod bad = pod("bad");
+        Pod late = pod("late");
+        server.put("pods", good);
+        server.put("pods", bad);
+        server.put("pods", late);
+
+        mock.assertIsSatisfied(5000);
+        // a restart resumes from before the failed event
+        Thread.sleep(200);
+        assertEquals(1, store.saved.size());
+        assertEquals(good.getMetadata().getResourceVersion(), store.saved.get(0));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void olderEventDoesNotMoveTheCheckpointBack() throws Exception {
+        MockEndpoint mock = getMockEndpoint("mock:result");
+        mock.expectedMessageCount(2);
+
+        addRoutesAndAwaitWatches(checkpointedRoute("consumerMode=push"), 1);
+        Pod pod = pod("web");
+        server.put("pods", pod);
+        String version = pod.getMetadata().getResourceVersion();
+        awaitSaves(1);
+
+        // as a relist would pass on a deletion it missed, with the last version it had seen
+        Pod stale = pod("gone");
+        stale.getMetadata().setResourceVersion(Long.toString(Long.parseLong(version) - 1));
+        AbstractKubernetesConsumer<Pod> consumer = (AbstractKubernetesConsumer<Pod>) context.getRoute("pods").getConsumer();
+        consumer.deliver(new PodEvent(Action.DELETED, stale));
+
+        mock.assertIsSatisfied(5000);
+        assertEquals(1, store.saved.size());
+        assertEquals(version, store.saved.get(0));
+    }
+
+    @Test
+    public void checkpointIsNotKeptWithTheCache() throws Exception {
+        try {
+            context.addRoutes(checkpointedRoute("useCache=true"));
+            fail("Should have failed to start the consumer");
+        } catch (IllegalArgumentException e) {
+            assertTrue(e.getMessage().contains("useCache"));
+        }
+    }
+
+    @Test
+    public void checkpointNeedsASingleWorker() throws Exception {
+        try {
+            context.addRoutes(checkpointedRoute("consumerMode=push&consumerPoolSize=2"));
+            fail("Should have failed to start the consumer");
+        } catch (IllegalArgumentException e) {
+            assertTrue(e.getMessage().contains("consumerPoolSize"));
+        }
+    }
+
+    private RouteBuilder checkpointedRoute(final String options) {
+        return new RouteBuilder() {
+            @Override
+            public void configure() throws Exception {
+                from(kubernetesUri("category=pods&namespaceName=default&checkpointStore=#store&" + options))
+                        .routeId("pods")
+                        .process(new Processor() {
+                            @Override
+                            public void process(Exchange exchange) throws Exception {
+                                if ("bad".equals(exchange.getIn().getBody(Pod.class).getMetadata().getName())) {
+                                    throw new IllegalStateException("Cannot process bad");
+                                }
+                            }
+                        })
+                        .to("mock:result");
+            }
+        };
+    }
+
+    private void awaitSaves(int count) throws InterruptedException {
+        for (int i = 0; i < 500 && store.saved.size() < count; i++) {
+            Thread.sleep(10);
+        }
+    }
+
+    @Override
+    protected JndiRegistry createRegistry() throws Exception {
+        JndiRegistry registry = super.createRegistry();
+        registry.bind("store", store);
+        return registry;
+    }
+
+    private static Pod pod(String name) {
+        return new PodBuilder().withNewMetadata().withName(name).withNamespace("default").endMetadata().build();
+    }
+
+    private static final class RecordingCheckpointStore implements CheckpointStore {
+
+        private final List<String> saved = new CopyOnWriteArrayList<String>();
+
+        @Override
+        public String load(String key) {
+            return null;
+        }
+
+        @Override
+        public void save(String key, String resourceVersion) {
+            saved.add(resourceVersion);
+        }
+    }
+}
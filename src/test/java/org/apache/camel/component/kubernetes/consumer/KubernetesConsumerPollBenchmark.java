@@ -0,0 +1,123 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.component.kubernetes.consumer;
+
+import java.util.concurrent.TimeUnit;
+
+import io.fabric8.kubernetes.api.model.Pod;
+import io.fabric8.kubernetes.client.Watcher;
+
+import org.apache.camel.CamelContext;
+import org.apache.camel.Exchange;
+import org.apache.camel.Processor;
+import org.apache.camel.component.kubernetes.KubernetesEndpoint;
+import org.apache.camel.component.kubernetes.StubPods;
+import org.apache.camel.component.kubernetes.consumer.common.KubernetesEvent;
+import org.apache.camel.component.kubernetes.consumer.common.KubernetesEventBuffer;
+import org.apache.camel.component.kubernetes.consumer.common.OverflowPolicy;
+import org.apache.camel.component.kubernetes.consumer.common.PodEvent;
+import org.apache.camel.impl.DefaultCamelContext;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the per-event cost of buffering watch events and of draining
+ * them with {@link AbstractKubernetesConsumer#poll()} into a route which
+ * does nothing.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class KubernetesConsumerPollBenchmark {
+
+    private static final int BATCH = 1000;
+
+    /**
+     * Whether events for the same pod are coalesced in the buffer
+     */
+    @Param({"false", "true"})
+    public boolean coalesceEvents;
+
+    private CamelContext context;
+    private KubernetesPodsConsumer consumer;
+    private KubernetesEventBuffer<KubernetesEvent<Pod>> buffer;
+    private Pod[] pods;
+
+    @Setup
+    public void setUp() throws Exception {
+        context = new DefaultCamelContext();
+        context.start();
+        KubernetesEndpoint endpoint = context.getEndpoint("kubernetes:http://localhost:8080?category=pods"
+                + "&eventBufferCapacity=" + (BATCH * 2) + "&coalesceEvents=" + coalesceEvents, KubernetesEndpoint.class);
+        consumer = (KubernetesPodsConsumer) endpoint.createConsumer(new Processor() {
+            @Override
+            public void process(Exchange exchange) throws Exception {
+            }
+        });
+        consumer.setStartScheduler(false);
+        consumer.start();
+        buffer = new KubernetesEventBuffer<KubernetesEvent<Pod>>(BATCH * 2, 0, OverflowPolicy.FAIL, coalesceEvents);
+        pods = new Pod[BATCH];
+        for (int i = 0; i < BATCH; i++) {
+            // ten pods changing over and over, as in a rollout
+            pods[i] = StubPods.pod("default", "pod-" + (i % 10), Integer.toString(i));
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws Exception {
+        consumer.stop();
+        context.stop();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public int offerAndPoll() throws Exception {
+        for (Pod pod : pods) {
+            buffer.offer(new PodEvent(Watcher.Action.MODIFIED, pod));
+        }
+        int count = 0;
+        while (buffer.poll() != null) {
+            count++;
+        }
+        return count;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public int offerAndDrainThroughRoute() throws Exception {
+        KubernetesEventBuffer<KubernetesEvent<Pod>> consumerBuffer = consumer.getBuffer();
+        for (Pod pod : pods) {
+            consumerBuffer.offer(new PodEvent(Watcher.Action.MODIFIED, pod));
+        }
+        return consumer.poll();
+    }
+}
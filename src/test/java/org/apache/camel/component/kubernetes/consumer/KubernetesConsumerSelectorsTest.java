@@ -0,0 +1,97 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.component.kubernetes.consumer;
+
+import io.fabric8.kubernetes.api.model.Pod;
+import io.fabric8.kubernetes.api.model.PodBuilder;
+import io.fabric8.kubernetes.client.Watcher.Action;
+
+import org.apache.camel.builder.RouteBuilder;
+import org.apache.camel.component.kubernetes.KubernetesConstants;
+import org.apache.camel.component.kubernetes.KubernetesMockServerTestSupport;
+import org.apache.camel.component.mock.MockEndpoint;
+import org.junit.Test;
+
+public class KubernetesConsumerSelectorsTest extends KubernetesMockServerTestSupport {
+
+    @Test
+    public void labelSelector() throws Exception {
+        MockEndpoint mock = getMockEndpoint("mock:result");
+        mock.expectedMessageCount(1);
+        mock.expectedHeaderReceived(KubernetesConstants.KUBERNETES_EVENT_ACTION, Action.ADDED);
+
+        addRoutesAndAwaitWatches(new RouteBuilder() {
+            @Override
+            public void configure() throws Exception {
+                from(kubernetesUri("consumerMode=push&category=pods&labelSelector=app=web,tier notin (back,batch)"))
+                        .to("mock:result");
+            }
+        }, 1);
+        server.put("pods", pod("db", "db", "front", "Running"));
+        server.put("pods", pod("web-back", "web", "back", "Running"));
+        server.put("pods", pod("web-front", "web", "front", "Running"));
+
+        mock.assertIsSatisfied(5000);
+        assertEquals("web-front", receivedPodName(mock));
+    }
+
+    @Test
+    public void labelAndFieldSelector() throws Exception {
+        MockEndpoint mock = getMockEndpoint("mock:result");
+        mock.expectedMessageCount(1);
+
+        addRoutesAndAwaitWatches(new RouteBuilder() {
+            @Override
+            public void configure() throws Exception {
+                from(kubernetesUri("consumerMode=push&category=pods&namespaceName=default"
+                        + "&labelKey=app&labelValue=web&fieldSelector=status.phase=Running")).to("mock:result");
+            }
+        }, 1);
+        server.put("pods", pod("web-0", "web", "front", "Pending"));
+        server.put("pods", pod("db-0", "db", "front", "Running"));
+        server.put("pods", pod("web-1", "web", "front", "Running"));
+
+        mock.assertIsSatisfied(5000);
+        assertEquals("web-1", receivedPodName(mock));
+    }
+
+    @Test
+    public void unsupportedSelectorFailsTheStart() throws Exception {
+        try {
+            context.addRoutes(new RouteBuilder() {
+                @Override
+                public void configure() throws Exception {
+                    from(kubernetesUri("category=pods&fieldSelector=status.phase!=Running")).to("mock:result");
+                }
+            });
+            fail("Should have failed to start the consumer");
+        } catch (IllegalArgumentException e) {
+            assertTrue(e.getMessage().contains("status.phase!=Running"));
+        }
+        assertEquals(0, server.getWatchCount());
+    }
+
+    private static String receivedPodName(MockEndpoint mock) {
+        return mock.getReceivedExchanges().get(0).getIn().getBody(Pod.class).getMetadata().getName();
+    }
+
+    private static Pod pod(String name, String app, String tier, String phase) {
+        return new PodBuilder().withNewMetadata().withName(name).withNamespace("default")
+                .addToLabels("app", app).addToLabels("tier", tier).endMetadata()
+                .withNewStatus().withPhase(phase).endStatus().build();
+    }
+}
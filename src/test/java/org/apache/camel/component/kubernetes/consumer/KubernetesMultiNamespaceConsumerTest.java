@@ -0,0 +1,133 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.component.kubernetes.consumer;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import io.fabric8.kubernetes.api.model.Namespace;
+import io.fabric8.kubernetes.api.model.NamespaceBuilder;
+import io.fabric8.kubernetes.api.model.Pod;
+import io.fabric8.kubernetes.api.model.PodBuilder;
+
+import org.apache.camel.Exchange;
+import org.apache.camel.builder.RouteBuilder;
+import org.apache.camel.component.kubernetes.KubernetesMockServerTestSupport;
+import org.apache.camel.component.mock.MockEndpoint;
+import org.junit.Test;
+
+public class KubernetesMultiNamespaceConsumerTest extends KubernetesMockServerTestSupport {
+
+    @Test
+    public void namespaceNames() throws Exception {
+        MockEndpoint mock = getMockEndpoint("mock:result");
+        mock.expectedMessageCount(2);
+
+        addRoutesAndAwaitWatches(new RouteBuilder() {
+            @Override
+            public void configure() throws Exception {
+                from(kubernetesUri("consumerMode=push&category=pods&namespaceNames=tenant-1,tenant-2"))
+                        .routeId("pods").to("mock:result");
+            }
+        }, 2);
+        server.put("pods", pod("tenant-3", "pod-3"));
+        server.put("pods", pod("tenant-1", "pod-1"));
+        server.put("pods", pod("tenant-2", "pod-2"));
+
+        mock.assertIsSatisfied(5000);
+        assertEquals("tenant-1,tenant-2", podsConsumer().getWatchedNamespaces());
+        assertTrue(receivedNamespaces(mock).containsAll(Arrays.asList("tenant-1", "tenant-2")));
+    }
+
+    @Test
+    public void namespacePatternFollowsTheNamespaces() throws Exception {
+        server.put("namespaces", namespace("tenant-1"));
+        server.put("namespaces", namespace("other"));
+
+        MockEndpoint mock = getMockEndpoint("mock:result");
+        mock.expectedMessageCount(2);
+
+        // the namespaces watch and the watch of tenant-1
+        addRoutesAndAwaitWatches(new RouteBuilder() {
+            @Override
+            public void configure() throws Exception {
+                from(kubernetesUri("consumerMode=push&category=pods&namespacePattern=tenant-.*"))
+                        .routeId("pods").to("mock:result");
+            }
+        }, 2);
+        int watches = server.getWatchCount();
+        server.put("namespaces", namespace("tenant-2"));
+        awaitWatches(watches + 1);
+        assertEquals("tenant-1,tenant-2", podsConsumer().getWatchedNamespaces());
+
+        server.put("pods", pod("other", "pod-0"));
+        server.put("pods", pod("tenant-1", "pod-1"));
+        server.put("pods", pod("tenant-2", "pod-2"));
+        mock.assertIsSatisfied(5000);
+
+        server.remove("namespaces", null, "tenant-2");
+        long deadline = System.currentTimeMillis() + 5000;
+        while (!"tenant-1".equals(podsConsumer().getWatchedNamespaces()) && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals("tenant-1", podsConsumer().getWatchedNamespaces());
+    }
+
+    @Test
+    public void clusterScopedCategoryIsRejected() throws Exception {
+        try {
+            context.addRoutes(new RouteBuilder() {
+                @Override
+                public void configure() throws Exception {
+                    from(kubernetesUri("category=nodes&namespaceNames=tenant-1,tenant-2")).to("mock:result");
+                }
+            });
+            fail("Should have failed to start the consumer");
+        } catch (IllegalArgumentException e) {
+            assertTrue(e.getMessage().contains("not namespaced"));
+        }
+    }
+
+    private AbstractKubernetesConsumer<?> podsConsumer() {
+        return (AbstractKubernetesConsumer<?>) context.getRoute("pods").getConsumer();
+    }
+
+    private void awaitWatches(int watches) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (server.getWatchCount() < watches && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertTrue("Watches not opened", server.getWatchCount() >= watches);
+    }
+
+    private static List<String> receivedNamespaces(MockEndpoint mock) {
+        List<String> namespaces = new ArrayList<String>();
+        for (Exchange exchange : mock.getReceivedExchanges()) {
+            namespaces.add(exchange.getIn().getBody(Pod.class).getMetadata().getNamespace());
+        }
+        return namespaces;
+    }
+
+    private static Namespace namespace(String name) {
+        return new NamespaceBuilder().withNewMetadata().withName(name).endMetadata().build();
+    }
+
+    private static Pod pod(String namespace, String name) {
+        return new PodBuilder().withNewMetadata().withName(name).withNamespace(namespace).endMetadata().build();
+    }
+}
@@ -0,0 +1,74 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.component.kubernetes.consumer;
+
+import io.fabric8.kubernetes.api.model.ObjectMeta;
+import io.fabric8.kubernetes.api.model.Pod;
+import io.fabric8.kubernetes.client.Watcher.Action;
+
+import org.apache.camel.EndpointInject;
+import org.apache.camel.builder.RouteBuilder;
+import org.apache.camel.component.kubernetes.KubernetesConstants;
+import org.apache.camel.component.kubernetes.KubernetesTestSupport;
+import org.apache.camel.component.kubernetes.consumer.common.PodEvent;
+import org.apache.camel.component.mock.MockEndpoint;
+import org.junit.Test;
+
+public class KubernetesPushConsumerTest extends KubernetesTestSupport {
+
+    @EndpointInject(uri = "mock:result")
+    protected MockEndpoint mockResultEndpoint;
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void deliverWithoutWaitingForPoll() throws Exception {
+        mockResultEndpoint.expectedMessageCount(3);
+        mockResultEndpoint.expectedHeaderValuesReceivedInAnyOrder(KubernetesConstants.KUBERNETES_EVENT_ACTION,
+                Action.ADDED, Action.MODIFIED, Action.DELETED);
+        mockResultEndpoint.expectsAscending(header(KubernetesConstants.KUBERNETES_EVENT_SEQUENCE));
+        mockResultEndpoint.setResultWaitTime(5000);
+
+        // the watch is not opened without a token, so feed the buffer as the watch thread would
+        AbstractKubernetesConsumer<Pod> consumer = (AbstractKubernetesConsumer<Pod>) context.getRoute("pods").getConsumer();
+        consumer.getBuffer().offer(new PodEvent(Action.ADDED, pod("test")));
+        consumer.getBuffer().offer(new PodEvent(Action.MODIFIED, pod("test")));
+        consumer.getBuffer().offer(new PodEvent(Action.DELETED, pod("test")));
+
+        mockResultEndpoint.assertIsSatisfied();
+    }
+
+    private static Pod pod(String name) {
+        Pod pod = new Pod();
+        ObjectMeta meta = new ObjectMeta();
+        meta.setName(name);
+        pod.setMetadata(meta);
+        return pod;
+    }
+
+    @Override
+    protected RouteBuilder createRouteBuilder() throws Exception {
+        return new RouteBuilder() {
+            @Override
+            public void configure() throws Exception {
+                // a poll would only happen after a minute
+                fromF("kubernetes://%s?category=pods&consumerMode=push&consumer.initialDelay=60000", host)
+                        .routeId("pods")
+                        .to(mockResultEndpoint);
+            }
+        };
+    }
+}
@@ -0,0 +1,187 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.component.kubernetes.consumer;
+
+import io.fabric8.kubernetes.api.model.HasMetadata;
+import io.fabric8.kubernetes.api.model.Namespace;
+import io.fabric8.kubernetes.api.model.NamespaceBuilder;
+import io.fabric8.kubernetes.api.model.Node;
+import io.fabric8.kubernetes.api.model.NodeBuilder;
+import io.fabric8.kubernetes.api.model.PersistentVolume;
+import io.fabric8.kubernetes.api.model.PersistentVolumeBuilder;
+import io.fabric8.kubernetes.api.model.PersistentVolumeClaim;
+import io.fabric8.kubernetes.api.model.PersistentVolumeClaimBuilder;
+import io.fabric8.kubernetes.api.model.ServiceAccount;
+import io.fabric8.kubernetes.api.model.ServiceAccountBuilder;
+import io.fabric8.kubernetes.client.Watcher.Action;
+import io.fabric8.openshift.api.model.Build;
+import io.fabric8.openshift.api.model.BuildBuilder;
+import io.fabric8.openshift.api.model.BuildConfig;
+import io.fabric8.openshift.api.model.BuildConfigBuilder;
+
+import org.apache.camel.Exchange;
+import org.apache.camel.Processor;
+import org.apache.camel.builder.RouteBuilder;
+import org.apache.camel.component.kubernetes.KubernetesConstants;
+import org.apache.camel.component.kubernetes.KubernetesEndpoint;
+import org.apache.camel.component.kubernetes.KubernetesMockServerTestSupport;
+import org.apache.camel.component.mock.MockEndpoint;
+import org.junit.Test;
+
+public class KubernetesWatchConsumersTest extends KubernetesMockServerTestSupport {
+
+    @Test
+    public void nodes() throws Exception {
+        assertWatched("nodes", "nodes", Node.class,
+                new NodeBuilder().withNewMetadata().withName("node-1").endMetadata().build());
+    }
+
+    @Test
+    public void namespaces() throws Exception {
+        assertWatched("namespaces", "namespaces", Namespace.class,
+                new NamespaceBuilder().withNewMetadata().withName("tenant-1").endMetadata().build());
+    }
+
+    @Test
+    public void persistentVolumes() throws Exception {
+        assertWatched("persistentVolumes", "persistentvolumes", PersistentVolume.class,
+                new PersistentVolumeBuilder().withNewMetadata().withName("pv-1").endMetadata().build());
+    }
+
+    @Test
+    public void persistentVolumesClaims() throws Exception {
+        assertWatched("persistentVolumesClaims&namespaceName=default", "persistentvolumeclaims",
+                PersistentVolumeClaim.class, new PersistentVolumeClaimBuilder().withNewMetadata().withName("claim-1")
+                        .withNamespace("default").endMetadata().build());
+    }
+
+    @Test
+    public void serviceAccounts() throws Exception {
+        assertWatched("serviceAccounts", "serviceaccounts", ServiceAccount.class,
+                new ServiceAccountBuilder().withNewMetadata().withName("account-1").withNamespace("default")
+                        .endMetadata().build());
+    }
+
+    @Test
+    public void buildConfigs() throws Exception {
+        assertWatched("buildConfigs&namespaceName=default", "buildconfigs", BuildConfig.class,
+                new BuildConfigBuilder().withNewMetadata().withName("config-1").withNamespace("default")
+                        .endMetadata().build());
+    }
+
+    @Test
+    public void buildPhaseTransitions() throws Exception {
+        MockEndpoint mock = getMockEndpoint("mock:result");
+        mock.expectedMessageCount(4);
+        mock.expectedHeaderValuesReceivedInAnyOrder(KubernetesConstants.KUBERNETES_EVENT_ACTION,
+                Action.ADDED, Action.MODIFIED, Action.MODIFIED, Action.DELETED);
+        mock.message(0).header(KubernetesConstants.KUBERNETES_BUILD_PHASE).isEqualTo("New");
+        mock.message(0).header(KubernetesConstants.KUBERNETES_BUILD_PREVIOUS_PHASE).isNull();
+        mock.message(1).header(KubernetesConstants.KUBERNETES_BUILD_PHASE).isEqualTo("Running");
+        mock.message(1).header(KubernetesConstants.KUBERNETES_BUILD_PREVIOUS_PHASE).isEqualTo("New");
+        mock.message(2).header(KubernetesConstants.KUBERNETES_BUILD_PHASE).isEqualTo("Complete");
+        mock.message(2).header(KubernetesConstants.KUBERNETES_BUILD_PREVIOUS_PHASE).isEqualTo("Running");
+        mock.message(3).body().isInstanceOf(Build.class);
+
+        addRoutesAndAwaitWatches(new RouteBuilder() {
+            @Override
+            public void configure() throws Exception {
+                from(kubernetesUri("consumerMode=push&category=builds&namespaceName=default")).to("mock:result");
+            }
+        }, 1);
+        runBuild("default", "build-1");
+
+        mock.assertIsSatisfied(5000);
+    }
+
+    @Test
+    public void buildPhasesFilter() throws Exception {
+        MockEndpoint mock = getMockEndpoint("mock:result");
+        mock.expectedMessageCount(2);
+        mock.expectedHeaderValuesReceivedInAnyOrder(KubernetesConstants.KUBERNETES_EVENT_ACTION,
+                Action.MODIFIED, Action.DELETED);
+        mock.allMessages().header(KubernetesConstants.KUBERNETES_BUILD_PHASE).isEqualTo("Complete");
+        mock.message(0).header(KubernetesConstants.KUBERNETES_BUILD_PREVIOUS_PHASE).isEqualTo("Running");
+
+        addRoutesAndAwaitWatches(new RouteBuilder() {
+            @Override
+            public void configure() throws Exception {
+                from(kubernetesUri("consumerMode=push&category=builds&buildPhases=Complete,Failed"))
+                        .to("mock:result");
+            }
+        }, 1);
+        runBuild("default", "build-1");
+
+        mock.assertIsSatisfied(5000);
+    }
+
+    @Test
+    public void resourcesQuotaCannotBeConsumed() throws Exception {
+        KubernetesEndpoint endpoint = context.getEndpoint(kubernetesUri("category=resourcesQuota"),
+                KubernetesEndpoint.class);
+        try {
+            endpoint.createConsumer(new Processor() {
+                @Override
+                public void process(Exchange exchange) throws Exception {
+                }
+            });
+            fail("Should not create a consumer the client cannot feed");
+        } catch (IllegalArgumentException e) {
+            assertTrue(e.getMessage().contains("resourcesQuota"));
+        }
+    }
+
+    /**
+     * Takes a build from New to Complete, with an update in between which
+     * leaves the phase alone, and deletes it
+     */
+    private void runBuild(String namespace, String name) {
+        server.put("builds", build(namespace, name, "New", "1"));
+        server.put("builds", build(namespace, name, "Running", "1"));
+        server.put("builds", build(namespace, name, "Running", "2"));
+        server.put("builds", build(namespace, name, "Complete", "2"));
+        server.remove("builds", namespace, name);
+    }
+
+    private static Build build(String namespace, String name, String phase, String revision) {
+        return new BuildBuilder().withNewMetadata().withName(name).withNamespace(namespace)
+                .addToLabels("revision", revision).endMetadata()
+                .withNewStatus().withPhase(phase).endStatus().build();
+    }
+
+    private void assertWatched(final String category, String plural, Class<?> type, HasMetadata resource)
+        throws Exception {
+        MockEndpoint mock = getMockEndpoint("mock:result");
+        mock.expectedMessageCount(3);
+        mock.expectedHeaderValuesReceivedInAnyOrder(KubernetesConstants.KUBERNETES_EVENT_ACTION,
+                Action.ADDED, Action.MODIFIED, Action.DELETED);
+        mock.expectsAscending(header(KubernetesConstants.KUBERNETES_EVENT_SEQUENCE));
+        mock.message(0).body().isInstanceOf(type);
+
+        addRoutesAndAwaitWatches(new RouteBuilder() {
+            @Override
+            public void configure() throws Exception {
+                from(kubernetesUri("consumerMode=push&category=" + category)).to("mock:result");
+            }
+        }, 1);
+        server.put(plural, resource);
+        server.put(plural, resource);
+        server.remove(plural, resource.getMetadata().getNamespace(), resource.getMetadata().getName());
+
+        mock.assertIsSatisfied(5000);
+    }
+}
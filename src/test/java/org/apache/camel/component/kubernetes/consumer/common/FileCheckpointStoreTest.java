@@ -0,0 +1,94 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.component.kubernetes.consumer.common;
+
+import java.io.File;
+
+import org.apache.camel.util.FileUtil;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class FileCheckpointStoreTest {
+
+    private File file = new File("target/checkpoints/kubernetes.properties");
+
+    @Before
+    public void setUp() {
+        FileUtil.removeDir(file.getParentFile());
+    }
+
+    @Test
+    public void survivesRestart() throws Exception {
+        FileCheckpointStore store = new FileCheckpointStore(file);
+        store.start();
+        assertNull(store.load("https://master:8443/pods/default"));
+        store.save("https://master:8443/pods/default", "100");
+        store.save("https://master:8443/pods/default", "101");
+        store.stop();
+
+        assertTrue(file.exists());
+        assertFalse(new File(file.getPath() + ".tmp").exists());
+
+        FileCheckpointStore restarted = new FileCheckpointStore(file);
+        restarted.start();
+        assertEquals("101", restarted.load("https://master:8443/pods/default"));
+        restarted.stop();
+    }
+
+    @Test
+    public void writesAtMostOncePerInterval() throws Exception {
+        FileCheckpointStore store = new FileCheckpointStore(file);
+        store.setFlushInterval(60000);
+        store.start();
+        store.save("pods", "1");
+        long written = file.lastModified();
+        store.save("pods", "2");
+
+        FileCheckpointStore reader = new FileCheckpointStore(file);
+        reader.start();
+        assertEquals("1", reader.load("pods"));
+        assertEquals(written, file.lastModified());
+
+        store.stop();
+        FileCheckpointStore afterStop = new FileCheckpointStore(file);
+        afterStop.start();
+        assertEquals("2", afterStop.load("pods"));
+    }
+
+    @Test
+    public void storesShareAFile() throws Exception {
+        FileCheckpointStore pods = new FileCheckpointStore(file);
+        FileCheckpointStore services = new FileCheckpointStore(file);
+        pods.start();
+        services.start();
+        pods.save("pods", "10");
+        services.save("services", "20");
+        pods.save("pods", "11");
+        pods.stop();
+        services.stop();
+
+        FileCheckpointStore restarted = new FileCheckpointStore(file);
+        restarted.start();
+        assertEquals("11", restarted.load("pods"));
+        assertEquals("20", restarted.load("services"));
+    }
+}
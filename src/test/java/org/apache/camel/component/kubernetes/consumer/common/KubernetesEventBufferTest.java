@@ -0,0 +1,340 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.component.kubernetes.consumer.common;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import io.fabric8.kubernetes.api.model.ObjectMeta;
+import io.fabric8.kubernetes.api.model.Pod;
+import io.fabric8.kubernetes.client.Watcher.Action;
+
+import org.junit.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class KubernetesEventBufferTest {
+
+    private static final Logger LOG = LoggerFactory.getLogger(KubernetesEventBufferTest.class);
+
+    @Test
+    public void deliversInArrivalOrder() throws Exception {
+        KubernetesEventBuffer<PodEvent> buffer = new KubernetesEventBuffer<PodEvent>(10, OverflowPolicy.FAIL);
+        buffer.offer(event("a", Action.ADDED));
+        buffer.offer(event("a", Action.MODIFIED));
+        buffer.offer(event("a", Action.DELETED));
+
+        PodEvent first = buffer.poll();
+        PodEvent second = buffer.poll();
+        PodEvent third = buffer.poll();
+        assertEquals(Action.ADDED, first.getAction());
+        assertEquals(Action.MODIFIED, second.getAction());
+        assertEquals(Action.DELETED, third.getAction());
+        assertEquals(1, first.getSequence());
+        assertEquals(2, second.getSequence());
+        assertEquals(3, third.getSequence());
+        assertNull(buffer.poll());
+    }
+
+    @Test
+    public void dropOldestWhenFull() throws Exception {
+        KubernetesEventBuffer<PodEvent> buffer = new KubernetesEventBuffer<PodEvent>(2, OverflowPolicy.DROP_OLDEST);
+        assertTrue(buffer.offer(event("a", Action.ADDED)));
+        assertTrue(buffer.offer(event("b", Action.ADDED)));
+        assertFalse(buffer.offer(event("c", Action.ADDED)));
+
+        assertEquals(2, buffer.size());
+        assertEquals(1, buffer.getDroppedCount());
+        assertEquals("b", buffer.poll().getPod().getMetadata().getName());
+        assertEquals("c", buffer.poll().getPod().getMetadata().getName());
+    }
+
+    @Test
+    public void namespaceShareDropsTheOldestOfTheBusyNamespace() throws Exception {
+        KubernetesEventBuffer<PodEvent> buffer = new KubernetesEventBuffer<PodEvent>(10, OverflowPolicy.DROP_OLDEST);
+        buffer.setNamespaceShare(2);
+        assertTrue(buffer.offer(event("a", "busy")));
+        assertTrue(buffer.offer(event("b", "quiet")));
+        assertTrue(buffer.offer(event("c", "busy")));
+        assertFalse(buffer.offer(event("d", "busy")));
+
+        assertEquals(3, buffer.size());
+        assertEquals(2, buffer.size("busy"));
+        assertEquals(1, buffer.size("quiet"));
+        assertEquals(1, buffer.getDroppedCount());
+        assertEquals("b", buffer.poll().getPod().getMetadata().getName());
+        assertEquals("c", buffer.poll().getPod().getMetadata().getName());
+        assertEquals("d", buffer.poll().getPod().getMetadata().getName());
+        assertEquals(0, buffer.size("busy"));
+    }
+
+    @Test
+    public void namespaceShareBlocksOnlyTheBusyNamespace() throws Exception {
+        final KubernetesEventBuffer<PodEvent> buffer = new KubernetesEventBuffer<PodEvent>(10, OverflowPolicy.BLOCK);
+        buffer.setNamespaceShare(1);
+        buffer.offer(event("a", "busy"));
+
+        final CountDownLatch offered = new CountDownLatch(1);
+        Thread producer = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    buffer.offer(event("b", "busy"));
+                    offered.countDown();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        });
+        producer.start();
+
+        assertFalse(offered.await(200, TimeUnit.MILLISECONDS));
+        // another namespace still gets in while the busy one waits
+        assertTrue(buffer.offer(event("c", "quiet")));
+        assertEquals("a", buffer.poll().getPod().getMetadata().getName());
+        assertTrue(offered.await(5, TimeUnit.SECONDS));
+        assertEquals("c", buffer.poll().getPod().getMetadata().getName());
+        assertEquals("b", buffer.poll().getPod().getMetadata().getName());
+        producer.join();
+    }
+
+    @Test
+    public void failWhenFull() throws Exception {
+        KubernetesEventBuffer<PodEvent> buffer = new KubernetesEventBuffer<PodEvent>(1, OverflowPolicy.FAIL);
+        buffer.offer(event("a", Action.ADDED));
+        try {
+            buffer.offer(event("b", Action.ADDED));
+            fail("Should have thrown an IllegalStateException");
+        } catch (IllegalStateException e) {
+            // expected
+        }
+        assertEquals(1, buffer.size());
+    }
+
+    @Test
+    public void blockUntilDrained() throws Exception {
+        final KubernetesEventBuffer<PodEvent> buffer = new KubernetesEventBuffer<PodEvent>(1, OverflowPolicy.BLOCK);
+        buffer.offer(event("a", Action.ADDED));
+
+        final CountDownLatch offered = new CountDownLatch(1);
+        Thread producer = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    buffer.offer(event("b", Action.ADDED));
+                    offered.countDown();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        });
+        producer.start();
+
+        assertFalse(offered.await(200, TimeUnit.MILLISECONDS));
+        assertEquals("a", buffer.poll().getPod().getMetadata().getName());
+        assertTrue(offered.await(5, TimeUnit.SECONDS));
+        assertEquals("b", buffer.poll(1, TimeUnit.SECONDS).getPod().getMetadata().getName());
+        producer.join();
+    }
+
+    @Test
+    public void byteBudget() throws Exception {
+        KubernetesEventBuffer<PodEvent> buffer = new KubernetesEventBuffer<PodEvent>(100, 1, OverflowPolicy.DROP_OLDEST);
+        // a single event larger than the budget is still accepted
+        assertTrue(buffer.offer(event("a", Action.ADDED)));
+        assertTrue(buffer.getBytes() > 1);
+        assertFalse(buffer.offer(event("b", Action.ADDED)));
+
+        assertEquals(1, buffer.size());
+        assertEquals(1, buffer.getDroppedCount());
+        assertEquals("b", buffer.poll().getPod().getMetadata().getName());
+        assertEquals(0, buffer.getBytes());
+    }
+
+    @Test
+    public void coalesceWhenFull() throws Exception {
+        KubernetesEventBuffer<PodEvent> buffer = new KubernetesEventBuffer<PodEvent>(2, OverflowPolicy.COALESCE);
+        assertTrue(buffer.offer(event("a", Action.ADDED)));
+        assertTrue(buffer.offer(event("b", Action.MODIFIED)));
+        assertFalse(buffer.offer(event("a", Action.MODIFIED, "2")));
+        assertFalse(buffer.offer(event("b", Action.DELETED)));
+
+        assertEquals(2, buffer.size());
+        assertEquals(2, buffer.getCoalescedCount());
+        PodEvent a = buffer.poll();
+        assertEquals("a", a.getPod().getMetadata().getName());
+        assertEquals(Action.ADDED, a.getAction());
+        assertEquals("2", a.getPod().getMetadata().getResourceVersion());
+        PodEvent b = buffer.poll();
+        assertEquals("b", b.getPod().getMetadata().getName());
+        assertEquals(Action.DELETED, b.getAction());
+    }
+
+    @Test
+    public void coalesceRollout() throws Exception {
+        KubernetesEventBuffer<PodEvent> buffer = new KubernetesEventBuffer<PodEvent>(100, 0, OverflowPolicy.BLOCK, true);
+        buffer.offer(event("a", Action.ADDED, "1"));
+        for (int i = 2; i <= 10; i++) {
+            buffer.offer(event("a", Action.MODIFIED, Integer.toString(i)));
+        }
+        buffer.offer(event("b", Action.MODIFIED, "1"));
+        buffer.offer(event("b", Action.DELETED, "2"));
+        // the object is created again, which must not hide the deletion
+        buffer.offer(event("b", Action.ADDED, "3"));
+        buffer.offer(event("b", Action.MODIFIED, "4"));
+
+        assertEquals(3, buffer.size());
+        assertEquals(11, buffer.getCoalescedCount());
+
+        PodEvent a = buffer.poll();
+        assertEquals(Action.ADDED, a.getAction());
+        assertEquals("10", a.getPod().getMetadata().getResourceVersion());
+        PodEvent deleted = buffer.poll();
+        assertEquals(Action.DELETED, deleted.getAction());
+        assertEquals("2", deleted.getPod().getMetadata().getResourceVersion());
+        PodEvent added = buffer.poll();
+        assertEquals(Action.ADDED, added.getAction());
+        assertEquals("4", added.getPod().getMetadata().getResourceVersion());
+        assertTrue(deleted.getSequence() < added.getSequence());
+
+        // once delivered, a new change is a new event
+        buffer.offer(event("a", Action.MODIFIED, "11"));
+        assertEquals(Action.MODIFIED, buffer.poll().getAction());
+    }
+
+    @Test
+    public void backPressureStatistics() throws Exception {
+        final KubernetesEventBuffer<PodEvent> buffer = new KubernetesEventBuffer<PodEvent>(1, OverflowPolicy.COALESCE);
+        buffer.offer(event("a", Action.ADDED));
+        assertTrue(buffer.isBackPressureActive());
+
+        // nothing is pending for b so it cannot be coalesced and the watch has to wait
+        Thread producer = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    buffer.offer(event("b", Action.ADDED));
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        });
+        producer.start();
+        while (buffer.getBlockedCount() == 0) {
+            Thread.sleep(10);
+        }
+        buffer.poll();
+        producer.join(5000);
+
+        assertEquals(1, buffer.getBlockedCount());
+        assertEquals("b", buffer.poll().getPod().getMetadata().getName());
+        assertFalse(buffer.isBackPressureActive());
+    }
+
+    @Test
+    public void stressManyWatchThreadsOneConsumer() throws Exception {
+        final int producers = 4;
+        final int eventsPerProducer = 250000;
+        final KubernetesEventBuffer<PodEvent> buffer = new KubernetesEventBuffer<PodEvent>(4096, OverflowPolicy.BLOCK);
+        final AtomicBoolean failed = new AtomicBoolean();
+
+        // each producer plays a watch thread emitting a strictly increasing resource version
+        List<Thread> threads = new ArrayList<Thread>();
+        for (int p = 0; p < producers; p++) {
+            final String name = "pod-" + p;
+            threads.add(new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        for (int i = 0; i < eventsPerProducer; i++) {
+                            PodEvent pe = event(name, Action.MODIFIED);
+                            pe.getPod().getMetadata().setResourceVersion(Integer.toString(i));
+                            buffer.offer(pe);
+                        }
+                    } catch (InterruptedException e) {
+                        failed.set(true);
+                    }
+                }
+            }));
+        }
+
+        long start = System.nanoTime();
+        for (Thread t : threads) {
+            t.start();
+        }
+
+        int[] lastVersion = new int[producers];
+        Arrays.fill(lastVersion, -1);
+        long lastSequence = 0;
+        int received = 0;
+        while (received < producers * eventsPerProducer) {
+            PodEvent pe = buffer.poll(10, TimeUnit.SECONDS);
+            if (pe == null) {
+                fail("Timed out after receiving " + received + " events");
+            }
+            assertTrue("Sequence must be strictly increasing", pe.getSequence() > lastSequence);
+            lastSequence = pe.getSequence();
+
+            int p = Integer.parseInt(pe.getPod().getMetadata().getName().substring(4));
+            int version = Integer.parseInt(pe.getPod().getMetadata().getResourceVersion());
+            assertEquals("Events of a watch must not be lost or reordered", lastVersion[p] + 1, version);
+            lastVersion[p] = version;
+            received++;
+        }
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        for (Thread t : threads) {
+            t.join();
+        }
+
+        assertFalse(failed.get());
+        assertEquals(0, buffer.size());
+        assertEquals(0, buffer.getDroppedCount());
+        LOG.info("Moved {} events through the buffer in {} ms", received, elapsedMillis);
+        // 1 million events in at most 10 seconds is at least 100k events/s
+        assertTrue("Throughput too low: " + received + " events in " + elapsedMillis + " ms", elapsedMillis < 10000);
+    }
+
+    private static PodEvent event(String name, Action action) {
+        return event(name, action, "1");
+    }
+
+    private static PodEvent event(String name, String namespace) {
+        PodEvent event = event(name, Action.ADDED, "1");
+        event.getPod().getMetadata().setNamespace(namespace);
+        return event;
+    }
+
+    private static PodEvent event(String name, Action action, String resourceVersion) {
+        Pod pod = new Pod();
+        ObjectMeta meta = new ObjectMeta();
+        meta.setName(name);
+        meta.setNamespace("default");
+        meta.setResourceVersion(resourceVersion);
+        pod.setMetadata(meta);
+        return new PodEvent(action, pod);
+    }
+}
@@ -0,0 +1,154 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.component.kubernetes.consumer.common;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+
+import io.fabric8.kubernetes.api.model.Pod;
+import io.fabric8.kubernetes.client.KubernetesClientException;
+import io.fabric8.kubernetes.client.Watcher;
+import io.fabric8.kubernetes.client.Watcher.Action;
+
+import org.apache.camel.component.kubernetes.StubPods;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class ResumableWatchTest {
+
+    private ScheduledExecutorService scheduler;
+    private StubPods pods;
+    private RecordingWatcher recorder;
+    private ResumableWatch<Pod> watch;
+
+    @Before
+    public void setUp() {
+        scheduler = Executors.newSingleThreadScheduledExecutor();
+        pods = new StubPods();
+        recorder = new RecordingWatcher();
+        watch = new ResumableWatch<Pod>(pods, Pod.class, recorder, scheduler, 1, 10);
+    }
+
+    @After
+    public void tearDown() {
+        watch.close();
+        scheduler.shutdownNow();
+    }
+
+    @Test
+    public void resumeFromLastResourceVersion() throws Exception {
+        watch.start(null);
+        assertNull(pods.getVersions().get(0));
+
+        pods.current().eventReceived(Action.ADDED, pod("a", "10"));
+        pods.current().eventReceived(Action.MODIFIED, pod("a", "11"));
+        pods.current().onClose(new KubernetesClientException("Connection unexpectedly closed"));
+
+        pods.awaitWatches(2);
+        assertEquals("11", pods.getVersions().get(1));
+        for (int i = 0; i < 500 && watch.getReconnectCount() == 0; i++) {
+            Thread.sleep(10);
+        }
+        assertEquals(1, watch.getReconnectCount());
+        assertEquals(0, watch.getRelistCount());
+        assertEquals(1, recorder.closed.size());
+    }
+
+    @Test
+    public void relistWhenVersionTooOld() throws Exception {
+        watch.start(null);
+        pods.current().eventReceived(Action.ADDED, pod("a", "10"));
+        pods.current().eventReceived(Action.ADDED, pod("b", "11"));
+        pods.current().eventReceived(Action.ADDED, pod("c", "12"));
+        recorder.events.clear();
+        recorder.resources.clear();
+
+        // while disconnected a was left alone, b changed, c was deleted and d created
+        pods.setItems(Arrays.asList(pod("a", "10"), pod("b", "20"), pod("d", "21")));
+        pods.setListVersion("25");
+        pods.current().onClose(new KubernetesClientException("too old resource version", 410, null));
+
+        pods.awaitWatches(2);
+        assertEquals("25", pods.getVersions().get(1));
+        assertEquals(1, watch.getRelistCount());
+        assertEquals(3, recorder.events.size());
+        assertEquals("MODIFIED b", recorder.events.get(0));
+        assertEquals("ADDED d", recorder.events.get(1));
+        assertEquals("DELETED c", recorder.events.get(2));
+        assertTrue(ResumableWatch.isTombstone(recorder.resources.get(2)));
+        assertFalse(ResumableWatch.isTombstone(recorder.resources.get(0)));
+    }
+
+    @Test
+    public void reconnectWithoutRelistOnOtherErrors() throws Exception {
+        watch.start(null);
+        pods.current().eventReceived(Action.ADDED, pod("a", "10"));
+        pods.current().eventReceived(Action.ERROR, pod("a", "10"));
+
+        pods.awaitWatches(2);
+        assertEquals("10", pods.getVersions().get(1));
+
+        pods.current().onClose(new KubernetesClientException("Gone: too old resource version"));
+        pods.awaitWatches(3);
+        assertEquals("10", pods.getVersions().get(2));
+        assertEquals(0, watch.getRelistCount());
+    }
+
+    @Test
+    public void resumeFromCheckpointTooOld() throws Exception {
+        pods.setRejectVersion("5");
+        pods.setItems(Arrays.asList(pod("a", "10")));
+        pods.setListVersion("12");
+
+        watch.start("5");
+
+        assertEquals("12", watch.getResourceVersion());
+        assertEquals(Arrays.asList("5", "12"), pods.getVersions());
+        assertEquals(Arrays.asList("ADDED a"), recorder.events);
+    }
+
+    private static Pod pod(String name, String resourceVersion) {
+        return StubPods.pod("default", name, resourceVersion);
+    }
+
+    private static final class RecordingWatcher implements Watcher<Pod> {
+
+        private final List<String> events = new CopyOnWriteArrayList<String>();
+        private final List<Pod> resources = new CopyOnWriteArrayList<Pod>();
+        private final List<KubernetesClientException> closed = new CopyOnWriteArrayList<KubernetesClientException>();
+
+        @Override
+        public void eventReceived(Action action, Pod resource) {
+            events.add(action + " " + resource.getMetadata().getName());
+            resources.add(resource);
+        }
+
+        @Override
+        public void onClose(KubernetesClientException cause) {
+            closed.add(cause);
+        }
+    }
+}
@@ -0,0 +1,183 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.component.kubernetes.producer;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.apache.camel.AsyncCallback;
+import org.apache.camel.CamelContext;
+import org.apache.camel.Exchange;
+import org.apache.camel.component.kubernetes.KubernetesEndpoint;
+import org.apache.camel.impl.DefaultCamelContext;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class KubernetesAsyncProducerTest {
+
+    private CamelContext context;
+
+    @Before
+    public void setUp() throws Exception {
+        context = new DefaultCamelContext();
+        context.start();
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        context.stop();
+    }
+
+    @Test
+    public void operationRunsOffTheCallingThread() throws Exception {
+        RecordingProducer producer = new RecordingProducer(
+                context.getEndpoint("kubernetes:http://localhost:8080?category=pods", KubernetesEndpoint.class));
+        producer.start();
+        try {
+            Exchange exchange = producer.getEndpoint().createExchange();
+            final CountDownLatch done = new CountDownLatch(1);
+            final AtomicReference<Boolean> doneSync = new AtomicReference<Boolean>();
+            boolean sync = producer.process(exchange, new AsyncCallback() {
+                @Override
+                public void done(boolean completedSync) {
+                    doneSync.set(completedSync);
+                    done.countDown();
+                }
+            });
+
+            assertFalse(sync);
+            assertTrue(done.await(5, TimeUnit.SECONDS));
+            assertFalse(doneSync.get());
+            assertNotSame(Thread.currentThread(), producer.thread.get());
+            assertEquals("done", exchange.getOut().getBody());
+        } finally {
+            producer.stop();
+        }
+    }
+
+    @Test
+    public void synchronousEndpointRunsOnCallingThread() throws Exception {
+        RecordingProducer producer = new RecordingProducer(context.getEndpoint(
+                "kubernetes:http://localhost:8080?category=pods&synchronous=true", KubernetesEndpoint.class));
+        producer.start();
+        try {
+            Exchange exchange = producer.getEndpoint().createExchange();
+            assertTrue(producer.process(exchange, new AsyncCallback() {
+                @Override
+                public void done(boolean doneSync) {
+                }
+            }));
+            assertSame(Thread.currentThread(), producer.thread.get());
+        } finally {
+            producer.stop();
+        }
+    }
+
+    @Test
+    public void exchangeSentWhileStoppingRunsOnCallingThread() throws Exception {
+        final RecordingProducer producer = new RecordingProducer(context.getEndpoint(
+                "kubernetes:http://localhost:8080?category=pods&producerPoolSize=1", KubernetesEndpoint.class));
+        producer.block = new CountDownLatch(1);
+        producer.start();
+        Thread stopper = new Thread() {
+            @Override
+            public void run() {
+                try {
+                    producer.stop();
+                } catch (Exception e) {
+                    throw new IllegalStateException(e);
+                }
+            }
+        };
+        try {
+            producer.process(producer.getEndpoint().createExchange(), new AsyncCallback() {
+                @Override
+                public void done(boolean doneSync) {
+                }
+            });
+            // the pool refuses new tasks while it waits for the running one
+            stopper.start();
+            Thread.sleep(200);
+
+            Exchange exchange = producer.getEndpoint().createExchange();
+            final CountDownLatch done = new CountDownLatch(1);
+            assertTrue(producer.process(exchange, new AsyncCallback() {
+                @Override
+                public void done(boolean doneSync) {
+                    done.countDown();
+                }
+            }));
+            assertTrue(done.await(5, TimeUnit.SECONDS));
+            assertSame(Thread.currentThread(), producer.thread.get());
+        } finally {
+            producer.block.countDown();
+            stopper.join(10000);
+        }
+    }
+
+    @Test
+    public void failureIsSetOnExchange() throws Exception {
+        RecordingProducer producer = new RecordingProducer(
+                context.getEndpoint("kubernetes:http://localhost:8080?category=pods", KubernetesEndpoint.class));
+        producer.failure = new IllegalArgumentException("Unsupported operation");
+        producer.start();
+        try {
+            Exchange exchange = producer.getEndpoint().createExchange();
+            producer.process(exchange);
+            assertSame(producer.failure, exchange.getException());
+        } finally {
+            producer.stop();
+        }
+    }
+
+    private static final class RecordingProducer extends AbstractKubernetesProducer {
+
+        private final AtomicReference<Thread> thread = new AtomicReference<Thread>();
+        private volatile Exception failure;
+        private volatile CountDownLatch block;
+
+        private RecordingProducer(KubernetesEndpoint endpoint) {
+            super(endpoint);
+        }
+
+        @Override
+        protected void doProcess(Exchange exchange) throws Exception {
+            thread.set(Thread.currentThread());
+            CountDownLatch latch = block;
+            if (latch != null && Thread.currentThread().getName().contains("KubernetesProducer")) {
+                latch.await();
+            }
+            if (failure != null) {
+                throw failure;
+            }
+            exchange.getOut().setBody("done");
+        }
+
+        @Override
+        protected Operation resolveOperation(String operation) {
+            return null;
+        }
+    }
+}
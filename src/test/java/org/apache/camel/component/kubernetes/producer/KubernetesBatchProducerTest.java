@@ -0,0 +1,200 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.component.kubernetes.producer;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import io.fabric8.kubernetes.api.model.Pod;
+import io.fabric8.kubernetes.api.model.Secret;
+import io.fabric8.kubernetes.api.model.SecretBuilder;
+
+import org.apache.camel.CamelContext;
+import org.apache.camel.Exchange;
+import org.apache.camel.component.kubernetes.KubernetesConstants;
+import org.apache.camel.component.kubernetes.KubernetesEndpoint;
+import org.apache.camel.component.kubernetes.StubPods;
+import org.apache.camel.impl.DefaultCamelContext;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class KubernetesBatchProducerTest {
+
+    private CamelContext context;
+
+    @Before
+    public void setUp() throws Exception {
+        context = new DefaultCamelContext();
+        context.start();
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        context.stop();
+    }
+
+    @Test
+    public void createAnswersResultPerItemInOrder() throws Exception {
+        CountingProducer producer = new CountingProducer(endpoint("pods&batchConcurrency=3"));
+        producer.start();
+        try {
+            List<Pod> pods = Arrays.asList(StubPods.pod("default", "a", "1"), StubPods.pod("default", "b", "2"),
+                    StubPods.pod("default", "fail", "3"), StubPods.pod("default", "c", "4"));
+            Exchange exchange = batch(producer, KubernetesOperations.CREATE_PODS_OPERATION, pods);
+
+            List<KubernetesBatchResult> results = exchange.getOut().getBody(List.class);
+            assertEquals(4, results.size());
+            for (int i = 0; i < pods.size(); i++) {
+                assertSame(pods.get(i), results.get(i).getItem());
+            }
+            assertEquals("created a", results.get(0).getResult());
+            assertTrue(results.get(2).isFailed());
+            assertNull(results.get(2).getResult());
+            assertFalse(results.get(3).isFailed());
+            assertEquals(1, exchange.getOut().getHeader(KubernetesConstants.KUBERNETES_BATCH_FAILURES));
+            assertNull(exchange.getException());
+        } finally {
+            producer.stop();
+        }
+    }
+
+    @Test
+    public void concurrencyIsBounded() throws Exception {
+        CountingProducer producer = new CountingProducer(endpoint("pods&batchConcurrency=3"));
+        producer.delay = 20;
+        producer.start();
+        try {
+            Pod[] pods = new Pod[30];
+            for (int i = 0; i < pods.length; i++) {
+                pods[i] = StubPods.pod("default", "pod-" + i, "" + i);
+            }
+            Exchange exchange = batch(producer, KubernetesOperations.DELETE_PODS_OPERATION, pods);
+
+            assertEquals(0, exchange.getOut().getHeader(KubernetesConstants.KUBERNETES_BATCH_FAILURES));
+            assertEquals(30, producer.calls.get());
+            assertEquals(3, producer.maxActive.get());
+        } finally {
+            producer.stop();
+        }
+    }
+
+    @Test
+    public void invalidItemsFailWithoutCallingServer() throws Exception {
+        KubernetesSecretsProducer producer = new KubernetesSecretsProducer(endpoint("secrets"));
+        producer.start();
+        try {
+            Secret secret = new SecretBuilder().withNewMetadata().withName("s").endMetadata().build();
+            Exchange exchange = batch(producer, KubernetesOperations.CREATE_SECRETS_OPERATION,
+                    Arrays.asList("not-a-secret", secret));
+
+            List<KubernetesBatchResult> results = exchange.getOut().getBody(List.class);
+            assertTrue(results.get(0).getException() instanceof IllegalArgumentException);
+            // no namespace in the metadata nor the header
+            assertTrue(results.get(1).getException() instanceof IllegalArgumentException);
+            assertEquals(2, exchange.getOut().getHeader(KubernetesConstants.KUBERNETES_BATCH_FAILURES));
+        } finally {
+            producer.stop();
+        }
+    }
+
+    private KubernetesEndpoint endpoint(String category) {
+        return context.getEndpoint("kubernetes:http://localhost:8080?synchronous=true&category=" + category,
+                KubernetesEndpoint.class);
+    }
+
+    private static Exchange batch(AbstractKubernetesProducer producer, String operation, Object body) throws Exception {
+        Exchange exchange = producer.getEndpoint().createExchange();
+        exchange.getIn().setHeader(KubernetesConstants.KUBERNETES_OPERATION, operation);
+        exchange.getIn().setBody(body);
+        producer.process(exchange);
+        return exchange;
+    }
+
+    private static final class CountingProducer extends AbstractKubernetesProducer {
+
+        private final AtomicInteger calls = new AtomicInteger();
+        private final AtomicInteger active = new AtomicInteger();
+        private final AtomicInteger maxActive = new AtomicInteger();
+        private volatile long delay;
+
+        private CountingProducer(KubernetesEndpoint endpoint) {
+            super(endpoint);
+        }
+
+        @Override
+        protected Operation resolveOperation(String operation) {
+            switch (operation) {
+            case KubernetesOperations.CREATE_PODS_OPERATION:
+                return new Operation() {
+                    @Override
+                    public void execute(Exchange exchange, String operation) throws Exception {
+                        doBatchCreate(exchange, operation);
+                    }
+                };
+            case KubernetesOperations.DELETE_PODS_OPERATION:
+                return new Operation() {
+                    @Override
+                    public void execute(Exchange exchange, String operation) throws Exception {
+                        doBatchDelete(exchange, operation);
+                    }
+                };
+            default:
+                return null;
+            }
+        }
+
+        @Override
+        protected Object createItem(Object item, String namespaceName) {
+            return call("created", (Pod) item);
+        }
+
+        @Override
+        protected Object deleteItem(Object item, String namespaceName) {
+            return call("deleted", (Pod) item);
+        }
+
+        private Object call(String what, Pod pod) {
+            calls.incrementAndGet();
+            int now = active.incrementAndGet();
+            int max;
+            while (now > (max = maxActive.get()) && !maxActive.compareAndSet(max, now)) {
+                // retry
+            }
+            try {
+                if (delay > 0) {
+                    Thread.sleep(delay);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                active.decrementAndGet();
+            }
+            if ("fail".equals(pod.getMetadata().getName())) {
+                throw new IllegalStateException("Cannot " + what + " " + pod.getMetadata().getName());
+            }
+            return what + " " + pod.getMetadata().getName();
+        }
+    }
+}
@@ -0,0 +1,115 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.component.kubernetes.producer;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.camel.Exchange;
+import org.apache.camel.component.kubernetes.KubernetesConstants;
+import org.apache.camel.component.kubernetes.KubernetesEndpoint;
+import org.apache.camel.component.kubernetes.KubernetesMockServerTestSupport;
+import org.apache.camel.impl.DefaultExchange;
+import org.apache.camel.util.ServiceHelper;
+import org.junit.Test;
+
+public class KubernetesCachedListProducerTest extends KubernetesMockServerTestSupport {
+
+    private AbstractKubernetesProducer producer;
+
+    @Override
+    public void setUp() throws Exception {
+        super.setUp();
+        server.addPods("default", 2, 1, Collections.<String, String>emptyMap());
+        server.addPods("other", 3, 1, Collections.<String, String>emptyMap());
+    }
+
+    @Override
+    public void tearDown() throws Exception {
+        ServiceHelper.stopService(producer);
+        super.tearDown();
+    }
+
+    @Test
+    public void listFromTheCacheOfAllNamespaces() throws Exception {
+        producer = producer("category=pods&useCache=true");
+        long requests = server.getRequestCount();
+        assertEquals(5, listPods().size());
+        assertEquals(0, server.getRequestCount() - requests);
+    }
+
+    @Test
+    public void namespacedCacheDoesNotAnswerTheListOfAllNamespaces() throws Exception {
+        producer = producer("category=pods&useCache=true&namespaceName=default");
+        long requests = server.getRequestCount();
+        assertEquals(5, listPods().size());
+        assertEquals(1, server.getRequestCount() - requests);
+    }
+
+    @Test
+    public void namespacedCacheDoesNotAnswerTheLabelListOfAllNamespaces() throws Exception {
+        producer = producer("category=pods&useCache=true&namespaceName=default");
+        long requests = server.getRequestCount();
+        assertEquals(5, listPodsByLabels(Collections.singletonMap("group", "group-0")).size());
+        assertEquals(1, server.getRequestCount() - requests);
+
+        ServiceHelper.stopService(producer);
+        producer = producer("category=pods&useCache=true");
+        requests = server.getRequestCount();
+        assertEquals(5, listPodsByLabels(Collections.singletonMap("group", "group-0")).size());
+        assertEquals(0, server.getRequestCount() - requests);
+    }
+
+    @Test
+    public void resourcesQuotaCannotBeCached() throws Exception {
+        try {
+            producer = producer("category=resourcesQuota&useCache=true");
+            fail("Should not cache resources the watch cannot keep up to date");
+        } catch (IllegalArgumentException e) {
+            assertTrue(e.getMessage().contains("resourcesQuota"));
+        }
+    }
+
+    private AbstractKubernetesProducer producer(String options) throws Exception {
+        KubernetesEndpoint endpoint = context.getEndpoint(kubernetesUri(options), KubernetesEndpoint.class);
+        AbstractKubernetesProducer created = (AbstractKubernetesProducer) endpoint.createProducer();
+        ServiceHelper.startService(created);
+        return created;
+    }
+
+    private List<?> listPods() throws Exception {
+        Exchange exchange = new DefaultExchange(context);
+        exchange.getIn().setHeader(KubernetesConstants.KUBERNETES_OPERATION, KubernetesOperations.LIST_PODS_OPERATION);
+        return process(exchange);
+    }
+
+    private List<?> listPodsByLabels(Map<String, String> labels) throws Exception {
+        Exchange exchange = new DefaultExchange(context);
+        exchange.getIn().setHeader(KubernetesConstants.KUBERNETES_OPERATION, KubernetesOperations.LIST_PODS_BY_LABELS_OPERATION);
+        exchange.getIn().setHeader(KubernetesConstants.KUBERNETES_PODS_LABELS, labels);
+        return process(exchange);
+    }
+
+    private List<?> process(Exchange exchange) throws Exception {
+        producer.process(exchange);
+        if (exchange.getException() != null) {
+            throw exchange.getException();
+        }
+        return exchange.getOut().getBody(List.class);
+    }
+}
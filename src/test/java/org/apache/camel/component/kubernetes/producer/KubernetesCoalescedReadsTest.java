@@ -0,0 +1,156 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.component.kubernetes.producer;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import io.fabric8.kubernetes.api.model.Pod;
+
+import org.apache.camel.Exchange;
+import org.apache.camel.component.kubernetes.KubernetesConstants;
+import org.apache.camel.component.kubernetes.KubernetesEndpoint;
+import org.apache.camel.component.kubernetes.KubernetesMockServerTestSupport;
+import org.apache.camel.impl.DefaultExchange;
+import org.apache.camel.util.ServiceHelper;
+import org.junit.Test;
+
+public class KubernetesCoalescedReadsTest extends KubernetesMockServerTestSupport {
+
+    private static final int CALLERS = 8;
+
+    private AbstractKubernetesProducer producer;
+    private ExecutorService callers;
+
+    @Override
+    public void setUp() throws Exception {
+        super.setUp();
+        server.addPods("default", 4, 2, Collections.<String, String>emptyMap());
+        KubernetesEndpoint endpoint = context.getEndpoint(kubernetesUri("category=pods&coalesceReads=true"),
+                KubernetesEndpoint.class);
+        producer = (AbstractKubernetesProducer) endpoint.createProducer();
+        ServiceHelper.startService(producer);
+        callers = Executors.newFixedThreadPool(CALLERS);
+        server.setLatency(300);
+    }
+
+    @Override
+    public void tearDown() throws Exception {
+        callers.shutdownNow();
+        ServiceHelper.stopService(producer);
+        super.tearDown();
+    }
+
+    @Test
+    public void identicalGetsShareOneRequest() throws Exception {
+        long requests = server.getRequestCount();
+        List<Exchange> exchanges = runAtOnce(new Request() {
+            @Override
+            public void prepare(Exchange exchange, int caller) {
+                exchange.getIn().setHeader(KubernetesConstants.KUBERNETES_OPERATION, KubernetesOperations.GET_POD_OPERATION);
+                exchange.getIn().setHeader(KubernetesConstants.KUBERNETES_NAMESPACE_NAME, "default");
+                exchange.getIn().setHeader(KubernetesConstants.KUBERNETES_POD_NAME, "pod-1");
+            }
+        });
+
+        for (Exchange exchange : exchanges) {
+            assertEquals("pod-1", exchange.getOut().getBody(Pod.class).getMetadata().getName());
+        }
+        assertEquals(1, server.getRequestCount() - requests);
+        assertEquals(CALLERS - 1, producer.getCoalescedReads());
+    }
+
+    @Test
+    public void identicalListsByLabelsShareOneRequest() throws Exception {
+        long requests = server.getRequestCount();
+        List<Exchange> exchanges = runAtOnce(new Request() {
+            @Override
+            public void prepare(Exchange exchange, int caller) {
+                exchange.getIn().setHeader(KubernetesConstants.KUBERNETES_OPERATION,
+                        KubernetesOperations.LIST_PODS_BY_LABELS_OPERATION);
+                exchange.getIn().setHeader(KubernetesConstants.KUBERNETES_PODS_LABELS,
+                        Collections.singletonMap("group", "group-0"));
+            }
+        });
+
+        List<?> first = exchanges.get(0).getOut().getBody(List.class);
+        assertEquals(2, first.size());
+        for (Exchange exchange : exchanges.subList(1, exchanges.size())) {
+            List<?> pods = exchange.getOut().getBody(List.class);
+            assertEquals(first, pods);
+            assertNotSame(first, pods);
+        }
+        assertEquals(1, server.getRequestCount() - requests);
+    }
+
+    @Test
+    public void differentReadsAreNotShared() throws Exception {
+        long requests = server.getRequestCount();
+        List<Exchange> exchanges = runAtOnce(new Request() {
+            @Override
+            public void prepare(Exchange exchange, int caller) {
+                exchange.getIn().setHeader(KubernetesConstants.KUBERNETES_OPERATION, KubernetesOperations.GET_POD_OPERATION);
+                exchange.getIn().setHeader(KubernetesConstants.KUBERNETES_NAMESPACE_NAME, "default");
+                exchange.getIn().setHeader(KubernetesConstants.KUBERNETES_POD_NAME, "pod-" + (caller % 2));
+            }
+        });
+
+        for (int i = 0; i < exchanges.size(); i++) {
+            assertEquals("pod-" + (i % 2), exchanges.get(i).getOut().getBody(Pod.class).getMetadata().getName());
+        }
+        assertEquals(2, server.getRequestCount() - requests);
+    }
+
+    private List<Exchange> runAtOnce(final Request request) throws Exception {
+        final CountDownLatch start = new CountDownLatch(1);
+        List<Future<Exchange>> futures = new ArrayList<Future<Exchange>>();
+        for (int i = 0; i < CALLERS; i++) {
+            final int caller = i;
+            futures.add(callers.submit(new Callable<Exchange>() {
+                @Override
+                public Exchange call() throws Exception {
+                    Exchange exchange = new DefaultExchange(context);
+                    request.prepare(exchange, caller);
+                    start.await();
+                    producer.process(exchange);
+                    return exchange;
+                }
+            }));
+        }
+        start.countDown();
+        List<Exchange> exchanges = new ArrayList<Exchange>();
+        for (Future<Exchange> future : futures) {
+            Exchange exchange = future.get();
+            if (exchange.getException() != null) {
+                throw exchange.getException();
+            }
+            exchanges.add(exchange);
+        }
+        return exchanges;
+    }
+
+    private interface Request {
+
+        void prepare(Exchange exchange, int caller);
+    }
+}
@@ -0,0 +1,98 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.component.kubernetes.producer;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.junit.After;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+
+public class KubernetesFanOutIteratorTest {
+
+    private final ExecutorService executor = Executors.newFixedThreadPool(2);
+
+    @After
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void mergesAllSources() throws Exception {
+        List<Iterator<Integer>> sources = new ArrayList<Iterator<Integer>>();
+        List<Integer> expected = new ArrayList<Integer>();
+        for (int i = 0; i < 5; i++) {
+            List<Integer> items = new ArrayList<Integer>();
+            for (int j = 0; j < 100; j++) {
+                items.add(i * 100 + j);
+            }
+            expected.addAll(items);
+            sources.add(items.iterator());
+        }
+        sources.add(Collections.<Integer>emptyList().iterator());
+
+        List<Integer> merged = new ArrayList<Integer>();
+        // a small read ahead makes the tasks wait for the reader
+        for (KubernetesFanOutIterator<Integer> it = new KubernetesFanOutIterator<Integer>(executor, sources, 3); it.hasNext();) {
+            merged.add(it.next());
+        }
+        Collections.sort(merged);
+        assertEquals(expected, merged);
+    }
+
+    @Test
+    public void failureEndsTheIteration() throws Exception {
+        final IllegalStateException failure = new IllegalStateException("forbidden");
+        Iterator<Integer> failing = new Iterator<Integer>() {
+            @Override
+            public boolean hasNext() {
+                throw failure;
+            }
+
+            @Override
+            public Integer next() {
+                throw failure;
+            }
+
+            @Override
+            public void remove() {
+                throw new UnsupportedOperationException();
+            }
+        };
+        KubernetesFanOutIterator<Integer> it = new KubernetesFanOutIterator<Integer>(executor,
+                Arrays.asList(Arrays.asList(1, 2).iterator(), failing), 10);
+        try {
+            while (it.hasNext()) {
+                it.next();
+            }
+            fail("Should have thrown the failure of the source");
+        } catch (IllegalStateException e) {
+            assertSame(failure, e);
+        }
+        assertFalse(it.hasNext());
+    }
+}
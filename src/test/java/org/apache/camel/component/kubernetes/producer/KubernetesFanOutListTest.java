@@ -0,0 +1,132 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.component.kubernetes.producer;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+
+import io.fabric8.kubernetes.api.model.Pod;
+
+import org.apache.camel.Exchange;
+import org.apache.camel.Processor;
+import org.apache.camel.builder.RouteBuilder;
+import org.apache.camel.component.kubernetes.KubernetesConstants;
+import org.apache.camel.component.kubernetes.KubernetesMockServerTestSupport;
+import org.apache.camel.component.mock.MockEndpoint;
+import org.junit.Test;
+
+public class KubernetesFanOutListTest extends KubernetesMockServerTestSupport {
+
+    @Override
+    public void setUp() throws Exception {
+        super.setUp();
+        for (String namespace : new String[] {"tenant-1", "tenant-2", "tenant-3"}) {
+            server.addPods(namespace, 10, 2, Collections.singletonMap("tenant", namespace));
+        }
+    }
+
+    @Test
+    public void listInSeveralNamespaces() throws Exception {
+        long requests = server.getRequestCount();
+        Exchange exchange = template.request("direct:list", new NamespaceNames("tenant-1, tenant-3"));
+
+        List<Pod> pods = exchange.getOut().getBody(List.class);
+        assertEquals(20, pods.size());
+        assertEquals(Collections.singletonList("tenant-1"), namespaces(pods.subList(0, 10)));
+        assertEquals(Collections.singletonList("tenant-3"), namespaces(pods.subList(10, 20)));
+        assertEquals(2, server.getRequestCount() - requests);
+    }
+
+    @Test
+    public void listByLabelsInSeveralNamespaces() throws Exception {
+        Exchange exchange = template.request("direct:listByLabels", new NamespaceNames("tenant-1,tenant-2") {
+            @Override
+            public void process(Exchange exchange) throws Exception {
+                super.process(exchange);
+                exchange.getIn().setHeader(KubernetesConstants.KUBERNETES_PODS_LABELS,
+                        Collections.singletonMap("group", "group-0"));
+            }
+        });
+
+        List<Pod> pods = exchange.getOut().getBody(List.class);
+        assertEquals(10, pods.size());
+        for (Pod pod : pods) {
+            assertEquals("group-0", pod.getMetadata().getLabels().get("group"));
+        }
+    }
+
+    @Test
+    public void streamSeveralNamespaces() throws Exception {
+        MockEndpoint mock = getMockEndpoint("mock:pods");
+        mock.expectedMessageCount(30);
+        mock.allMessages().body().isInstanceOf(Pod.class);
+
+        Exchange exchange = template.request("direct:split", new NamespaceNames("tenant-1,tenant-2,tenant-3"));
+
+        assertIsInstanceOf(KubernetesFanOutIterator.class, exchange.getOut().getBody());
+        mock.assertIsSatisfied();
+    }
+
+    @Test
+    public void unreadStreamIsClosedWithTheExchange() throws Exception {
+        Exchange exchange = template.request("direct:stream", new NamespaceNames("tenant-1,tenant-2,tenant-3"));
+
+        Iterator<Pod> it = exchange.getOut().getBody(Iterator.class);
+        assertIsInstanceOf(KubernetesFanOutIterator.class, it);
+        assertFalse(it.hasNext());
+    }
+
+    private static List<String> namespaces(List<Pod> pods) {
+        List<String> namespaces = new ArrayList<String>();
+        for (Pod pod : pods) {
+            if (!namespaces.contains(pod.getMetadata().getNamespace())) {
+                namespaces.add(pod.getMetadata().getNamespace());
+            }
+        }
+        return namespaces;
+    }
+
+    @Override
+    protected RouteBuilder createRouteBuilder() throws Exception {
+        return new RouteBuilder() {
+            @Override
+            public void configure() throws Exception {
+                from("direct:list").to(kubernetesUri("category=pods&operation=listPods"));
+                from("direct:listByLabels").to(kubernetesUri("category=pods&operation=listPodsByLabels"));
+                from("direct:stream").to(kubernetesUri("category=pods&operation=listPods&listPageSize=4"));
+                from("direct:split").to(kubernetesUri("category=pods&operation=listPods&listPageSize=4"))
+                        .split(body()).streaming().to("mock:pods");
+            }
+        };
+    }
+
+    private static class NamespaceNames implements Processor {
+
+        private final String names;
+
+        NamespaceNames(String names) {
+            this.names = names;
+        }
+
+        @Override
+        public void process(Exchange exchange) throws Exception {
+            exchange.getIn().setHeader(KubernetesConstants.KUBERNETES_NAMESPACE_NAMES, names);
+        }
+    }
+}
@@ -0,0 +1,115 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.component.kubernetes.producer;
+
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.camel.CamelContext;
+import org.apache.camel.Exchange;
+import org.apache.camel.component.kubernetes.KubernetesConstants;
+import org.apache.camel.component.kubernetes.KubernetesEndpoint;
+import org.apache.camel.component.kubernetes.KubernetesMockServer;
+import org.apache.camel.impl.DefaultCamelContext;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures <tt>listPodsByLabels</tt> through the pods producer against the
+ * {@link KubernetesMockServer}, answering the whole list at once or as a
+ * paged iterator which is drained by the benchmark.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class KubernetesListByLabelsBenchmark {
+
+    /**
+     * Number of pods held by the server, a tenth of which match the labels
+     */
+    @Param({"1000", "10000"})
+    public int pods;
+
+    /**
+     * Page size of the list, 0 to list at once
+     */
+    @Param({"0", "500"})
+    public int listPageSize;
+
+    private KubernetesMockServer server;
+    private CamelContext context;
+    private KubernetesPodsProducer producer;
+    private Map<String, String> labels;
+
+    @Setup
+    public void setUp() throws Exception {
+        server = new KubernetesMockServer();
+        server.start();
+        server.addPods("default", pods, 10, Collections.singletonMap("app", "benchmark"));
+        labels = Collections.singletonMap("group", "group-3");
+
+        context = new DefaultCamelContext();
+        context.start();
+        KubernetesEndpoint endpoint = context.getEndpoint("kubernetes:" + server.getUrl()
+                + "?category=pods&operation=listPodsByLabels&synchronous=true&listPageSize=" + listPageSize,
+                KubernetesEndpoint.class);
+        producer = (KubernetesPodsProducer) endpoint.createProducer();
+        producer.start();
+    }
+
+    @TearDown
+    public void tearDown() throws Exception {
+        producer.stop();
+        context.stop();
+        server.stop();
+    }
+
+    @Benchmark
+    public int listPodsByLabels() throws Exception {
+        Exchange exchange = producer.getEndpoint().createExchange();
+        exchange.getIn().setHeader(KubernetesConstants.KUBERNETES_PODS_LABELS, labels);
+        producer.process(exchange);
+        if (exchange.getException() != null) {
+            throw exchange.getException();
+        }
+        Object body = exchange.getOut().getBody();
+        if (body instanceof List) {
+            return ((List<?>) body).size();
+        }
+        int count = 0;
+        for (Iterator<?> it = (Iterator<?>) body; it.hasNext(); it.next()) {
+            count++;
+        }
+        return count;
+    }
+}
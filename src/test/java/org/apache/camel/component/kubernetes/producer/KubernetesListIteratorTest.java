@@ -0,0 +1,127 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.component.kubernetes.producer;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import io.fabric8.kubernetes.api.model.Pod;
+import io.fabric8.kubernetes.client.ConfigBuilder;
+import io.fabric8.kubernetes.client.DefaultKubernetesClient;
+
+import org.apache.camel.component.kubernetes.KubernetesCategory;
+import org.apache.camel.component.kubernetes.cache.KubernetesResources;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+
+public class KubernetesListIteratorTest {
+
+    @Test
+    public void followsContinueTokens() throws Exception {
+        StubListIterator pods = new StubListIterator(
+                "{\"kind\":\"PodList\",\"metadata\":{\"continue\":\"p2\"},\"items\":[" + pod("a") + "," + pod("b") + "]}",
+                // the metadata may also come after the items
+                "{\"kind\":\"PodList\",\"items\":[" + pod("c") + "],\"metadata\":{\"continue\":\"p3\"}}",
+                "{\"kind\":\"PodList\",\"metadata\":{\"resourceVersion\":\"12\"},\"items\":[" + pod("d") + "]}");
+
+        assertEquals("[a, b, c, d]", names(pods).toString());
+        assertEquals(3, pods.getPages());
+        assertEquals("[null, p2, p3]", pods.tokens.toString());
+    }
+
+    @Test
+    public void pagesAreRequestedLazily() throws Exception {
+        StubListIterator pods = new StubListIterator(
+                "{\"metadata\":{\"continue\":\"p2\"},\"items\":[" + pod("a") + "]}",
+                "{\"metadata\":{},\"items\":[" + pod("b") + "]}");
+
+        assertEquals(0, pods.getPages());
+        assertEquals("a", pods.next().getMetadata().getName());
+        assertEquals(1, pods.getPages());
+        pods.close();
+        assertFalse(pods.hasNext());
+        assertEquals(1, pods.getPages());
+    }
+
+    @Test
+    public void emptyList() throws Exception {
+        StubListIterator pods = new StubListIterator("{\"kind\":\"PodList\",\"metadata\":{},\"items\":[]}");
+        assertFalse(pods.hasNext());
+
+        pods = new StubListIterator("{\"kind\":\"PodList\",\"metadata\":{}}");
+        assertFalse(pods.hasNext());
+        assertNull(pods.tokens.get(0));
+    }
+
+    @Test
+    public void listUrls() throws Exception {
+        DefaultKubernetesClient client = new DefaultKubernetesClient(new ConfigBuilder()
+                .withMasterUrl("https://localhost:8443").withNamespace("default").build());
+        try {
+            assertEquals("https://localhost:8443/api/v1/namespaces/test/pods?labelSelector=app%3Dweb",
+                    KubernetesResources.listUrl(client, KubernetesCategory.PODS, "test",
+                            Collections.singletonMap("app", "web")));
+            assertEquals("https://localhost:8443/api/v1/namespaces/default/services",
+                    KubernetesResources.listUrl(client, KubernetesCategory.SERVICES, null, null));
+            assertEquals("https://localhost:8443/api/v1/nodes",
+                    KubernetesResources.listUrl(client, KubernetesCategory.NODES, "test", null));
+        } finally {
+            client.close();
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void pageSizeMustBePositive() throws Exception {
+        new KubernetesListIterator<Pod>(null, "http://localhost/api/v1/pods", Pod.class, 0);
+    }
+
+    private static List<String> names(KubernetesListIterator<Pod> pods) {
+        List<String> names = new ArrayList<String>();
+        while (pods.hasNext()) {
+            names.add(pods.next().getMetadata().getName());
+        }
+        return names;
+    }
+
+    private static String pod(String name) {
+        return "{\"kind\":\"Pod\",\"metadata\":{\"name\":\"" + name + "\",\"namespace\":\"default\"}}";
+    }
+
+    private static final class StubListIterator extends KubernetesListIterator<Pod> {
+
+        private final String[] pages;
+        private final List<String> tokens = new ArrayList<String>();
+
+        private StubListIterator(String... pages) {
+            super(null, "http://localhost/api/v1/pods", Pod.class, 2);
+            this.pages = pages;
+        }
+
+        @Override
+        protected InputStream openPage(String continueToken) throws IOException {
+            tokens.add(continueToken);
+            return new ByteArrayInputStream(pages[tokens.size() - 1].getBytes("UTF-8"));
+        }
+    }
+}
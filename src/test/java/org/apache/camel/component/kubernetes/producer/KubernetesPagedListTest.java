@@ -0,0 +1,106 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.component.kubernetes.producer;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import io.fabric8.kubernetes.api.model.Pod;
+
+import org.apache.camel.Exchange;
+import org.apache.camel.component.kubernetes.KubernetesConstants;
+import org.apache.camel.component.kubernetes.KubernetesEndpoint;
+import org.apache.camel.component.kubernetes.KubernetesMockServerTestSupport;
+import org.apache.camel.impl.DefaultExchange;
+import org.apache.camel.util.ServiceHelper;
+import org.junit.Test;
+
+public class KubernetesPagedListTest extends KubernetesMockServerTestSupport {
+
+    private AbstractKubernetesProducer producer;
+
+    @Override
+    public void setUp() throws Exception {
+        super.setUp();
+        server.addPods("default", 3000, 10, Collections.singletonMap("app", "paged"));
+    }
+
+    @Override
+    public void tearDown() throws Exception {
+        ServiceHelper.stopService(producer);
+        super.tearDown();
+    }
+
+    @Test(timeout = 60000)
+    @SuppressWarnings("unchecked")
+    public void slowReaderDoesNotDelayAGet() throws Exception {
+        KubernetesEndpoint endpoint = context.getEndpoint(kubernetesUri("category=pods&listPageSize=2000"),
+                KubernetesEndpoint.class);
+        producer = (AbstractKubernetesProducer) endpoint.createProducer();
+        ServiceHelper.startService(producer);
+
+        // pages far larger than any socket buffer, of which only the first pod is read for now,
+        // on more connections than the client has I/O threads
+        List<Iterator<Pod>> readers = new ArrayList<Iterator<Pod>>();
+        for (int i = 0; i < Runtime.getRuntime().availableProcessors() * 2 + 1; i++) {
+            Iterator<Pod> pods = process(KubernetesOperations.LIST_PODS_OPERATION, null).getOut().getBody(Iterator.class);
+            assertNotNull(pods.next());
+            readers.add(pods);
+        }
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<Pod> get = executor.submit(new Callable<Pod>() {
+                @Override
+                public Pod call() throws Exception {
+                    return process(KubernetesOperations.GET_POD_OPERATION, "pod-2999").getOut().getBody(Pod.class);
+                }
+            });
+            assertEquals("pod-2999", get.get(5, TimeUnit.SECONDS).getMetadata().getName());
+        } finally {
+            executor.shutdownNow();
+        }
+
+        for (Iterator<Pod> pods : readers) {
+            int count = 1;
+            while (pods.hasNext()) {
+                pods.next();
+                count++;
+            }
+            assertEquals(3000, count);
+        }
+    }
+
+    private Exchange process(String operation, String name) throws Exception {
+        Exchange exchange = new DefaultExchange(context);
+        exchange.getIn().setHeader(KubernetesConstants.KUBERNETES_OPERATION, operation);
+        exchange.getIn().setHeader(KubernetesConstants.KUBERNETES_NAMESPACE_NAME, "default");
+        exchange.getIn().setHeader(KubernetesConstants.KUBERNETES_POD_NAME, name);
+        producer.process(exchange);
+        if (exchange.getException() != null) {
+            throw exchange.getException();
+        }
+        return exchange;
+    }
+}
@@ -0,0 +1,181 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.component.kubernetes.producer;
+
+import java.util.concurrent.TimeUnit;
+
+import org.apache.camel.CamelContext;
+import org.apache.camel.Exchange;
+import org.apache.camel.component.kubernetes.KubernetesConstants;
+import org.apache.camel.component.kubernetes.KubernetesEndpoint;
+import org.apache.camel.impl.DefaultCamelContext;
+import org.apache.camel.util.ObjectHelper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the per-exchange cost of picking the operation of a producer:
+ * <tt>legacy</tt> reads the configuration and the header and switches on the
+ * name for every exchange, as the producers used to, <tt>precomputed</tt>
+ * goes through {@link AbstractKubernetesProducer#doProcess(Exchange)}.
+ * The operations only read their headers, so nothing but the dispatch is
+ * measured.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class KubernetesProducerDispatchBenchmark {
+
+    /**
+     * Whether the operation is given on the endpoint or in a header
+     */
+    @Param({"endpoint", "header"})
+    public String operationFrom;
+
+    private CamelContext context;
+    private PodsProducer producer;
+    private Exchange exchange;
+
+    @Setup
+    public void setUp() throws Exception {
+        context = new DefaultCamelContext();
+        context.start();
+        String uri = "kubernetes:http://localhost:8080?category=pods&synchronous=true";
+        if ("endpoint".equals(operationFrom)) {
+            uri += "&operation=" + KubernetesOperations.GET_POD_OPERATION;
+        }
+        producer = new PodsProducer(context.getEndpoint(uri, KubernetesEndpoint.class));
+        producer.start();
+        exchange = producer.getEndpoint().createExchange();
+        exchange.getIn().setHeader(KubernetesConstants.KUBERNETES_OPERATION, KubernetesOperations.GET_POD_OPERATION);
+        exchange.getIn().setHeader(KubernetesConstants.KUBERNETES_NAMESPACE_NAME, "default");
+        exchange.getIn().setHeader(KubernetesConstants.KUBERNETES_POD_NAME, "pod");
+    }
+
+    @TearDown
+    public void tearDown() throws Exception {
+        producer.stop();
+        context.stop();
+    }
+
+    @Benchmark
+    public Object legacy() throws Exception {
+        producer.legacyProcess(exchange);
+        return exchange.getOut().getBody();
+    }
+
+    @Benchmark
+    public Object precomputed() throws Exception {
+        producer.doProcess(exchange);
+        return exchange.getOut().getBody();
+    }
+
+    static final class PodsProducer extends AbstractKubernetesProducer {
+
+        PodsProducer(KubernetesEndpoint endpoint) {
+            super(endpoint);
+        }
+
+        void legacyProcess(Exchange exchange) throws Exception {
+            String operation;
+
+            if (ObjectHelper.isEmpty(getEndpoint().getKubernetesConfiguration()
+                    .getOperation())) {
+                operation = exchange.getIn().getHeader(
+                        KubernetesConstants.KUBERNETES_OPERATION, String.class);
+            } else {
+                operation = getEndpoint().getKubernetesConfiguration()
+                        .getOperation();
+            }
+
+            switch (operation) {
+
+            case KubernetesOperations.LIST_PODS_OPERATION:
+                doList(exchange, operation);
+                break;
+
+            case KubernetesOperations.LIST_PODS_BY_LABELS_OPERATION:
+                doList(exchange, operation);
+                break;
+
+            case KubernetesOperations.GET_POD_OPERATION:
+                doGetPod(exchange, operation);
+                break;
+
+            case KubernetesOperations.CREATE_POD_OPERATION:
+                doGetPod(exchange, operation);
+                break;
+
+            case KubernetesOperations.DELETE_POD_OPERATION:
+                doGetPod(exchange, operation);
+                break;
+
+            default:
+                throw new IllegalArgumentException("Unsupported operation "
+                        + operation);
+            }
+        }
+
+        @Override
+        protected Operation resolveOperation(String operation) {
+            switch (operation) {
+            case KubernetesOperations.LIST_PODS_OPERATION:
+            case KubernetesOperations.LIST_PODS_BY_LABELS_OPERATION:
+                return new Operation() {
+                    @Override
+                    public void execute(Exchange exchange, String operation) throws Exception {
+                        doList(exchange, operation);
+                    }
+                };
+            case KubernetesOperations.GET_POD_OPERATION:
+            case KubernetesOperations.CREATE_POD_OPERATION:
+            case KubernetesOperations.DELETE_POD_OPERATION:
+                return new Operation() {
+                    @Override
+                    public void execute(Exchange exchange, String operation) throws Exception {
+                        doGetPod(exchange, operation);
+                    }
+                };
+            default:
+                return null;
+            }
+        }
+
+        private void doList(Exchange exchange, String operation) {
+            exchange.getOut().setBody(operation);
+        }
+
+        private void doGetPod(Exchange exchange, String operation) {
+            String podName = exchange.getIn().getHeader(KubernetesConstants.KUBERNETES_POD_NAME, String.class);
+            String namespaceName = exchange.getIn().getHeader(KubernetesConstants.KUBERNETES_NAMESPACE_NAME, String.class);
+            exchange.getOut().setBody(namespaceName != null ? podName : null);
+        }
+    }
+}
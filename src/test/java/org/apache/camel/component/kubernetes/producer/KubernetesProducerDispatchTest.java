@@ -0,0 +1,145 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.component.kubernetes.producer;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.camel.CamelContext;
+import org.apache.camel.Exchange;
+import org.apache.camel.component.kubernetes.KubernetesConstants;
+import org.apache.camel.component.kubernetes.KubernetesEndpoint;
+import org.apache.camel.impl.DefaultCamelContext;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class KubernetesProducerDispatchTest {
+
+    private CamelContext context;
+
+    @Before
+    public void setUp() throws Exception {
+        context = new DefaultCamelContext();
+        context.start();
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        context.stop();
+    }
+
+    @Test
+    public void endpointOperationIsResolvedOnceAtStart() throws Exception {
+        ResolvingProducer producer = new ResolvingProducer(endpoint("&operation=listPods"));
+        producer.start();
+        try {
+            assertEquals(1, producer.resolved.size());
+            for (int i = 0; i < 3; i++) {
+                Exchange exchange = producer.getEndpoint().createExchange();
+                // the header does not override the operation of the endpoint
+                exchange.getIn().setHeader(KubernetesConstants.KUBERNETES_OPERATION, "getPod");
+                producer.process(exchange);
+                assertEquals("listPods", exchange.getOut().getBody());
+            }
+            assertEquals(1, producer.resolved.size());
+        } finally {
+            producer.stop();
+        }
+    }
+
+    @Test
+    public void headerOperationIsResolvedOncePerName() throws Exception {
+        ResolvingProducer producer = new ResolvingProducer(endpoint(""));
+        producer.start();
+        try {
+            for (String operation : new String[] {"listPods", "getPod", "listPods", "getPod"}) {
+                Exchange exchange = producer.getEndpoint().createExchange();
+                exchange.getIn().setHeader(KubernetesConstants.KUBERNETES_OPERATION, operation);
+                producer.process(exchange);
+                assertEquals(operation, exchange.getOut().getBody());
+            }
+            assertEquals(2, producer.resolved.size());
+        } finally {
+            producer.stop();
+        }
+    }
+
+    @Test
+    public void unsupportedHeaderOperationFailsExchange() throws Exception {
+        ResolvingProducer producer = new ResolvingProducer(endpoint(""));
+        producer.start();
+        try {
+            Exchange exchange = producer.getEndpoint().createExchange();
+            exchange.getIn().setHeader(KubernetesConstants.KUBERNETES_OPERATION, "deletePod");
+            producer.process(exchange);
+            assertTrue(exchange.getException() instanceof IllegalArgumentException);
+
+            exchange = producer.getEndpoint().createExchange();
+            producer.process(exchange);
+            assertTrue(exchange.getException() instanceof IllegalArgumentException);
+        } finally {
+            producer.stop();
+        }
+    }
+
+    @Test
+    public void unsupportedEndpointOperationFailsStart() throws Exception {
+        ResolvingProducer producer = new ResolvingProducer(endpoint("&operation=deletePod"));
+        try {
+            producer.start();
+            fail("Should not start with an unsupported operation");
+        } catch (IllegalArgumentException e) {
+            assertEquals("Unsupported operation deletePod", e.getMessage());
+        }
+    }
+
+    private KubernetesEndpoint endpoint(String options) {
+        return context.getEndpoint("kubernetes:http://localhost:8080?category=pods&synchronous=true" + options,
+                KubernetesEndpoint.class);
+    }
+
+    private static final class ResolvingProducer extends AbstractKubernetesProducer {
+
+        private final List<String> resolved = new ArrayList<String>();
+
+        private ResolvingProducer(KubernetesEndpoint endpoint) {
+            super(endpoint);
+        }
+
+        @Override
+        protected Operation resolveOperation(String operation) {
+            switch (operation) {
+            case KubernetesOperations.LIST_PODS_OPERATION:
+            case KubernetesOperations.GET_POD_OPERATION:
+                resolved.add(operation);
+                return new Operation() {
+                    @Override
+                    public void execute(Exchange exchange, String operation) throws Exception {
+                        exchange.getOut().setBody(operation);
+                    }
+                };
+            default:
+                return null;
+            }
+        }
+    }
+}
@@ -0,0 +1,102 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.component.kubernetes.producer;
+
+import java.util.Collections;
+
+import io.fabric8.kubernetes.api.model.Pod;
+
+import org.apache.camel.Exchange;
+import org.apache.camel.component.kubernetes.KubernetesConstants;
+import org.apache.camel.component.kubernetes.KubernetesEndpoint;
+import org.apache.camel.component.kubernetes.KubernetesMockServerTestSupport;
+import org.apache.camel.impl.DefaultExchange;
+import org.apache.camel.util.ServiceHelper;
+import org.junit.Test;
+
+public class KubernetesReadCacheProducerTest extends KubernetesMockServerTestSupport {
+
+    private AbstractKubernetesProducer producer;
+
+    @Override
+    public void setUp() throws Exception {
+        super.setUp();
+        server.addPods("default", 3, 1, Collections.<String, String>emptyMap());
+    }
+
+    @Override
+    public void tearDown() throws Exception {
+        ServiceHelper.stopService(producer);
+        super.tearDown();
+    }
+
+    @Test
+    public void getFromTheCache() throws Exception {
+        producer = producer("category=pods&readCacheSize=10");
+        long requests = server.getRequestCount();
+        for (int i = 0; i < 5; i++) {
+            Pod pod = getPod("pod-1");
+            assertEquals("pod-1", pod.getMetadata().getName());
+        }
+        assertEquals(1, server.getRequestCount() - requests);
+        assertEquals(4, producer.getReadCacheHits());
+        assertEquals(1, producer.getReadCacheMisses());
+        assertEquals(1, producer.getReadCacheSize());
+    }
+
+    @Test
+    public void getAgainOnceExpired() throws Exception {
+        producer = producer("category=pods&readCacheSize=10&readCacheTtl=100");
+        long requests = server.getRequestCount();
+        getPod("pod-1");
+        Thread.sleep(150);
+        getPod("pod-1");
+        assertEquals(2, server.getRequestCount() - requests);
+    }
+
+    @Test
+    public void writeClearsTheCache() throws Exception {
+        producer = producer("category=pods&readCacheSize=10");
+        assertNotNull(getPod("pod-1"));
+        process(KubernetesOperations.DELETE_POD_OPERATION, "pod-1");
+        assertEquals(0, producer.getReadCacheSize());
+        assertNull(getPod("pod-1"));
+    }
+
+    private AbstractKubernetesProducer producer(String options) throws Exception {
+        KubernetesEndpoint endpoint = context.getEndpoint(kubernetesUri(options), KubernetesEndpoint.class);
+        AbstractKubernetesProducer created = (AbstractKubernetesProducer) endpoint.createProducer();
+        ServiceHelper.startService(created);
+        return created;
+    }
+
+    private Pod getPod(String name) throws Exception {
+        return process(KubernetesOperations.GET_POD_OPERATION, name).getOut().getBody(Pod.class);
+    }
+
+    private Exchange process(String operation, String name) throws Exception {
+        Exchange exchange = new DefaultExchange(context);
+        exchange.getIn().setHeader(KubernetesConstants.KUBERNETES_OPERATION, operation);
+        exchange.getIn().setHeader(KubernetesConstants.KUBERNETES_NAMESPACE_NAME, "default");
+        exchange.getIn().setHeader(KubernetesConstants.KUBERNETES_POD_NAME, name);
+        producer.process(exchange);
+        if (exchange.getException() != null) {
+            throw exchange.getException();
+        }
+        return exchange;
+    }
+}
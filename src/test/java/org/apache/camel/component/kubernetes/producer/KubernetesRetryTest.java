@@ -0,0 +1,190 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.component.kubernetes.producer;
+
+import java.io.IOException;
+import java.net.ConnectException;
+import java.util.Collections;
+
+import io.fabric8.kubernetes.api.model.Pod;
+import io.fabric8.kubernetes.api.model.PodSpec;
+import io.fabric8.kubernetes.api.model.PodSpecBuilder;
+import io.fabric8.kubernetes.api.model.Status;
+import io.fabric8.kubernetes.client.KubernetesClientException;
+
+import org.apache.camel.Exchange;
+import org.apache.camel.component.kubernetes.KubernetesConstants;
+import org.apache.camel.component.kubernetes.KubernetesEndpoint;
+import org.apache.camel.component.kubernetes.KubernetesMockServerTestSupport;
+import org.apache.camel.impl.DefaultExchange;
+import org.apache.camel.util.ServiceHelper;
+import org.junit.Test;
+
+public class KubernetesRetryTest extends KubernetesMockServerTestSupport {
+
+    private AbstractKubernetesProducer producer;
+
+    @Override
+    public void setUp() throws Exception {
+        super.setUp();
+        server.addPods("default", 2, 1, Collections.<String, String>emptyMap());
+        KubernetesEndpoint endpoint = context.getEndpoint(
+                kubernetesUri("category=pods&maxRetries=3&retryInitialDelay=10&retryMaxDelay=2000"), KubernetesEndpoint.class);
+        producer = (AbstractKubernetesProducer) endpoint.createProducer();
+        ServiceHelper.startService(producer);
+    }
+
+    @Override
+    public void tearDown() throws Exception {
+        ServiceHelper.stopService(producer);
+        super.tearDown();
+    }
+
+    @Test
+    public void getRetriedOnServerErrors() throws Exception {
+        server.failNext(2, 503, null);
+        long requests = server.getRequestCount();
+
+        Exchange exchange = process(KubernetesOperations.GET_POD_OPERATION, "pod-1");
+
+        assertNull(exchange.getException());
+        assertEquals("pod-1", exchange.getOut().getBody(Pod.class).getMetadata().getName());
+        assertEquals(3, server.getRequestCount() - requests);
+        assertEquals(2, producer.getRetries());
+    }
+
+    @Test
+    public void attemptsAreCapped() throws Exception {
+        server.failNext(10, 503, null);
+        long requests = server.getRequestCount();
+
+        Exchange exchange = process(KubernetesOperations.GET_POD_OPERATION, "pod-1");
+
+        KubernetesClientException failure = assertIsInstanceOf(KubernetesClientException.class, exchange.getException());
+        assertEquals(503, failure.getCode());
+        assertEquals(4, server.getRequestCount() - requests);
+    }
+
+    @Test
+    public void retryAfterIsHonoured() throws Exception {
+        server.failNext(1, 429, 1);
+        long start = System.currentTimeMillis();
+
+        Exchange exchange = process(KubernetesOperations.GET_POD_OPERATION, "pod-1");
+
+        assertNull(exchange.getException());
+        assertTrue(System.currentTimeMillis() - start >= 1000);
+    }
+
+    @Test
+    public void retryAfterHeaderIsHonoured() throws Exception {
+        server.failNextWithRetryAfterHeader(1, 429, 1);
+        long start = System.currentTimeMillis();
+
+        Exchange exchange = process(KubernetesOperations.GET_POD_OPERATION, "pod-1");
+
+        assertNull(exchange.getException());
+        assertTrue(System.currentTimeMillis() - start >= 1000);
+    }
+
+    @Test
+    public void retryAfterBeyondTheMaxDelayFailsAtOnce() throws Exception {
+        server.failNextWithRetryAfterHeader(1, 429, 3600);
+        long requests = server.getRequestCount();
+        long start = System.currentTimeMillis();
+
+        Exchange exchange = process(KubernetesOperations.GET_POD_OPERATION, "pod-1");
+
+        KubernetesClientException failure = assertIsInstanceOf(KubernetesClientException.class, exchange.getException());
+        assertEquals(429, failure.getCode());
+        assertEquals(1, server.getRequestCount() - requests);
+        assertTrue(System.currentTimeMillis() - start < 2000);
+    }
+
+    @Test
+    public void createNotRetriedOnServerErrors() throws Exception {
+        server.failNext(1, 500, null);
+        long requests = server.getRequestCount();
+
+        Exchange exchange = process(KubernetesOperations.CREATE_POD_OPERATION, "created");
+
+        KubernetesClientException failure = assertIsInstanceOf(KubernetesClientException.class, exchange.getException());
+        assertEquals(500, failure.getCode());
+        assertEquals(1, server.getRequestCount() - requests);
+        assertNull(server.get("pods", "default", "created"));
+    }
+
+    @Test
+    public void createRetriedWhenThrottled() throws Exception {
+        server.failNext(1, 429, null);
+
+        Exchange exchange = process(KubernetesOperations.CREATE_POD_OPERATION, "created");
+
+        assertNull(exchange.getException());
+        assertNotNull(server.get("pods", "default", "created"));
+        assertEquals(1, producer.getRetries());
+    }
+
+    @Test
+    public void getRetriedOnDroppedConnections() throws Exception {
+        server.resetNext(1);
+
+        Exchange exchange = process(KubernetesOperations.GET_POD_OPERATION, "pod-1");
+
+        assertNull(exchange.getException());
+        assertEquals("pod-1", exchange.getOut().getBody(Pod.class).getMetadata().getName());
+    }
+
+    @Test
+    public void errorsAreClassified() throws Exception {
+        KubernetesClientException refused = new KubernetesClientException("refused", new ConnectException());
+        KubernetesClientException reset = new KubernetesClientException("reset", new IOException("Connection reset"));
+        assertTrue(KubernetesRetry.isRetryable(refused, false));
+        assertTrue(KubernetesRetry.isRetryable(reset, true));
+        assertFalse(KubernetesRetry.isRetryable(reset, false));
+        assertTrue(KubernetesRetry.isRetryable(failure(429), false));
+        assertTrue(KubernetesRetry.isRetryable(failure(502), true));
+        assertFalse(KubernetesRetry.isRetryable(failure(502), false));
+        assertFalse(KubernetesRetry.isRetryable(failure(404), true));
+        assertFalse(KubernetesRetry.isRetryable(failure(409), true));
+        assertFalse(KubernetesRetry.isRetryable(new IllegalArgumentException(), true));
+
+        KubernetesRetry retry = new KubernetesRetry(3, 100, 1000);
+        for (int attempt = 0; attempt < 8; attempt++) {
+            long delay = retry.delay(attempt, reset);
+            long backoff = Math.min(1000, 100 << attempt);
+            assertTrue(delay >= backoff / 2 && delay <= backoff);
+        }
+    }
+
+    private static KubernetesClientException failure(int code) {
+        Status status = new Status();
+        status.setCode(code);
+        return new KubernetesClientException("failed", code, status);
+    }
+
+    private Exchange process(String operation, String name) throws Exception {
+        Exchange exchange = new DefaultExchange(context);
+        exchange.getIn().setHeader(KubernetesConstants.KUBERNETES_OPERATION, operation);
+        exchange.getIn().setHeader(KubernetesConstants.KUBERNETES_NAMESPACE_NAME, "default");
+        exchange.getIn().setHeader(KubernetesConstants.KUBERNETES_POD_NAME, name);
+        PodSpec spec = new PodSpecBuilder().addNewContainer().withName("app").withImage("busybox").endContainer().build();
+        exchange.getIn().setHeader(KubernetesConstants.KUBERNETES_POD_SPEC, spec);
+        producer.process(exchange);
+        return exchange;
+    }
+}